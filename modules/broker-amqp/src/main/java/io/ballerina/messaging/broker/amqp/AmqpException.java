@@ -28,4 +28,8 @@ public class AmqpException extends Exception {
         super(message);
     }
 
+    public AmqpException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
 }
@@ -34,8 +34,22 @@ public class AmqpServerConfiguration {
 
     private int socketBufferSize = 1048576;
 
+    private int heartbeat = 60;
+
+    private long channelOutboundBytesLimit = 4 * 1024 * 1024;
+
+    private long largeMessageThreshold = 10 * 1024 * 1024;
+
+    private String largeMessageSpoolDirectory = "";
+
     private FlowDetails channelFlow = new FlowDetails();
 
+    private ByteFlowDetails connectionFlow = new ByteFlowDetails(64 * 1024 * 1024, 128 * 1024 * 1024);
+
+    private ByteFlowDetails brokerFlow = new ByteFlowDetails(256 * 1024 * 1024, 512 * 1024 * 1024);
+
+    private TransportDetails transport = new TransportDetails();
+
     private NonSecureServerDetails plain = new NonSecureServerDetails();
 
     private SslServerDetails ssl = new SslServerDetails();
@@ -73,6 +87,50 @@ public class AmqpServerConfiguration {
         this.socketBufferSize = socketBufferSize;
     }
 
+    /**
+     * Getter for heartbeat.
+     */
+    public int getHeartbeat() {
+        return heartbeat;
+    }
+
+    public void setHeartbeat(int heartbeat) {
+        this.heartbeat = heartbeat;
+    }
+
+    /**
+     * Getter for channelOutboundBytesLimit.
+     */
+    public long getChannelOutboundBytesLimit() {
+        return channelOutboundBytesLimit;
+    }
+
+    public void setChannelOutboundBytesLimit(long channelOutboundBytesLimit) {
+        this.channelOutboundBytesLimit = channelOutboundBytesLimit;
+    }
+
+    /**
+     * Getter for largeMessageThreshold.
+     */
+    public long getLargeMessageThreshold() {
+        return largeMessageThreshold;
+    }
+
+    public void setLargeMessageThreshold(long largeMessageThreshold) {
+        this.largeMessageThreshold = largeMessageThreshold;
+    }
+
+    /**
+     * Getter for largeMessageSpoolDirectory.
+     */
+    public String getLargeMessageSpoolDirectory() {
+        return largeMessageSpoolDirectory;
+    }
+
+    public void setLargeMessageSpoolDirectory(String largeMessageSpoolDirectory) {
+        this.largeMessageSpoolDirectory = largeMessageSpoolDirectory;
+    }
+
     /**
      * Getter for channelFlow.
      */
@@ -84,6 +142,39 @@ public class AmqpServerConfiguration {
         this.channelFlow = channelFlow;
     }
 
+    /**
+     * Getter for connectionFlow.
+     */
+    public ByteFlowDetails getConnectionFlow() {
+        return connectionFlow;
+    }
+
+    public void setConnectionFlow(ByteFlowDetails connectionFlow) {
+        this.connectionFlow = connectionFlow;
+    }
+
+    /**
+     * Getter for brokerFlow.
+     */
+    public ByteFlowDetails getBrokerFlow() {
+        return brokerFlow;
+    }
+
+    public void setBrokerFlow(ByteFlowDetails brokerFlow) {
+        this.brokerFlow = brokerFlow;
+    }
+
+    /**
+     * Getter for transport.
+     */
+    public TransportDetails getTransport() {
+        return transport;
+    }
+
+    public void setTransport(TransportDetails transport) {
+        this.transport = transport;
+    }
+
     /**
      * Getter for tcp.
      */
@@ -114,6 +205,10 @@ public class AmqpServerConfiguration {
 
         private int highLimit = 1000;
 
+        private long lowLimitBytes = 32 * 1024 * 1024;
+
+        private long highLimitBytes = 64 * 1024 * 1024;
+
         /**
          * Getter for lowLimit.
          */
@@ -135,6 +230,190 @@ public class AmqpServerConfiguration {
         public void setHighLimit(int highLimit) {
             this.highLimit = highLimit;
         }
+
+        /**
+         * Getter for lowLimitBytes.
+         */
+        public long getLowLimitBytes() {
+            return lowLimitBytes;
+        }
+
+        public void setLowLimitBytes(long lowLimitBytes) {
+            this.lowLimitBytes = lowLimitBytes;
+        }
+
+        /**
+         * Getter for highLimitBytes.
+         */
+        public long getHighLimitBytes() {
+            return highLimitBytes;
+        }
+
+        public void setHighLimitBytes(long highLimitBytes) {
+            this.highLimitBytes = highLimitBytes;
+        }
+    }
+
+    /**
+     * Contains limits, in bytes of message content held in memory, used to pause and resume reading from publishers.
+     */
+    public static class ByteFlowDetails {
+        private long lowLimit;
+
+        private long highLimit;
+
+        public ByteFlowDetails() {
+            this(0, Long.MAX_VALUE);
+        }
+
+        ByteFlowDetails(long lowLimit, long highLimit) {
+            this.lowLimit = lowLimit;
+            this.highLimit = highLimit;
+        }
+
+        /**
+         * Getter for lowLimit.
+         */
+        public long getLowLimit() {
+            return lowLimit;
+        }
+
+        public void setLowLimit(long lowLimit) {
+            this.lowLimit = lowLimit;
+        }
+
+        /**
+         * Getter for highLimit.
+         */
+        public long getHighLimit() {
+            return highLimit;
+        }
+
+        public void setHighLimit(long highLimit) {
+            this.highLimit = highLimit;
+        }
+    }
+
+    /**
+     * Contains Netty event loop and socket level configurations used by the server sockets.
+     */
+    public static class TransportDetails {
+        private boolean nativeTransport = true;
+
+        private int bossThreads = 1;
+
+        private int workerThreads = 0;
+
+        private int backlog = 128;
+
+        private boolean tcpNoDelay = true;
+
+        private int writeBufferLowWaterMark = 32768;
+
+        private int writeBufferHighWaterMark = 65536;
+
+        private boolean pooledAllocator = true;
+
+        private boolean flyweightDecoding = true;
+
+        /**
+         * Getter for nativeTransport.
+         */
+        public boolean isNativeTransport() {
+            return nativeTransport;
+        }
+
+        public void setNativeTransport(boolean nativeTransport) {
+            this.nativeTransport = nativeTransport;
+        }
+
+        /**
+         * Getter for bossThreads.
+         */
+        public int getBossThreads() {
+            return bossThreads;
+        }
+
+        public void setBossThreads(int bossThreads) {
+            this.bossThreads = bossThreads;
+        }
+
+        /**
+         * Getter for workerThreads. A value of 0 lets Netty decide the thread count.
+         */
+        public int getWorkerThreads() {
+            return workerThreads;
+        }
+
+        public void setWorkerThreads(int workerThreads) {
+            this.workerThreads = workerThreads;
+        }
+
+        /**
+         * Getter for backlog.
+         */
+        public int getBacklog() {
+            return backlog;
+        }
+
+        public void setBacklog(int backlog) {
+            this.backlog = backlog;
+        }
+
+        /**
+         * Getter for tcpNoDelay.
+         */
+        public boolean isTcpNoDelay() {
+            return tcpNoDelay;
+        }
+
+        public void setTcpNoDelay(boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+        }
+
+        /**
+         * Getter for writeBufferLowWaterMark.
+         */
+        public int getWriteBufferLowWaterMark() {
+            return writeBufferLowWaterMark;
+        }
+
+        public void setWriteBufferLowWaterMark(int writeBufferLowWaterMark) {
+            this.writeBufferLowWaterMark = writeBufferLowWaterMark;
+        }
+
+        /**
+         * Getter for writeBufferHighWaterMark.
+         */
+        public int getWriteBufferHighWaterMark() {
+            return writeBufferHighWaterMark;
+        }
+
+        public void setWriteBufferHighWaterMark(int writeBufferHighWaterMark) {
+            this.writeBufferHighWaterMark = writeBufferHighWaterMark;
+        }
+
+        /**
+         * Getter for pooledAllocator.
+         */
+        public boolean isPooledAllocator() {
+            return pooledAllocator;
+        }
+
+        public void setPooledAllocator(boolean pooledAllocator) {
+            this.pooledAllocator = pooledAllocator;
+        }
+
+        /**
+         * Getter for flyweightDecoding.
+         */
+        public boolean isFlyweightDecoding() {
+            return flyweightDecoding;
+        }
+
+        public void setFlyweightDecoding(boolean flyweightDecoding) {
+            this.flyweightDecoding = flyweightDecoding;
+        }
     }
 
     /**
@@ -23,6 +23,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannelFactory;
 import io.ballerina.messaging.broker.amqp.codec.auth.AuthenticationStrategy;
 import io.ballerina.messaging.broker.amqp.codec.auth.AuthenticationStrategyFactory;
+import io.ballerina.messaging.broker.amqp.codec.flow.BrokerFlowManager;
 import io.ballerina.messaging.broker.amqp.codec.frames.AmqMethodRegistryFactory;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpDecoder;
@@ -48,11 +49,19 @@ import io.ballerina.messaging.broker.core.DefaultBrokerFactory;
 import io.ballerina.messaging.broker.core.SecureBrokerFactory;
 import io.ballerina.messaging.broker.rest.BrokerServiceRunner;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
@@ -88,10 +97,12 @@ public class Server {
     private final AmqpMetricManager metricManager;
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
+    private Class<? extends ServerChannel> serverChannelClass;
     private EventExecutorGroup ioExecutors;
     private Channel plainServerChannel;
     private Channel sslServerChannel;
     private AmqpConnectionManager connectionManager;
+    private BrokerFlowManager brokerFlowManager;
 
     /**
      * The {@link HaStrategy} for which the HA listener is registered.
@@ -131,8 +142,7 @@ public class Server {
             brokerFactory = new DefaultBrokerFactory(startupContext);
         }
 
-        bossGroup = new NioEventLoopGroup();
-        workerGroup = new NioEventLoopGroup();
+        initEventLoopGroups(configuration.getTransport());
         ThreadFactory blockingTaskThreadFactory = new ThreadFactoryBuilder().setNameFormat("NettyBlockingTaskThread-%d")
                                                                             .build();
         ioExecutors = new DefaultEventExecutorGroup(BLOCKING_TASK_EXECUTOR_THREADS, blockingTaskThreadFactory);
@@ -150,9 +160,35 @@ public class Server {
                                                             configuration);
         amqMethodRegistryFactory = new AmqMethodRegistryFactory(authenticationStrategy);
         amqpChannelFactory = new AmqpChannelFactory(configuration, metricManager);
+        brokerFlowManager = new BrokerFlowManager(configuration, metricManager);
         initConnectionsRestApi(startupContext);
     }
 
+    /**
+     * Create the boss and worker event loop groups. The native epoll transport is used when it is enabled and
+     * available on the platform, otherwise NIO is used.
+     *
+     * @param transport transport configuration
+     */
+    private void initEventLoopGroups(AmqpServerConfiguration.TransportDetails transport) {
+        ThreadFactory bossThreadFactory = new ThreadFactoryBuilder().setNameFormat("AmqpBossThread-%d").build();
+        ThreadFactory workerThreadFactory = new ThreadFactoryBuilder().setNameFormat("AmqpWorkerThread-%d").build();
+        if (transport.isNativeTransport() && Epoll.isAvailable()) {
+            bossGroup = new EpollEventLoopGroup(transport.getBossThreads(), bossThreadFactory);
+            workerGroup = new EpollEventLoopGroup(transport.getWorkerThreads(), workerThreadFactory);
+            serverChannelClass = EpollServerSocketChannel.class;
+            LOGGER.info("Using native epoll transport for AMQP");
+        } else {
+            if (transport.isNativeTransport()) {
+                LOGGER.info("Native epoll transport is not available. Falling back to NIO transport for AMQP. "
+                                    + "Reason: {}", Epoll.unavailabilityCause().getMessage());
+            }
+            bossGroup = new NioEventLoopGroup(transport.getBossThreads(), bossThreadFactory);
+            workerGroup = new NioEventLoopGroup(transport.getWorkerThreads(), workerThreadFactory);
+            serverChannelClass = NioServerSocketChannel.class;
+        }
+    }
+
     private void shutdownExecutors() {
         LOGGER.info("Shutting down Netty Executors for AMQP transport");
         workerGroup.shutdownGracefully();
@@ -210,9 +246,11 @@ public class Server {
 
         protected void initChannel(SocketChannel socketChannel) {
             socketChannel.pipeline()
-                         .addLast(new AmqpDecoder(amqMethodRegistryFactory.newInstance()))
+                         .addLast(new AmqpDecoder(amqMethodRegistryFactory.newInstance(),
+                                          configuration.getTransport().isFlyweightDecoding()))
                          .addLast(new AmqpEncoder())
-                         .addLast(new AmqpConnectionHandler(metricManager, amqpChannelFactory, connectionManager))
+                         .addLast(new AmqpConnectionHandler(metricManager, amqpChannelFactory, connectionManager,
+                                                              brokerFlowManager))
                          .addLast(ioExecutors, new AmqpMessageWriter())
                          .addLast(ioExecutors, new BlockingTaskHandler());
         }
@@ -231,9 +269,11 @@ public class Server {
         protected void initChannel(SocketChannel socketChannel) {
             socketChannel.pipeline()
                          .addLast(sslHandlerFactory.create())
-                         .addLast(new AmqpDecoder(amqMethodRegistryFactory.newInstance()))
+                         .addLast(new AmqpDecoder(amqMethodRegistryFactory.newInstance(),
+                                          configuration.getTransport().isFlyweightDecoding()))
                          .addLast(new AmqpEncoder())
-                         .addLast(new AmqpConnectionHandler(metricManager, amqpChannelFactory, connectionManager))
+                         .addLast(new AmqpConnectionHandler(metricManager, amqpChannelFactory, connectionManager,
+                                                              brokerFlowManager))
                          .addLast(ioExecutors, new AmqpMessageWriter())
                          .addLast(ioExecutors, new BlockingTaskHandler());
         }
@@ -245,8 +285,11 @@ public class Server {
          */
         private final int socketBufferSize;
 
+        private final AmqpServerConfiguration.TransportDetails transport;
+
         private ServerHelper(AmqpServerConfiguration configurations) {
             this.socketBufferSize = configurations.getSocketBufferSize();
+            this.transport = configurations.getTransport();
         }
 
         public void start() throws InterruptedException, CertificateException, UnrecoverableKeyException,
@@ -265,14 +308,8 @@ public class Server {
             String hostname = configuration.getHostName();
             int port = Integer.parseInt(configuration.getPlain().getPort());
 
-            ServerBootstrap b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup)
-             .channel(NioServerSocketChannel.class)
-             .childHandler(new SocketChannelInitializer(ioExecutors))
-             .option(ChannelOption.SO_BACKLOG, 128)
-             .childOption(ChannelOption.SO_RCVBUF, socketBufferSize)
-             .childOption(ChannelOption.SO_SNDBUF, socketBufferSize)
-             .childOption(ChannelOption.SO_KEEPALIVE, true);
+            ServerBootstrap b = newBootstrap();
+            b.childHandler(new SocketChannelInitializer(ioExecutors));
 
             // Bind and start to accept incoming connections.
             ChannelFuture future = b.bind(hostname, port).sync();
@@ -286,14 +323,8 @@ public class Server {
             String hostname = configuration.getHostName();
             int port = Integer.parseInt(configuration.getSsl().getPort());
 
-            ServerBootstrap b = new ServerBootstrap();
-            b.group(bossGroup, workerGroup)
-             .channel(NioServerSocketChannel.class)
-             .childHandler(new SslSocketChannelInitializer(ioExecutors, new SslHandlerFactory(configuration)))
-             .option(ChannelOption.SO_BACKLOG, 128)
-             .childOption(ChannelOption.SO_RCVBUF, socketBufferSize)
-             .childOption(ChannelOption.SO_SNDBUF, socketBufferSize)
-             .childOption(ChannelOption.SO_KEEPALIVE, true);
+            ServerBootstrap b = newBootstrap();
+            b.childHandler(new SslSocketChannelInitializer(ioExecutors, new SslHandlerFactory(configuration)));
 
             // Bind and start to accept incoming connections.
             ChannelFuture future = b.bind(hostname, port).sync();
@@ -301,6 +332,27 @@ public class Server {
             return future;
         }
 
+        /**
+         * Create a server bootstrap with the configured event loops and socket options applied.
+         */
+        private ServerBootstrap newBootstrap() {
+            ByteBufAllocator allocator = transport.isPooledAllocator()
+                    ? PooledByteBufAllocator.DEFAULT : UnpooledByteBufAllocator.DEFAULT;
+            WriteBufferWaterMark waterMark = new WriteBufferWaterMark(transport.getWriteBufferLowWaterMark(),
+                                                                      transport.getWriteBufferHighWaterMark());
+            ServerBootstrap b = new ServerBootstrap();
+            b.group(bossGroup, workerGroup)
+             .channel(serverChannelClass)
+             .option(ChannelOption.SO_BACKLOG, transport.getBacklog())
+             .option(ChannelOption.ALLOCATOR, allocator)
+             .childOption(ChannelOption.SO_RCVBUF, socketBufferSize)
+             .childOption(ChannelOption.SO_SNDBUF, socketBufferSize)
+             .childOption(ChannelOption.SO_KEEPALIVE, true)
+             .childOption(ChannelOption.TCP_NODELAY, transport.isTcpNoDelay())
+             .childOption(ChannelOption.ALLOCATOR, allocator)
+             .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, waterMark);
+            return b;
+        }
 
         public void shutdown() {
             stop();
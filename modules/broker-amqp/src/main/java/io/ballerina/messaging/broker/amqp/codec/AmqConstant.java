@@ -19,6 +19,8 @@
 
 package io.ballerina.messaging.broker.amqp.codec;
 
+import io.ballerina.messaging.broker.common.data.types.ShortStringPool;
+
 /**
  * Keep constants related to AMQP codec which are shared in many places.
  */
@@ -35,9 +37,30 @@ public class AmqConstant {
      */
     public static final int CHANNEL_CLOSED = 410;
 
+    /**
+     * Largest frame size in bytes offered to clients during connection tuning.
+     */
+    public static final int FRAME_MAX = 65535;
+
+    /**
+     * Smallest frame size in bytes a connection can be tuned to, as defined by the specification.
+     */
+    public static final int FRAME_MIN_SIZE = 4096;
+
+    /**
+     * Highest channel number offered to clients during connection tuning.
+     */
+    public static final int CHANNEL_MAX = 256;
+
     public static final String TRANSPORT_PROPERTY_CHANNEL_ID = "channelId";
     public static final String TRANSPORT_PROPERTY_CONNECTION_ID = "connectionId";
 
+    /**
+     * Canonical exchange names and routing keys shared by all connections. Avoids decoding and encoding the same
+     * names on every publish and delivery.
+     */
+    public static final ShortStringPool NAME_POOL = new ShortStringPool(4096);
+
     private AmqConstant() {
     }
 }
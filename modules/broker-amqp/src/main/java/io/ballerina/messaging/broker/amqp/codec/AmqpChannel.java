@@ -21,10 +21,12 @@ package io.ballerina.messaging.broker.amqp.codec;
 
 import io.ballerina.messaging.broker.amqp.AmqpServerConfiguration;
 import io.ballerina.messaging.broker.amqp.codec.flow.ChannelFlowManager;
+import io.ballerina.messaging.broker.amqp.codec.frames.MethodFrame;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
 import io.ballerina.messaging.broker.amqp.consumer.AckData;
 import io.ballerina.messaging.broker.amqp.consumer.AmqpConsumer;
 import io.ballerina.messaging.broker.amqp.consumer.AmqpDeliverMessage;
+import io.ballerina.messaging.broker.amqp.consumer.AmqpGetMessage;
 import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
 import io.ballerina.messaging.broker.common.ResourceNotFoundException;
 import io.ballerina.messaging.broker.common.ValidationException;
@@ -33,6 +35,7 @@ import io.ballerina.messaging.broker.common.data.types.ShortString;
 import io.ballerina.messaging.broker.core.Broker;
 import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.Consumer;
+import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.transaction.AutoCommitTransaction;
 import io.ballerina.messaging.broker.core.transaction.BrokerTransaction;
@@ -47,15 +50,16 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.transaction.xa.Xid;
 
 /**
@@ -79,6 +83,8 @@ public class AmqpChannel implements AmqpChannelView {
 
     private static final String REQUEUE_FLAG_FIELD_NAME = "requeueFlag";
 
+    private static final String MULTIPLE_FLAG_FIELD_NAME = "multipleFlag";
+
     private final Broker broker;
 
     private final int channelId;
@@ -122,14 +128,30 @@ public class AmqpChannel implements AmqpChannelView {
     private AtomicBoolean flow = new AtomicBoolean(true);
 
     /**
-     * Indicate if unack count is within the prefetch limit.
+     * Limits the unacknowledged deliveries of the channel.
+     */
+    private final PrefetchWindow prefetchWindow = new PrefetchWindow();
+
+    /**
+     * Limits the unacknowledged deliveries of all the channels of the connection.
+     */
+    private final PrefetchWindow connectionPrefetchWindow;
+
+    /**
+     * Maximum bytes of message content handed over to the connection for delivery but not yet written. Consumers of
+     * the channel are not given messages beyond this limit so that the messages stay in the queue.
+     */
+    private final long outboundBytesLimit;
+
+    /**
+     * Bytes of message content handed over to the connection for delivery but not yet written.
      */
-    private AtomicBoolean hasRoom = new AtomicBoolean(true);
+    private final AtomicLong pendingDeliveryBytes = new AtomicLong(0);
 
     /**
-     * List of messages blocked due to flow being disabled.
+     * Number of messages handed over to the connection for delivery but not yet written.
      */
-    private List<AmqpDeliverMessage> deliveryPendingMessages = new ArrayList<>();
+    private final AtomicInteger pendingDeliveryCount = new AtomicInteger(0);
 
     private final TraceField traceChannelIdField;
 
@@ -139,9 +161,15 @@ public class AmqpChannel implements AmqpChannelView {
     private BrokerTransaction transaction;
 
     /**
-     * Max window size.
+     * Tracks publishes to be confirmed. Set once the channel is put into confirm mode.
      */
-    private int prefetchCount;
+    private volatile PublishConfirmTracker confirmTracker;
+
+    /**
+     * Transactional and confirm modes are mutually exclusive. The mode is selected atomically since tx.select
+     * completes on the blocking executor while confirm.select completes on the event loop.
+     */
+    private final AtomicReference<PublishMode> publishMode = new AtomicReference<>(PublishMode.DEFAULT);
 
     /**
      * The time at which the channel was created.
@@ -159,11 +187,19 @@ public class AmqpChannel implements AmqpChannelView {
         this.connection = connection;
         this.consumerMap = new HashMap<>();
         this.transaction = new AutoCommitTransaction(broker);
-        this.messageAggregator = new InMemoryMessageAggregator(transaction);
+        this.messageAggregator = new InMemoryMessageAggregator(transaction,
+                                                               configuration.getLargeMessageThreshold(),
+                                                               configuration.getLargeMessageSpoolDirectory());
         this.flowManager = new ChannelFlowManager(this,
                                                   configuration.getChannelFlow().getLowLimit(),
-                                                  configuration.getChannelFlow().getHighLimit());
+                                                  configuration.getChannelFlow().getHighLimit(),
+                                                  configuration.getChannelFlow().getLowLimitBytes(),
+                                                  configuration.getChannelFlow().getHighLimitBytes(),
+                                                  connection.getFlowManager(),
+                                                  metricManager);
         this.maxRedeliveryCount = configuration.getMaxRedeliveryCount();
+        this.outboundBytesLimit = configuration.getChannelOutboundBytesLimit();
+        this.connectionPrefetchWindow = connection.getPrefetchWindow();
         traceChannelIdField = new TraceField(CHANNEL_ID_FIELD_NAME, channelId);
         this.createdTime = System.currentTimeMillis();
     }
@@ -189,9 +225,9 @@ public class AmqpChannel implements AmqpChannelView {
         broker.bind(queue.toString(), exchange.toString(), routingKey.toString(), arguments);
     }
 
-    public void unbind(ShortString queue, ShortString exchange, ShortString routingKey)
-            throws BrokerException, ValidationException {
-        broker.unbind(queue.toString(), exchange.toString(), routingKey.toString());
+    public void unbind(ShortString queue, ShortString exchange,
+                       ShortString routingKey, FieldTable arguments) throws BrokerException, ValidationException {
+        broker.unbind(queue.toString(), exchange.toString(), routingKey.toString(), arguments);
     }
 
     public AmqpConsumer consume(ShortString queueName, ShortString consumerTag, boolean exclusive,
@@ -207,6 +243,31 @@ public class AmqpChannel implements AmqpChannelView {
         return amqpConsumer;
     }
 
+    /**
+     * Deliver the next message of a queue for a basic.get request. Unless no-ack is requested, the message is
+     * tracked as an unacknowledged delivery of the channel until it is acknowledged or rejected. The message is
+     * requeued if the response cannot be written.
+     *
+     * @param ctx       channel handler context
+     * @param queueName name of the queue
+     * @param noAck     true if the message is considered acknowledged once sent
+     * @return true if a message was delivered, false if no message was ready for delivery
+     * @throws BrokerException           if an internal error occurred
+     * @throws ResourceNotFoundException if the queue is not found
+     */
+    public boolean get(ChannelHandlerContext ctx, String queueName, boolean noAck)
+            throws BrokerException, ResourceNotFoundException {
+        Message message = broker.pull(queueName);
+        if (Objects.isNull(message)) {
+            return false;
+        }
+
+        // Written through the channel pipeline so that the response is written by the same writer as the
+        // consumer deliveries
+        ctx.channel().writeAndFlush(new AmqpGetMessage(message, this, queueName, noAck, broker));
+        return true;
+    }
+
     public void close() {
         closed.set(true);
         for (Consumer consumer : consumerMap.values()) {
@@ -214,6 +275,7 @@ public class AmqpChannel implements AmqpChannelView {
         }
         transaction.onClose();
         consumerMap.clear();
+        messageAggregator.close();
         requeueUnackedMessages();
     }
 
@@ -259,7 +321,11 @@ public class AmqpChannel implements AmqpChannelView {
     }
 
     public void acknowledge(long deliveryTag, boolean multiple) throws BrokerException {
-        //TODO handle multiple
+        if (multiple) {
+            acknowledgeMultiple(deliveryTag);
+            return;
+        }
+
         AckData ackData = unackedMessageMap.markAcknowledgement(deliveryTag);
         if (MessageTracer.isTraceEnabled()) {
             String description = Objects.nonNull(ackData) ? ACKNOWLEDGE_RECEIVED : UNKNOWN_ACKNOWLEDGEMENT;
@@ -276,6 +342,41 @@ public class AmqpChannel implements AmqpChannelView {
         }
     }
 
+    /**
+     * Acknowledge all the outstanding deliveries up to and including the delivery tag. A delivery tag of zero
+     * acknowledges all outstanding deliveries.
+     */
+    private void acknowledgeMultiple(long deliveryTag) throws BrokerException {
+        long lastDeliveryTag = deliveryTag == 0 ? Long.MAX_VALUE : deliveryTag;
+        List<AckData> ackDataList = unackedMessageMap.markAcknowledgements(lastDeliveryTag);
+        if (MessageTracer.isTraceEnabled()) {
+            String description = ackDataList.isEmpty() ? UNKNOWN_ACKNOWLEDGEMENT : ACKNOWLEDGE_RECEIVED;
+            MessageTracer.trace(description, traceChannelIdField, new TraceField(DELIVERY_TAG_FIELD_NAME, deliveryTag),
+                                new TraceField(MULTIPLE_FLAG_FIELD_NAME, true));
+        }
+        if (ackDataList.isEmpty()) {
+            LOGGER.warn("Could not find any matching ack data for acking up to the delivery tag {}", deliveryTag);
+            return;
+        }
+
+        // Detach messages of each queue in bulk
+        Map<String, List<DetachableMessage>> queueMessages = new HashMap<>();
+        for (AckData ackData : ackDataList) {
+            queueMessages.computeIfAbsent(ackData.getQueueName(), k -> new ArrayList<>())
+                         .add(ackData.getMessage().getDetachableMessage());
+        }
+        for (Map.Entry<String, List<DetachableMessage>> entry : queueMessages.entrySet()) {
+            transaction.dequeue(entry.getKey(), entry.getValue());
+        }
+
+        if (!transaction.inTransactionBlock()) {
+            unackedMessageMap.removeMarkedAcknowledgments(lastDeliveryTag);
+            for (AckData ackData : ackDataList) {
+                ackData.getMessage().release();
+            }
+        }
+    }
+
     public int getNextConsumerTag() {
         return consumerTagGenerator.incrementAndGet();
     }
@@ -296,12 +397,12 @@ public class AmqpChannel implements AmqpChannelView {
 
     @Override
     public int getUnackedMessageCount() {
-        return unackedMessageMap.pendingAcknowledgments.size();
+        return unackedMessageMap.size();
     }
 
     @Override
     public int getDeliveryPendingMessageCount() {
-        return deliveryPendingMessages.size();
+        return pendingDeliveryCount.get();
     }
 
     @Override
@@ -319,7 +420,7 @@ public class AmqpChannel implements AmqpChannelView {
 
     @Override
     public int getPrefetchCount() {
-        return prefetchCount;
+        return prefetchWindow.getPrefetchCount();
     }
 
     @Override
@@ -395,6 +496,15 @@ public class AmqpChannel implements AmqpChannelView {
         return connection.getId();
     }
 
+    /**
+     * Largest payload of a content frame delivered through the channel.
+     *
+     * @return maximum payload size in bytes for the negotiated frame max of the connection
+     */
+    public int getMaxContentPayloadSize() {
+        return connection.getMaxContentPayloadSize();
+    }
+
     public void setFlow(boolean active) {
         flow.set(active);
     }
@@ -405,7 +515,8 @@ public class AmqpChannel implements AmqpChannelView {
      * @return true if messages can be delivered through the channel, false otherwise
      */
     public boolean isReady() {
-        return connection.isWritable() && flow.get() && hasRoom.get() && !closed.get();
+        return connection.isWritable() && flow.get() && prefetchWindow.hasRoom() && connectionPrefetchWindow.hasRoom()
+                && !closed.get() && pendingDeliveryBytes.get() < outboundBytesLimit;
     }
 
     /**
@@ -434,22 +545,44 @@ public class AmqpChannel implements AmqpChannelView {
         return flowManager;
     }
 
-    public void hold(AmqpDeliverMessage deliverMessage) {
-        deliveryPendingMessages.add(deliverMessage);
+    public void setPrefetchCount(int prefetchCount) {
+        prefetchWindow.setLimits(prefetchCount, prefetchWindow.getPrefetchSize());
     }
 
-    public List<AmqpDeliverMessage> getPendingMessages() {
-        List<AmqpDeliverMessage> pendingMessages = new ArrayList<>(deliveryPendingMessages);
-        deliveryPendingMessages.clear();
-        return pendingMessages;
+    /**
+     * Limit the unacknowledged deliveries of the channel.
+     *
+     * @param prefetchCount maximum number of unacknowledged messages. Zero for no limit
+     * @param prefetchSize  maximum bytes of unacknowledged message content. Zero for no limit
+     */
+    public void setQos(int prefetchCount, long prefetchSize) {
+        prefetchWindow.setLimits(prefetchCount, prefetchSize);
     }
 
-    public void setPrefetchCount(int prefetchCount) {
-        this.prefetchCount = prefetchCount;
+    /**
+     * Create the delivery to be written to the connection. Content of the message is counted against the outbound
+     * byte limit of the channel until the delivery is written with {@link #recordDeliveryWritten(long)}.
+     *
+     * @param message     message to be delivered
+     * @param consumerTag consumer tag of the consumer
+     * @param queueName   name of the queue the message is taken from
+     * @return delivery message
+     */
+    public AmqpDeliverMessage createDeliverMessage(Message message, ShortString consumerTag, String queueName) {
+        AmqpDeliverMessage deliverMessage = new AmqpDeliverMessage(message, consumerTag, this, queueName, broker);
+        pendingDeliveryBytes.addAndGet(deliverMessage.getContentLength());
+        pendingDeliveryCount.incrementAndGet();
+        return deliverMessage;
     }
 
-    public AmqpDeliverMessage createDeliverMessage(Message message, ShortString consumerTag, String queueName) {
-        return new AmqpDeliverMessage(message, consumerTag, this, queueName, broker);
+    /**
+     * Release the outbound bytes of a delivery once it is written to the connection or requeued.
+     *
+     * @param contentLength content length of the delivered message
+     */
+    public void recordDeliveryWritten(long contentLength) {
+        pendingDeliveryBytes.addAndGet(-contentLength);
+        pendingDeliveryCount.decrementAndGet();
     }
 
     /**
@@ -469,11 +602,24 @@ public class AmqpChannel implements AmqpChannelView {
     }
 
     /**
-     * Commit the transaction on the channel.
+     * Commit the transaction on the channel without blocking the calling thread. Only the acknowledgements marked
+     * before the commit is submitted belong to the transaction. They are released once the commit succeeds and are
+     * made pending again if it fails, while acknowledgements received in the meantime wait for the next commit.
+     *
+     * @param executor executor used to complete the commit once the transaction is persisted
+     * @return future completed once the transaction is committed
      */
-    public void commit() throws ValidationException, BrokerException {
-        transaction.commit();
-        releasePendingAcknowledgements();
+    public CompletableFuture<Void> commitAsync(Executor executor) {
+        List<AckData> committingAcknowledgments = unackedMessageMap.takeMarkedAcknowledgments();
+        return transaction.commitAsync(executor).whenComplete((result, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                for (AckData ackData : unackedMessageMap.removeAcknowledgments(committingAcknowledgments)) {
+                    ackData.getMessage().release();
+                }
+            } else {
+                unackedMessageMap.resetAcknowledgments(committingAcknowledgments);
+            }
+        });
     }
 
     private void releasePendingAcknowledgements() {
@@ -483,6 +629,73 @@ public class AmqpChannel implements AmqpChannelView {
         }
     }
 
+    /**
+     * Mark the channel as transactional unless it is already in confirm mode.
+     *
+     * @return true if the channel is transactional, false if it is in confirm mode
+     */
+    public boolean selectTransactionalMode() {
+        return publishMode.compareAndSet(PublishMode.DEFAULT, PublishMode.TRANSACTIONAL)
+                || publishMode.get() == PublishMode.TRANSACTIONAL;
+    }
+
+    /**
+     * Put the channel into confirm mode unless it is already transactional. Should be called through the event
+     * loop.
+     *
+     * @return true if the channel is in confirm mode, false if it is transactional
+     */
+    public boolean selectConfirmMode() {
+        if (publishMode.compareAndSet(PublishMode.DEFAULT, PublishMode.CONFIRM)) {
+            confirmTracker = new PublishConfirmTracker(channelId);
+            return true;
+        }
+        return publishMode.get() == PublishMode.CONFIRM;
+    }
+
+    /**
+     * Check whether the channel is in confirm mode.
+     *
+     * @return true if publishes on the channel are confirmed
+     */
+    public boolean isConfirmSelected() {
+        return Objects.nonNull(confirmTracker);
+    }
+
+    /**
+     * Assign the next publish sequence number to a message published on the channel if the channel is in confirm
+     * mode. The client is confirmed once the broker has accepted the message. Should be called through the event
+     * loop when the content header of the message is received, so that sequence numbers follow the order of the
+     * basic.publish frames irrespective of the content that follows.
+     *
+     * @param ctx     channel handler context of the connection
+     * @param message message received on the channel
+     */
+    public void trackPublish(ChannelHandlerContext ctx, Message message) {
+        PublishConfirmTracker tracker = confirmTracker;
+        if (Objects.isNull(tracker)) {
+            return;
+        }
+
+        long sequence = tracker.nextPublishSequence();
+        message.setPublishConfirmListener(success -> {
+            if (tracker.complete(sequence, success)) {
+                ctx.executor().execute(() -> writeConfirms(ctx, tracker));
+            }
+        });
+    }
+
+    private void writeConfirms(ChannelHandlerContext ctx, PublishConfirmTracker tracker) {
+        List<MethodFrame> frames = tracker.flush();
+        if (frames.isEmpty() || closed.get()) {
+            return;
+        }
+        for (MethodFrame frame : frames) {
+            ctx.write(frame);
+        }
+        ctx.flush();
+    }
+
     /**
      * Rollback the transaction on the channel.
      */
@@ -531,20 +744,32 @@ public class AmqpChannel implements AmqpChannelView {
     }
 
     /**
-     * Data-structure to handle unacknowledge messages. This class will update the has room variable depending on the
-     * number of messages in the unackedMessageMap.
+     * Data-structure to handle unacknowledge messages. This class will update the prefetch windows depending on the
+     * messages in the unackedMessageMap. Acknowledged messages are counted in the windows until the acknowledgement
+     * is committed. Entries are kept ordered by delivery tag so that cumulative
+     * acknowledgements can be processed as a range, and are indexed by queue so that the deliveries of a deleted
+     * queue can be removed without scanning all the entries.
+     * <p>
+     * Deliveries and acknowledgements of a connection are processed by the single executor thread the connection's
+     * pipeline is bound to. Methods are synchronized for the less frequent calls from other threads, such as closing
+     * the channel from the event loop, hence the lock is uncontended in the common case.
      */
     private class UnackedMessageMap {
 
         /**
          * Acknowledgment pending messages.
          */
-        private final Map<Long, AckData> pendingAcknowledgments = new LinkedHashMap<>();
+        private final DeliveryTagRing pendingAcknowledgments = new DeliveryTagRing();
 
         /**
          * Acknowledgments that are waiting for a subsequent commit or rollback.
          */
-        private final Map<Long, AckData> markedAcknowledgments = new LinkedHashMap<>();
+        private final DeliveryTagRing markedAcknowledgments = new DeliveryTagRing();
+
+        /**
+         * Entries of both pending and marked acknowledgments grouped by queue name.
+         */
+        private final Map<String, DeliveryTagRing> queueIndex = new HashMap<>();
 
         /**
          * Mark the specific delivery tag as acknowledgment received and return the specific {@link AckData} object.
@@ -552,7 +777,7 @@ public class AmqpChannel implements AmqpChannelView {
          * @param deliveryTag delivery tag of the acknowledged message delivery
          * @return AckData object for the corresponding delivery tag
          */
-        AckData markAcknowledgement(long deliveryTag) {
+        synchronized AckData markAcknowledgement(long deliveryTag) {
             AckData ackData = pendingAcknowledgments.remove(deliveryTag);
             if (Objects.nonNull(ackData)) {
                 markedAcknowledgments.put(deliveryTag, ackData);
@@ -560,72 +785,177 @@ public class AmqpChannel implements AmqpChannelView {
             return ackData;
         }
 
-        AckData negativeAcknowledge(long deliveryTag) {
+        /**
+         * Mark all the deliveries up to and including the delivery tag as acknowledgment received.
+         *
+         * @param deliveryTag last delivery tag acknowledged
+         * @return AckData objects of the acknowledged deliveries ordered by delivery tag
+         */
+        synchronized List<AckData> markAcknowledgements(long deliveryTag) {
+            return pendingAcknowledgments.transferUpTo(deliveryTag, markedAcknowledgments);
+        }
+
+        synchronized AckData negativeAcknowledge(long deliveryTag) {
             AckData ackData = pendingAcknowledgments.remove(deliveryTag);
-            checkAndEnableHasRoom();
+            if (Objects.nonNull(ackData)) {
+                removeFromIndex(ackData);
+            }
             return ackData;
         }
 
-        void put(long deliveryTag, AckData ackData) {
+        synchronized void put(long deliveryTag, AckData ackData) {
             pendingAcknowledgments.put(deliveryTag, ackData);
-            checkAndDisableHasRoom();
+            queueIndex.computeIfAbsent(ackData.getQueueName(), queueName -> new DeliveryTagRing())
+                      .put(deliveryTag, ackData);
+            prefetchWindow.add(1, ackData.getContentLength());
+            connectionPrefetchWindow.add(1, ackData.getContentLength());
         }
 
-        Collection<AckData> removeAll() {
-            Collection<AckData> entries = new ArrayList<>(pendingAcknowledgments.values());
-            pendingAcknowledgments.clear();
-            entries.addAll(markedAcknowledgments.values());
-            markedAcknowledgments.clear();
-            hasRoom.set(true);
+        /**
+         * Remove the pending and marked acknowledgments. Every delivery still in the queue index is released from
+         * the prefetch windows, including the acknowledgments taken for a commit that has not completed yet.
+         *
+         * @return AckData objects of the pending and marked acknowledgments
+         */
+        synchronized Collection<AckData> removeAll() {
+            List<AckData> entries = pendingAcknowledgments.removeAll();
+            entries.addAll(markedAcknowledgments.removeAll());
+            List<AckData> indexedEntries = new ArrayList<>();
+            for (DeliveryTagRing queueEntries : queueIndex.values()) {
+                indexedEntries.addAll(queueEntries.removeAll());
+            }
+            queueIndex.clear();
+            releaseFromWindows(indexedEntries);
             return entries;
         }
 
-        AckData removeMarkedAcknowledgment(long deliveryTag) {
+        synchronized AckData removeMarkedAcknowledgment(long deliveryTag) {
             AckData ackData = markedAcknowledgments.remove(deliveryTag);
-            checkAndEnableHasRoom();
+            if (Objects.nonNull(ackData)) {
+                removeFromIndex(ackData);
+            }
             return ackData;
         }
 
-        private void checkAndEnableHasRoom() {
-            if (!hasRoom.get() && pendingAcknowledgments.size() < prefetchCount) {
-                hasRoom.set(true);
+        synchronized void removeMarkedAcknowledgments(long deliveryTag) {
+            removeFromIndex(markedAcknowledgments.removeUpTo(deliveryTag));
+        }
+
+        synchronized void resetMarkedAcknowledgments() {
+            markedAcknowledgments.drainTo(pendingAcknowledgments);
+        }
+
+        /**
+         * Take the marked acknowledgments out of the map for a commit. The deliveries stay in the queue index, and
+         * hence in the prefetch windows, until the commit completes.
+         *
+         * @return AckData objects of the marked acknowledgments ordered by delivery tag
+         */
+        synchronized List<AckData> takeMarkedAcknowledgments() {
+            return markedAcknowledgments.removeAll();
+        }
+
+        /**
+         * Remove the committed acknowledgments taken with {@link #takeMarkedAcknowledgments()}.
+         *
+         * @param ackDataList committed acknowledgments
+         * @return AckData objects that were still held by the map. Deliveries of a deleted queue are already released
+         */
+        synchronized List<AckData> removeAcknowledgments(List<AckData> ackDataList) {
+            List<AckData> removedEntries = new ArrayList<>(ackDataList.size());
+            for (AckData ackData : ackDataList) {
+                if (removeFromIndex(ackData)) {
+                    removedEntries.add(ackData);
+                }
             }
+            return removedEntries;
         }
 
-        void resetMarkedAcknowledgments() {
-            pendingAcknowledgments.putAll(markedAcknowledgments);
-            markedAcknowledgments.clear();
-            checkAndDisableHasRoom();
+        /**
+         * Move the acknowledgments of a failed commit back to pending acknowledgments.
+         *
+         * @param ackDataList acknowledgments taken with {@link #takeMarkedAcknowledgments()}
+         */
+        synchronized void resetAcknowledgments(List<AckData> ackDataList) {
+            for (AckData ackData : ackDataList) {
+                DeliveryTagRing queueEntries = queueIndex.get(ackData.getQueueName());
+                if (Objects.nonNull(queueEntries) && Objects.nonNull(queueEntries.get(ackData.getDeliveryTag()))) {
+                    pendingAcknowledgments.put(ackData.getDeliveryTag(), ackData);
+                }
+            }
         }
 
-        Collection<AckData> removeMarkedAcknowledgments() {
-            ArrayList<AckData> ackedMessages = new ArrayList<>(markedAcknowledgments.values());
-            markedAcknowledgments.clear();
-            checkAndEnableHasRoom();
+        synchronized Collection<AckData> removeMarkedAcknowledgments() {
+            List<AckData> ackedMessages = markedAcknowledgments.removeAll();
+            removeFromIndex(ackedMessages);
             return ackedMessages;
         }
-        private void checkAndDisableHasRoom() {
-            if (hasRoom.get() && pendingAcknowledgments.size() >= prefetchCount) {
-                hasRoom.set(false);
+
+        synchronized void releaseAndRemoveMessages(String queueName) {
+            DeliveryTagRing queueEntries = queueIndex.remove(queueName);
+            if (Objects.isNull(queueEntries)) {
+                return;
             }
+            List<AckData> entries = queueEntries.removeAll();
+            for (AckData ackData : entries) {
+                long deliveryTag = ackData.getDeliveryTag();
+                if (Objects.isNull(pendingAcknowledgments.remove(deliveryTag))) {
+                    markedAcknowledgments.remove(deliveryTag);
+                }
+                ackData.getMessage().release();
+            }
+            releaseFromWindows(entries);
         }
 
-        void releaseAndRemoveMessages(String queueName) {
-            releaseAndRemoveMessagesFromMap(queueName, pendingAcknowledgments);
-            releaseAndRemoveMessagesFromMap(queueName, markedAcknowledgments);
-            checkAndEnableHasRoom();
+        synchronized int size() {
+            return pendingAcknowledgments.size();
         }
 
-        private void releaseAndRemoveMessagesFromMap(String queueName, Map<Long, AckData> map) {
-            Iterator<Map.Entry<Long, AckData>> iterator = map.entrySet().iterator();
-            while (iterator.hasNext()) {
-                Map.Entry<Long, AckData> entry = iterator.next();
-                AckData ackData = entry.getValue();
-                if (ackData.getQueueName().equals(queueName)) {
-                    ackData.getMessage().release();
-                    iterator.remove();
-                }
+        /**
+         * Release the deliveries from the channel and the connection prefetch windows.
+         */
+        private void releaseFromWindows(List<AckData> ackDataList) {
+            long bytes = 0;
+            for (AckData ackData : ackDataList) {
+                bytes += ackData.getContentLength();
+            }
+            prefetchWindow.remove(ackDataList.size(), bytes);
+            connectionPrefetchWindow.remove(ackDataList.size(), bytes);
+        }
+
+        /**
+         * Remove the delivery from the queue index. Every delivery leaves the map through the index, hence the
+         * delivery is released from the prefetch windows as well.
+         *
+         * @return true if the delivery was in the index
+         */
+        private boolean removeFromIndex(AckData ackData) {
+            DeliveryTagRing queueEntries = queueIndex.get(ackData.getQueueName());
+            if (Objects.isNull(queueEntries)) {
+                return false;
+            }
+            boolean removed = Objects.nonNull(queueEntries.remove(ackData.getDeliveryTag()));
+            if (removed) {
+                prefetchWindow.remove(1, ackData.getContentLength());
+                connectionPrefetchWindow.remove(1, ackData.getContentLength());
+            }
+            if (queueEntries.isEmpty()) {
+                queueIndex.remove(ackData.getQueueName());
+            }
+            return removed;
+        }
+
+        private void removeFromIndex(List<AckData> ackDataList) {
+            for (AckData ackData : ackDataList) {
+                removeFromIndex(ackData);
             }
         }
     }
+
+    /**
+     * Publish modes of a channel.
+     */
+    private enum PublishMode {
+        DEFAULT, TRANSACTIONAL, CONFIRM
+    }
 }
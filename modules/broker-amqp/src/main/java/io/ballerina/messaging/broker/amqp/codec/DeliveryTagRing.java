@@ -0,0 +1,337 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec;
+
+import io.ballerina.messaging.broker.amqp.consumer.AckData;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Holds {@link AckData} of a channel ordered by delivery tag. Entries are kept in a power of two sized array indexed
+ * by the delivery tag. Since delivery tags of a channel are allocated in increasing order the live entries form a
+ * window of tags, which makes cumulative (multiple) acknowledgements a sequential scan of the array.
+ * <p>
+ * A few long outstanding deliveries would stretch the window far beyond the number of live entries. When the window
+ * becomes sparse, the oldest entries are moved to an ordered overflow map instead of growing the array. Hence the
+ * memory used is proportional to the number of live entries.
+ * <p>
+ * This class is not thread safe.
+ */
+final class DeliveryTagRing {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The array is only grown while at least one in this many slots of the window is live.
+     */
+    private static final int MAXIMUM_SPARSENESS = 4;
+
+    private AckData[] slots;
+
+    private int mask;
+
+    /**
+     * Lowest delivery tag in the window (inclusive).
+     */
+    private long head;
+
+    /**
+     * Delivery tag after the highest tag in the window (exclusive).
+     */
+    private long tail;
+
+    /**
+     * Number of entries in the window.
+     */
+    private int size;
+
+    /**
+     * Entries with delivery tags lower than the window. Created on first use.
+     */
+    private NavigableMap<Long, AckData> overflow;
+
+    DeliveryTagRing() {
+        slots = new AckData[INITIAL_CAPACITY];
+        mask = INITIAL_CAPACITY - 1;
+    }
+
+    /**
+     * Add an entry for the delivery tag. An existing entry for the same tag is replaced.
+     *
+     * @param deliveryTag delivery tag of the message delivery
+     * @param ackData     {@link AckData} of the delivery
+     */
+    void put(long deliveryTag, AckData ackData) {
+        if (hasOverflow() && deliveryTag <= overflow.lastKey()) {
+            overflow.put(deliveryTag, ackData);
+            return;
+        }
+
+        if (size == 0) {
+            head = deliveryTag;
+            tail = deliveryTag + 1;
+        } else if (deliveryTag < head) {
+            if (!ensureCapacity(tail - deliveryTag)) {
+                getOverflow().put(deliveryTag, ackData);
+                return;
+            }
+            head = deliveryTag;
+        } else if (deliveryTag >= tail) {
+            if (!ensureCapacity(deliveryTag + 1 - head)) {
+                spillUntilFits(deliveryTag);
+            }
+            tail = deliveryTag + 1;
+        }
+
+        int index = index(deliveryTag);
+        if (slots[index] == null) {
+            size++;
+        }
+        slots[index] = ackData;
+    }
+
+    AckData get(long deliveryTag) {
+        if (deliveryTag < head) {
+            return hasOverflow() ? overflow.get(deliveryTag) : null;
+        }
+        if (deliveryTag >= tail) {
+            return null;
+        }
+        return slots[index(deliveryTag)];
+    }
+
+    /**
+     * Remove the entry for the delivery tag.
+     *
+     * @param deliveryTag delivery tag of the message delivery
+     * @return removed {@link AckData} or null if there is no entry for the tag
+     */
+    AckData remove(long deliveryTag) {
+        if (deliveryTag < head) {
+            return hasOverflow() ? overflow.remove(deliveryTag) : null;
+        }
+        if (deliveryTag >= tail) {
+            return null;
+        }
+        int index = index(deliveryTag);
+        AckData ackData = slots[index];
+        if (ackData != null) {
+            slots[index] = null;
+            size--;
+            advanceHead();
+        }
+        return ackData;
+    }
+
+    /**
+     * Remove all the entries with a delivery tag less than or equal to the given tag.
+     *
+     * @param deliveryTag highest delivery tag to be removed
+     * @return removed entries ordered by delivery tag
+     */
+    List<AckData> removeUpTo(long deliveryTag) {
+        return transferUpTo(deliveryTag, null);
+    }
+
+    /**
+     * Move all the entries with a delivery tag less than or equal to the given tag to the target ring.
+     *
+     * @param deliveryTag highest delivery tag to be moved
+     * @param target      ring to which the entries are moved. Entries are only removed if null
+     * @return moved entries ordered by delivery tag
+     */
+    List<AckData> transferUpTo(long deliveryTag, DeliveryTagRing target) {
+        List<AckData> removed = new ArrayList<>(0);
+        if (hasOverflow()) {
+            Iterator<Map.Entry<Long, AckData>> iterator = overflow.headMap(deliveryTag, true).entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, AckData> entry = iterator.next();
+                removed.add(entry.getValue());
+                if (target != null) {
+                    target.put(entry.getKey(), entry.getValue());
+                }
+                iterator.remove();
+            }
+        }
+
+        if (size == 0 || deliveryTag < head) {
+            return removed;
+        }
+        long end = deliveryTag < tail ? deliveryTag + 1 : tail;
+        if (removed.isEmpty()) {
+            removed = new ArrayList<>((int) Math.min(size, end - head));
+        }
+        for (long tag = head; tag < end; tag++) {
+            int index = index(tag);
+            AckData ackData = slots[index];
+            if (ackData != null) {
+                removed.add(ackData);
+                if (target != null) {
+                    target.put(tag, ackData);
+                }
+                slots[index] = null;
+                size--;
+            }
+        }
+        head = end;
+        advanceHead();
+        return removed;
+    }
+
+    /**
+     * Remove all the entries.
+     *
+     * @return removed entries ordered by delivery tag
+     */
+    List<AckData> removeAll() {
+        return removeUpTo(Long.MAX_VALUE);
+    }
+
+    /**
+     * Remove all the entries matching the given predicate.
+     *
+     * @param filter predicate returning true for entries to be removed
+     * @return removed entries ordered by delivery tag
+     */
+    List<AckData> removeIf(Predicate<AckData> filter) {
+        List<AckData> removed = new ArrayList<>();
+        if (hasOverflow()) {
+            Iterator<AckData> iterator = overflow.values().iterator();
+            while (iterator.hasNext()) {
+                AckData ackData = iterator.next();
+                if (filter.test(ackData)) {
+                    removed.add(ackData);
+                    iterator.remove();
+                }
+            }
+        }
+        for (long tag = head; tag < tail; tag++) {
+            int index = index(tag);
+            AckData ackData = slots[index];
+            if (ackData != null && filter.test(ackData)) {
+                removed.add(ackData);
+                slots[index] = null;
+                size--;
+            }
+        }
+        advanceHead();
+        return removed;
+    }
+
+    /**
+     * Move all the entries of this ring to the given ring.
+     *
+     * @param target ring to which the entries are moved
+     */
+    void drainTo(DeliveryTagRing target) {
+        transferUpTo(Long.MAX_VALUE, target);
+    }
+
+    int size() {
+        return hasOverflow() ? size + overflow.size() : size;
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private int index(long deliveryTag) {
+        return (int) (deliveryTag & mask);
+    }
+
+    private boolean hasOverflow() {
+        return overflow != null && !overflow.isEmpty();
+    }
+
+    private NavigableMap<Long, AckData> getOverflow() {
+        if (overflow == null) {
+            overflow = new TreeMap<>();
+        }
+        return overflow;
+    }
+
+    /**
+     * Move the head past removed entries so that the window only spans live entries.
+     */
+    private void advanceHead() {
+        if (size == 0) {
+            head = tail;
+            return;
+        }
+        while (slots[index(head)] == null) {
+            head++;
+        }
+    }
+
+    /**
+     * Move the oldest entries of the window to the overflow map until the window fits the given tag.
+     *
+     * @param deliveryTag tag to be added to the end of the window
+     */
+    private void spillUntilFits(long deliveryTag) {
+        NavigableMap<Long, AckData> spilled = getOverflow();
+        while (size > 0 && deliveryTag + 1 - head > slots.length) {
+            int index = index(head);
+            spilled.put(head, slots[index]);
+            slots[index] = null;
+            size--;
+            head++;
+            advanceHead();
+        }
+        if (size == 0) {
+            head = deliveryTag;
+        }
+    }
+
+    /**
+     * Grow the array to hold a window of the given span.
+     *
+     * @param requiredSpan number of tags the window should span
+     * @return false if the window would be too sparse to grow the array
+     */
+    private boolean ensureCapacity(long requiredSpan) {
+        if (requiredSpan <= slots.length) {
+            return true;
+        }
+        if (requiredSpan > (long) MAXIMUM_SPARSENESS * (size + 1) || requiredSpan > MAXIMUM_CAPACITY) {
+            return false;
+        }
+        int newCapacity = slots.length;
+        while (newCapacity < requiredSpan) {
+            newCapacity <<= 1;
+        }
+        AckData[] newSlots = new AckData[newCapacity];
+        int newMask = newCapacity - 1;
+        for (long tag = head; tag < tail; tag++) {
+            newSlots[(int) (tag & newMask)] = slots[index(tag)];
+        }
+        slots = newSlots;
+        mask = newMask;
+        return true;
+    }
+}
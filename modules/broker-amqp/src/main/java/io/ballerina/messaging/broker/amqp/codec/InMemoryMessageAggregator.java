@@ -20,8 +20,6 @@
 package io.ballerina.messaging.broker.amqp.codec;
 
 import io.ballerina.messaging.broker.amqp.AmqpException;
-import io.ballerina.messaging.broker.auth.AuthException;
-import io.ballerina.messaging.broker.auth.AuthNotFoundException;
 import io.ballerina.messaging.broker.common.data.types.FieldTable;
 import io.ballerina.messaging.broker.common.data.types.FieldValue;
 import io.ballerina.messaging.broker.common.data.types.ShortString;
@@ -30,20 +28,34 @@ import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.ContentChunk;
 import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.Metadata;
+import io.ballerina.messaging.broker.core.SpooledContent;
 import io.ballerina.messaging.broker.core.transaction.BrokerTransaction;
 import io.ballerina.messaging.broker.core.util.MessageTracer;
 import io.ballerina.messaging.broker.core.util.TraceField;
 import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 /**
- * Handles incoming AMQP message frames and creates {@link Message}.
+ * Handles incoming AMQP message frames and creates {@link Message}. Content of messages larger than the large message
+ * threshold is written to a {@link SpooledContent} as frames arrive instead of being held in memory. Spool file I/O
+ * is submitted as {@link BlockingTask}s, which run in order on the blocking task executor of the connection, so that
+ * the event loop is never blocked on the file.
  */
 public class InMemoryMessageAggregator {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryMessageAggregator.class);
+
     private static final String CORRELATION_ID_FIELD_NAME = "correlationId";
 
     private static final String INCOMING_MESSAGE_MAPPED = "Incoming message to AMQP transport.";
@@ -60,29 +72,71 @@ public class InMemoryMessageAggregator {
 
     private long receivedPayloadSize;
 
-    InMemoryMessageAggregator(BrokerTransaction transaction) {
+    /**
+     * Content length in bytes above which message content is spooled to a file. Disabled when not positive.
+     */
+    private final long largeMessageThreshold;
+
+    private final Path spoolDirectory;
+
+    /**
+     * Spool writer of the current message if it is a large message.
+     */
+    private SpoolWriter spoolWriter;
+
+    /**
+     * Context used to submit spool file I/O. Set once the first spooled content is received.
+     */
+    private ChannelHandlerContext spoolContext;
+
+    InMemoryMessageAggregator(BrokerTransaction transaction, long largeMessageThreshold, String spoolDirectory) {
         this.transaction = transaction;
+        this.largeMessageThreshold = largeMessageThreshold;
+        if (Objects.isNull(spoolDirectory) || spoolDirectory.isEmpty()) {
+            this.spoolDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "ballerina-broker-spool");
+        } else {
+            this.spoolDirectory = Paths.get(spoolDirectory);
+        }
     }
 
     public void basicPublishReceived(ShortString routingKey, ShortString exchangeName) {
-        this.routingKey = routingKey.toString();
-        this.exchangeName = exchangeName.toString();
+        basicPublishReceived(routingKey.toString(), exchangeName.toString());
+    }
+
+    /**
+     * Set the routing details of the message that follows.
+     *
+     * @param routingKey   routing key of the message
+     * @param exchangeName name of the exchange the message is published to
+     */
+    public void basicPublishReceived(String routingKey, String exchangeName) {
+        this.routingKey = routingKey;
+        this.exchangeName = exchangeName;
     }
 
     /**
      * Add the header frame that gives the relevant metadata for the given message.
      *
-     * @param headers protocol specific headers
-     * @param properties properties of the message
-     * @param payloadSize total message content length in bytes
+     * @param headers           protocol specific headers
+     * @param properties        properties of the message
+     * @param payloadSize       total message content length in bytes
+     * @param encodedProperties wire encoded form of the headers and properties, reused when delivering the message
+     * @return the message being received
      */
-    public void headerFrameReceived(FieldTable headers, FieldTable properties, long payloadSize) {
+    public Message headerFrameReceived(FieldTable headers, FieldTable properties, long payloadSize,
+                                       byte[] encodedProperties) {
         long messageId = Broker.getNextMessageId();
         Metadata metadata = new Metadata(routingKey, exchangeName, payloadSize);
         metadata.setProperties(properties);
         metadata.setHeaders(headers);
+        metadata.setEncodedProperties(encodedProperties);
         message = new Message(messageId, metadata);
+        discardSpooledContent();
+        if (largeMessageThreshold > 0 && payloadSize > largeMessageThreshold) {
+            spoolWriter = new SpoolWriter(spoolDirectory);
+        }
         trace(message);
+        return message;
     }
 
     private void trace(Message message) {
@@ -102,32 +156,140 @@ public class InMemoryMessageAggregator {
         routingKey = null;
         exchangeName = null;
         receivedPayloadSize = 0;
+        discardSpooledContent();
+    }
+
+    private void discardSpooledContent() {
+        if (spoolWriter != null) {
+            SpoolWriter writer = spoolWriter;
+            spoolWriter = null;
+            if (spoolContext != null) {
+                // Closed after the writes already submitted for the message
+                spoolContext.fireChannelRead((BlockingTask) writer::close);
+            } else {
+                writer.close();
+            }
+        }
+    }
+
+    /**
+     * Discard the partially received message, if any. The publisher is notified that the message was not accepted.
+     */
+    public void close() {
+        if (message != null) {
+            message.notifyPublishComplete(false);
+            message.release();
+        }
+        clear();
     }
 
-    public void publish(Message message) throws BrokerException, AuthNotFoundException, AuthException {
+    /**
+     * Check whether the whole content of the current message is received. A message without a body is complete
+     * once its header is received.
+     *
+     * @return true if the message can be published
+     */
+    public boolean isContentComplete() {
+        return message.getMetadata().getContentLength() == receivedPayloadSize;
+    }
+
+    public void publish(Message message) throws BrokerException {
         if (MessageTracer.isTraceEnabled()) {
             MessageTracer.trace(message, PUBLISH_MESSAGE);
         }
         transaction.enqueue(message);
     }
 
-    public boolean contentBodyReceived(long length, ByteBuf payload) throws AmqpException {
-        ContentChunk contentChunk = new ContentChunk(receivedPayloadSize, payload);
-        message.addChunk(contentChunk);
+    /**
+     * Publish a batch of messages completed within a single read from the transport.
+     *
+     * @param messages completed messages in the order they were received
+     */
+    public void publish(Collection<Message> messages) throws BrokerException {
+        if (MessageTracer.isTraceEnabled()) {
+            for (Message message : messages) {
+                MessageTracer.trace(message, PUBLISH_MESSAGE);
+            }
+        }
+        transaction.enqueue(messages);
+    }
+
+    /**
+     * Add a content frame of the current message. Content of a spooled message is written to the spool file through
+     * the blocking task executor of the given context.
+     *
+     * @param ctx     channel handler context of the connection
+     * @param length  payload size in bytes
+     * @param payload content of the frame
+     * @return true if all the content of the message is received
+     * @throws AmqpException if more content than the content length is received
+     */
+    public boolean contentBodyReceived(ChannelHandlerContext ctx, long length, ByteBuf payload)
+            throws AmqpException {
+        if (spoolWriter != null) {
+            spool(ctx, payload);
+        } else {
+            ContentChunk contentChunk = new ContentChunk(receivedPayloadSize, payload);
+            message.addChunk(contentChunk);
+        }
         receivedPayloadSize += length;
         long contentLength = message.getMetadata().getContentLength();
 
         if (contentLength == receivedPayloadSize) {
             return true;
         } else if (contentLength < receivedPayloadSize) {
-            clear();
-            message.release();
+            close();
             throw new AmqpException("Content length mismatch. Received content more than the expected size");
         }
 
         return false;
     }
 
+    private void spool(ChannelHandlerContext ctx, ByteBuf payload) {
+        SpoolWriter writer = spoolWriter;
+        long offset = receivedPayloadSize;
+        spoolContext = ctx;
+        ctx.fireChannelRead((BlockingTask) () -> writer.write(offset, payload));
+    }
+
+    /**
+     * Check whether the content of the current message is written to a spool file.
+     *
+     * @return true if the current message is a spooled large message
+     */
+    public boolean isSpooled() {
+        return spoolWriter != null;
+    }
+
+    /**
+     * Take the fully received spooled message. The spooled content is mapped into the message on the blocking task
+     * executor once every write of the message is done, and the message is then handed to the publisher on the
+     * same thread. If the content could not be spooled, the publisher is notified that the message was not accepted
+     * and the error handler is called instead.
+     *
+     * @param publisher    publishes the completed message
+     * @param errorHandler handles a message dropped due to a spool failure
+     */
+    public void popSpooledMessage(Consumer<Message> publisher, Consumer<AmqpException> errorHandler) {
+        Message spooledMessage = message;
+        SpoolWriter writer = spoolWriter;
+        spoolWriter = null;
+        clear();
+        spoolContext.fireChannelRead((BlockingTask) () -> {
+            try {
+                for (ContentChunk contentChunk : writer.toChunks()) {
+                    spooledMessage.addChunk(contentChunk);
+                }
+            } catch (IOException e) {
+                spooledMessage.notifyPublishComplete(false);
+                spooledMessage.release();
+                errorHandler.accept(new AmqpException("Error while spooling large message content", e));
+                return;
+            }
+            publisher.accept(spooledMessage);
+        });
+    }
+
     public Message popMessage() {
         Message message = this.message;
         clear();
@@ -138,4 +300,57 @@ public class InMemoryMessageAggregator {
     public void setTransaction(BrokerTransaction transaction) {
         this.transaction = transaction;
     }
+
+    /**
+     * Writes the content of a single large message to a spool file. The file is created on the first write. Only
+     * accessed from the blocking task executor of the connection.
+     */
+    private static final class SpoolWriter {
+
+        private final Path directory;
+
+        private SpooledContent content;
+
+        /**
+         * First write failure. Later writes are skipped and the message is dropped once complete.
+         */
+        private IOException failure;
+
+        private SpoolWriter(Path directory) {
+            this.directory = directory;
+        }
+
+        private void write(long offset, ByteBuf payload) {
+            try {
+                if (failure == null) {
+                    if (content == null) {
+                        content = new SpooledContent(directory);
+                    }
+                    content.write(offset, payload);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                payload.release();
+            }
+        }
+
+        private List<ContentChunk> toChunks() throws IOException {
+            if (failure != null) {
+                close();
+                throw failure;
+            }
+            return content.toChunks();
+        }
+
+        private void close() {
+            if (content != null) {
+                try {
+                    content.close();
+                } catch (IOException e) {
+                    LOGGER.warn("Error while closing spool file of a large message", e);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Limits unacknowledged deliveries by message count and by content bytes as requested with basic.qos. Each channel
+ * has its own window and the windows of all channels of a connection are also counted against a connection wide
+ * window used for global QoS. A limit of zero means there is no limit.
+ * <p>
+ * Since the window is checked before a message is taken from the queue, the byte limit can be exceeded by the last
+ * delivered message. This makes sure a message larger than the window is still delivered when nothing is in flight.
+ */
+@ThreadSafe
+public final class PrefetchWindow {
+
+    private volatile int prefetchCount;
+
+    private volatile long prefetchSize;
+
+    private final AtomicInteger unackedCount = new AtomicInteger(0);
+
+    private final AtomicLong unackedBytes = new AtomicLong(0);
+
+    /**
+     * Set the limits of the window.
+     *
+     * @param prefetchCount maximum number of unacknowledged messages
+     * @param prefetchSize  maximum bytes of unacknowledged message content
+     */
+    public void setLimits(int prefetchCount, long prefetchSize) {
+        this.prefetchCount = prefetchCount;
+        this.prefetchSize = prefetchSize;
+    }
+
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
+    public long getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    void add(int count, long bytes) {
+        unackedCount.addAndGet(count);
+        unackedBytes.addAndGet(bytes);
+    }
+
+    void remove(int count, long bytes) {
+        unackedCount.addAndGet(-count);
+        unackedBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * Indicate if more messages can be delivered within the window.
+     *
+     * @return true if both the count and the byte limits are not reached
+     */
+    public boolean hasRoom() {
+        int countLimit = prefetchCount;
+        long sizeLimit = prefetchSize;
+        return (countLimit == 0 || unackedCount.get() < countLimit)
+                && (sizeLimit == 0 || unackedBytes.get() < sizeLimit);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec;
+
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicAck;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicNack;
+import io.ballerina.messaging.broker.amqp.codec.frames.MethodFrame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tracks the publishes of a channel in confirm mode and builds the basic.ack and basic.nack frames for them.
+ * <p>
+ * Publishes are numbered through the event loop while confirmations can arrive from any thread, e.g. from the
+ * message store once a batch of messages is committed. Confirmations are queued and turned into frames in one go
+ * through the event loop. A contiguous run of accepted publishes is confirmed with a single basic.ack with the
+ * multiple flag set. Publishes completed ahead of an outstanding publish are confirmed individually.
+ */
+final class PublishConfirmTracker {
+
+    private final int channelId;
+
+    private final Queue<Confirmation> confirmations = new ConcurrentLinkedQueue<>();
+
+    private final AtomicBoolean flushScheduled = new AtomicBoolean(false);
+
+    /**
+     * Sequence number of the last publish.
+     */
+    private long publishSequence;
+
+    /**
+     * Every publish up to and including this sequence number is confirmed to the client.
+     */
+    private long confirmedUpTo;
+
+    /**
+     * Outcomes of completed publishes above {@link #confirmedUpTo} which are not sent yet.
+     */
+    private final NavigableMap<Long, Boolean> pending = new TreeMap<>();
+
+    /**
+     * Outcomes of publishes above {@link #confirmedUpTo} which are already sent individually.
+     */
+    private final NavigableMap<Long, Boolean> sent = new TreeMap<>();
+
+    PublishConfirmTracker(int channelId) {
+        this.channelId = channelId;
+    }
+
+    /**
+     * Allocate the sequence number for the next publish. Should be called through the event loop.
+     *
+     * @return sequence number of the publish
+     */
+    long nextPublishSequence() {
+        return ++publishSequence;
+    }
+
+    /**
+     * Record the outcome of a publish. Can be called from any thread.
+     *
+     * @param sequence sequence number of the publish
+     * @param success  true if the broker accepted the message
+     * @return true if the caller should schedule a {@link #flush()} through the event loop
+     */
+    boolean complete(long sequence, boolean success) {
+        confirmations.add(new Confirmation(sequence, success));
+        return flushScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Build the confirmation frames for the outcomes recorded so far. Should be called through the event loop.
+     *
+     * @return frames to be written to the client in the returned order
+     */
+    List<MethodFrame> flush() {
+        flushScheduled.set(false);
+        Confirmation confirmation;
+        while ((confirmation = confirmations.poll()) != null) {
+            pending.put(confirmation.sequence, confirmation.success);
+        }
+
+        List<MethodFrame> frames = new ArrayList<>();
+        long runEnd = confirmedUpTo;
+        boolean runHasUnsent = false;
+        while (true) {
+            long next = runEnd + 1;
+            boolean alreadySent = false;
+            Boolean success = pending.remove(next);
+            if (success == null) {
+                success = sent.remove(next);
+                alreadySent = true;
+            }
+
+            if (success == null) {
+                break;
+            } else if (success) {
+                runEnd = next;
+                runHasUnsent |= !alreadySent;
+            } else {
+                // A rejected publish cannot be covered by a multiple ack, hence it ends the run
+                addAck(frames, runEnd, runHasUnsent);
+                if (!alreadySent) {
+                    frames.add(new BasicNack(channelId, next, false, false));
+                }
+                runEnd = next;
+                confirmedUpTo = next;
+                runHasUnsent = false;
+            }
+        }
+        addAck(frames, runEnd, runHasUnsent);
+        confirmedUpTo = runEnd;
+
+        for (Map.Entry<Long, Boolean> entry : pending.entrySet()) {
+            long sequence = entry.getKey();
+            if (entry.getValue()) {
+                frames.add(new BasicAck(channelId, sequence, false));
+            } else {
+                frames.add(new BasicNack(channelId, sequence, false, false));
+            }
+            sent.put(sequence, entry.getValue());
+        }
+        pending.clear();
+        return frames;
+    }
+
+    private void addAck(List<MethodFrame> frames, long runEnd, boolean runHasUnsent) {
+        if (runHasUnsent) {
+            frames.add(new BasicAck(channelId, runEnd, runEnd - confirmedUpTo > 1));
+        }
+    }
+
+    /**
+     * Outcome of a single publish.
+     */
+    private static final class Confirmation {
+
+        private final long sequence;
+
+        private final boolean success;
+
+        private Confirmation(long sequence, boolean success) {
+            this.sequence = sequence;
+            this.success = success;
+        }
+    }
+}
@@ -37,7 +37,7 @@ public class AuthenticationStrategyFactory {
         if (Objects.nonNull(authManager) && authManager.isAuthenticationEnabled()) {
             return new SaslAuthenticationStrategy(authManager, brokerFactory, configuration);
         } else {
-            return new NoAuthenticationStrategy(brokerFactory);
+            return new NoAuthenticationStrategy(brokerFactory, configuration);
         }
 
     }
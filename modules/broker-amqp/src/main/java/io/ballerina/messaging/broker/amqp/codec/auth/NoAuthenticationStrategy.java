@@ -18,7 +18,7 @@
  */
 package io.ballerina.messaging.broker.amqp.codec.auth;
 
-import io.ballerina.messaging.broker.amqp.codec.frames.ConnectionTune;
+import io.ballerina.messaging.broker.amqp.AmqpServerConfiguration;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
 import io.ballerina.messaging.broker.common.data.types.LongString;
 import io.ballerina.messaging.broker.common.data.types.ShortString;
@@ -33,16 +33,19 @@ import io.netty.channel.ChannelHandlerContext;
 public class NoAuthenticationStrategy implements AuthenticationStrategy {
     private BrokerFactory brokerFactory;
 
-    public NoAuthenticationStrategy(BrokerFactory brokerFactory) {
+    private final int heartbeat;
+
+    public NoAuthenticationStrategy(BrokerFactory brokerFactory, AmqpServerConfiguration configuration) {
 
         this.brokerFactory = brokerFactory;
+        this.heartbeat = configuration.getHeartbeat();
     }
 
     @Override
     public void handle(int channel, ChannelHandlerContext ctx, AmqpConnectionHandler connectionHandler,
                        ShortString mechanism, LongString response) throws BrokerException {
         connectionHandler.attachBroker(brokerFactory.getBroker(null));
-        ctx.writeAndFlush(new ConnectionTune(256, 65535, 0));
+        connectionHandler.proposeTuning(ctx, heartbeat);
     }
 
     @Override
@@ -20,7 +20,6 @@ package io.ballerina.messaging.broker.amqp.codec.auth;
 
 import io.ballerina.messaging.broker.amqp.AmqpServerConfiguration;
 import io.ballerina.messaging.broker.amqp.codec.frames.ConnectionSecure;
-import io.ballerina.messaging.broker.amqp.codec.frames.ConnectionTune;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
 import io.ballerina.messaging.broker.auth.AuthManager;
 import io.ballerina.messaging.broker.auth.UsernamePrincipal;
@@ -49,12 +48,15 @@ public class SaslAuthenticationStrategy implements AuthenticationStrategy {
 
     private String hostName;
 
+    private final int heartbeat;
+
     SaslAuthenticationStrategy(AuthManager authManager,
                                BrokerFactory brokerFactory,
                                AmqpServerConfiguration configuration) {
         this.authManager = authManager;
         this.brokerFactory = brokerFactory;
         this.hostName = configuration.getHostName();
+        this.heartbeat = configuration.getHeartbeat();
     }
 
     @Override
@@ -69,7 +71,7 @@ public class SaslAuthenticationStrategy implements AuthenticationStrategy {
             if (saslServer.isComplete()) {
                 Subject subject = UsernamePrincipal.createSubject(saslServer.getAuthorizationID());
                 connectionHandler.attachBroker(brokerFactory.getBroker(subject));
-                ctx.writeAndFlush(new ConnectionTune(256, 65535, 0));
+                connectionHandler.proposeTuning(ctx, heartbeat);
                 ctx.channel().attr(AttributeKey.valueOf(SASL_SERVER_ATTRIBUTE)).set(null);
             } else {
                 ctx.writeAndFlush(new ConnectionSecure(channel, LongString.parse(challenge)));
@@ -97,7 +99,7 @@ public class SaslAuthenticationStrategy implements AuthenticationStrategy {
             if (saslServer.isComplete()) {
                 Subject subject = UsernamePrincipal.createSubject(saslServer.getAuthorizationID());
                 connectionHandler.attachBroker(brokerFactory.getBroker(subject));
-                ctx.writeAndFlush(new ConnectionTune(256, 65535, 0));
+                connectionHandler.proposeTuning(ctx, heartbeat);
             } else {
                 ctx.channel().attr(AttributeKey.valueOf(SASL_SERVER_ATTRIBUTE)).set(saslServer);
                 ctx.writeAndFlush(new ConnectionSecure(channel, LongString.parse(challenge)));
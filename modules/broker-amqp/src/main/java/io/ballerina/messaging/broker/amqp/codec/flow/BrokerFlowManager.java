@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.flow;
+
+import io.ballerina.messaging.broker.amqp.AmqpServerConfiguration;
+import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
+import io.netty.channel.ChannelHandlerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.metrics.core.Timer.Context;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * BrokerFlowManager limits the bytes of message content received from publishers and held in memory across all
+ * connections of the node. Reading from a publishing connection is paused while the limit is exceeded.
+ */
+@ThreadSafe
+public class BrokerFlowManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BrokerFlowManager.class);
+
+    private final long highLimit;
+    private final long lowLimit;
+    private final AmqpServerConfiguration.ByteFlowDetails connectionFlow;
+    private final AmqpMetricManager metricManager;
+    private final AtomicLong bytesInFlight = new AtomicLong();
+
+    /**
+     * Connections paused due to the broker level limit. Guarded by this.
+     */
+    private final Set<ConnectionFlowManager> disabledConnections = new HashSet<>();
+
+    private volatile boolean inflowEnabled = true;
+
+    /**
+     * Measures the time inflow is disabled. Guarded by this.
+     */
+    private Context throttleTimerContext;
+
+    public BrokerFlowManager(AmqpServerConfiguration configuration, AmqpMetricManager metricManager) {
+        this.lowLimit = configuration.getBrokerFlow().getLowLimit();
+        this.highLimit = configuration.getBrokerFlow().getHighLimit();
+        this.connectionFlow = configuration.getConnectionFlow();
+        this.metricManager = metricManager;
+    }
+
+    /**
+     * Create the flow manager of a new connection.
+     *
+     * @param ctx channel handler context of the connection
+     * @return flow manager of the connection
+     */
+    public ConnectionFlowManager createConnectionFlowManager(ChannelHandlerContext ctx) {
+        return new ConnectionFlowManager(ctx, this, connectionFlow.getLowLimit(), connectionFlow.getHighLimit(),
+                                         metricManager);
+    }
+
+    /**
+     * Account message content received on a connection. Should be called from the event loop of the connection.
+     *
+     * @param connection flow manager of the connection the content was received on
+     * @param bytes      content size in bytes
+     */
+    void notifyContentAddition(ConnectionFlowManager connection, long bytes) {
+        if (bytesInFlight.addAndGet(bytes) > highLimit || !inflowEnabled) {
+            synchronized (this) {
+                if (inflowEnabled && bytesInFlight.get() > highLimit) {
+                    inflowEnabled = false;
+                    throttleTimerContext = metricManager.startBrokerInflowThrottleTimer();
+                    LOGGER.info("Inflow disabled for the broker. {} bytes in flight", bytesInFlight.get());
+                }
+                if (!inflowEnabled && disabledConnections.add(connection)) {
+                    connection.brokerInflowDisabled();
+                }
+            }
+        }
+    }
+
+    /**
+     * Release message content accounted through {@link #notifyContentAddition(ConnectionFlowManager, long)}.
+     *
+     * @param bytes content size in bytes
+     */
+    void notifyContentRemoval(long bytes) {
+        if (bytesInFlight.addAndGet(-bytes) < lowLimit && !inflowEnabled) {
+            synchronized (this) {
+                if (!inflowEnabled && bytesInFlight.get() < lowLimit) {
+                    inflowEnabled = true;
+                    throttleTimerContext.stop();
+                    throttleTimerContext = null;
+                    for (ConnectionFlowManager connection : disabledConnections) {
+                        connection.brokerInflowEnabled();
+                    }
+                    disabledConnections.clear();
+                    LOGGER.info("Inflow enabled for the broker. {} bytes in flight", bytesInFlight.get());
+                }
+            }
+        }
+    }
+
+    /**
+     * Forget a closed connection.
+     *
+     * @param connection flow manager of the closed connection
+     */
+    synchronized void removeConnection(ConnectionFlowManager connection) {
+        disabledConnections.remove(connection);
+    }
+
+    /**
+     * Getter for bytesInFlight.
+     */
+    public long getBytesInFlight() {
+        return bytesInFlight.get();
+    }
+
+    public boolean isInflowEnabled() {
+        return inflowEnabled;
+    }
+}
@@ -21,46 +21,122 @@ package io.ballerina.messaging.broker.amqp.codec.flow;
 
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
 import io.ballerina.messaging.broker.amqp.codec.frames.ChannelFlow;
+import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.metrics.core.Timer.Context;
 
 /**
  * ChannelFlowManager is responsible for managing flow rate of publishers. The flow should be disabled and enabled
- * depending on the server load.
+ * depending on the server load. Inflow of the channel is disabled when either the number of messages or the bytes of
+ * message content in flight exceed the high limits, and enabled again once both drop below the low limits. Content
+ * is also accounted at the connection level through the {@link ConnectionFlowManager}.
  */
 public class ChannelFlowManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(ChannelFlowManager.class);
 
     private final int highLimit;
     private final int lowLimit;
+    private final long highLimitBytes;
+    private final long lowLimitBytes;
     private int messagesInFlight = 0;
+    private long bytesInFlight = 0;
     private boolean inflowEnabled = true;
+    private boolean closed = false;
     private final AmqpChannel channel;
+    private final ConnectionFlowManager connectionFlowManager;
+    private final AmqpMetricManager metricManager;
+    private Context throttleTimerContext;
 
-    public ChannelFlowManager(AmqpChannel channel, int lowLimit, int highLimit) {
+    public ChannelFlowManager(AmqpChannel channel, int lowLimit, int highLimit, long lowLimitBytes,
+                              long highLimitBytes, ConnectionFlowManager connectionFlowManager,
+                              AmqpMetricManager metricManager) {
         this.channel = channel;
         this.lowLimit = lowLimit;
         this.highLimit = highLimit;
+        this.lowLimitBytes = lowLimitBytes;
+        this.highLimitBytes = highLimitBytes;
+        this.connectionFlowManager = connectionFlowManager;
+        this.metricManager = metricManager;
     }
 
     public void notifyMessageAddition(ChannelHandlerContext ctx) {
         messagesInFlight++;
-        if (messagesInFlight > highLimit && inflowEnabled) {
+        checkHighLimits(ctx);
+    }
+
+    /**
+     * Account the content of a fully received message held in memory until it is published. Content is not
+     * accounted while a message is partially received, so that a message larger than the limits can complete.
+     *
+     * @param ctx   channel handler context
+     * @param bytes content size in bytes
+     */
+    public void notifyContentAddition(ChannelHandlerContext ctx, long bytes) {
+        bytesInFlight += bytes;
+        connectionFlowManager.notifyContentAddition(bytes);
+        checkHighLimits(ctx);
+    }
+
+    private void checkHighLimits(ChannelHandlerContext ctx) {
+        if ((messagesInFlight > highLimit || bytesInFlight > highLimitBytes) && inflowEnabled) {
             inflowEnabled = false;
+            throttleTimerContext = metricManager.startChannelInflowThrottleTimer();
             ctx.writeAndFlush(new ChannelFlow(channel.getChannelId(), false));
-            ctx.channel().config().setAutoRead(false);
+            connectionFlowManager.channelInflowDisabled();
             LOGGER.info("Inflow disabled for channel {}-{}", channel.getChannelId(), ctx.channel().remoteAddress());
         }
     }
 
     public void notifyMessageRemoval(ChannelHandlerContext ctx) {
-        messagesInFlight--;
-        if (messagesInFlight < lowLimit && !inflowEnabled) {
+        notifyMessageRemoval(ctx, 1);
+    }
+
+    public void notifyMessageRemoval(ChannelHandlerContext ctx, int messageCount) {
+        notifyMessageRemoval(ctx, messageCount, 0);
+    }
+
+    /**
+     * Release messages handed over to the broker.
+     *
+     * @param ctx          channel handler context
+     * @param messageCount number of messages
+     * @param bytes        total content size of the messages in bytes
+     */
+    public void notifyMessageRemoval(ChannelHandlerContext ctx, int messageCount, long bytes) {
+        if (closed) {
+            return;
+        }
+        messagesInFlight -= messageCount;
+        if (bytes > 0) {
+            bytesInFlight -= bytes;
+            connectionFlowManager.notifyContentRemoval(bytes);
+        }
+        if (messagesInFlight < lowLimit && bytesInFlight < lowLimitBytes && !inflowEnabled) {
             inflowEnabled = true;
+            throttleTimerContext.stop();
             ctx.writeAndFlush(new ChannelFlow(channel.getChannelId(), true));
-            ctx.channel().config().setAutoRead(true);
+            connectionFlowManager.channelInflowEnabled();
             LOGGER.info("Inflow enabled for channel {}-{}", channel.getChannelId(), ctx.channel().remoteAddress());
         }
     }
+
+    /**
+     * Release the content still accounted for the channel once the channel is closed.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (bytesInFlight > 0) {
+            connectionFlowManager.notifyContentRemoval(bytesInFlight);
+            bytesInFlight = 0;
+        }
+        if (!inflowEnabled) {
+            throttleTimerContext.stop();
+            connectionFlowManager.channelInflowEnabled();
+        }
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.flow;
+
+import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
+import io.netty.channel.ChannelHandlerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.metrics.core.Timer.Context;
+
+/**
+ * ConnectionFlowManager limits the bytes of message content received on all channels of a connection and held in
+ * memory. Reading from the connection is paused while the connection limit is exceeded, any of its channels has
+ * inflow disabled or the broker level limit is exceeded. Content is also accounted at the broker level.
+ * <p>
+ * Should only be accessed from the event loop of the connection.
+ */
+public class ConnectionFlowManager {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionFlowManager.class);
+
+    private final ChannelHandlerContext ctx;
+    private final BrokerFlowManager brokerFlowManager;
+    private final long lowLimit;
+    private final long highLimit;
+    private final AmqpMetricManager metricManager;
+    private long bytesInFlight = 0;
+    private boolean inflowEnabled = true;
+    private boolean brokerInflowEnabled = true;
+    private int disabledChannelCount = 0;
+    private Context throttleTimerContext;
+
+    ConnectionFlowManager(ChannelHandlerContext ctx, BrokerFlowManager brokerFlowManager, long lowLimit,
+                          long highLimit, AmqpMetricManager metricManager) {
+        this.ctx = ctx;
+        this.brokerFlowManager = brokerFlowManager;
+        this.lowLimit = lowLimit;
+        this.highLimit = highLimit;
+        this.metricManager = metricManager;
+    }
+
+    void notifyContentAddition(long bytes) {
+        bytesInFlight += bytes;
+        if (bytesInFlight > highLimit && inflowEnabled) {
+            inflowEnabled = false;
+            throttleTimerContext = metricManager.startConnectionInflowThrottleTimer();
+            updateAutoRead();
+            LOGGER.info("Inflow disabled for connection {}", ctx.channel().remoteAddress());
+        }
+        brokerFlowManager.notifyContentAddition(this, bytes);
+    }
+
+    void notifyContentRemoval(long bytes) {
+        bytesInFlight -= bytes;
+        if (bytesInFlight < lowLimit && !inflowEnabled) {
+            inflowEnabled = true;
+            throttleTimerContext.stop();
+            updateAutoRead();
+            LOGGER.info("Inflow enabled for connection {}", ctx.channel().remoteAddress());
+        }
+        brokerFlowManager.notifyContentRemoval(bytes);
+    }
+
+    void channelInflowDisabled() {
+        disabledChannelCount++;
+        updateAutoRead();
+    }
+
+    void channelInflowEnabled() {
+        disabledChannelCount--;
+        updateAutoRead();
+    }
+
+    /**
+     * Called by the {@link BrokerFlowManager} from the event loop of this connection.
+     */
+    void brokerInflowDisabled() {
+        brokerInflowEnabled = false;
+        updateAutoRead();
+    }
+
+    /**
+     * Called by the {@link BrokerFlowManager} from any thread.
+     */
+    void brokerInflowEnabled() {
+        ctx.executor().execute(() -> {
+            brokerInflowEnabled = true;
+            updateAutoRead();
+        });
+    }
+
+    /**
+     * Check whether content can be read from the connection.
+     *
+     * @return true if none of the connection, channel or broker limits are exceeded
+     */
+    public boolean isInflowEnabled() {
+        return inflowEnabled && brokerInflowEnabled && disabledChannelCount == 0;
+    }
+
+    private void updateAutoRead() {
+        ctx.channel().config().setAutoRead(isInflowEnabled() && ctx.channel().isWritable());
+    }
+
+    /**
+     * Release the content still accounted for the connection once the connection is closed.
+     */
+    public void close() {
+        if (!inflowEnabled) {
+            throttleTimerContext.stop();
+        }
+        brokerFlowManager.removeConnection(this);
+        if (bytesInFlight > 0) {
+            brokerFlowManager.notifyContentRemoval(bytesInFlight);
+            bytesInFlight = 0;
+        }
+    }
+}
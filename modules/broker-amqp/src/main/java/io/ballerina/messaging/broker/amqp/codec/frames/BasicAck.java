@@ -32,16 +32,35 @@ import io.netty.channel.ChannelHandlerContext;
  *      2. multiple (bit) - acknowledge multiple messages
  */
 public class BasicAck extends MethodFrame {
+    public static final short CLASS_ID = 60;
+    public static final short METHOD_ID = 80;
 
-    private final long deliveryTag;
-    private final boolean multiple;
+    private long deliveryTag;
+    private boolean multiple;
 
     public BasicAck(int channel, long deliveryTag, boolean multiple) {
-        super(channel, (short) 60, (short) 80);
+        super(channel, CLASS_ID, METHOD_ID);
         this.deliveryTag = deliveryTag;
         this.multiple = multiple;
     }
 
+    /**
+     * Create a reusable frame for the given channel. Fields are populated through {@link #wrap(ByteBuf)}.
+     */
+    BasicAck(int channel) {
+        this(channel, 0, false);
+    }
+
+    /**
+     * Decode the method body into this frame instance replacing the previously decoded values.
+     *
+     * @param buf buffer positioned at the start of the method body
+     */
+    void wrap(ByteBuf buf) {
+        deliveryTag = buf.readLong();
+        multiple = buf.readBoolean();
+    }
+
     @Override
     protected long getMethodBodySize() {
         return 8L + 1L;
@@ -56,7 +75,18 @@ public class BasicAck extends MethodFrame {
     @Override
     public void handle(ChannelHandlerContext ctx, AmqpConnectionHandler connectionHandler) {
         AmqpChannel channel = connectionHandler.getChannel(getChannel());
-        ctx.fireChannelRead((BlockingTask) () -> channel.acknowledge(deliveryTag, multiple));
+        // Copy the fields since the frame instance can be reused before the task is executed
+        long tag = deliveryTag;
+        boolean isMultiple = multiple;
+        ctx.fireChannelRead((BlockingTask) () -> channel.acknowledge(tag, isMultiple));
+    }
+
+    public long getDeliveryTag() {
+        return deliveryTag;
+    }
+
+    public boolean isMultiple() {
+        return multiple;
     }
 
     public static AmqMethodBodyFactory getFactory() {
@@ -19,6 +19,7 @@
 
 package io.ballerina.messaging.broker.amqp.codec.frames;
 
+import io.ballerina.messaging.broker.amqp.codec.AmqConstant;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
 import io.ballerina.messaging.broker.common.data.types.ShortString;
@@ -41,10 +42,10 @@ public class BasicPublish extends MethodFrame {
     public static final short CLASS_ID = 60;
     public static final short METHOD_ID = 40;
 
-    private final ShortString exchange;
-    private final ShortString routingKey;
-    private final boolean mandatory;
-    private final boolean immediate;
+    private ShortString exchange;
+    private ShortString routingKey;
+    private boolean mandatory;
+    private boolean immediate;
 
     public BasicPublish(int channel, ShortString exchange, ShortString routingKey, boolean mandatory,
             boolean immediate) {
@@ -55,6 +56,27 @@ public class BasicPublish extends MethodFrame {
         this.immediate = immediate;
     }
 
+    /**
+     * Create a reusable frame for the given channel. Fields are populated through {@link #wrap(ByteBuf)}.
+     */
+    BasicPublish(int channel) {
+        super(channel, CLASS_ID, METHOD_ID);
+    }
+
+    /**
+     * Decode the method body into this frame instance replacing the previously decoded values.
+     *
+     * @param buf buffer positioned at the start of the method body
+     */
+    void wrap(ByteBuf buf) {
+        buf.skipBytes(2);
+        exchange = AmqConstant.NAME_POOL.parse(buf);
+        routingKey = AmqConstant.NAME_POOL.parse(buf);
+        byte flags = buf.readByte();
+        mandatory = (flags & 0x1) == 0x1;
+        immediate = (flags & 0x2) == 0x2;
+    }
+
     @Override
     protected long getMethodBodySize() {
         return 2L + exchange.getSize() + routingKey.getSize() + 1L;
@@ -115,8 +137,8 @@ public class BasicPublish extends MethodFrame {
     public static AmqMethodBodyFactory getFactory() {
         return (buf, channel, size) -> {
             buf.skipBytes(2);
-            ShortString exchange = ShortString.parse(buf);
-            ShortString routingKey = ShortString.parse(buf);
+            ShortString exchange = AmqConstant.NAME_POOL.parse(buf);
+            ShortString routingKey = AmqConstant.NAME_POOL.parse(buf);
             byte flags = buf.readByte();
             boolean mandatory = (flags & 0x1) == 0x1;
             boolean immediate = (flags & 0x2) == 0x2;
@@ -58,10 +58,13 @@ public class BasicQos extends MethodFrame {
 
     @Override
     public void handle(ChannelHandlerContext ctx, AmqpConnectionHandler connectionHandler) {
-        // TODO QoS Parameters should be propagated to message prefetch logic
         int channelId = getChannel();
-        AmqpChannel channel = connectionHandler.getChannel(channelId);
-        channel.setPrefetchCount(prefetchCount);
+        if (global) {
+            connectionHandler.getPrefetchWindow().setLimits(prefetchCount, prefetchWindowSize);
+        } else {
+            AmqpChannel channel = connectionHandler.getChannel(channelId);
+            channel.setQos(prefetchCount, prefetchWindowSize);
+        }
         ctx.writeAndFlush(new BasicQosOk(channelId));
     }
 
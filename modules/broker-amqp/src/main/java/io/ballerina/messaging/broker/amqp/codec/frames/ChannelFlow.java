@@ -21,7 +21,6 @@ package io.ballerina.messaging.broker.amqp.codec.frames;
 
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
-import io.ballerina.messaging.broker.amqp.consumer.AmqpDeliverMessage;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
@@ -58,14 +57,8 @@ public class ChannelFlow extends MethodFrame {
         AmqpChannel channel = connectionHandler.getChannel(getChannel());
         channel.setFlow(active);
         LOGGER.debug("Channel.flow method received. ChannelId: {} active: {} ", getChannel(), active);
-        ctx.write(new ChannelFlowOk(getChannel(), active));
-
-        if (active) {
-            for (AmqpDeliverMessage message : channel.getPendingMessages()) {
-                ctx.channel().write(message);
-            }
-        }
-        ctx.flush();
+        // Delivery resumes through the message delivery task once the channel is ready again
+        ctx.writeAndFlush(new ChannelFlowOk(getChannel(), active));
     }
 
     public static AmqMethodBodyFactory getFactory() {
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.frames;
+
+import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
+import io.ballerina.messaging.broker.amqp.codec.ChannelException;
+import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+
+/**
+ * AMQP frame for confirm.select
+ * Parameter Summary:
+ *      1. nowait (bit) - do not send a reply method
+ */
+public class ConfirmSelect extends MethodFrame {
+
+    private static final short CLASS_ID = 85;
+    private static final short METHOD_ID = 10;
+
+    private final boolean noWait;
+
+    public ConfirmSelect(int channel, boolean noWait) {
+        super(channel, CLASS_ID, METHOD_ID);
+        this.noWait = noWait;
+    }
+
+    @Override
+    protected long getMethodBodySize() {
+        return 1L;
+    }
+
+    @Override
+    protected void writeMethod(ByteBuf buf) {
+        buf.writeBoolean(noWait);
+    }
+
+    @Override
+    public void handle(ChannelHandlerContext ctx, AmqpConnectionHandler connectionHandler) {
+        int channelId = getChannel();
+        AmqpChannel channel = connectionHandler.getChannel(channelId);
+        // Confirm mode is set through the event loop so that every publish that follows is tracked
+        if (channel.selectConfirmMode()) {
+            if (!noWait) {
+                ctx.writeAndFlush(new ConfirmSelectOk(channelId));
+            }
+        } else {
+            ctx.writeAndFlush(new ChannelClose(channelId,
+                                               ChannelException.PRECONDITION_FAILED,
+                                               ShortString.parseString("Transactional channel cannot be put into "
+                                                                               + "confirm mode"),
+                                               CLASS_ID,
+                                               METHOD_ID));
+        }
+    }
+
+    public static AmqMethodBodyFactory getFactory() {
+        return (buf, channel, size) -> new ConfirmSelect(channel, buf.readBoolean());
+    }
+}
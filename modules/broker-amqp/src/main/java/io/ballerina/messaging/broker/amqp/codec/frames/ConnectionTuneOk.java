@@ -19,9 +19,12 @@
 
 package io.ballerina.messaging.broker.amqp.codec.frames;
 
+import io.ballerina.messaging.broker.amqp.codec.ConnectionException;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * AMQP frame for connection.tune-ok.
@@ -32,12 +35,16 @@ import io.netty.channel.ChannelHandlerContext;
  *     3. heartbeat (short) - desired heartbeat delay
  */
 public class ConnectionTuneOk extends MethodFrame {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionTuneOk.class);
+    private static final short CLASS_ID = 10;
+    private static final short METHOD_ID = 31;
+
     private final int channelMax;
     private final long frameMax;
     private final int heartbeat;
 
     public ConnectionTuneOk(int channelMax, long frameMax, int heartbeat) {
-        super(0, (short) 10, (short) 30);
+        super(0, CLASS_ID, METHOD_ID);
         this.channelMax = channelMax;
         this.frameMax = frameMax;
         this.heartbeat = heartbeat;
@@ -57,7 +64,19 @@ public class ConnectionTuneOk extends MethodFrame {
 
     @Override
     public void handle(ChannelHandlerContext ctx, AmqpConnectionHandler connectionHandler) {
-        // TODO add tuning logic
+        try {
+            connectionHandler.tune(ctx, channelMax, frameMax, heartbeat);
+        } catch (ConnectionException e) {
+            LOGGER.warn("Error while tuning connection", e);
+            ctx.writeAndFlush(ConnectionClose.getInstance(CLASS_ID, METHOD_ID, e));
+        }
+    }
+
+    /**
+     * Getter for heartbeat.
+     */
+    public int getHeartbeat() {
+        return heartbeat;
     }
 
     public static AmqMethodBodyFactory getFactory() {
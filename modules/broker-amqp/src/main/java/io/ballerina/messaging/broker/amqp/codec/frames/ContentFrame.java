@@ -21,16 +21,12 @@ package io.ballerina.messaging.broker.amqp.codec.frames;
 
 import io.ballerina.messaging.broker.amqp.AmqpException;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
-import io.ballerina.messaging.broker.amqp.codec.BlockingTask;
-import io.ballerina.messaging.broker.amqp.codec.ChannelException;
 import io.ballerina.messaging.broker.amqp.codec.InMemoryMessageAggregator;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
-import io.ballerina.messaging.broker.auth.AuthException;
-import io.ballerina.messaging.broker.auth.AuthNotFoundException;
-import io.ballerina.messaging.broker.common.data.types.ShortString;
-import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.Message;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -44,8 +40,24 @@ public class ContentFrame extends GeneralFrame {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(ContentFrame.class);
 
-    private final long length;
-    private final ByteBuf payload;
+    /**
+     * Payloads smaller than this are copied into a single frame buffer since maintaining a composite buffer costs
+     * more than the copy.
+     */
+    private static final int COMPOSITE_PAYLOAD_THRESHOLD = 1024;
+
+    private long length;
+    private ByteBuf payload;
+
+    /**
+     * Largest payload that fits in a single content frame of the given frame size.
+     *
+     * @param frameMax negotiated frame size of the connection
+     * @return maximum payload size in bytes
+     */
+    public static int getMaxPayloadSize(long frameMax) {
+        return (int) (frameMax - FRAME_HEADER_SIZE - 1);
+    }
 
     public ContentFrame(int channel, long length, ByteBuf payload) {
         super((byte) 3, channel);
@@ -53,11 +65,51 @@ public class ContentFrame extends GeneralFrame {
         this.payload = payload;
     }
 
+    /**
+     * Create a reusable frame for the given channel. Fields are populated through {@link #wrap(ByteBuf, long)}.
+     */
+    ContentFrame(int channel) {
+        this(channel, 0, null);
+    }
+
+    /**
+     * Decode the frame payload into this frame instance. Ownership of the previously decoded payload must have
+     * been handed over before calling this.
+     *
+     * @param buf         buffer positioned at the start of the payload
+     * @param payloadSize size of the payload
+     */
+    void wrap(ByteBuf buf, long payloadSize) {
+        length = payloadSize;
+        payload = buf.retainedSlice(buf.readerIndex(), (int) payloadSize);
+        buf.skipBytes((int) payloadSize);
+    }
+
     @Override
     public long getPayloadSize() {
         return length;
     }
 
+    /**
+     * Write the frame without copying the payload when it is large enough. Frame header, payload and frame end are
+     * combined into a {@link CompositeByteBuf} so the payload is written to the socket from the original buffer.
+     */
+    @Override
+    public ByteBuf write(ByteBufAllocator out) {
+        if (length < COMPOSITE_PAYLOAD_THRESHOLD) {
+            return super.write(out);
+        }
+
+        ByteBuf header = out.buffer(FRAME_HEADER_SIZE);
+        writeHeader(header, length);
+        ByteBuf frameEnd = out.buffer(1).writeByte(FRAME_END);
+
+        // Ownership of the payload is transferred to the composite buffer which is released once written
+        CompositeByteBuf frame = out.compositeBuffer(3);
+        frame.addComponents(true, header, payload, frameEnd);
+        return frame;
+    }
+
     @Override
     public void writePayload(ByteBuf buf) {
         try {
@@ -75,30 +127,23 @@ public class ContentFrame extends GeneralFrame {
         InMemoryMessageAggregator messageAggregator = channel.getMessageAggregator();
 
         try {
-            allContentReceived = messageAggregator.contentBodyReceived(length, payload);
+            allContentReceived = messageAggregator.contentBodyReceived(ctx, length, payload);
         } catch (AmqpException e) {
             LOGGER.warn("Content receiving failed", e);
+            // The dropped message's content was never accounted, only the message itself
+            channel.getFlowManager().notifyMessageRemoval(ctx);
             return;
         }
 
-        if (allContentReceived) {
+        if (allContentReceived && messageAggregator.isSpooled()) {
+            connectionHandler.publishSpooledMessage(ctx, channel);
+        } else if (allContentReceived) {
+            // Published once the current read burst is over, together with the other completed messages
             Message message = messageAggregator.popMessage();
-
-            ctx.fireChannelRead((BlockingTask) () -> {
-                try {
-                    messageAggregator.publish(message);
-                    // flow manager should always be executed through the event loop
-                    ctx.executor().submit(() -> channel.getFlowManager().notifyMessageRemoval(ctx));
-                } catch (BrokerException e) {
-                    LOGGER.warn("Content receiving failed", e);
-                } catch (AuthException | AuthNotFoundException e) {
-                    ctx.writeAndFlush(new ChannelClose(getChannel(),
-                                                       ChannelException.ACCESS_REFUSED,
-                                                       ShortString.parseString(e.getMessage()),
-                                                       BasicPublish.CLASS_ID,
-                                                       BasicPublish.METHOD_ID));
-                }
-            });
+            // Content is accounted only once the message is complete. Pausing the inflow in the middle of a
+            // message larger than the limits would stall it, since nothing is released until it is published.
+            channel.getFlowManager().notifyContentAddition(ctx, message.getMetadata().getContentLength());
+            connectionHandler.addPendingPublish(channel, message);
         }
     }
 
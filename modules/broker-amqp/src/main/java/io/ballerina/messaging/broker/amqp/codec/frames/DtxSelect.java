@@ -20,7 +20,9 @@
 package io.ballerina.messaging.broker.amqp.codec.frames;
 
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
+import io.ballerina.messaging.broker.amqp.codec.ChannelException;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 
@@ -48,7 +50,17 @@ public class DtxSelect extends MethodFrame {
 
     @Override
     public void handle(ChannelHandlerContext ctx, AmqpConnectionHandler connectionHandler) {
-        AmqpChannel channel = connectionHandler.getChannel(getChannel());
+        int channelId = getChannel();
+        AmqpChannel channel = connectionHandler.getChannel(channelId);
+        if (!channel.selectTransactionalMode()) {
+            ctx.writeAndFlush(new ChannelClose(channelId,
+                                               ChannelException.PRECONDITION_FAILED,
+                                               ShortString.parseString("Channel in confirm mode cannot be made "
+                                                                               + "transactional"),
+                                               CLASS_ID,
+                                               METHOD_ID));
+            return;
+        }
         channel.setDistributedTransactional();
     }
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.frames;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reusable instances of the frames on the publish and acknowledgement path of a single AMQP channel. Decoding into
+ * these instances avoids allocating a frame object per received frame.
+ * <p>
+ * A decoded frame is only valid until the next frame of the same type is decoded for the channel. Hence frames
+ * must be handled before the decoder continues, and handlers must not keep references to the frame.
+ */
+public final class FlyweightFrames {
+
+    private final BasicPublish basicPublish;
+
+    private final BasicAck basicAck;
+
+    private final HeaderFrame headerFrame;
+
+    private final ContentFrame contentFrame;
+
+    public FlyweightFrames(int channel) {
+        basicPublish = new BasicPublish(channel);
+        basicAck = new BasicAck(channel);
+        headerFrame = new HeaderFrame(channel);
+        contentFrame = new ContentFrame(channel);
+    }
+
+    /**
+     * Decode a method frame into a reused instance.
+     *
+     * @param classId  AMQP class id of the method
+     * @param methodId AMQP method id of the method
+     * @param buf      buffer positioned at the start of the method body
+     * @return decoded frame or null if the method does not have a reusable frame
+     */
+    public MethodFrame decodeMethod(short classId, short methodId, ByteBuf buf) {
+        if (classId == BasicPublish.CLASS_ID) {
+            if (methodId == BasicPublish.METHOD_ID) {
+                basicPublish.wrap(buf);
+                return basicPublish;
+            } else if (methodId == BasicAck.METHOD_ID) {
+                basicAck.wrap(buf);
+                return basicAck;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decode a content header frame into the reused instance.
+     *
+     * @param buf buffer positioned at the start of the frame payload
+     * @return decoded frame
+     */
+    public HeaderFrame decodeHeader(ByteBuf buf) {
+        headerFrame.wrap(buf);
+        return headerFrame;
+    }
+
+    /**
+     * Decode a content body frame into the reused instance.
+     *
+     * @param buf         buffer positioned at the start of the frame payload
+     * @param payloadSize size of the payload
+     * @return decoded frame
+     */
+    public ContentFrame decodeContent(ByteBuf buf, long payloadSize) {
+        contentFrame.wrap(buf, payloadSize);
+        return contentFrame;
+    }
+}
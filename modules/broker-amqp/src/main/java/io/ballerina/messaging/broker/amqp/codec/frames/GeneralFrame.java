@@ -30,6 +30,11 @@ import io.netty.channel.ChannelHandlerContext;
 public abstract class GeneralFrame {
     public static final short FRAME_END = 0xCE;
 
+    /**
+     * Size of the frame header. Frame type (1 byte), channel (2 bytes) and payload size (4 bytes).
+     */
+    protected static final int FRAME_HEADER_SIZE = 1 + 2 + 4;
+
     private final byte type;
     private final int channel;
 
@@ -54,12 +59,10 @@ public abstract class GeneralFrame {
 
     public ByteBuf write(ByteBufAllocator out) {
         long payloadSize = getPayloadSize();
-        long totalSize = payloadSize + 1 + 2 + 4;
+        long totalSize = FRAME_HEADER_SIZE + payloadSize + 1;
         ByteBuf buf = out.buffer((int) totalSize);
 
-        buf.writeByte(type);
-        buf.writeShort(channel);
-        buf.writeInt((int) payloadSize);
+        writeHeader(buf, payloadSize);
 
         writePayload(buf);
 
@@ -67,4 +70,16 @@ public abstract class GeneralFrame {
 
         return buf;
     }
+
+    /**
+     * Write the frame header to the given buffer.
+     *
+     * @param buf         buffer to write the header
+     * @param payloadSize size of the frame payload
+     */
+    protected void writeHeader(ByteBuf buf, long payloadSize) {
+        buf.writeByte(type);
+        buf.writeShort(channel);
+        buf.writeInt((int) payloadSize);
+    }
 }
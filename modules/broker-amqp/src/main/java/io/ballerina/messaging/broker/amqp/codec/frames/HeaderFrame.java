@@ -27,8 +27,11 @@ import io.ballerina.messaging.broker.common.data.types.FieldTable;
 import io.ballerina.messaging.broker.common.data.types.FieldValue;
 import io.ballerina.messaging.broker.common.data.types.LongInt;
 import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.Metadata;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 
 import java.util.HashMap;
@@ -60,13 +63,19 @@ public class HeaderFrame extends GeneralFrame {
     private static final ShortString APPLICATION_ID = ShortString.parseString("applicationId");
     private static final ShortString PROPERTY_FLAGS = ShortString.parseString("propertyFlags");
 
-    private final long bodySize;
-    private final int classId;
+    private long bodySize;
+    private int classId;
 
     // Header properties
     private FieldTable headers;
     private FieldTable properties;
 
+    /**
+     * Wire encoded property flags and property list. When set, these bytes are written instead of encoding the
+     * header and property tables.
+     */
+    private byte[] encodedProperties;
+
     public HeaderFrame(int channel, int classId, long bodySize) {
         super((byte) 2, channel);
         this.classId = classId;
@@ -75,8 +84,73 @@ public class HeaderFrame extends GeneralFrame {
         headers = FieldTable.EMPTY_TABLE;
     }
 
+    /**
+     * Create a reusable frame for the given channel. Fields are populated through {@link #wrap(ByteBuf)}.
+     */
+    HeaderFrame(int channel) {
+        super((byte) 2, channel);
+    }
+
+    /**
+     * Decode the frame payload into this frame instance. Header and property tables are created afresh since they
+     * are handed over to the message metadata.
+     *
+     * @param buf buffer positioned at the start of the payload
+     */
+    void wrap(ByteBuf buf) {
+        classId = buf.readUnsignedShort();
+        // ignore weight
+        buf.skipBytes(2);
+        bodySize = buf.readLong();
+        properties = new FieldTable(new HashMap<>());
+        headers = FieldTable.EMPTY_TABLE;
+        readProperties(buf);
+    }
+
+    /**
+     * Getter for encodedProperties.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public byte[] getEncodedProperties() {
+        return encodedProperties;
+    }
+
+    /**
+     * Set the wire encoded property flags and property list to be written as is.
+     *
+     * @param encodedProperties encoded properties obtained from {@link #encodeProperties()} or a parsed frame
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public void setEncodedProperties(byte[] encodedProperties) {
+        this.encodedProperties = encodedProperties;
+    }
+
+    /**
+     * Encode the property flags and the property list of the frame.
+     *
+     * @return encoded properties
+     */
+    public byte[] encodeProperties() {
+        byte[] bytes = new byte[(int) getPropertiesSize()];
+        ByteBuf buffer = Unpooled.wrappedBuffer(bytes);
+        buffer.resetWriterIndex();
+        writeProperties(buffer);
+        return bytes;
+    }
+
     @Override
     public long getPayloadSize() {
+        return 2L     // classID
+                + 2L // weight
+                + 8L // body size
+                + getPropertiesSize();
+    }
+
+    private long getPropertiesSize() {
+        if (encodedProperties != null) {
+            return encodedProperties.length;
+        }
+
         long propertyListSize = 0;
 
         propertyListSize += getPropertySize(properties.getValue(Metadata.CONTENT_TYPE));
@@ -93,10 +167,7 @@ public class HeaderFrame extends GeneralFrame {
         propertyListSize += getPropertySize(properties.getValue(USER_ID));
         propertyListSize += getPropertySize(properties.getValue(APPLICATION_ID));
 
-        return 2L     // classID
-                + 2L // weight
-                + 8L // body size
-                + 2L // property flag
+        return 2L // property flag
                 + propertyListSize;
     }
 
@@ -122,6 +193,14 @@ public class HeaderFrame extends GeneralFrame {
         buf.writeShort(0); // Write 0 for weight
         buf.writeLong(bodySize);
 
+        if (encodedProperties != null) {
+            buf.writeBytes(encodedProperties);
+        } else {
+            writeProperties(buf);
+        }
+    }
+
+    private void writeProperties(ByteBuf buf) {
         int propertyFlags = getPropertyFlagsValue(properties.getValue(PROPERTY_FLAGS));
 
         buf.writeShort(propertyFlags);
@@ -198,7 +277,14 @@ public class HeaderFrame extends GeneralFrame {
         AmqpChannel channel = connectionHandler.getChannel(getChannel());
 
         InMemoryMessageAggregator inMemoryMessageAggregator = channel.getMessageAggregator();
-        inMemoryMessageAggregator.headerFrameReceived(headers, properties, bodySize);
+        Message message = inMemoryMessageAggregator.headerFrameReceived(headers, properties, bodySize,
+                                                                        encodedProperties);
+        channel.trackPublish(ctx, message);
+
+        if (inMemoryMessageAggregator.isContentComplete()) {
+            // No content frames follow a message without a body
+            connectionHandler.addPendingPublish(channel, inMemoryMessageAggregator.popMessage());
+        }
     }
 
     private void writeProperty(ByteBuf buf, FieldValue fieldValue) {
@@ -220,7 +306,12 @@ public class HeaderFrame extends GeneralFrame {
         buf.skipBytes(2);
         long bodySize = buf.readLong();
         HeaderFrame headerFrame = new HeaderFrame(channel, classId, bodySize);
+        headerFrame.readProperties(buf);
+        return headerFrame;
+    }
 
+    private void readProperties(ByteBuf buf) {
+        int startIndex = buf.readerIndex();
         int propertyFlags = buf.readUnsignedShort();
 
         // Skip other property flags if exists
@@ -232,114 +323,131 @@ public class HeaderFrame extends GeneralFrame {
 
         // read known properties
         if ((propertyFlags & CONTENT_TYPE_MASK) != 0) {
-            headerFrame.setContentType(ShortString.parse(buf));
+            setContentType(ShortString.parse(buf));
         }
 
         if ((propertyFlags & ENCODING_MASK) != 0) {
-            headerFrame.setContentEncoding(ShortString.parse(buf));
+            setContentEncoding(ShortString.parse(buf));
         }
 
         if ((propertyFlags & HEADERS_MASK) != 0) {
-            headerFrame.setHeaders(FieldTable.parse(buf));
+            setHeaders(FieldTable.parse(buf));
         }
 
         if ((propertyFlags & DELIVERY_MODE_MASK) != 0) {
-            headerFrame.setDeliveryMode(buf.readUnsignedByte());
+            setDeliveryMode(buf.readUnsignedByte());
         }
 
         if ((propertyFlags & PRIORITY_MASK) != 0) {
-            headerFrame.setPriority(buf.readUnsignedByte());
+            setPriority(buf.readUnsignedByte());
         }
 
         if ((propertyFlags & CORRELATION_ID_MASK) != 0) {
-            headerFrame.setCorrelationId(ShortString.parse(buf));
+            setCorrelationId(ShortString.parse(buf));
         }
 
         if ((propertyFlags & REPLY_TO_MASK) != 0) {
-            headerFrame.setReplyTo(ShortString.parse(buf));
+            setReplyTo(ShortString.parse(buf));
         }
 
         if ((propertyFlags & EXPIRATION_MASK) != 0) {
-            headerFrame.setExpiration(ShortString.parse(buf));
+            setExpiration(ShortString.parse(buf));
         }
 
         if ((propertyFlags & MESSAGE_ID_MASK) != 0) {
-            headerFrame.setMessageId(ShortString.parse(buf));
+            setMessageId(ShortString.parse(buf));
         }
 
         if ((propertyFlags & TIMESTAMP_MASK) != 0) {
-            headerFrame.setTimestamp(buf.readLong());
+            setTimestamp(buf.readLong());
         }
 
         if ((propertyFlags & TYPE_MASK) != 0) {
-            headerFrame.setType(ShortString.parse(buf));
+            setType(ShortString.parse(buf));
         }
 
         if ((propertyFlags & USER_ID_MASK) != 0) {
-            headerFrame.setUserId(ShortString.parse(buf));
+            setUserId(ShortString.parse(buf));
         }
 
         if ((propertyFlags & APPLICATION_ID_MASK) != 0) {
-            headerFrame.setAppId(ShortString.parse(buf));
+            setAppId(ShortString.parse(buf));
         }
 
-        headerFrame.properties.add(PROPERTY_FLAGS, FieldValue.parseLongInt(propertyFlags));
-        return headerFrame;
+        properties.add(PROPERTY_FLAGS, FieldValue.parseLongInt(propertyFlags));
+
+        // Keep the wire form of the properties to be reused when the message is delivered
+        encodedProperties = new byte[buf.readerIndex() - startIndex];
+        buf.getBytes(startIndex, encodedProperties);
     }
 
     public void setContentType(ShortString contentType) {
+        encodedProperties = null;
         properties.add(Metadata.CONTENT_TYPE, FieldValue.parseShortString(contentType));
     }
 
     public void setContentEncoding(ShortString contentEncoding) {
+        encodedProperties = null;
         properties.add(Metadata.CONTENT_ENCODING, FieldValue.parseShortString(contentEncoding));
     }
 
     public void setHeaders(FieldTable headers) {
+        encodedProperties = null;
         this.headers = headers;
     }
 
     public void setDeliveryMode(short deliveryMode) {
+        encodedProperties = null;
         properties.add(Metadata.DELIVERY_MODE, FieldValue.parseShortShortInt((byte) deliveryMode));
     }
 
     public void setPriority(short priority) {
+        encodedProperties = null;
         properties.add(Metadata.PRIORITY, FieldValue.parseShortShortInt((byte) priority));
     }
 
     public void setCorrelationId(ShortString correlationId) {
+        encodedProperties = null;
         properties.add(Metadata.CORRELATION_ID, FieldValue.parseShortString(correlationId));
     }
 
     public void setReplyTo(ShortString replyTo) {
+        encodedProperties = null;
         properties.add(REPLY_TO, FieldValue.parseShortString(replyTo));
     }
 
     public void setExpiration(ShortString expiration) {
+        encodedProperties = null;
         properties.add(Metadata.EXPIRATION, FieldValue.parseShortString(expiration));
     }
 
     public void setMessageId(ShortString messageId) {
+        encodedProperties = null;
         properties.add(Metadata.MESSAGE_ID, FieldValue.parseShortString(messageId));
     }
 
     public void setTimestamp(long timestamp) {
+        encodedProperties = null;
         properties.add(TIMESTAMP, FieldValue.parseLongLongInt(timestamp));
     }
 
     public void setType(ShortString type) {
+        encodedProperties = null;
         properties.add(TYPE, FieldValue.parseShortString(type));
     }
 
     public void setUserId(ShortString userId) {
+        encodedProperties = null;
         properties.add(USER_ID, FieldValue.parseShortString(userId));
     }
 
     public void setAppId(ShortString appId) {
+        encodedProperties = null;
         properties.add(APPLICATION_ID, FieldValue.parseShortString(appId));
     }
 
     public void setProperties(FieldTable properties) {
+        encodedProperties = null;
         this.properties = properties;
     }
 }
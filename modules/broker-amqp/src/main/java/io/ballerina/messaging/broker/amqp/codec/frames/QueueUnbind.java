@@ -81,7 +81,7 @@ public class QueueUnbind extends MethodFrame {
         AmqpChannel channel = connectionHandler.getChannel(getChannel());
         ctx.fireChannelRead((BlockingTask) () -> {
             try {
-                channel.unbind(queue, exchange, routingKey);
+                channel.unbind(queue, exchange, routingKey, arguments);
                 ctx.writeAndFlush(new QueueUnbindOk(channel.getChannelId()));
             } catch (BrokerException e) {
                 ctx.writeAndFlush(new ConnectionClose(ConnectionException.INTERNAL_ERROR,
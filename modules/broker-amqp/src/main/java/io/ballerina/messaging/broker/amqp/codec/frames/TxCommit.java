@@ -24,14 +24,18 @@ import io.ballerina.messaging.broker.amqp.codec.BlockingTask;
 import io.ballerina.messaging.broker.amqp.codec.ChannelException;
 import io.ballerina.messaging.broker.amqp.codec.ConnectionException;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
+import io.ballerina.messaging.broker.amqp.codec.handlers.BlockingTaskHandler;
 import io.ballerina.messaging.broker.common.ValidationException;
 import io.ballerina.messaging.broker.common.data.types.ShortString;
-import io.ballerina.messaging.broker.core.BrokerException;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
 /**
  * AMQP frame for tx.commit.
  */
@@ -60,25 +64,36 @@ public class TxCommit extends MethodFrame {
         int channelId = getChannel();
         AmqpChannel channel = connectionHandler.getChannel(channelId);
         ctx.fireChannelRead((BlockingTask) () -> {
-            try {
-                channel.commit();
-                ctx.writeAndFlush(new TxCommitOk(channelId));
-            } catch (ValidationException e) {
-                LOGGER.warn("User input error while commit transaction", e);
-                ctx.writeAndFlush(new ChannelClose(channelId, ChannelException.PRECONDITION_FAILED,
-                                                   ShortString.parseString(e.getMessage()),
-                                                   CLASS_ID,
-                                                   METHOD_ID));
-            } catch (BrokerException e) {
-                LOGGER.error("Error occurred while committing transaction", e);
-                ctx.writeAndFlush(new ConnectionClose(ConnectionException.INTERNAL_ERROR,
-                                                      ShortString.parseString(e.getMessage()),
-                                                      CLASS_ID,
-                                                      METHOD_ID));
-            }
+            // Complete the commit on the executor of the blocking task handler so that the channel state is still
+            // accessed by a single thread, without holding the thread while the transaction is persisted.
+            Executor executor = ctx.pipeline().context(BlockingTaskHandler.class).executor();
+            channel.commitAsync(executor).whenComplete((result, throwable) -> {
+                if (Objects.isNull(throwable)) {
+                    ctx.writeAndFlush(new TxCommitOk(channelId));
+                } else {
+                    handleFailure(ctx, channelId, throwable);
+                }
+            });
         });
     }
 
+    private static void handleFailure(ChannelHandlerContext ctx, int channelId, Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+        if (cause instanceof ValidationException) {
+            LOGGER.warn("User input error while commit transaction", cause);
+            ctx.writeAndFlush(new ChannelClose(channelId, ChannelException.PRECONDITION_FAILED,
+                                               ShortString.parseString(cause.getMessage()),
+                                               CLASS_ID,
+                                               METHOD_ID));
+        } else {
+            LOGGER.error("Error occurred while committing transaction", cause);
+            ctx.writeAndFlush(new ConnectionClose(ConnectionException.INTERNAL_ERROR,
+                                                  ShortString.parseString(String.valueOf(cause.getMessage())),
+                                                  CLASS_ID,
+                                                  METHOD_ID));
+        }
+    }
+
     public static AmqMethodBodyFactory getFactory() {
         return (buf, channel, size) -> new TxCommit(channel);
     }
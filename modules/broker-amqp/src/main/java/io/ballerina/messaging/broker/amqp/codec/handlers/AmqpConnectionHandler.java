@@ -27,28 +27,45 @@ import io.ballerina.messaging.broker.amqp.codec.AmqpChannelView;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannelWrapper;
 import io.ballerina.messaging.broker.amqp.codec.BlockingTask;
 import io.ballerina.messaging.broker.amqp.codec.ConnectionException;
+import io.ballerina.messaging.broker.amqp.codec.PrefetchWindow;
+import io.ballerina.messaging.broker.amqp.codec.flow.BrokerFlowManager;
+import io.ballerina.messaging.broker.amqp.codec.flow.ConnectionFlowManager;
 import io.ballerina.messaging.broker.amqp.codec.frames.AmqpBadMessage;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicPublish;
 import io.ballerina.messaging.broker.amqp.codec.frames.ChannelClose;
 import io.ballerina.messaging.broker.amqp.codec.frames.ConnectionClose;
 import io.ballerina.messaging.broker.amqp.codec.frames.ConnectionStart;
+import io.ballerina.messaging.broker.amqp.codec.frames.ConnectionTune;
+import io.ballerina.messaging.broker.amqp.codec.frames.ContentFrame;
 import io.ballerina.messaging.broker.amqp.codec.frames.GeneralFrame;
+import io.ballerina.messaging.broker.amqp.codec.frames.HeaderFrame;
+import io.ballerina.messaging.broker.amqp.codec.frames.HeartbeatFrame;
 import io.ballerina.messaging.broker.amqp.codec.frames.ProtocolInitFrame;
 import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
 import io.ballerina.messaging.broker.common.ValidationException;
 import io.ballerina.messaging.broker.common.data.types.ShortString;
 import io.ballerina.messaging.broker.core.Broker;
+import io.ballerina.messaging.broker.core.BrokerException;
+import io.ballerina.messaging.broker.core.Message;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.timeout.IdleState;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.net.SocketAddress;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -66,6 +83,14 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
      */
     private final Map<Integer, AmqpChannelView> channelViews = new LinkedHashMap<>();
 
+    /**
+     * Messages completed within the current read burst, grouped by the AMQP channel they were published on. Each
+     * group is handed over to the broker as a single batch when the burst is over.
+     * <p>
+     * Only accessed from the event loop.
+     */
+    private final Map<AmqpChannel, List<Message>> pendingPublishes = new LinkedHashMap<>();
+
     private Broker broker;
     private final AmqpMetricManager metricManager;
     private ChannelHandlerContext ctx;
@@ -105,11 +130,45 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
      */
     private Channel nettyChannel;
 
+    /**
+     * Accounts message content received from the connection against the broker level inflow limits.
+     */
+    private final BrokerFlowManager brokerFlowManager;
+
+    /**
+     * Pauses reading from the connection when the inflow limits are exceeded. Only accessed from the event loop.
+     */
+    private ConnectionFlowManager flowManager;
+
+    /**
+     * Highest channel number of the connection. Holds the value proposed with connection.tune until the connection
+     * is tuned.
+     */
+    private volatile int channelMax = AmqConstant.CHANNEL_MAX;
+
+    /**
+     * Largest frame size of the connection. Holds the value proposed with connection.tune until the connection is
+     * tuned.
+     */
+    private volatile long frameMax = AmqConstant.FRAME_MAX;
+
+    /**
+     * Heartbeat delay of the connection in seconds. Holds the value proposed with connection.tune until the
+     * connection is tuned.
+     */
+    private int heartbeat;
+
+    /**
+     * Limits the unacknowledged deliveries of all the channels of the connection. Set with a global basic.qos.
+     */
+    private final PrefetchWindow prefetchWindow = new PrefetchWindow();
+
     public AmqpConnectionHandler(AmqpMetricManager metricManager, AmqpChannelFactory amqpChannelFactory,
-                                 AmqpConnectionManager amqpConnectionManager) {
+                                 AmqpConnectionManager amqpConnectionManager, BrokerFlowManager brokerFlowManager) {
         this.metricManager = metricManager;
         this.amqpChannelFactory = amqpChannelFactory;
         this.connectionManager = amqpConnectionManager;
+        this.brokerFlowManager = brokerFlowManager;
         metricManager.incrementConnectionCount();
         this.connectedTime = System.currentTimeMillis();
         this.id = ID_GENERATOR.incrementAndGet();
@@ -118,6 +177,7 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
     public void channelRegistered(ChannelHandlerContext ctx) throws Exception {
         nettyChannel = ctx.channel();
         this.ctx = ctx;
+        flowManager = brokerFlowManager.createConnectionFlowManager(ctx);
         nettyChannel.closeFuture().addListener(future -> ctx.fireChannelRead((BlockingTask) this::onConnectionClose));
         remoteAddress = ctx.channel().remoteAddress().toString();
         ctx.fireChannelRead((BlockingTask) () -> connectionManager.addConnectionHandler(this));
@@ -128,6 +188,10 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
         if (msg instanceof ProtocolInitFrame) {
             handleProtocolInit(ctx, (ProtocolInitFrame) msg);
         } else if (msg instanceof GeneralFrame) {
+            if (!isPublishFrame(msg)) {
+                // Preserve ordering of publishes with respect to other operations on the connection
+                flushPendingPublishes(ctx);
+            }
             ((GeneralFrame) msg).handle(ctx, this);
         } else if (msg instanceof AmqpBadMessage) {
             LOGGER.warn("Bad message received", ((AmqpBadMessage) msg).getCause());
@@ -138,6 +202,7 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
 
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) {
+        flushPendingPublishes(ctx);
         if (!ctx.channel().isWritable()) {
             ctx.channel().config().setAutoRead(false);
             if (LOGGER.isDebugEnabled()) {
@@ -146,9 +211,99 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent) {
+            IdleState state = ((IdleStateEvent) evt).state();
+            if (state == IdleState.READER_IDLE) {
+                // Peer is considered dead. Closing the connection requeues the unacked messages of its channels
+                LOGGER.warn("Closing connection {} from {} since no heartbeat was received", id, remoteAddress);
+                ctx.close();
+            } else if (state == IdleState.WRITER_IDLE) {
+                ctx.writeAndFlush(HeartbeatFrame.INSTANCE);
+            }
+        } else {
+            super.userEventTriggered(ctx, evt);
+        }
+    }
+
+    /**
+     * Propose the tuning parameters of the connection to the client with connection.tune.
+     *
+     * @param ctx       channel handler context
+     * @param heartbeat heartbeat delay configured for the server in seconds
+     */
+    public void proposeTuning(ChannelHandlerContext ctx, int heartbeat) {
+        this.heartbeat = heartbeat;
+        ctx.writeAndFlush(new ConnectionTune(channelMax, frameMax, heartbeat));
+    }
+
+    /**
+     * Tune the connection with the values the client sent with connection.tune-ok. Each parameter is negotiated to
+     * the smaller non-zero value of the client and the server proposal, since zero means no limit for channel max
+     * and frame max and disables heartbeats.
+     *
+     * @param ctx             channel handler context
+     * @param clientChannelMax channel max sent by the client
+     * @param clientFrameMax   frame max sent by the client
+     * @param clientHeartbeat  heartbeat delay sent by the client in seconds
+     * @throws ConnectionException if the negotiated frame max is below the minimum frame size
+     */
+    public void tune(ChannelHandlerContext ctx, int clientChannelMax, long clientFrameMax, int clientHeartbeat)
+            throws ConnectionException {
+        long negotiatedFrameMax = negotiate(frameMax, clientFrameMax);
+        if (negotiatedFrameMax < AmqConstant.FRAME_MIN_SIZE) {
+            throw new ConnectionException(ConnectionException.NOT_ALLOWED,
+                                          "Frame max " + clientFrameMax + " is below the minimum frame size "
+                                                  + AmqConstant.FRAME_MIN_SIZE);
+        }
+        frameMax = negotiatedFrameMax;
+        channelMax = (int) negotiate(channelMax, clientChannelMax);
+        heartbeat = (int) negotiate(heartbeat, clientHeartbeat);
+
+        AmqpDecoder decoder = ctx.pipeline().get(AmqpDecoder.class);
+        if (Objects.nonNull(decoder)) {
+            decoder.setFrameMax(frameMax);
+        }
+        startHeartbeat(ctx, heartbeat);
+    }
+
+    private static long negotiate(long serverValue, long clientValue) {
+        if (serverValue == 0) {
+            return clientValue;
+        }
+        if (clientValue == 0) {
+            return serverValue;
+        }
+        return Math.min(serverValue, clientValue);
+    }
+
+    /**
+     * Largest payload of a content frame written to the connection.
+     *
+     * @return maximum payload size in bytes for the negotiated frame max
+     */
+    public int getMaxContentPayloadSize() {
+        return ContentFrame.getMaxPayloadSize(frameMax);
+    }
+
+    /**
+     * Start exchanging heartbeats with the client using the negotiated heartbeat delay. Idle detection runs on the
+     * event loop of the connection. A heartbeat is sent when nothing was written within the delay and the
+     * connection is closed when nothing was received within two delays.
+     *
+     * @param ctx       channel handler context
+     * @param heartbeat heartbeat delay in seconds. Heartbeats are disabled if the value is 0
+     */
+    public void startHeartbeat(ChannelHandlerContext ctx, int heartbeat) {
+        if (heartbeat > 0 && Objects.isNull(ctx.pipeline().get(IdleStateHandler.class))) {
+            ctx.pipeline().addFirst(new IdleStateHandler(heartbeat * 2, heartbeat, 0, TimeUnit.SECONDS));
+        }
+    }
+
     @Override
     public void channelWritabilityChanged(ChannelHandlerContext ctx) {
-        if (ctx.channel().isWritable()) {
+        if (ctx.channel().isWritable() && flowManager.isInflowEnabled()) {
             ctx.channel().config().setAutoRead(true);
             if (LOGGER.isDebugEnabled()) {
                 LOGGER.debug("Auto read set to true in channel {}", getRemoteAddress(ctx));
@@ -156,6 +311,71 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Add a fully received message to be published once the current read burst is over.
+     *
+     * @param channel AMQP channel the message was published on
+     * @param message completed message
+     */
+    public void addPendingPublish(AmqpChannel channel, Message message) {
+        pendingPublishes.computeIfAbsent(channel, k -> new ArrayList<>()).add(message);
+    }
+
+    /**
+     * Publish the fully received spooled message of the channel once its content is written to the spool file.
+     * Messages completed earlier in the current read burst are handed over first to keep the publishing order.
+     *
+     * @param ctx     channel handler context
+     * @param channel AMQP channel the message was published on
+     */
+    public void publishSpooledMessage(ChannelHandlerContext ctx, AmqpChannel channel) {
+        flushPendingPublishes(ctx);
+        channel.getMessageAggregator().popSpooledMessage(
+                // Spooled content is held on disk and never accounted as memory by the flow managers
+                message -> publish(ctx, channel, Collections.singletonList(message), 0),
+                e -> {
+                    LOGGER.warn("Content receiving failed", e);
+                    // flow manager should always be executed through the event loop
+                    ctx.executor().execute(() -> channel.getFlowManager().notifyMessageRemoval(ctx));
+                });
+    }
+
+    private static boolean isPublishFrame(Object frame) {
+        return frame instanceof ContentFrame || frame instanceof HeaderFrame || frame instanceof BasicPublish;
+    }
+
+    private void flushPendingPublishes(ChannelHandlerContext ctx) {
+        if (pendingPublishes.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<AmqpChannel, List<Message>> entry : pendingPublishes.entrySet()) {
+            AmqpChannel channel = entry.getKey();
+            List<Message> messages = entry.getValue();
+            long contentSize = 0;
+            for (Message message : messages) {
+                contentSize += message.getMetadata().getContentLength();
+            }
+            long accountedContentSize = contentSize;
+            ctx.fireChannelRead((BlockingTask) () -> publish(ctx, channel, messages, accountedContentSize));
+        }
+        pendingPublishes.clear();
+    }
+
+    private void publish(ChannelHandlerContext ctx, AmqpChannel channel, List<Message> messages,
+                         long accountedContentSize) {
+        try {
+            channel.getMessageAggregator().publish(messages);
+        } catch (BrokerException e) {
+            // Messages that were not accepted are already rejected to the publisher
+            LOGGER.warn("Content receiving failed", e);
+        } finally {
+            // flow manager should always be executed through the event loop
+            ctx.executor().submit(() -> channel.getFlowManager().notifyMessageRemoval(ctx, messages.size(),
+                                                                                      accountedContentSize));
+        }
+    }
+
     private SocketAddress getRemoteAddress(ChannelHandlerContext ctx) {
         return ctx.channel().remoteAddress();
     }
@@ -168,6 +388,8 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
 
     private void onConnectionClose() {
         closeAllChannels();
+        // flow manager should always be executed through the event loop
+        ctx.executor().execute(flowManager::close);
         metricManager.decrementConnectionCount();
         connectionManager.removeConnectionHandler(this);
     }
@@ -181,6 +403,10 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
     }
 
     public void createChannel(int channelId) throws ConnectionException {
+        if (channelId > channelMax) {
+            throw new ConnectionException(ConnectionException.NOT_ALLOWED,
+                                          "Channel ID " + channelId + " exceeds the channel max " + channelMax);
+        }
         AmqpChannel channel = channels.get(channelId);
         if (channel != null) {
             throw new ConnectionException(ConnectionException.CHANNEL_ERROR,
@@ -212,6 +438,10 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
     private void closeChannel(AmqpChannel channel) {
         metricManager.decrementChannelCount();
         channel.close();
+        if (Objects.nonNull(ctx)) {
+            // flow manager should always be executed through the event loop
+            ctx.executor().execute(() -> channel.getFlowManager().close());
+        }
     }
 
     public void closeAllChannels() {
@@ -222,6 +452,20 @@ public class AmqpConnectionHandler extends ChannelInboundHandlerAdapter {
         channels.clear();
     }
 
+    /**
+     * Getter for flowManager.
+     */
+    public ConnectionFlowManager getFlowManager() {
+        return flowManager;
+    }
+
+    /**
+     * Getter for prefetchWindow.
+     */
+    public PrefetchWindow getPrefetchWindow() {
+        return prefetchWindow;
+    }
+
     /**
      * Returns the {@link Broker} for the amq connection.
      *
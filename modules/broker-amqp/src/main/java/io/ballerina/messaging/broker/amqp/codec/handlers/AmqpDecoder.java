@@ -19,17 +19,22 @@
 
 package io.ballerina.messaging.broker.amqp.codec.handlers;
 
+import io.ballerina.messaging.broker.amqp.codec.AmqConstant;
 import io.ballerina.messaging.broker.amqp.codec.frames.AmqMethodBodyFactory;
 import io.ballerina.messaging.broker.amqp.codec.frames.AmqMethodRegistry;
 import io.ballerina.messaging.broker.amqp.codec.frames.AmqpBadMessage;
 import io.ballerina.messaging.broker.amqp.codec.frames.ContentFrame;
+import io.ballerina.messaging.broker.amqp.codec.frames.FlyweightFrames;
 import io.ballerina.messaging.broker.amqp.codec.frames.GeneralFrame;
 import io.ballerina.messaging.broker.amqp.codec.frames.HeaderFrame;
+import io.ballerina.messaging.broker.amqp.codec.frames.HeartbeatFrame;
 import io.ballerina.messaging.broker.amqp.codec.frames.ProtocolInitFrame;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.util.CharsetUtil;
+import io.netty.util.collection.IntObjectHashMap;
+import io.netty.util.collection.IntObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,8 +59,38 @@ public class AmqpDecoder extends ByteToMessageDecoder {
      */
     private static final int MIN_HEADER_FRAME_SIZE = 14;
 
+    /**
+     * Class and method ids of channel.close and channel.close-ok. Reusable frames of a channel are dropped once
+     * the channel is closed.
+     */
+    private static final short CHANNEL_CLASS_ID = 20;
+    private static final short CHANNEL_CLOSE_METHOD_ID = 40;
+    private static final short CHANNEL_CLOSE_OK_METHOD_ID = 41;
+
+    /**
+     * Largest frame size accepted from the client. Updated once the connection is tuned.
+     */
+    private long frameMax = AmqConstant.FRAME_MAX;
+
+    /**
+     * Reusable frames of each AMQP channel. Null when flyweight decoding is disabled.
+     */
+    private final IntObjectMap<FlyweightFrames> flyweightFrames;
+
     public AmqpDecoder(AmqMethodRegistry methodRegistry) {
+        this(methodRegistry, false);
+    }
+
+    /**
+     * Create a decoder.
+     *
+     * @param methodRegistry     registry used to lookup method frame factories
+     * @param flyweightDecoding  decode publish, content and acknowledgement frames into reused per channel frame
+     *                           instances. Only valid when frames are handled before the next frame is decoded.
+     */
+    public AmqpDecoder(AmqMethodRegistry methodRegistry, boolean flyweightDecoding) {
         this.methodRegistry = methodRegistry;
+        this.flyweightFrames = flyweightDecoding ? new IntObjectHashMap<>() : null;
     }
 
     /**
@@ -122,7 +157,10 @@ public class AmqpDecoder extends ByteToMessageDecoder {
         if (buffer.readableBytes() > FRAME_SIZE_WITHOUT_PAYLOAD) {
             byte type = buffer.readByte();
             int channel = buffer.readShort();
-            long payloadSize = buffer.readInt();
+            long payloadSize = buffer.readUnsignedInt();
+            if (payloadSize + FRAME_SIZE_WITHOUT_PAYLOAD > frameMax) {
+                throw new Exception("AMQP frame of " + payloadSize + " bytes exceeds the frame max " + frameMax);
+            }
 
             long estimatedRemainingSize = payloadSize + 1;
             if (buffer.readableBytes() < estimatedRemainingSize) {
@@ -135,18 +173,42 @@ public class AmqpDecoder extends ByteToMessageDecoder {
                 case 1: // Method
                     short amqpClass = buffer.readShort();
                     short amqpMethod = buffer.readShort();
+                    if (flyweightFrames != null) {
+                        frame = getFlyweightFrames(channel).decodeMethod(amqpClass, amqpMethod, buffer);
+                        if (frame != null) {
+                            break;
+                        }
+                        if (amqpClass == CHANNEL_CLASS_ID
+                                && (amqpMethod == CHANNEL_CLOSE_METHOD_ID
+                                    || amqpMethod == CHANNEL_CLOSE_OK_METHOD_ID)) {
+                            flyweightFrames.remove(channel);
+                        }
+                    }
                     AmqMethodBodyFactory factory = methodRegistry.getFactory(amqpClass, amqpMethod);
 
                     frame = factory.newInstance(buffer, channel, payloadSize);
                     break;
                 case 2: // Header
-                    frame = HeaderFrame.parse(buffer, channel);
+                    if (flyweightFrames != null) {
+                        frame = getFlyweightFrames(channel).decodeHeader(buffer);
+                    } else {
+                        frame = HeaderFrame.parse(buffer, channel);
+                    }
                     break;
                 case 3: // Body
-                    frame = ContentFrame.parse(buffer, channel, payloadSize);
+                    if (flyweightFrames != null) {
+                        frame = getFlyweightFrames(channel).decodeContent(buffer, payloadSize);
+                    } else {
+                        frame = ContentFrame.parse(buffer, channel, payloadSize);
+                    }
                     break;
-                case 4: // Heartbeat
-                    throw new Exception("Method Not implemented");
+                case 4: // Heartbeat frame type used by pre 0-9-1 clients
+                case 8: // Heartbeat
+                    buffer.skipBytes((int) payloadSize);
+                    frame = HeartbeatFrame.INSTANCE;
+                    break;
+                default:
+                    throw new Exception("Unknown AMQP frame type " + type);
             }
 
             byte frameEnd = buffer.readByte();
@@ -157,4 +219,22 @@ public class AmqpDecoder extends ByteToMessageDecoder {
             out.add(frame);
         }
     }
+
+    /**
+     * Set the largest frame size accepted from the client.
+     *
+     * @param frameMax negotiated frame max of the connection
+     */
+    public void setFrameMax(long frameMax) {
+        this.frameMax = frameMax;
+    }
+
+    private FlyweightFrames getFlyweightFrames(int channel) {
+        FlyweightFrames frames = flyweightFrames.get(channel);
+        if (frames == null) {
+            frames = new FlyweightFrames(channel);
+            flyweightFrames.put(channel, frames);
+        }
+        return frames;
+    }
 }
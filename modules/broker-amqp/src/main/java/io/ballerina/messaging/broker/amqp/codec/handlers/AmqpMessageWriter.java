@@ -20,15 +20,13 @@
 package io.ballerina.messaging.broker.amqp.codec.handlers;
 
 import io.ballerina.messaging.broker.amqp.consumer.AmqpDeliverMessage;
-import io.netty.channel.Channel;
+import io.ballerina.messaging.broker.amqp.consumer.AmqpGetMessage;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOutboundHandlerAdapter;
 import io.netty.channel.ChannelPromise;
 
-import java.util.List;
-
 /**
- * Writes {@link AmqpDeliverMessage} to the outbound channel.
+ * Writes {@link AmqpDeliverMessage} and {@link AmqpGetMessage} to the outbound channel.
  */
 public class AmqpMessageWriter extends ChannelOutboundHandlerAdapter {
 
@@ -36,14 +34,10 @@ public class AmqpMessageWriter extends ChannelOutboundHandlerAdapter {
     public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
         if (msg instanceof AmqpDeliverMessage) {
             ((AmqpDeliverMessage) msg).write(ctx);
+        } else if (msg instanceof AmqpGetMessage) {
+            ((AmqpGetMessage) msg).write(ctx, promise);
         } else  {
             ctx.write(msg, promise);
         }
     }
-
-    public static void write(Channel channel, List<AmqpDeliverMessage> pendingMessages) {
-        for (AmqpDeliverMessage message : pendingMessages) {
-            channel.write(message);
-        }
-    }
 }
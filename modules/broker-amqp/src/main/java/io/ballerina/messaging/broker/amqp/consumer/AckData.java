@@ -21,6 +21,9 @@ package io.ballerina.messaging.broker.amqp.consumer;
 
 import io.ballerina.messaging.broker.common.data.types.ShortString;
 import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+
+import java.util.Objects;
 
 /**
  * Used to keep record of unacked messages.
@@ -29,11 +32,16 @@ public class AckData {
     private final Message message;
     private final String queueName;
     private final ShortString consumerTag;
+    private final long deliveryTag;
+    private final long contentLength;
 
-    public AckData(Message message, String queueName, ShortString consumerTag) {
+    public AckData(Message message, String queueName, ShortString consumerTag, long deliveryTag) {
         this.message = message;
         this.queueName = queueName;
         this.consumerTag = consumerTag;
+        this.deliveryTag = deliveryTag;
+        Metadata metadata = message.getMetadata();
+        this.contentLength = Objects.isNull(metadata) ? 0 : metadata.getContentLength();
     }
 
     /**
@@ -56,4 +64,18 @@ public class AckData {
     public ShortString getConsumerTag() {
         return consumerTag;
     }
+
+    /**
+     * Getter for deliveryTag.
+     */
+    public long getDeliveryTag() {
+        return deliveryTag;
+    }
+
+    /**
+     * Getter for contentLength.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
 }
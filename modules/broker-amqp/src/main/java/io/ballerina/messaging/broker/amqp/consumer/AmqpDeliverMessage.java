@@ -19,6 +19,7 @@
 
 package io.ballerina.messaging.broker.amqp.consumer;
 
+import io.ballerina.messaging.broker.amqp.codec.AmqConstant;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
 import io.ballerina.messaging.broker.amqp.codec.frames.BasicDeliver;
 import io.ballerina.messaging.broker.amqp.codec.frames.ContentFrame;
@@ -32,10 +33,14 @@ import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.Metadata;
 import io.ballerina.messaging.broker.core.util.MessageTracer;
 import io.ballerina.messaging.broker.core.util.TraceField;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Objects;
+
 /**
  * AMQP delivery message which consists of the basic.deliver, ContentHeader and ContentBody frames.
  */
@@ -44,7 +49,7 @@ public class AmqpDeliverMessage {
 
 
     private static final String SEND_MESSAGE = "Delivering message to client from AMQP transport.";
-    private static final String SENT_ON_HOLD = "Message delivery on hold. Flow disabled.";
+    private static final String REQUEUED_FLOW_DISABLED = "Message requeued without delivery. Flow disabled.";
     private static final String QUEUE_NAME_FIELD = "queueName";
     private static final String CONSUMER_ADDRESS_FIELD = "consumerAddress";
 
@@ -67,19 +72,17 @@ public class AmqpDeliverMessage {
     }
 
     public void write(ChannelHandlerContext ctx) {
+        channel.recordDeliveryWritten(getContentLength());
         if (channel.isClosed()) {
-            try {
-                LOGGER.debug("Requeueing message since subscriber is already closed. {}", message);
-                broker.requeue(queueName, message);
-            } catch (BrokerException e) {
-                LOGGER.error("Error while requeueing message {} for queue {}", message, queueName, e);
-            } catch (ResourceNotFoundException e) {
-                LOGGER.warn("Cannot requeue message [" + message + "] since queue [" + queueName + "] is not found", e);
-            }
+            LOGGER.debug("Requeueing message since subscriber is already closed. {}", message);
+            requeue();
         } else if (!channel.isFlowEnabled()) {
-            channel.hold(this);
+            // Flow got disabled after the message was taken from the queue. Message is given back to the queue
+            // so that other consumers can receive it.
+            LOGGER.debug("Requeueing message since channel flow is disabled. {}", message);
+            requeue();
             if (MessageTracer.isTraceEnabled()) {
-                MessageTracer.trace(message, SENT_ON_HOLD,
+                MessageTracer.trace(message, REQUEUED_FLOW_DISABLED,
                                     new TraceField(AmqpConsumer.CONSUMER_TAG_FIELD_NAME, consumerTag),
                                     new TraceField(AmqpChannel.CHANNEL_ID_FIELD_NAME, channel.getChannelId()),
                                     new TraceField(QUEUE_NAME_FIELD, queueName),
@@ -88,7 +91,8 @@ public class AmqpDeliverMessage {
             }
         } else {
             long deliveryTag = channel.getNextDeliveryTag();
-            channel.recordMessageDelivery(deliveryTag, new AckData(message.shallowCopy(), queueName, consumerTag));
+            channel.recordMessageDelivery(deliveryTag, new AckData(message.shallowCopy(), queueName, consumerTag,
+                                                                       deliveryTag));
 
             Metadata metadata = message.getMetadata();
             BasicDeliver basicDeliverFrame = new BasicDeliver(
@@ -96,20 +100,12 @@ public class AmqpDeliverMessage {
                     consumerTag,
                     deliveryTag,
                     message.isRedelivered(),
-                    ShortString.parseString(metadata.getExchangeName()),
-                    ShortString.parseString(metadata.getRoutingKey()));
+                    AmqConstant.NAME_POOL.intern(metadata.getExchangeName()),
+                    AmqConstant.NAME_POOL.intern(metadata.getRoutingKey()));
 
-            HeaderFrame headerFrame = new HeaderFrame(channel.getChannelId(), 60, metadata.getContentLength());
-            headerFrame.setProperties(metadata.getProperties());
-            headerFrame.setHeaders(metadata.getHeaders());
             ctx.write(basicDeliverFrame);
-            ctx.write(headerFrame);
-            for (ContentChunk chunk : message.getContentChunks()) {
-                ContentFrame contentFrame = new ContentFrame(channel.getChannelId(),
-                                                             chunk.getByteBuf().capacity(),
-                                                             chunk.getByteBuf());
-                ctx.write(contentFrame);
-            }
+            writeContent(ctx, channel.getChannelId(), message, channel.getMaxContentPayloadSize());
+            message.release();
 
             if (MessageTracer.isTraceEnabled()) {
                 MessageTracer.trace(message, SEND_MESSAGE,
@@ -123,4 +119,66 @@ public class AmqpDeliverMessage {
 
         }
     }
+
+    /**
+     * Content length of the message to be delivered.
+     *
+     * @return content length in bytes
+     */
+    public long getContentLength() {
+        Metadata metadata = message.getMetadata();
+        return Objects.isNull(metadata) ? 0 : metadata.getContentLength();
+    }
+
+    private void requeue() {
+        try {
+            broker.requeue(queueName, message);
+        } catch (BrokerException e) {
+            LOGGER.error("Error while requeueing message {} for queue {}", message, queueName, e);
+        } catch (ResourceNotFoundException e) {
+            LOGGER.warn("Cannot requeue message [" + message + "] since queue [" + queueName + "] is not found", e);
+        }
+    }
+
+    /**
+     * Write the content header and the content body frames of a message. Should follow the method frame that
+     * carries the message.
+     *
+     * @param ctx            channel handler context
+     * @param channelId      AMQP channel id
+     * @param message        message to be written
+     * @param maxPayloadSize largest payload of a content frame for the negotiated frame max
+     * @return future of the last frame written
+     */
+    public static ChannelFuture writeContent(ChannelHandlerContext ctx, int channelId, Message message,
+                                             int maxPayloadSize) {
+        Metadata metadata = message.getMetadata();
+        HeaderFrame headerFrame = new HeaderFrame(channelId, 60, metadata.getContentLength());
+        byte[] encodedProperties = metadata.getEncodedProperties();
+        if (encodedProperties == null) {
+            headerFrame.setProperties(metadata.getProperties());
+            headerFrame.setHeaders(metadata.getHeaders());
+            // Encode once and reuse for other deliveries of the message
+            encodedProperties = headerFrame.encodeProperties();
+            metadata.setEncodedProperties(encodedProperties);
+        }
+        headerFrame.setEncodedProperties(encodedProperties);
+        ChannelFuture lastWrite = ctx.write(headerFrame);
+        // Content chunks are shared with other copies of the message. Therefore each frame gets its own
+        // slice which is released once written. Chunks larger than a frame, such as the mapped content of large
+        // messages, are streamed as a sequence of frame sized slices.
+        for (ContentChunk chunk : message.getContentChunks()) {
+            ByteBuf content = chunk.getByteBuf();
+            int index = content.readerIndex();
+            int remaining = content.readableBytes();
+            while (remaining > 0) {
+                int length = Math.min(remaining, maxPayloadSize);
+                ByteBuf payload = content.retainedSlice(index, length);
+                lastWrite = ctx.write(new ContentFrame(channelId, length, payload));
+                index += length;
+                remaining -= length;
+            }
+        }
+        return lastWrite;
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.amqp.consumer;
+
+import io.ballerina.messaging.broker.amqp.codec.AmqConstant;
+import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
+import io.ballerina.messaging.broker.amqp.codec.BlockingTask;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicGetOk;
+import io.ballerina.messaging.broker.common.ResourceNotFoundException;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.ballerina.messaging.broker.core.Broker;
+import io.ballerina.messaging.broker.core.BrokerException;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * AMQP message pulled through basic.get which consists of the basic.get-ok, ContentHeader and ContentBody frames.
+ * Written by the same writer as the consumer deliveries of the connection so that the frames of a get response are
+ * not interleaved with the frames of a delivery.
+ */
+public class AmqpGetMessage {
+    private static final Logger LOGGER = LoggerFactory.getLogger(AmqpGetMessage.class);
+
+    /**
+     * Consumer tag recorded for messages delivered through basic.get.
+     */
+    private static final ShortString GET_CONSUMER_TAG = ShortString.parseString("");
+
+    private final Message message;
+    private final AmqpChannel channel;
+    private final String queueName;
+    private final boolean noAck;
+    private final Broker broker;
+
+    public AmqpGetMessage(Message message, AmqpChannel channel, String queueName, boolean noAck, Broker broker) {
+        this.message = message;
+        this.channel = channel;
+        this.queueName = queueName;
+        this.noAck = noAck;
+        this.broker = broker;
+    }
+
+    /**
+     * Write the frames of the get response. A message that is not acknowledged by the write is acknowledged once
+     * written. The message is requeued if the write fails.
+     *
+     * @param ctx     channel handler context of the writer
+     * @param promise promise completed once the last frame is written
+     */
+    public void write(ChannelHandlerContext ctx, ChannelPromise promise) {
+        if (channel.isClosed()) {
+            LOGGER.debug("Requeueing message since channel is already closed. {}", message);
+            ctx.fireChannelRead((BlockingTask) this::requeue);
+            promise.trySuccess();
+            return;
+        }
+
+        long deliveryTag = channel.getNextDeliveryTag();
+        if (!noAck) {
+            channel.recordMessageDelivery(deliveryTag, new AckData(message, queueName, GET_CONSUMER_TAG,
+                                                                   deliveryTag));
+        }
+
+        Metadata metadata = message.getMetadata();
+        // Remaining message count is not tracked, similar to queue.declare-ok
+        ctx.write(new BasicGetOk(channel.getChannelId(),
+                                 deliveryTag,
+                                 message.isRedelivered(),
+                                 AmqConstant.NAME_POOL.intern(metadata.getExchangeName()),
+                                 AmqConstant.NAME_POOL.intern(metadata.getRoutingKey()),
+                                 0));
+        ChannelFuture lastWrite = AmqpDeliverMessage.writeContent(ctx, channel.getChannelId(), message,
+                                                                  channel.getMaxContentPayloadSize());
+        lastWrite.addListener(future -> {
+            if (future.isSuccess()) {
+                if (noAck) {
+                    ctx.fireChannelRead((BlockingTask) this::acknowledge);
+                }
+                promise.trySuccess();
+            } else {
+                LOGGER.warn("Requeueing message {} since writing the get response failed", message, future.cause());
+                ctx.fireChannelRead((BlockingTask) () -> onWriteFailure(deliveryTag));
+                promise.tryFailure(future.cause());
+            }
+        });
+    }
+
+    private void onWriteFailure(long deliveryTag) {
+        if (noAck) {
+            requeue();
+            return;
+        }
+        try {
+            channel.reject(deliveryTag, true);
+        } catch (BrokerException e) {
+            LOGGER.error("Error while requeueing message {} for queue {}", message, queueName, e);
+        } catch (ResourceNotFoundException e) {
+            LOGGER.warn("Cannot requeue message [" + message + "] since queue [" + queueName + "] is not found", e);
+        }
+    }
+
+    private void acknowledge() {
+        try {
+            broker.acknowledge(queueName, message.getDetachableMessage());
+        } catch (BrokerException e) {
+            LOGGER.error("Error while acknowledging message {} for queue {}", message, queueName, e);
+        } finally {
+            message.release();
+        }
+    }
+
+    private void requeue() {
+        try {
+            broker.requeue(queueName, message);
+        } catch (BrokerException e) {
+            LOGGER.error("Error while requeueing message {} for queue {}", message, queueName, e);
+        } catch (ResourceNotFoundException e) {
+            LOGGER.warn("Cannot requeue message [" + message + "] since queue [" + queueName + "] is not found", e);
+        }
+    }
+}
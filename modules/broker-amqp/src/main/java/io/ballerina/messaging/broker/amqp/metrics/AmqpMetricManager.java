@@ -18,6 +18,9 @@
  */
 
 package io.ballerina.messaging.broker.amqp.metrics;
+
+import org.wso2.carbon.metrics.core.Timer.Context;
+
 /**
  **
  * AmqpMetricManager handles all the metrics related to Broker class.
@@ -36,4 +39,19 @@ public interface AmqpMetricManager {
     void decrementConsumerCount();
 
     void markReject();
+
+    /**
+     * Start measuring the time inflow of a channel is disabled.
+     */
+    Context startChannelInflowThrottleTimer();
+
+    /**
+     * Start measuring the time reading from a connection is paused due to the connection level inflow limit.
+     */
+    Context startConnectionInflowThrottleTimer();
+
+    /**
+     * Start measuring the time reading from publishers is paused due to the broker level inflow limit.
+     */
+    Context startBrokerInflowThrottleTimer();
 }
@@ -24,6 +24,8 @@ import org.wso2.carbon.metrics.core.Counter;
 import org.wso2.carbon.metrics.core.Level;
 import org.wso2.carbon.metrics.core.Meter;
 import org.wso2.carbon.metrics.core.MetricService;
+import org.wso2.carbon.metrics.core.Timer;
+import org.wso2.carbon.metrics.core.Timer.Context;
 
 /**
  * Default implementation of {@link AmqpMetricManager}.
@@ -34,6 +36,9 @@ public class DefaultAmqpMetricManager implements AmqpMetricManager {
     private final Counter totalConnectionCounter;
     private final Counter totalConsumerCounter;
     private final Meter rejectMeter;
+    private final Timer channelInflowThrottleTimer;
+    private final Timer connectionInflowThrottleTimer;
+    private final Timer brokerInflowThrottleTimer;
 
     public DefaultAmqpMetricManager(MetricService metrics) {
         totalChannelCounter = metrics.counter(MetricService.name(Server.class, "node", "totalChannels"), Level.INFO);
@@ -41,6 +46,12 @@ public class DefaultAmqpMetricManager implements AmqpMetricManager {
                                                  Level.INFO);
         totalConsumerCounter = metrics.counter(MetricService.name(Server.class, "node", "totalConsumers"), Level.INFO);
         rejectMeter = metrics.meter(MetricService.name(Server.class, "node", "messageRejects"), Level.INFO);
+        channelInflowThrottleTimer = metrics.timer(MetricService.name(Server.class, "node", "channelInflowThrottle"),
+                                                   Level.INFO);
+        connectionInflowThrottleTimer = metrics.timer(
+                MetricService.name(Server.class, "node", "connectionInflowThrottle"), Level.INFO);
+        brokerInflowThrottleTimer = metrics.timer(MetricService.name(Server.class, "node", "brokerInflowThrottle"),
+                                                  Level.INFO);
     }
 
     @Override
@@ -77,4 +88,19 @@ public class DefaultAmqpMetricManager implements AmqpMetricManager {
     public void markReject() {
         rejectMeter.mark();
     }
+
+    @Override
+    public Context startChannelInflowThrottleTimer() {
+        return channelInflowThrottleTimer.start();
+    }
+
+    @Override
+    public Context startConnectionInflowThrottleTimer() {
+        return connectionInflowThrottleTimer.start();
+    }
+
+    @Override
+    public Context startBrokerInflowThrottleTimer() {
+        return brokerInflowThrottleTimer.start();
+    }
 }
@@ -19,10 +19,14 @@
 
 package io.ballerina.messaging.broker.amqp.metrics;
 
+import org.wso2.carbon.metrics.core.Timer.Context;
+
 /**
  * Null object implementation for {@link AmqpMetricManager}.
  */
 public class NullAmqpMetricManager implements AmqpMetricManager {
+    private static final NullContext NULL_CONTEXT = new NullContext();
+
     @Override
     public void incrementChannelCount() {
         // do nothing
@@ -57,4 +61,35 @@ public class NullAmqpMetricManager implements AmqpMetricManager {
     public void markReject() {
         // do nothing
     }
+
+    @Override
+    public Context startChannelInflowThrottleTimer() {
+        return NULL_CONTEXT;
+    }
+
+    @Override
+    public Context startConnectionInflowThrottleTimer() {
+        return NULL_CONTEXT;
+    }
+
+    @Override
+    public Context startBrokerInflowThrottleTimer() {
+        return NULL_CONTEXT;
+    }
+
+    /**
+     * Null object representation for Timer context.
+     */
+    private static class NullContext implements Context {
+
+        @Override
+        public long stop() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            // do nothing
+        }
+    }
 }
@@ -21,8 +21,15 @@ package io.ballerina.messaging.broker.amqp.codec;
 
 import io.ballerina.messaging.broker.amqp.AmqpServerConfiguration;
 import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
+import io.ballerina.messaging.broker.amqp.consumer.AckData;
+import io.ballerina.messaging.broker.amqp.consumer.AmqpDeliverMessage;
 import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
 import io.ballerina.messaging.broker.core.Broker;
+import io.ballerina.messaging.broker.core.DetachableMessage;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.ballerina.messaging.broker.core.transaction.BrokerTransaction;
 import io.ballerina.messaging.broker.core.transaction.DistributedTransaction;
 import io.ballerina.messaging.broker.core.transaction.LocalTransaction;
 import org.mockito.Mockito;
@@ -30,15 +37,22 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 public class AmqpChannelTest {
 
     AmqpChannel amqpChannel;
 
+    Broker broker;
+
+    PrefetchWindow connectionPrefetchWindow;
+
     @BeforeMethod
     public void setUp() {
         AmqpServerConfiguration configuration = Mockito.mock(AmqpServerConfiguration.class);
 
-        Broker broker = Mockito.mock(Broker.class);
+        broker = Mockito.mock(Broker.class);
         LocalTransaction localTransaction = Mockito.mock(LocalTransaction.class);
         Mockito.when(broker.newLocalTransaction()).thenReturn(localTransaction);
         DistributedTransaction distributedTransaction = Mockito.mock(DistributedTransaction.class);
@@ -47,6 +61,10 @@ public class AmqpChannelTest {
         int channelId = 1;
         AmqpMetricManager metricManager = Mockito.mock(AmqpMetricManager.class);
         AmqpConnectionHandler connection = Mockito.mock(AmqpConnectionHandler.class);
+        Mockito.when(connection.isWritable()).thenReturn(true);
+        connectionPrefetchWindow = new PrefetchWindow();
+        Mockito.when(connection.getPrefetchWindow()).thenReturn(connectionPrefetchWindow);
+        Mockito.when(configuration.getChannelOutboundBytesLimit()).thenReturn(100L);
 
         AmqpServerConfiguration.FlowDetails flowDetails = Mockito.mock(AmqpServerConfiguration.FlowDetails.class);
         Mockito.when(flowDetails.getHighLimit()).thenReturn(1000);
@@ -67,4 +85,155 @@ public class AmqpChannelTest {
         Assert.assertEquals(amqpChannel.getTransactionType(), "DistributedTransaction");
     }
 
+    @Test
+    public void testPublishModesAreExclusive() {
+        Assert.assertTrue(amqpChannel.selectConfirmMode());
+        Assert.assertTrue(amqpChannel.isConfirmSelected());
+        Assert.assertTrue(amqpChannel.selectConfirmMode(), "Selecting confirm mode again should succeed");
+        Assert.assertFalse(amqpChannel.selectTransactionalMode(),
+                           "Channel in confirm mode should not be made transactional");
+    }
+
+    @Test
+    public void testTransactionalChannelRejectsConfirmMode() {
+        Assert.assertTrue(amqpChannel.selectTransactionalMode());
+        Assert.assertFalse(amqpChannel.selectConfirmMode(), "Transactional channel should not enter confirm mode");
+        Assert.assertFalse(amqpChannel.isConfirmSelected());
+    }
+
+    @Test
+    public void testMultipleAcknowledgement() throws Exception {
+        amqpChannel.setPrefetchCount(100);
+        for (int i = 0; i < 10; i++) {
+            long deliveryTag = amqpChannel.getNextDeliveryTag();
+            Message message = new Message(deliveryTag, new Metadata("queue", "amq.direct", 0));
+            amqpChannel.recordMessageDelivery(deliveryTag,
+                                              new AckData(message, "queue", ShortString.parseString("consumer"),
+                                                          deliveryTag));
+        }
+
+        amqpChannel.acknowledge(4, false);
+        amqpChannel.acknowledge(6, true);
+
+        Mockito.verify(broker).acknowledge(Mockito.eq("queue"), Mockito.any(DetachableMessage.class));
+        Mockito.verify(broker).acknowledge(Mockito.eq("queue"),
+                                           Mockito.argThat((Collection<DetachableMessage> messages)
+                                                                   -> messages.size() == 5));
+        Assert.assertEquals(amqpChannel.getUnackedMessageCount(), 4);
+
+        amqpChannel.acknowledge(0, true);
+        Assert.assertEquals(amqpChannel.getUnackedMessageCount(), 0, "Delivery tag zero should ack all");
+    }
+
+    @Test
+    public void testOutboundBytesLimit() {
+        amqpChannel.setPrefetchCount(100);
+        Assert.assertTrue(amqpChannel.isReady());
+
+        Message message = new Message(1, new Metadata("queue", "amq.direct", 100));
+        AmqpDeliverMessage deliverMessage = amqpChannel.createDeliverMessage(message,
+                                                                             ShortString.parseString("consumer"),
+                                                                             "queue");
+        Assert.assertFalse(amqpChannel.isReady(), "Channel should not take messages beyond the outbound byte limit");
+        Assert.assertEquals(amqpChannel.getDeliveryPendingMessageCount(), 1);
+
+        amqpChannel.recordDeliveryWritten(deliverMessage.getContentLength());
+        Assert.assertTrue(amqpChannel.isReady(), "Channel should be ready once the delivery is written");
+        Assert.assertEquals(amqpChannel.getDeliveryPendingMessageCount(), 0);
+    }
+
+    @Test
+    public void testPrefetchSize() {
+        amqpChannel.setQos(0, 100);
+        recordDelivery(60);
+        Assert.assertTrue(amqpChannel.isReady(), "Channel should be ready while within the prefetch size");
+        recordDelivery(60);
+        Assert.assertFalse(amqpChannel.isReady(), "Channel should not be ready once the prefetch size is exceeded");
+
+        amqpChannel.acknowledge(1, false);
+        Assert.assertTrue(amqpChannel.isReady(), "Channel should be ready once acknowledged bytes are released");
+    }
+
+    @Test
+    public void testGlobalPrefetchCount() {
+        connectionPrefetchWindow.setLimits(2, 0);
+        recordDelivery(10);
+        Assert.assertTrue(amqpChannel.isReady());
+        recordDelivery(10);
+        Assert.assertFalse(amqpChannel.isReady(), "Connection wide prefetch count should apply to the channel");
+
+        amqpChannel.recover();
+        Assert.assertTrue(amqpChannel.isReady(), "Recovered deliveries should be released from the window");
+    }
+
+    @Test
+    public void testCommitReleasesOnlySubmittedAcknowledgements() throws Exception {
+        CompletableFuture<Void> commitFuture = startCommitWithTwoAcknowledgements();
+        amqpChannel.acknowledge(3, false);
+
+        commitFuture.complete(null);
+        Assert.assertTrue(amqpChannel.isReady(), "Committed acknowledgements should be released from the window");
+
+        amqpChannel.rollback();
+        Assert.assertEquals(amqpChannel.getUnackedMessageCount(), 1,
+                            "Acknowledgement received during the commit should belong to the next transaction");
+    }
+
+    @Test
+    public void testFailedCommitResetsSubmittedAcknowledgements() throws Exception {
+        CompletableFuture<Void> commitFuture = startCommitWithTwoAcknowledgements();
+
+        commitFuture.completeExceptionally(new Exception("Commit failed"));
+        Assert.assertEquals(amqpChannel.getUnackedMessageCount(), 3,
+                            "Acknowledgements of a failed commit should be pending again");
+        Assert.assertFalse(amqpChannel.isReady());
+    }
+
+    @Test
+    public void testCloseDuringCommitReleasesConnectionPrefetchWindow() throws Exception {
+        connectionPrefetchWindow.setLimits(3, 0);
+        CompletableFuture<Void> commitFuture = startCommitWithTwoAcknowledgements();
+        Assert.assertFalse(connectionPrefetchWindow.hasRoom());
+
+        amqpChannel.close();
+        commitFuture.complete(null);
+
+        // A single delivery should fill a window of one only if nothing else is left in flight
+        connectionPrefetchWindow.setLimits(1, 0);
+        Assert.assertTrue(connectionPrefetchWindow.hasRoom(), "Closed channel should not hold the connection window");
+        connectionPrefetchWindow.add(1, 10);
+        Assert.assertFalse(connectionPrefetchWindow.hasRoom(),
+                           "Acknowledgements of the in-flight commit should be released exactly once");
+    }
+
+    /**
+     * Deliver three messages up to the prefetch count, acknowledge the first two in a transaction and submit the
+     * commit.
+     *
+     * @return future of the submitted commit
+     */
+    private CompletableFuture<Void> startCommitWithTwoAcknowledgements() throws Exception {
+        BrokerTransaction transaction = broker.newLocalTransaction();
+        Mockito.when(transaction.inTransactionBlock()).thenReturn(true);
+        CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+        Mockito.when(transaction.commitAsync(Mockito.any())).thenReturn(commitFuture);
+        amqpChannel.setLocalTransactional();
+        amqpChannel.setPrefetchCount(3);
+        for (int i = 0; i < 3; i++) {
+            recordDelivery(10);
+        }
+
+        amqpChannel.acknowledge(2, true);
+        amqpChannel.commitAsync(Runnable::run);
+        Assert.assertFalse(amqpChannel.isReady(), "Acknowledgements should be counted until the commit completes");
+        return commitFuture;
+    }
+
+    private void recordDelivery(long contentLength) {
+        long deliveryTag = amqpChannel.getNextDeliveryTag();
+        Message message = new Message(deliveryTag, new Metadata("queue", "amq.direct", contentLength));
+        amqpChannel.recordMessageDelivery(deliveryTag,
+                                          new AckData(message, "queue", ShortString.parseString("consumer"),
+                                                      deliveryTag));
+    }
 }
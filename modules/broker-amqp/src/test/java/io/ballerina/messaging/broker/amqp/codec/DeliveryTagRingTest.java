@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec;
+
+import io.ballerina.messaging.broker.amqp.consumer.AckData;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class DeliveryTagRingTest {
+
+    private DeliveryTagRing ring;
+
+    @BeforeMethod
+    public void setUp() {
+        ring = new DeliveryTagRing();
+    }
+
+    @Test
+    public void testRemoveUpTo() {
+        AckData[] ackData = addDeliveries(1, 10);
+        ring.remove(3);
+
+        List<AckData> removed = ring.removeUpTo(5);
+
+        Assert.assertEquals(removed.size(), 4, "Only live entries up to the tag should be removed");
+        Assert.assertSame(removed.get(0), ackData[1]);
+        Assert.assertSame(removed.get(3), ackData[5]);
+        Assert.assertEquals(ring.size(), 5);
+        Assert.assertNull(ring.get(5));
+        Assert.assertSame(ring.get(6), ackData[6]);
+    }
+
+    @Test
+    public void testGrowBeyondInitialCapacity() {
+        AckData[] ackData = addDeliveries(1, 1000);
+        ring.removeUpTo(500);
+
+        Assert.assertEquals(ring.size(), 500);
+        for (int tag = 501; tag <= 1000; tag++) {
+            Assert.assertSame(ring.get(tag), ackData[tag], "Entry for tag " + tag + " should be retained");
+        }
+    }
+
+    @Test
+    public void testTransferAndRestore() {
+        addDeliveries(1, 5);
+        DeliveryTagRing marked = new DeliveryTagRing();
+
+        ring.transferUpTo(3, marked);
+        Assert.assertEquals(ring.size(), 2);
+        Assert.assertEquals(marked.size(), 3);
+
+        // Restoring entries older than the current head should keep them ordered by tag
+        marked.drainTo(ring);
+        Assert.assertTrue(marked.isEmpty());
+        Assert.assertEquals(ring.removeAll().size(), 5);
+        Assert.assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void testRemoveIf() {
+        addDeliveries(1, 10);
+
+        List<AckData> removed = ring.removeIf(ackData -> ackData.getQueueName().equals("queue-1"));
+
+        Assert.assertEquals(removed.size(), 5);
+        Assert.assertEquals(ring.size(), 5);
+        Assert.assertNull(ring.get(1));
+        Assert.assertNotNull(ring.get(2));
+    }
+
+    @Test
+    public void testOutstandingDeliveryDoesNotStretchWindow() {
+        AckData oldest = newAckData(1);
+        ring.put(1, oldest);
+        for (int tag = 2; tag <= 100000; tag++) {
+            ring.put(tag, newAckData(tag));
+            if (tag > 2) {
+                ring.remove(tag - 1);
+            }
+        }
+
+        Assert.assertEquals(ring.size(), 2, "Only the oldest and the latest delivery should remain");
+        Assert.assertSame(ring.get(1), oldest, "Outstanding delivery should be retained");
+
+        List<AckData> removed = ring.removeUpTo(100000);
+        Assert.assertEquals(removed.size(), 2);
+        Assert.assertSame(removed.get(0), oldest, "Entries should be ordered by delivery tag");
+        Assert.assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    public void testRestoreOlderThanOverflow() {
+        DeliveryTagRing marked = new DeliveryTagRing();
+        ring.put(1, newAckData(1));
+        ring.put(2, newAckData(2));
+        ring.transferUpTo(1, marked);
+        for (int tag = 3; tag <= 1000; tag++) {
+            ring.put(tag, newAckData(tag));
+            ring.remove(tag);
+        }
+        ring.put(1001, newAckData(1001));
+
+        marked.drainTo(ring);
+
+        List<AckData> removed = ring.removeAll();
+        Assert.assertEquals(removed.size(), 3);
+        Assert.assertEquals(removed.get(0).getDeliveryTag(), 1);
+        Assert.assertEquals(removed.get(1).getDeliveryTag(), 2);
+        Assert.assertEquals(removed.get(2).getDeliveryTag(), 1001);
+    }
+
+    private AckData newAckData(int tag) {
+        Message message = new Message(tag, new Metadata("queue", "amq.direct", 0));
+        return new AckData(message, "queue-" + (tag % 2), ShortString.parseString("consumer"), tag);
+    }
+
+    private AckData[] addDeliveries(int fromTag, int toTag) {
+        AckData[] ackData = new AckData[toTag + 1];
+        for (int tag = fromTag; tag <= toTag; tag++) {
+            ackData[tag] = newAckData(tag);
+            ring.put(tag, ackData[tag]);
+        }
+        return ackData;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec;
+
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.core.ContentChunk;
+import io.ballerina.messaging.broker.core.Message;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InMemoryMessageAggregatorTest {
+
+    private static final int FRAME_SIZE = 16;
+
+    private InMemoryMessageAggregator aggregator;
+
+    private ChannelHandlerContext ctx;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        aggregator = new InMemoryMessageAggregator(null, FRAME_SIZE,
+                                                   Files.createTempDirectory("spool-test").toString());
+        ctx = Mockito.mock(ChannelHandlerContext.class);
+    }
+
+    @Test(description = "Test spool file I/O is handed to the blocking task executor")
+    public void testSpoolWritesRunAsBlockingTasks() throws Exception {
+        aggregator.basicPublishReceived("key", "amq.direct");
+        aggregator.headerFrameReceived(FieldTable.EMPTY_TABLE, FieldTable.EMPTY_TABLE, FRAME_SIZE * 2, null);
+
+        ByteBuf firstFrame = Unpooled.buffer(FRAME_SIZE).writeZero(FRAME_SIZE);
+        ByteBuf secondFrame = Unpooled.buffer(FRAME_SIZE).writeZero(FRAME_SIZE);
+        Assert.assertFalse(aggregator.contentBodyReceived(ctx, FRAME_SIZE, firstFrame));
+        Assert.assertTrue(aggregator.contentBodyReceived(ctx, FRAME_SIZE, secondFrame));
+        Assert.assertTrue(aggregator.isSpooled(), "Large message should be spooled");
+        Assert.assertEquals(firstFrame.refCnt(), 1, "Content should not be written on the calling thread");
+
+        List<Message> publishedMessages = new ArrayList<>();
+        aggregator.popSpooledMessage(publishedMessages::add, e -> Assert.fail("Spooling should not fail", e));
+        Assert.assertTrue(publishedMessages.isEmpty(), "Message should be published only after the spool writes");
+
+        ArgumentCaptor<BlockingTask> tasks = ArgumentCaptor.forClass(BlockingTask.class);
+        Mockito.verify(ctx, Mockito.times(3)).fireChannelRead(tasks.capture());
+        for (BlockingTask task : tasks.getAllValues()) {
+            task.execute();
+        }
+
+        Assert.assertEquals(firstFrame.refCnt(), 0, "Frame should be released once written");
+        Assert.assertEquals(secondFrame.refCnt(), 0, "Frame should be released once written");
+        Assert.assertEquals(publishedMessages.size(), 1, "Spooled message should be published");
+        Message message = publishedMessages.get(0);
+        long contentSize = 0;
+        for (ContentChunk chunk : message.getContentChunks()) {
+            contentSize += chunk.getByteBuf().readableBytes();
+        }
+        Assert.assertEquals(contentSize, FRAME_SIZE * 2, "Spooled content should be mapped into the message");
+        message.release();
+    }
+}
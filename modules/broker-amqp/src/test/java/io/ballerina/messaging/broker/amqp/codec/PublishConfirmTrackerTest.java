@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec;
+
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicAck;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicNack;
+import io.ballerina.messaging.broker.amqp.codec.frames.MethodFrame;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+public class PublishConfirmTrackerTest {
+
+    private PublishConfirmTracker tracker;
+
+    @BeforeMethod
+    public void setUp() {
+        tracker = new PublishConfirmTracker(1);
+    }
+
+    @Test
+    public void testBatchCoalescedToMultipleAck() {
+        publish(5);
+        Assert.assertTrue(tracker.complete(1, true), "First confirmation should schedule a flush");
+        for (int sequence = 2; sequence <= 5; sequence++) {
+            Assert.assertFalse(tracker.complete(sequence, true), "Flush is already scheduled");
+        }
+
+        List<MethodFrame> frames = tracker.flush();
+
+        Assert.assertEquals(frames.size(), 1);
+        assertAck(frames.get(0), 5, true);
+        Assert.assertTrue(tracker.flush().isEmpty());
+    }
+
+    @Test
+    public void testOutOfOrderConfirmation() {
+        publish(3);
+        tracker.complete(2, true);
+        List<MethodFrame> frames = tracker.flush();
+
+        Assert.assertEquals(frames.size(), 1);
+        assertAck(frames.get(0), 2, false);
+
+        tracker.complete(1, true);
+        tracker.complete(3, true);
+        frames = tracker.flush();
+
+        Assert.assertEquals(frames.size(), 1, "Run should cover the publish confirmed individually");
+        assertAck(frames.get(0), 3, true);
+    }
+
+    @Test
+    public void testNackEndsTheRun() {
+        publish(4);
+        tracker.complete(1, true);
+        tracker.complete(2, true);
+        tracker.complete(3, false);
+        tracker.complete(4, true);
+
+        List<MethodFrame> frames = tracker.flush();
+
+        Assert.assertEquals(frames.size(), 3);
+        assertAck(frames.get(0), 2, true);
+        Assert.assertTrue(frames.get(1) instanceof BasicNack);
+        Assert.assertEquals(((BasicNack) frames.get(1)).getDeliveryTag(), 3);
+        Assert.assertFalse(((BasicNack) frames.get(1)).isMultiple());
+        assertAck(frames.get(2), 4, false);
+    }
+
+    @Test
+    public void testNackSentAheadIsNotCoveredByMultipleAck() {
+        publish(3);
+        tracker.complete(2, false);
+        List<MethodFrame> frames = tracker.flush();
+        Assert.assertEquals(frames.size(), 1);
+        Assert.assertTrue(frames.get(0) instanceof BasicNack);
+
+        tracker.complete(1, true);
+        tracker.complete(3, true);
+        frames = tracker.flush();
+
+        Assert.assertEquals(frames.size(), 2);
+        assertAck(frames.get(0), 1, false);
+        assertAck(frames.get(1), 3, false);
+    }
+
+    private void publish(int count) {
+        for (int i = 0; i < count; i++) {
+            tracker.nextPublishSequence();
+        }
+    }
+
+    private static void assertAck(MethodFrame frame, long deliveryTag, boolean multiple) {
+        Assert.assertTrue(frame instanceof BasicAck, "Expected basic.ack but found " + frame);
+        BasicAck basicAck = (BasicAck) frame;
+        Assert.assertEquals(basicAck.getDeliveryTag(), deliveryTag);
+        Assert.assertEquals(basicAck.isMultiple(), multiple);
+    }
+}
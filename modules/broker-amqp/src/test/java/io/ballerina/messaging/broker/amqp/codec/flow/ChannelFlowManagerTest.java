@@ -21,6 +21,7 @@ package io.ballerina.messaging.broker.amqp.codec.flow;
 
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
 import io.ballerina.messaging.broker.amqp.codec.frames.ChannelFlow;
+import io.ballerina.messaging.broker.amqp.metrics.NullAmqpMetricManager;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelConfig;
 import io.netty.channel.ChannelHandlerContext;
@@ -34,6 +35,7 @@ import java.util.stream.IntStream;
 public class ChannelFlowManagerTest {
 
     private ChannelFlowManager channelFlowManager;
+    private ConnectionFlowManager connectionFlowManager;
     private ChannelHandlerContext ctx;
     private ArgumentCaptor<ChannelFlow> argumentCaptor;
 
@@ -44,7 +46,9 @@ public class ChannelFlowManagerTest {
         Channel mockChannel = Mockito.mock(Channel.class);
         Mockito.when(mockChannel.config()).thenReturn(Mockito.mock(ChannelConfig.class));
         Mockito.when(ctx.channel()).thenReturn(mockChannel);
-        channelFlowManager = new ChannelFlowManager(channel, 2, 10);
+        connectionFlowManager = Mockito.mock(ConnectionFlowManager.class);
+        channelFlowManager = new ChannelFlowManager(channel, 2, 10, 100, 1000, connectionFlowManager,
+                                                    new NullAmqpMetricManager());
 
         argumentCaptor = ArgumentCaptor.forClass(ChannelFlow.class);
     }
@@ -83,4 +87,39 @@ public class ChannelFlowManagerTest {
         // 2 times since flow is disabled and enables
         Mockito.verify(ctx, Mockito.times(2)).writeAndFlush(argumentCaptor.capture());
     }
+
+    @Test
+    public void testFlowDisabledWhenHighByteLimitExceeded() throws Exception {
+        channelFlowManager.notifyMessageAddition(ctx);
+        channelFlowManager.notifyContentAddition(ctx, 600);
+        channelFlowManager.notifyMessageAddition(ctx);
+        channelFlowManager.notifyContentAddition(ctx, 600);
+
+        Mockito.verify(ctx, Mockito.times(1)).writeAndFlush(argumentCaptor.capture());
+        Mockito.verify(connectionFlowManager, Mockito.times(1)).channelInflowDisabled();
+        Mockito.verify(connectionFlowManager, Mockito.times(2)).notifyContentAddition(600);
+    }
+
+    @Test
+    public void testFlowEnabledWhenByteLowLimitIsMet() throws Exception {
+        channelFlowManager.notifyMessageAddition(ctx);
+        channelFlowManager.notifyContentAddition(ctx, 1200);
+        channelFlowManager.notifyMessageRemoval(ctx, 1, 1200);
+
+        // 2 times since flow is disabled and enables
+        Mockito.verify(ctx, Mockito.times(2)).writeAndFlush(argumentCaptor.capture());
+        Mockito.verify(connectionFlowManager, Mockito.times(1)).channelInflowEnabled();
+        Mockito.verify(connectionFlowManager, Mockito.times(1)).notifyContentRemoval(1200);
+    }
+
+    @Test
+    public void testCloseReleasesPartialContent() throws Exception {
+        channelFlowManager.notifyMessageAddition(ctx);
+        channelFlowManager.notifyContentAddition(ctx, 1200);
+        channelFlowManager.close();
+        channelFlowManager.notifyMessageRemoval(ctx, 1, 1200);
+
+        Mockito.verify(connectionFlowManager, Mockito.times(1)).notifyContentRemoval(1200);
+        Mockito.verify(connectionFlowManager, Mockito.times(1)).channelInflowEnabled();
+    }
 }
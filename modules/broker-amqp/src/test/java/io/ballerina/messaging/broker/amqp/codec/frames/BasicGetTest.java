@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.frames;
+
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class BasicGetTest {
+
+    @Test(dataProvider = "noAckFlags")
+    public void testEncodeDecode(boolean noAck) throws Exception {
+        BasicGet testFrame = new BasicGet(1, ShortString.parseString("queue"), noAck);
+        ByteBuf buf = Unpooled.buffer((int) testFrame.getMethodBodySize());
+        testFrame.writeMethod(buf);
+        BasicGet decodedFrame = (BasicGet) BasicGet.getFactory().newInstance(buf, 1, testFrame.getMethodBodySize());
+
+        Assert.assertEquals(decodedFrame.getChannel(), testFrame.getChannel(), "Decoded frame's channel should match"
+                + " the original frame's channel");
+        Assert.assertEquals(decodedFrame.getQueue(), testFrame.getQueue(), "Decoded frame's queue should match"
+                + " the original frame's queue");
+        Assert.assertEquals(decodedFrame.isNoAck(), testFrame.isNoAck(), "Decoded frame's no-ack bit should match"
+                + " the original frame's no-ack bit");
+        Assert.assertEquals(buf.readableBytes(), 0, "Complete method body should be consumed");
+    }
+
+    @Test
+    public void testGetOkEncodeDecode() throws Exception {
+        BasicGetOk testFrame = new BasicGetOk(1, 42, true, ShortString.parseString("amq.direct"),
+                                              ShortString.parseString("queue"), 10);
+        ByteBuf buf = Unpooled.buffer((int) testFrame.getMethodBodySize());
+        testFrame.writeMethod(buf);
+        BasicGetOk decodedFrame = (BasicGetOk) BasicGetOk.getFactory()
+                                                         .newInstance(buf, 1, testFrame.getMethodBodySize());
+
+        Assert.assertEquals(decodedFrame.getDeliveryTag(), 42, "Decoded frame's delivery tag should match"
+                + " the original frame's delivery tag");
+        Assert.assertEquals(buf.readableBytes(), 0, "Complete method body should be consumed");
+    }
+
+    @DataProvider(name = "noAckFlags")
+    public Object[] noAckFlags() {
+        return new Object[]{ true, false };
+    }
+}
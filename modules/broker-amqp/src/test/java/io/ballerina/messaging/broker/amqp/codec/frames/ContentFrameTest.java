@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.frames;
+
+import io.ballerina.messaging.broker.amqp.AmqpException;
+import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
+import io.ballerina.messaging.broker.amqp.codec.InMemoryMessageAggregator;
+import io.ballerina.messaging.broker.amqp.codec.flow.ChannelFlowManager;
+import io.ballerina.messaging.broker.amqp.codec.flow.ConnectionFlowManager;
+import io.ballerina.messaging.broker.amqp.codec.handlers.AmqpConnectionHandler;
+import io.ballerina.messaging.broker.amqp.metrics.NullAmqpMetricManager;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class ContentFrameTest {
+
+    private static final int FRAME_SIZE = 400;
+
+    private static final long HIGH_LIMIT_BYTES = 1000;
+
+    @Test(dataProvider = "payloadSizes")
+    public void testEncode(int payloadSize) {
+        byte[] content = new byte[payloadSize];
+        for (int i = 0; i < payloadSize; i++) {
+            content[i] = (byte) i;
+        }
+        ByteBuf payload = Unpooled.copiedBuffer(content);
+        ContentFrame frame = new ContentFrame(2, payloadSize, payload);
+
+        ByteBuf buf = frame.write(UnpooledByteBufAllocator.DEFAULT);
+
+        Assert.assertEquals(buf.readableBytes(), payloadSize + 8, "Encoded frame size should match");
+        Assert.assertEquals(buf.readByte(), 3, "Frame type should be body");
+        Assert.assertEquals(buf.readUnsignedShort(), 2, "Channel id should match");
+        Assert.assertEquals(buf.readInt(), payloadSize, "Payload size should match");
+        byte[] decodedContent = new byte[payloadSize];
+        buf.readBytes(decodedContent);
+        Assert.assertEquals(decodedContent, content, "Payload should match");
+        Assert.assertEquals(buf.readUnsignedByte(), GeneralFrame.FRAME_END, "Frame should end with frame end");
+
+        buf.release();
+        Assert.assertEquals(payload.refCnt(), 0, "Payload should be released with the frame");
+    }
+
+    @Test
+    public void testLargePayloadIsNotCopied() {
+        ByteBuf payload = Unpooled.buffer(4096).writeZero(4096);
+        ContentFrame frame = new ContentFrame(1, 4096, payload);
+
+        ByteBuf buf = frame.write(UnpooledByteBufAllocator.DEFAULT);
+
+        Assert.assertTrue(buf instanceof CompositeByteBuf, "Large payload should be written as a composite buffer");
+        payload.setByte(0, 7);
+        Assert.assertEquals(buf.getByte(7), 7, "Payload should not be copied");
+        buf.release();
+    }
+
+    @Test(description = "Test a message larger than the channel byte limit is received without pausing the inflow")
+    public void testMessageLargerThanHighLimitIsNotStalled() throws Exception {
+        ChannelHandlerContext ctx = mockContext();
+        ConnectionFlowManager connectionFlowManager = Mockito.mock(ConnectionFlowManager.class);
+        InMemoryMessageAggregator aggregator = Mockito.mock(InMemoryMessageAggregator.class);
+        AmqpConnectionHandler connectionHandler = mockConnectionHandler(aggregator, connectionFlowManager);
+        Message message = new Message(1, new Metadata("key", "amq.direct", FRAME_SIZE * 3));
+        Mockito.when(aggregator.contentBodyReceived(ArgumentMatchers.eq(ctx), ArgumentMatchers.anyLong(),
+                                                    ArgumentMatchers.any(ByteBuf.class)))
+               .thenReturn(false, false, true);
+        Mockito.when(aggregator.popMessage()).thenReturn(message);
+
+        for (int i = 0; i < 2; i++) {
+            new ContentFrame(1, FRAME_SIZE, Unpooled.buffer(FRAME_SIZE)).handle(ctx, connectionHandler);
+        }
+        Mockito.verify(ctx, Mockito.never()).writeAndFlush(ArgumentMatchers.any(ChannelFlow.class));
+        Mockito.verify(connectionFlowManager, Mockito.never()).notifyContentAddition(ArgumentMatchers.anyLong());
+        Mockito.verify(connectionFlowManager, Mockito.never()).channelInflowDisabled();
+
+        new ContentFrame(1, FRAME_SIZE, Unpooled.buffer(FRAME_SIZE)).handle(ctx, connectionHandler);
+        Mockito.verify(connectionHandler).addPendingPublish(ArgumentMatchers.any(AmqpChannel.class),
+                                                            ArgumentMatchers.eq(message));
+        Mockito.verify(connectionFlowManager).notifyContentAddition(FRAME_SIZE * 3);
+    }
+
+    @Test(description = "Test no content stays accounted when a message is dropped while receiving content")
+    public void testDroppedMessageContentIsNotAccounted() throws Exception {
+        ChannelHandlerContext ctx = mockContext();
+        ConnectionFlowManager connectionFlowManager = Mockito.mock(ConnectionFlowManager.class);
+        InMemoryMessageAggregator aggregator = Mockito.mock(InMemoryMessageAggregator.class);
+        AmqpConnectionHandler connectionHandler = mockConnectionHandler(aggregator, connectionFlowManager);
+        Mockito.when(aggregator.contentBodyReceived(ArgumentMatchers.eq(ctx), ArgumentMatchers.anyLong(),
+                                                    ArgumentMatchers.any(ByteBuf.class)))
+               .thenThrow(new AmqpException("Content length mismatch"));
+
+        new ContentFrame(1, FRAME_SIZE, Unpooled.buffer(FRAME_SIZE)).handle(ctx, connectionHandler);
+
+        Mockito.verify(connectionFlowManager, Mockito.never()).notifyContentAddition(ArgumentMatchers.anyLong());
+        Mockito.verify(connectionHandler, Mockito.never()).addPendingPublish(ArgumentMatchers.any(AmqpChannel.class),
+                                                                             ArgumentMatchers.any(Message.class));
+    }
+
+    private ChannelHandlerContext mockContext() {
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+        Mockito.when(ctx.channel()).thenReturn(Mockito.mock(Channel.class));
+        return ctx;
+    }
+
+    private AmqpConnectionHandler mockConnectionHandler(InMemoryMessageAggregator aggregator,
+                                                       ConnectionFlowManager connectionFlowManager) {
+        AmqpChannel channel = Mockito.mock(AmqpChannel.class);
+        ChannelFlowManager flowManager = new ChannelFlowManager(channel, 2, 10, HIGH_LIMIT_BYTES / 2,
+                                                                HIGH_LIMIT_BYTES, connectionFlowManager,
+                                                                new NullAmqpMetricManager());
+        Mockito.when(channel.getMessageAggregator()).thenReturn(aggregator);
+        Mockito.when(channel.getFlowManager()).thenReturn(flowManager);
+        AmqpConnectionHandler connectionHandler = Mockito.mock(AmqpConnectionHandler.class);
+        Mockito.when(connectionHandler.getChannel(1)).thenReturn(channel);
+        return connectionHandler;
+    }
+
+    @DataProvider(name = "payloadSizes")
+    public Object[] payloadSizes() {
+        return new Object[]{ 10, 4096 };
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.frames;
+
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.common.data.types.FieldValue;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+
+public class HeaderFrameTest {
+
+    @Test
+    public void testParseRetainsEncodedProperties() throws Exception {
+        HeaderFrame frame = newHeaderFrame();
+        ByteBuf buf = frame.write(UnpooledByteBufAllocator.DEFAULT);
+        // Skip frame header
+        buf.skipBytes(7);
+
+        HeaderFrame parsedFrame = HeaderFrame.parse(buf, 1);
+
+        Assert.assertEquals(parsedFrame.getEncodedProperties(), frame.encodeProperties(),
+                            "Parsed frame should retain the encoded properties");
+        Assert.assertEquals(buf.readUnsignedByte(), GeneralFrame.FRAME_END, "Whole payload should be consumed");
+        buf.release();
+    }
+
+    @Test
+    public void testWriteWithEncodedProperties() {
+        HeaderFrame frame = newHeaderFrame();
+        ByteBuf expected = frame.write(UnpooledByteBufAllocator.DEFAULT);
+
+        HeaderFrame cachedFrame = new HeaderFrame(1, 60, 1024);
+        cachedFrame.setEncodedProperties(frame.encodeProperties());
+        ByteBuf actual = cachedFrame.write(UnpooledByteBufAllocator.DEFAULT);
+
+        Assert.assertTrue(ByteBufUtil.equals(actual, expected),
+                          "Frame written from encoded properties should match the encoded frame");
+        expected.release();
+        actual.release();
+    }
+
+    @Test
+    public void testSetterClearsEncodedProperties() {
+        HeaderFrame frame = newHeaderFrame();
+        frame.setEncodedProperties(frame.encodeProperties());
+
+        frame.setMessageId(ShortString.parseString("message-2"));
+
+        Assert.assertNull(frame.getEncodedProperties(), "Modifying the frame should discard encoded properties");
+    }
+
+    private static HeaderFrame newHeaderFrame() {
+        HeaderFrame frame = new HeaderFrame(1, 60, 1024);
+        frame.setContentType(ShortString.parseString("text/plain"));
+        frame.setDeliveryMode((short) 2);
+        frame.setMessageId(ShortString.parseString("message-1"));
+        FieldTable headers = new FieldTable(new HashMap<>());
+        headers.add(ShortString.parseString("JMSXGroupID"), FieldValue.parseLongString("group-1"));
+        frame.setHeaders(headers);
+        return frame;
+    }
+}
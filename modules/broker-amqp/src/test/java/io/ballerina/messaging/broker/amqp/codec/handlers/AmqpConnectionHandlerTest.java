@@ -1,11 +1,23 @@
 package io.ballerina.messaging.broker.amqp.codec.handlers;
 
 import io.ballerina.messaging.broker.amqp.AmqpConnectionManager;
+import io.ballerina.messaging.broker.amqp.codec.AmqConstant;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
 import io.ballerina.messaging.broker.amqp.codec.AmqpChannelFactory;
+import io.ballerina.messaging.broker.amqp.codec.flow.BrokerFlowManager;
+import io.ballerina.messaging.broker.amqp.codec.BlockingTask;
+import io.ballerina.messaging.broker.amqp.codec.ConnectionException;
+import io.ballerina.messaging.broker.amqp.codec.frames.HeartbeatFrame;
 import io.ballerina.messaging.broker.amqp.metrics.AmqpMetricManager;
 import io.ballerina.messaging.broker.common.ValidationException;
 import io.ballerina.messaging.broker.core.Broker;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
 import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -25,7 +37,8 @@ public class AmqpConnectionHandlerTest {
         AmqpChannelFactory amqpChannelFactory = Mockito.mock(AmqpChannelFactory.class);
         amqpChannel = Mockito.mock(AmqpChannel.class);
         AmqpConnectionManager amqpConnectionManager = Mockito.mock(AmqpConnectionManager.class);
-        connectionHandler = new AmqpConnectionHandler(metricManager, amqpChannelFactory, amqpConnectionManager);
+        connectionHandler = new AmqpConnectionHandler(metricManager, amqpChannelFactory, amqpConnectionManager,
+                                                      Mockito.mock(BrokerFlowManager.class));
         connectionHandler.attachBroker(broker);
         Mockito.when(amqpChannelFactory.createChannel(broker, 1, connectionHandler)).thenReturn(amqpChannel);
     }
@@ -68,4 +81,91 @@ public class AmqpConnectionHandlerTest {
         }
     }
 
+    @Test
+    public void testPublishesBatchedPerReadBurst() {
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+        Channel channel = Mockito.mock(Channel.class);
+        Mockito.when(ctx.channel()).thenReturn(channel);
+        Mockito.when(channel.isWritable()).thenReturn(true);
+
+        connectionHandler.addPendingPublish(amqpChannel, new Message(1, new Metadata("queue", "amq.direct", 0)));
+        connectionHandler.addPendingPublish(amqpChannel, new Message(2, new Metadata("queue", "amq.direct", 0)));
+        connectionHandler.channelReadComplete(ctx);
+
+        Mockito.verify(ctx, Mockito.times(1)).fireChannelRead(Mockito.any(BlockingTask.class));
+
+        // Nothing should be handed over when there are no new messages
+        connectionHandler.channelReadComplete(ctx);
+        Mockito.verify(ctx, Mockito.times(1)).fireChannelRead(Mockito.any(BlockingTask.class));
+    }
+
+    @Test
+    public void testHeartbeatSentWhenWriterIdle() throws Exception {
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+
+        connectionHandler.userEventTriggered(ctx, IdleStateEvent.FIRST_WRITER_IDLE_STATE_EVENT);
+
+        Mockito.verify(ctx).writeAndFlush(HeartbeatFrame.INSTANCE);
+        Mockito.verify(ctx, Mockito.never()).close();
+    }
+
+    @Test
+    public void testConnectionClosedWhenReaderIdle() throws Exception {
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+
+        connectionHandler.userEventTriggered(ctx, IdleStateEvent.FIRST_READER_IDLE_STATE_EVENT);
+
+        Mockito.verify(ctx).close();
+        Mockito.verify(ctx, Mockito.never()).writeAndFlush(Mockito.any());
+    }
+
+    @Test
+    public void testTuneTakesSmallerNonZeroValues() throws Exception {
+        ChannelHandlerContext ctx = mockTuningContext();
+        connectionHandler.proposeTuning(ctx, 60);
+
+        connectionHandler.tune(ctx, 0, 8192, 30);
+
+        Assert.assertEquals(connectionHandler.getMaxContentPayloadSize(), 8192 - 8);
+        Assert.assertEquals(getHeartbeatMillis(ctx), 30000L);
+        connectionHandler.createChannel(AmqConstant.CHANNEL_MAX);
+    }
+
+    @Test
+    public void testTuneKeepsServerValuesWhenClientSendsZero() throws Exception {
+        ChannelHandlerContext ctx = mockTuningContext();
+        connectionHandler.proposeTuning(ctx, 60);
+
+        connectionHandler.tune(ctx, 2, 0, 0);
+
+        Assert.assertEquals(connectionHandler.getMaxContentPayloadSize(), AmqConstant.FRAME_MAX - 8);
+        Assert.assertEquals(getHeartbeatMillis(ctx), 60000L, "Server heartbeat should apply when client sends 0");
+        try {
+            connectionHandler.createChannel(3);
+            Assert.fail("Expected ConnectionException not thrown");
+        } catch (ConnectionException e) {
+            Assert.assertEquals(e.getReplyCode(), ConnectionException.NOT_ALLOWED);
+        }
+    }
+
+    @Test(expectedExceptions = ConnectionException.class)
+    public void testTuneRejectsFrameMaxBelowMinimum() throws Exception {
+        ChannelHandlerContext ctx = mockTuningContext();
+        connectionHandler.proposeTuning(ctx, 60);
+
+        connectionHandler.tune(ctx, 0, AmqConstant.FRAME_MIN_SIZE - 1, 0);
+    }
+
+    private static ChannelHandlerContext mockTuningContext() {
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+        EmbeddedChannel channel = new EmbeddedChannel();
+        Mockito.when(ctx.pipeline()).thenReturn(channel.pipeline());
+        return ctx;
+    }
+
+    private static long getHeartbeatMillis(ChannelHandlerContext ctx) {
+        IdleStateHandler idleStateHandler = ctx.pipeline().get(IdleStateHandler.class);
+        Assert.assertNotNull(idleStateHandler, "Heartbeat should be started");
+        return idleStateHandler.getWriterIdleTimeInMillis();
+    }
 }
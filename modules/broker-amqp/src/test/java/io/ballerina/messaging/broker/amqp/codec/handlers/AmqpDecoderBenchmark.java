@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.handlers;
+
+import io.ballerina.messaging.broker.amqp.codec.auth.AuthenticationStrategy;
+import io.ballerina.messaging.broker.amqp.codec.frames.AmqMethodRegistry;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicAck;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicPublish;
+import io.ballerina.messaging.broker.amqp.codec.frames.ContentFrame;
+import io.ballerina.messaging.broker.amqp.codec.frames.GeneralFrame;
+import io.ballerina.messaging.broker.amqp.codec.frames.HeaderFrame;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares per frame allocations of {@link AmqpDecoder} with and without flyweight decoding. Each invocation decodes
+ * a read burst of publishes, each made of basic.publish, content header and content body frames, followed by
+ * acknowledgements.
+ * <p>
+ * Run the main method from the test classpath. Allocation rates are reported by the GC profiler as
+ * gc.alloc.rate.norm (bytes per operation).
+ */
+@State(Scope.Thread)
+public class AmqpDecoderBenchmark {
+
+    private static final int MESSAGES_PER_BURST = 16;
+
+    private static final int PAYLOAD_SIZE = 256;
+
+    @Param({"false", "true"})
+    public boolean flyweightDecoding;
+
+    private EmbeddedChannel channel;
+
+    private ByteBuf burst;
+
+    private Blackhole blackhole;
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        this.blackhole = blackhole;
+        AmqMethodRegistry registry = new AmqMethodRegistry(Mockito.mock(AuthenticationStrategy.class));
+        channel = new EmbeddedChannel(new AmqpDecoder(registry, flyweightDecoding), new FrameConsumer());
+
+        ByteBuf protocolHeader = Unpooled.buffer(8);
+        protocolHeader.writeCharSequence("AMQP", CharsetUtil.US_ASCII);
+        protocolHeader.writeBytes(new byte[]{0, 0, 9, 1});
+        channel.writeInbound(protocolHeader);
+
+        burst = Unpooled.directBuffer();
+        for (int i = 0; i < MESSAGES_PER_BURST; i++) {
+            write(new BasicPublish(1, ShortString.parseString("amq.direct"), ShortString.parseString("orders"),
+                                   false, false));
+            HeaderFrame headerFrame = new HeaderFrame(1, 60, PAYLOAD_SIZE);
+            headerFrame.setContentType(ShortString.parseString("application/octet-stream"));
+            headerFrame.setDeliveryMode((short) 2);
+            write(headerFrame);
+            write(new ContentFrame(1, PAYLOAD_SIZE, Unpooled.buffer(PAYLOAD_SIZE).writeZero(PAYLOAD_SIZE)));
+        }
+        for (int i = 0; i < MESSAGES_PER_BURST; i++) {
+            write(new BasicAck(1, i + 1, false));
+        }
+    }
+
+    private void write(GeneralFrame frame) {
+        ByteBuf encoded = frame.write(UnpooledByteBufAllocator.DEFAULT);
+        burst.writeBytes(encoded);
+        encoded.release();
+    }
+
+    @TearDown
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+        burst.release();
+    }
+
+    @Benchmark
+    public void decodeBurst() {
+        channel.writeInbound(burst.retainedDuplicate());
+    }
+
+    /**
+     * Consumes decoded frames the way the connection handler does, releasing content payloads.
+     */
+    private class FrameConsumer extends ChannelInboundHandlerAdapter {
+
+        private final ByteBuf scratch = Unpooled.buffer(PAYLOAD_SIZE);
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (msg instanceof ContentFrame) {
+                scratch.clear();
+                ((ContentFrame) msg).writePayload(scratch);
+            }
+            blackhole.consume(msg);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AmqpDecoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .build();
+        new Runner(options).run();
+    }
+}
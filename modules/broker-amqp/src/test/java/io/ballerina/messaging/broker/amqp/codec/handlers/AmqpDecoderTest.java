@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.amqp.codec.handlers;
+
+import io.ballerina.messaging.broker.amqp.codec.auth.AuthenticationStrategy;
+import io.ballerina.messaging.broker.amqp.codec.frames.AmqMethodRegistry;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicAck;
+import io.ballerina.messaging.broker.amqp.codec.frames.BasicPublish;
+import io.ballerina.messaging.broker.amqp.codec.frames.GeneralFrame;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.CharsetUtil;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class AmqpDecoderTest {
+
+    @Test
+    public void testFlyweightDecodingReusesFrames() {
+        EmbeddedChannel channel = newChannel(true);
+
+        BasicPublish first = decode(channel, publish(1, "a.b"));
+        Assert.assertEquals(first.getRoutingKey(), ShortString.parseString("a.b"), "Routing key should match");
+
+        BasicPublish second = decode(channel, publish(1, "c.d"));
+        Assert.assertSame(second, first, "Frame instance should be reused within the channel");
+        Assert.assertEquals(second.getRoutingKey(), ShortString.parseString("c.d"), "Routing key should match");
+        Assert.assertEquals(second.getExchange(), ShortString.parseString("amq.topic"), "Exchange should match");
+
+        BasicPublish other = decode(channel, publish(2, "c.d"));
+        Assert.assertNotSame(other, first, "Frame instance should not be shared across channels");
+        Assert.assertEquals(other.getChannel(), 2, "Channel should match");
+    }
+
+    @Test
+    public void testFlyweightDecodingOfBasicAck() {
+        EmbeddedChannel channel = newChannel(true);
+
+        BasicAck ack = decode(channel, new BasicAck(1, 42, true));
+
+        Assert.assertEquals(ack.getDeliveryTag(), 42, "Delivery tag should match");
+        Assert.assertTrue(ack.isMultiple(), "Multiple flag should match");
+    }
+
+    @Test
+    public void testDecodingWithoutFlyweight() {
+        EmbeddedChannel channel = newChannel(false);
+
+        BasicPublish first = decode(channel, publish(1, "a.b"));
+        BasicPublish second = decode(channel, publish(1, "c.d"));
+
+        Assert.assertNotSame(second, first, "A new frame should be created per decoded frame");
+        Assert.assertEquals(first.getRoutingKey(), ShortString.parseString("a.b"), "Routing key should match");
+    }
+
+    private EmbeddedChannel newChannel(boolean flyweightDecoding) {
+        AmqMethodRegistry registry = new AmqMethodRegistry(Mockito.mock(AuthenticationStrategy.class));
+        EmbeddedChannel channel = new EmbeddedChannel(new AmqpDecoder(registry, flyweightDecoding));
+        ByteBuf protocolHeader = Unpooled.buffer(8);
+        protocolHeader.writeCharSequence("AMQP", CharsetUtil.US_ASCII);
+        protocolHeader.writeBytes(new byte[]{0, 0, 9, 1});
+        channel.writeInbound(protocolHeader);
+        channel.readInbound();
+        return channel;
+    }
+
+    private static <T> T decode(EmbeddedChannel channel, GeneralFrame frame) {
+        channel.writeInbound(frame.write(UnpooledByteBufAllocator.DEFAULT));
+        return channel.readInbound();
+    }
+
+    private static BasicPublish publish(int channel, String routingKey) {
+        return new BasicPublish(channel, ShortString.parseString("amq.topic"), ShortString.parseString(routingKey),
+                                false, false);
+    }
+}
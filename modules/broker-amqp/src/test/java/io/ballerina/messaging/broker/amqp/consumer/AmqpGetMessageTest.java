@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.amqp.consumer;
+
+import io.ballerina.messaging.broker.amqp.codec.AmqpChannel;
+import io.ballerina.messaging.broker.amqp.codec.BlockingTask;
+import io.ballerina.messaging.broker.core.Broker;
+import io.ballerina.messaging.broker.core.DetachableMessage;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+
+public class AmqpGetMessageTest {
+
+    private static final long DELIVERY_TAG = 3;
+
+    private AmqpChannel amqpChannel;
+
+    private Broker broker;
+
+    private EmbeddedChannel nettyChannel;
+
+    private Message message;
+
+    @BeforeMethod
+    public void setUp() {
+        amqpChannel = Mockito.mock(AmqpChannel.class);
+        Mockito.when(amqpChannel.getChannelId()).thenReturn(1);
+        Mockito.when(amqpChannel.getNextDeliveryTag()).thenReturn(DELIVERY_TAG);
+        Mockito.when(amqpChannel.getMaxContentPayloadSize()).thenReturn(1024);
+        broker = Mockito.mock(Broker.class);
+        nettyChannel = new EmbeddedChannel();
+        message = new Message(1, new Metadata("queue", "amq.direct", 0));
+    }
+
+    @Test
+    public void testWriteFailureRequeuesUnacknowledgedMessage() throws Exception {
+        ChannelHandlerContext ctx = mockContext(false);
+        ChannelPromise promise = nettyChannel.newPromise();
+
+        new AmqpGetMessage(message, amqpChannel, "queue", false, broker).write(ctx, promise);
+        executeBlockingTasks(ctx);
+
+        Mockito.verify(amqpChannel).recordMessageDelivery(Mockito.eq(DELIVERY_TAG), Mockito.any(AckData.class));
+        Mockito.verify(amqpChannel).reject(DELIVERY_TAG, true);
+        Assert.assertFalse(promise.isSuccess());
+    }
+
+    @Test
+    public void testWriteFailureRequeuesNoAckMessage() throws Exception {
+        ChannelHandlerContext ctx = mockContext(false);
+
+        new AmqpGetMessage(message, amqpChannel, "queue", true, broker).write(ctx, nettyChannel.newPromise());
+        executeBlockingTasks(ctx);
+
+        Mockito.verify(broker).requeue("queue", message);
+        Mockito.verify(broker, Mockito.never()).acknowledge(Mockito.anyString(),
+                                                            Mockito.any(DetachableMessage.class));
+    }
+
+    @Test
+    public void testNoAckMessageAcknowledgedOnceWritten() throws Exception {
+        ChannelHandlerContext ctx = mockContext(true);
+        ChannelPromise promise = nettyChannel.newPromise();
+
+        new AmqpGetMessage(message, amqpChannel, "queue", true, broker).write(ctx, promise);
+        Mockito.verify(broker, Mockito.never()).acknowledge(Mockito.anyString(),
+                                                            Mockito.any(DetachableMessage.class));
+        executeBlockingTasks(ctx);
+
+        Mockito.verify(broker).acknowledge(Mockito.eq("queue"), Mockito.any(DetachableMessage.class));
+        Mockito.verify(amqpChannel, Mockito.never()).recordMessageDelivery(Mockito.anyLong(),
+                                                                           Mockito.any(AckData.class));
+        Assert.assertTrue(promise.isSuccess());
+    }
+
+    private ChannelHandlerContext mockContext(boolean writeSucceeds) {
+        ChannelHandlerContext ctx = Mockito.mock(ChannelHandlerContext.class);
+        if (writeSucceeds) {
+            Mockito.when(ctx.write(Mockito.any())).thenReturn(nettyChannel.newSucceededFuture());
+        } else {
+            Mockito.when(ctx.write(Mockito.any()))
+                   .thenReturn(nettyChannel.newFailedFuture(new IOException("Connection reset")));
+        }
+        return ctx;
+    }
+
+    private static void executeBlockingTasks(ChannelHandlerContext ctx) throws Exception {
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(ctx, Mockito.atLeastOnce()).fireChannelRead(captor.capture());
+        for (Object task : captor.getAllValues()) {
+            ((BlockingTask) task).execute();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import io.netty.buffer.ByteBuf;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 /**
  * AMQP FieldTable data
@@ -129,4 +130,13 @@ public class FieldTable implements EncodableData {
     public FieldValue getValue(ShortString propertyName) {
         return properties.get(propertyName);
     }
+
+    /**
+     * Perform the given action for each property in the table.
+     *
+     * @param action action to perform on each property name and value
+     */
+    public void forEach(BiConsumer<ShortString, FieldValue> action) {
+        properties.forEach(action);
+    }
 }
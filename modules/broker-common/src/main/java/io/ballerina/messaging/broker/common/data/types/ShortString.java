@@ -38,6 +38,16 @@ public class ShortString implements EncodableData {
     // We should do a perf test before switching to char sequence.
     private final byte[] content;
 
+    /**
+     * Cached decoded value. Computed on first use.
+     */
+    private String value;
+
+    /**
+     * Cached hash code of the content. Computed on first use.
+     */
+    private int hash;
+
     @SuppressFBWarnings("EI_EXPOSE_REP2")
     public ShortString(long length, byte[] content) {
         this.length = length;
@@ -62,12 +72,40 @@ public class ShortString implements EncodableData {
     }
 
     public static ShortString parseString(String data) {
-        return new ShortString(data.length(), data.getBytes(StandardCharsets.UTF_8));
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        ShortString shortString = new ShortString(bytes.length, bytes);
+        shortString.value = data;
+        return shortString;
     }
 
     @Override
     public String toString() {
-        return new String(content, StandardCharsets.UTF_8);
+        String decoded = value;
+        if (decoded == null) {
+            decoded = new String(content, StandardCharsets.UTF_8);
+            value = decoded;
+        }
+        return decoded;
+    }
+
+    /**
+     * Check whether the content matches the bytes of the given buffer region.
+     *
+     * @param buf    buffer to compare with
+     * @param index  start index of the region
+     * @param length length of the region
+     * @return true if the content is equal
+     */
+    boolean contentEquals(ByteBuf buf, int index, int length) {
+        if (content.length != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (content[i] != buf.getByte(index + i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -91,7 +129,12 @@ public class ShortString implements EncodableData {
      */
     @Override
     public int hashCode() {
-        return Arrays.hashCode(content);
+        int h = hash;
+        if (h == 0) {
+            h = Arrays.hashCode(content);
+            hash = h;
+        }
+        return h;
     }
 
     public boolean isEmpty() {
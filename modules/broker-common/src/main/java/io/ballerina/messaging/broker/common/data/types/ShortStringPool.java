@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.common.data.types;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Bounded pool of canonical {@link ShortString} instances. Used for frequently repeated values such as exchange
+ * names and routing keys so that decoding them from the wire, and encoding them back, does not create new byte
+ * arrays or strings for every frame.
+ * <p>
+ * The pool is a direct mapped cache. A value that maps to an occupied slot replaces the existing entry, which keeps
+ * the memory used by the pool bounded regardless of how many distinct values are seen. Entries are immutable, hence
+ * the pool can be shared across threads without locking.
+ */
+public final class ShortStringPool {
+
+    private final ShortString[] byContent;
+
+    private final ShortString[] byValue;
+
+    private final int mask;
+
+    /**
+     * Create a pool.
+     *
+     * @param capacity maximum number of entries. Rounded up to the next power of two.
+     */
+    public ShortStringPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Pool capacity should be a positive value. Given " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        byContent = new ShortString[size];
+        byValue = new ShortString[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Read a short string from the buffer and return the canonical instance for it.
+     *
+     * @param buf buffer positioned at the start of the short string
+     * @return canonical {@link ShortString} with the same content
+     */
+    public ShortString parse(ByteBuf buf) {
+        int length = buf.readUnsignedByte();
+        int index = buf.readerIndex();
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buf.getByte(index + i);
+        }
+
+        int slot = spread(hash) & mask;
+        ShortString cached = byContent[slot];
+        if (cached != null && cached.contentEquals(buf, index, length)) {
+            buf.skipBytes(length);
+            return cached;
+        }
+
+        byte[] content = new byte[length];
+        buf.readBytes(content);
+        ShortString shortString = new ShortString(length, content);
+        byContent[slot] = shortString;
+        byValue[spread(shortString.toString().hashCode()) & mask] = shortString;
+        return shortString;
+    }
+
+    /**
+     * Return the canonical {@link ShortString} for the given value.
+     *
+     * @param value string value
+     * @return canonical {@link ShortString} representing the value
+     */
+    public ShortString intern(String value) {
+        int slot = spread(value.hashCode()) & mask;
+        ShortString cached = byValue[slot];
+        if (cached != null && value.equals(cached.toString())) {
+            return cached;
+        }
+
+        ShortString shortString = ShortString.parseString(value);
+        byValue[slot] = shortString;
+        byContent[spread(shortString.hashCode()) & mask] = shortString;
+        return shortString;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
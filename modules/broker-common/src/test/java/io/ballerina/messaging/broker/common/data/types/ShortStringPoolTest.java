@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.common.data.types;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ShortStringPoolTest {
+
+    @Test
+    public void testParseReturnsCanonicalInstance() {
+        ShortStringPool pool = new ShortStringPool(16);
+        ByteBuf buf = Unpooled.buffer();
+        ShortString.parseString("amq.topic").write(buf);
+        ShortString.parseString("amq.topic").write(buf);
+        buf.writeByte(7);
+
+        ShortString first = pool.parse(buf);
+        ShortString second = pool.parse(buf);
+
+        Assert.assertSame(second, first, "Same content should map to the same instance");
+        Assert.assertEquals(first.toString(), "amq.topic", "Parsed value should match");
+        Assert.assertEquals(buf.readByte(), 7, "Parsing should consume the short string from the buffer");
+    }
+
+    @Test
+    public void testInternReturnsParsedInstance() {
+        ShortStringPool pool = new ShortStringPool(16);
+        ByteBuf buf = Unpooled.buffer();
+        ShortString.parseString("a.b.c").write(buf);
+
+        ShortString parsed = pool.parse(buf);
+
+        Assert.assertSame(pool.intern("a.b.c"), parsed, "Interned value should reuse the parsed instance");
+        Assert.assertSame(pool.intern("a.b.c").toString(), parsed.toString(),
+                          "String value should be decoded only once");
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        ShortStringPool pool = new ShortStringPool(1);
+
+        ShortString first = pool.intern("first");
+        ShortString second = pool.intern("second");
+
+        Assert.assertEquals(second.toString(), "second", "Interned value should match");
+        Assert.assertNotSame(pool.intern("first"), first, "Replaced entry should not be returned");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidCapacity() {
+        new ShortStringPool(0);
+    }
+}
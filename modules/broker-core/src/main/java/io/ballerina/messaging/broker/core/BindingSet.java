@@ -38,6 +38,19 @@ public class BindingSet {
         return EMPTY_SET;
     }
 
+    /**
+     * Create an unmodifiable binding set containing all the bindings of the given binding sets.
+     *
+     * @param bindingSets binding sets to merge
+     * @return unmodifiable union of the given binding sets
+     */
+    static BindingSet unmodifiableUnionOf(Collection<BindingSet> bindingSets) {
+        if (bindingSets.isEmpty()) {
+            return EMPTY_SET;
+        }
+        return new UnmodifiableBindingSet(bindingSets);
+    }
+
     private final Map<Queue, Binding> filteredQueueBindings;
 
     private final Map<Queue, Binding> unfilteredQueueBindings;
@@ -53,20 +66,30 @@ public class BindingSet {
         Binding existingBinding = validateBinding(binding);
 
         if (Objects.isNull(existingBinding)) {
-            Map<Queue, Binding> queueBindingMap;
-            FieldValue selectorValue = binding.getArgument(Binding.JMS_SELECTOR_ARGUMENT);
-            if (Objects.nonNull(selectorValue) && !selectorValue.getValue().toString().isEmpty()) {
-                queueBindingMap = filteredQueueBindings;
-            } else {
-                queueBindingMap = unfilteredQueueBindings;
-            }
-            queueBindingMap.put(binding.getQueue(), binding);
+            put(binding);
             return true;
         }
         return false;
 
     }
 
+    /**
+     * Add a binding without validating against existing bindings of the same queue. Used when collecting matched
+     * bindings for a route, where a queue may match through more than one binding.
+     *
+     * @param binding matched {@link Binding}
+     */
+    void put(Binding binding) {
+        Map<Queue, Binding> queueBindingMap;
+        FieldValue selectorValue = binding.getArgument(Binding.JMS_SELECTOR_ARGUMENT);
+        if (Objects.nonNull(selectorValue) && !selectorValue.getValue().toString().isEmpty()) {
+            queueBindingMap = filteredQueueBindings;
+        } else {
+            queueBindingMap = unfilteredQueueBindings;
+        }
+        queueBindingMap.put(binding.getQueue(), binding);
+    }
+
     private Binding validateBinding(Binding binding) throws ValidationException {
         Binding existingBinding = unfilteredQueueBindings.get(binding.getQueue());
         if (Objects.isNull(existingBinding)) {
@@ -132,9 +155,48 @@ public class BindingSet {
             throw new UnsupportedOperationException("Cannot modify Unmodifiable binding set.");
         }
 
+        @Override
+        void put(Binding binding) {
+            throw new UnsupportedOperationException("Cannot modify Unmodifiable binding set.");
+        }
+
         @Override
         boolean isEmpty() {
             return true;
         }
     }
+
+    /**
+     * Binding set which cannot be modified after creation. Used to share a precomputed routing result across
+     * publishers.
+     */
+    private static class UnmodifiableBindingSet extends BindingSet {
+
+        private UnmodifiableBindingSet(Collection<BindingSet> bindingSets) {
+            super();
+            for (BindingSet bindingSet : bindingSets) {
+                super.add(bindingSet);
+            }
+        }
+
+        @Override
+        boolean add(Binding binding) {
+            throw new UnsupportedOperationException("Cannot modify Unmodifiable binding set.");
+        }
+
+        @Override
+        void add(BindingSet bindingSet) {
+            throw new UnsupportedOperationException("Cannot modify Unmodifiable binding set.");
+        }
+
+        @Override
+        void put(Binding binding) {
+            throw new UnsupportedOperationException("Cannot modify Unmodifiable binding set.");
+        }
+
+        @Override
+        public void remove(Queue queue) {
+            throw new UnsupportedOperationException("Cannot modify Unmodifiable binding set.");
+        }
+    }
 }
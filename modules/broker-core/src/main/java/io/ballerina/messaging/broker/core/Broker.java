@@ -47,6 +47,16 @@ public interface Broker {
      */
     void publish(Message message) throws BrokerException;
 
+    /**
+     * Publish a batch of messages to queue(s). Messages are routed in a single pass and bindings are resolved once
+     * for messages sharing the same exchange and routing key. A failure to route one message does not prevent the
+     * rest of the batch from being published.
+     *
+     * @param messages messages to be published in the order they were received
+     * @throws BrokerException if publishing one or more messages failed. The first failure is reported
+     */
+    void publish(Collection<Message> messages) throws BrokerException;
+
     /**
      * Acknowledge single or a given set of messages. Removes the message from underlying queue.
      *
@@ -56,6 +66,15 @@ public interface Broker {
      */
     void acknowledge(String queueName, DetachableMessage detachableMessage) throws BrokerException;
 
+    /**
+     * Acknowledge a batch of messages of a queue. Messages are detached from the queue in bulk.
+     *
+     * @param queueName name of the queue the relevant messages belongs to
+     * @param detachableMessages detachable messages
+     * @throws BrokerException if an internal error occurred
+     */
+    void acknowledge(String queueName, Collection<DetachableMessage> detachableMessages) throws BrokerException;
+
     /**
      * Preparing transaction to enqueue messages.
      *
@@ -85,6 +104,18 @@ public interface Broker {
      */
     void addConsumer(Consumer consumer) throws BrokerException;
 
+    /**
+     * Take the next message available for delivery from a queue without registering a consumer. Message content
+     * is read from the store ahead of time when the queue is backlogged, hence a pull may not return a message
+     * while its content is being read.
+     *
+     * @param queueName name of the queue
+     * @return next message of the queue or null if no message is ready for delivery
+     * @throws BrokerException           if an internal error occurred
+     * @throws ResourceNotFoundException if the queue is not found
+     */
+    Message pull(String queueName) throws BrokerException, ResourceNotFoundException;
+
     /**
      * Delete consumer
      *
@@ -185,10 +216,11 @@ public interface Broker {
      * @param queueName    queue name
      * @param exchangeName exchange name
      * @param routingKey   message routing key
+     * @param arguments    arguments the binding was created with
      * @throws BrokerException     if an internal error occurred
      * @throws ValidationException if unknown qeueu name or exchange name
      */
-    void unbind(String queueName, String exchangeName, String routingKey)
+    void unbind(String queueName, String exchangeName, String routingKey, FieldTable arguments)
             throws BrokerException, ValidationException;
 
     /**
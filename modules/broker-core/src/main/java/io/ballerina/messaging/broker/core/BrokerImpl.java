@@ -46,19 +46,24 @@ import io.ballerina.messaging.broker.core.task.TaskExecutorService;
 import io.ballerina.messaging.broker.core.transaction.BrokerTransaction;
 import io.ballerina.messaging.broker.core.transaction.BrokerTransactionFactory;
 import io.ballerina.messaging.broker.core.util.MessageTracer;
+import io.ballerina.messaging.broker.core.util.StripedReadWriteLock;
 import io.ballerina.messaging.broker.rest.BrokerServiceRunner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.metrics.core.MetricService;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.sql.DataSource;
 import javax.transaction.xa.Xid;
 
@@ -101,7 +106,11 @@ public final class BrokerImpl implements Broker {
 
     private final ExchangeRegistry exchangeRegistry;
 
-    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * Guards the broker topology. Read lock is striped by thread so that concurrent publishers and consumers do not
+     * contend on a single lock. Topology changes acquire all the stripes.
+     */
+    private final ReadWriteLock lock;
 
     private final MessageStore messageStore;
 
@@ -114,6 +123,7 @@ public final class BrokerImpl implements Broker {
         BrokerConfigProvider configProvider = startupContext.getService(BrokerConfigProvider.class);
         BrokerCoreConfiguration configuration = configProvider.getConfigurationObject(BrokerCoreConfiguration.NAMESPACE,
                                                                                       BrokerCoreConfiguration.class);
+        lock = new StripedReadWriteLock(configuration.getShardCount());
         StoreFactory storeFactory = getStoreFactory(startupContext, configProvider, configuration);
 
         exchangeRegistry = storeFactory.getExchangeRegistry();
@@ -203,7 +213,7 @@ public final class BrokerImpl implements Broker {
                 .build();
         int workerCount = Integer.parseInt(configuration.getDeliveryTask().getWorkerCount());
         int idleTaskDelay = Integer.parseInt(configuration.getDeliveryTask().getIdleTaskDelay());
-        return new TaskExecutorService<>(workerCount, idleTaskDelay, threadFactory);
+        return new TaskExecutorService<>(workerCount, configuration.getShardCount(), idleTaskDelay, threadFactory);
     }
 
     @Override
@@ -213,24 +223,10 @@ public final class BrokerImpl implements Broker {
             Metadata metadata = message.getMetadata();
             Exchange exchange = exchangeRegistry.getExchange(metadata.getExchangeName());
             if (exchange != null) {
-                String routingKey = metadata.getRoutingKey();
-                BindingSet bindingSet = exchange.getBindingsForRoute(routingKey);
-
-                if (bindingSet.isEmpty()) {
-                    LOGGER.info("Dropping message since no queues found for routing key {} in {}",
-                            routingKey, exchange);
-                    MessageTracer.trace(message, MessageTracer.NO_ROUTES);
-                } else {
-                    try {
-                        messageStore.add(message.shallowCopy());
-                        Set<QueueHandler> uniqueQueues = getUniqueQueueHandlersForBinding(metadata, bindingSet);
-                        publishToQueues(message, uniqueQueues);
-                    } finally {
-                        messageStore.flush(message.getInternalId());
-                    }
-                }
+                route(message, exchange, exchange.getBindingsForRoute(metadata));
             } else {
                 MessageTracer.trace(message, MessageTracer.UNKNOWN_EXCHANGE);
+                message.notifyPublishComplete(false);
                 throw new BrokerException("Message publish failed. Unknown exchange: " + metadata.getExchangeName());
             }
         } finally {
@@ -241,6 +237,114 @@ public final class BrokerImpl implements Broker {
 
     }
 
+    /**
+     * Publish a batch of messages. Messages are added to the store, enqueued with a single call per destination queue
+     * and then handed over to the store together, preserving the publish order within each queue.
+     */
+    @Override
+    public void publish(Collection<Message> messages) throws BrokerException {
+        BrokerException firstError = null;
+        Map<String, Exchange> exchanges = new HashMap<>();
+        Map<Exchange, Map<String, BindingSet>> routes = new HashMap<>();
+        Map<QueueHandler, List<Message>> queueBatches = new LinkedHashMap<>();
+        List<Long> routedMessageIds = new ArrayList<>(messages.size());
+        Iterator<Message> iterator = messages.iterator();
+        lock.readLock().lock();
+        try {
+            while (iterator.hasNext()) {
+                Message message = iterator.next();
+                try {
+                    Metadata metadata = message.getMetadata();
+                    Exchange exchange = exchanges.computeIfAbsent(metadata.getExchangeName(),
+                                                                  exchangeRegistry::getExchange);
+                    if (exchange == null) {
+                        MessageTracer.trace(message, MessageTracer.UNKNOWN_EXCHANGE);
+                        throw new BrokerException("Message publish failed. Unknown exchange: "
+                                                          + metadata.getExchangeName());
+                    }
+
+                    BindingSet bindingSet;
+                    if (exchange.routesOnRoutingKeyOnly()) {
+                        bindingSet = routes.computeIfAbsent(exchange, e -> new HashMap<>())
+                                           .computeIfAbsent(metadata.getRoutingKey(),
+                                                            exchange::getBindingsForRoute);
+                    } else {
+                        bindingSet = exchange.getBindingsForRoute(metadata);
+                    }
+                    if (bindingSet.isEmpty()) {
+                        LOGGER.info("Dropping message since no queues found for routing key {} in {}",
+                                    metadata.getRoutingKey(), exchange);
+                        MessageTracer.trace(message, MessageTracer.NO_ROUTES);
+                        message.notifyPublishComplete(true);
+                        continue;
+                    }
+
+                    messageStore.add(message.shallowCopy());
+                    routedMessageIds.add(message.getInternalId());
+                    Set<QueueHandler> uniqueQueues = getUniqueQueueHandlersForBinding(metadata, bindingSet);
+                    if (uniqueQueues.isEmpty()) {
+                        LOGGER.info("Dropping message since message didn't have any routes to {}",
+                                    metadata.getRoutingKey());
+                        MessageTracer.trace(message, MessageTracer.NO_ROUTES);
+                        continue;
+                    }
+                    for (QueueHandler handler : uniqueQueues) {
+                        queueBatches.computeIfAbsent(handler, h -> new ArrayList<>()).add(message.shallowCopy());
+                    }
+                    metricManager.markPublish();
+                } catch (BrokerException e) {
+                    message.notifyPublishComplete(false);
+                    if (firstError == null) {
+                        firstError = e;
+                    }
+                } finally {
+                    message.release();
+                }
+            }
+
+            for (Map.Entry<QueueHandler, List<Message>> queueBatch : queueBatches.entrySet()) {
+                try {
+                    queueBatch.getKey().enqueue(queueBatch.getValue());
+                } catch (BrokerException e) {
+                    if (firstError == null) {
+                        firstError = e;
+                    }
+                }
+            }
+        } finally {
+            try {
+                messageStore.flush(routedMessageIds);
+            } finally {
+                lock.readLock().unlock();
+                // Release what is left if routing was interrupted by an unexpected error
+                while (iterator.hasNext()) {
+                    iterator.next().release();
+                }
+            }
+        }
+
+        if (firstError != null) {
+            throw firstError;
+        }
+    }
+
+    private void route(Message message, Exchange exchange, BindingSet bindingSet) throws BrokerException {
+        if (bindingSet.isEmpty()) {
+            LOGGER.info("Dropping message since no queues found for routing key {} in {}",
+                        message.getMetadata().getRoutingKey(), exchange);
+            MessageTracer.trace(message, MessageTracer.NO_ROUTES);
+            message.notifyPublishComplete(true);
+        } else {
+            try {
+                messageStore.add(message.shallowCopy());
+                Set<QueueHandler> uniqueQueues = getUniqueQueueHandlersForBinding(message.getMetadata(), bindingSet);
+                publishToQueues(message, uniqueQueues);
+            } finally {
+                messageStore.flush(message.getInternalId());
+            }
+        }
+    }
+
     private Set<QueueHandler> getUniqueQueueHandlersForBinding(Metadata metadata, BindingSet bindingSet) {
         Set<QueueHandler> uniqueQueues = new HashSet<>();
         for (Binding binding : bindingSet.getUnfilteredBindings()) {
@@ -282,6 +386,21 @@ public final class BrokerImpl implements Broker {
         }
     }
 
+    @Override
+    public void acknowledge(String queueName, Collection<DetachableMessage> detachableMessages)
+            throws BrokerException {
+        lock.readLock().lock();
+        try {
+            QueueHandler queueHandler = queueRegistry.getQueueHandler(queueName);
+            queueHandler.dequeue(detachableMessages);
+            for (int i = 0; i < detachableMessages.size(); i++) {
+                metricManager.markAcknowledge();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public Set<QueueHandler> enqueue(Xid xid, Message message) throws BrokerException {
         lock.readLock().lock();
@@ -289,7 +408,7 @@ public final class BrokerImpl implements Broker {
             Metadata metadata = message.getMetadata();
             Exchange exchange = exchangeRegistry.getExchange(metadata.getExchangeName());
             if (Objects.nonNull(exchange)) {
-                BindingSet bindingsForRoute = exchange.getBindingsForRoute(metadata.getRoutingKey());
+                BindingSet bindingsForRoute = exchange.getBindingsForRoute(metadata);
                 Set<QueueHandler> uniqueQueueHandlers = getUniqueQueueHandlersForBinding(metadata, bindingsForRoute);
                 if (uniqueQueueHandlers.isEmpty()) {
                     MessageTracer.trace(message, xid, MessageTracer.NO_ROUTES);
@@ -346,6 +465,25 @@ public final class BrokerImpl implements Broker {
         }
     }
 
+    @Override
+    public Message pull(String queueName) throws ResourceNotFoundException {
+        lock.readLock().lock();
+        try {
+            QueueHandler queueHandler = queueRegistry.getQueueHandler(queueName);
+            if (Objects.isNull(queueHandler)) {
+                throw new ResourceNotFoundException("Queue [ " + queueName + " ] Not found");
+            }
+
+            Message message = queueHandler.takeForDelivery();
+            if (Objects.nonNull(message)) {
+                MessageTracer.trace(message, queueHandler, MessageTracer.DELIVER);
+            }
+            return message;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     @Override
     public boolean removeConsumer(Consumer consumer) {
         lock.readLock().lock();
@@ -465,7 +603,7 @@ public final class BrokerImpl implements Broker {
                 throw new ValidationException("Unknown queue name: " + queueName);
             }
 
-            if (!routingKey.isEmpty()) {
+            if (!routingKey.isEmpty() || exchange.acceptsEmptyBindingKey()) {
                 exchange.bind(queueHandler, routingKey, arguments);
             }
         } finally {
@@ -474,7 +612,7 @@ public final class BrokerImpl implements Broker {
     }
 
     @Override
-    public void unbind(String queueName, String exchangeName, String routingKey)
+    public void unbind(String queueName, String exchangeName, String routingKey, FieldTable arguments)
             throws BrokerException, ValidationException {
         lock.writeLock().lock();
         try {
@@ -489,7 +627,7 @@ public final class BrokerImpl implements Broker {
                 throw new ValidationException("Unknown queue name: " + queueName);
             }
 
-            exchange.unbind(queueHandler.getUnmodifiableQueue(), routingKey);
+            exchange.unbind(queueHandler.getUnmodifiableQueue(), routingKey, arguments);
         } finally {
             lock.writeLock().unlock();
         }
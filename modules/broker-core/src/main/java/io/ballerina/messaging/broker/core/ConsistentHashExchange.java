@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.common.ValidationException;
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.common.data.types.FieldValue;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.ballerina.messaging.broker.core.store.dao.BindingDao;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Consistent hash exchange implementation. Each binding places a number of points on a hash ring proportional to
+ * its weight, which is given as the binding key. A message is routed to the binding owning the first point at or
+ * after the hash of its routing key. When the {@code hash-header} binding argument is set, the value of that
+ * message header is hashed instead of the routing key.
+ * <p>
+ * Messages with the same key always go to the same queue while the bindings remain unchanged, and adding or
+ * removing a queue, or changing its weight, only moves the keys owned by the points added or removed.
+ */
+final class ConsistentHashExchange extends Exchange implements BindingsRegistryListener {
+
+    static final ShortString HASH_HEADER_ARGUMENT = ShortString.parseString("hash-header");
+
+    /**
+     * Number of ring points added per unit of binding weight. Multiple points per queue keep the key distribution
+     * even when only a few queues are bound.
+     */
+    private static final int POINTS_PER_WEIGHT = 64;
+
+    private static final int DEFAULT_WEIGHT = 1;
+
+    private volatile HashRing hashRing;
+
+    ConsistentHashExchange(String exchangeName, BindingDao bindingDao) {
+        super(exchangeName, Type.CONSISTENT_HASH, bindingDao);
+        hashRing = HashRing.EMPTY_RING;
+        getBindingsRegistry().addBindingsRegistryListeners(this);
+    }
+
+    @Override
+    void bind(QueueHandler queueHandler, String routingKey, FieldTable arguments) throws BrokerException,
+                                                                                         ValidationException {
+        parseWeight(routingKey);
+        FieldValue hashHeader = arguments.getValue(HASH_HEADER_ARGUMENT);
+        ShortString currentHashHeader = hashRing.hashHeader;
+        if (!hashRing.isEmpty() && !Objects.equals(toShortString(hashHeader), currentHashHeader)) {
+            throw new ValidationException("All bindings of exchange " + getName()
+                                                  + " should use the same hash-header argument.");
+        }
+        super.bind(queueHandler, routingKey, arguments);
+    }
+
+    @Override
+    public BindingSet getBindingsForRoute(String routingKey) {
+        return hashRing.get(routingKey);
+    }
+
+    @Override
+    BindingSet getBindingsForRoute(Metadata metadata) {
+        HashRing ring = hashRing;
+        if (Objects.isNull(ring.hashHeader)) {
+            return ring.get(metadata.getRoutingKey());
+        }
+
+        FieldValue headerValue = metadata.getHeader(ring.hashHeader);
+        if (Objects.isNull(headerValue)) {
+            return BindingSet.emptySet();
+        }
+        return ring.get(headerValue.getValue().toString());
+    }
+
+    @Override
+    boolean routesOnRoutingKeyOnly() {
+        return Objects.isNull(hashRing.hashHeader);
+    }
+
+    @Override
+    boolean acceptsEmptyBindingKey() {
+        return true;
+    }
+
+    @Override
+    public void onBind(String routingKey) {
+        refreshRing();
+    }
+
+    @Override
+    public void onUnbind(String routingKey, boolean isLastSubscriber) {
+        refreshRing();
+    }
+
+    @Override
+    public void onRetrieveAllBindingsForExchange(String routingKey) {
+        refreshRing();
+    }
+
+    private void refreshRing() {
+        hashRing = HashRing.build(getBindingsRegistry().getAllBindings().values());
+    }
+
+    private static int parseWeight(String bindingKey) throws ValidationException {
+        if (bindingKey.isEmpty()) {
+            return DEFAULT_WEIGHT;
+        }
+        try {
+            int weight = Integer.parseInt(bindingKey);
+            if (weight > 0) {
+                return weight;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below
+        }
+        throw new ValidationException("Binding key of a consistent hash exchange should be a positive integer "
+                                              + "weight. Found [ " + bindingKey + " ]");
+    }
+
+    private static ShortString toShortString(FieldValue fieldValue) {
+        if (Objects.isNull(fieldValue)) {
+            return null;
+        }
+        return ShortString.parseString(fieldValue.getValue().toString());
+    }
+
+    /**
+     * Murmur3 based 32 bit hash of a character sequence. {@link String#hashCode()} is not used directly since it
+     * spreads similar keys poorly over the ring.
+     */
+    static int hash(CharSequence key) {
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            int k = key.charAt(i) * 0xcc9e2d51;
+            k = Integer.rotateLeft(k, 15) * 0x1b873593;
+            hash ^= k;
+            hash = Integer.rotateLeft(hash, 13) * 5 + 0xe6546b64;
+        }
+        hash ^= key.length();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * Immutable hash ring. Ring points are kept sorted in a primitive array and each point refers to a prebuilt
+     * single binding {@link BindingSet}, hence routing a message does not allocate.
+     */
+    private static final class HashRing {
+
+        private static final HashRing EMPTY_RING = new HashRing(new int[0], new BindingSet[0], null);
+
+        private final int[] points;
+
+        private final BindingSet[] owners;
+
+        private final ShortString hashHeader;
+
+        private HashRing(int[] points, BindingSet[] owners, ShortString hashHeader) {
+            this.points = points;
+            this.owners = owners;
+            this.hashHeader = hashHeader;
+        }
+
+        static HashRing build(Iterable<BindingSet> bindingSets) {
+            List<RingPoint> ringPoints = new ArrayList<>();
+            Map<String, Integer> pointCounts = new HashMap<>();
+            ShortString hashHeader = null;
+            for (BindingSet bindingSet : bindingSets) {
+                for (Binding binding : bindingSet.getUnfilteredBindings()) {
+                    hashHeader = toShortString(binding.getArgument(HASH_HEADER_ARGUMENT));
+                    addPoints(ringPoints, pointCounts, binding);
+                }
+                for (Binding binding : bindingSet.getFilteredBindings()) {
+                    hashHeader = toShortString(binding.getArgument(HASH_HEADER_ARGUMENT));
+                    addPoints(ringPoints, pointCounts, binding);
+                }
+            }
+
+            if (ringPoints.isEmpty()) {
+                return EMPTY_RING;
+            }
+
+            // Sorting on the queue name as well makes the ring independent of the binding iteration order when
+            // two points collide.
+            Collections.sort(ringPoints);
+            int[] points = new int[ringPoints.size()];
+            BindingSet[] owners = new BindingSet[ringPoints.size()];
+            for (int i = 0; i < points.length; i++) {
+                points[i] = ringPoints.get(i).hash;
+                owners[i] = ringPoints.get(i).owner;
+            }
+            return new HashRing(points, owners, hashHeader);
+        }
+
+        /**
+         * Add the ring points of a binding. Points are hashed on the queue name and a point index only, so changing
+         * the weight of a queue adds or removes just the points above the smaller weight. Point indexes continue
+         * across bindings of the same queue so that those bindings do not place their points at the same hashes.
+         */
+        private static void addPoints(List<RingPoint> ringPoints, Map<String, Integer> pointCounts,
+                                      Binding binding) {
+            int weight;
+            try {
+                weight = parseWeight(binding.getBindingPattern());
+            } catch (ValidationException e) {
+                // Bindings are validated when binding. Hence this can only be a binding from an older version.
+                weight = DEFAULT_WEIGHT;
+            }
+
+            BindingSet bindingSet = new BindingSet();
+            bindingSet.put(binding);
+            BindingSet owner = BindingSet.unmodifiableUnionOf(Collections.singletonList(bindingSet));
+            String queueName = binding.getQueue().getName();
+            int firstPoint = pointCounts.getOrDefault(queueName, 0);
+            int lastPoint = firstPoint + weight * POINTS_PER_WEIGHT;
+            for (int i = firstPoint; i < lastPoint; i++) {
+                ringPoints.add(new RingPoint(hash(queueName + '#' + i), queueName, owner));
+            }
+            pointCounts.put(queueName, lastPoint);
+        }
+
+        boolean isEmpty() {
+            return points.length == 0;
+        }
+
+        BindingSet get(String key) {
+            if (points.length == 0) {
+                return BindingSet.emptySet();
+            }
+
+            int index = Arrays.binarySearch(points, hash(key));
+            if (index < 0) {
+                index = -index - 1;
+            }
+            if (index == points.length) {
+                index = 0;
+            }
+            return owners[index];
+        }
+    }
+
+    /**
+     * A point on the hash ring used while building the ring.
+     */
+    private static final class RingPoint implements Comparable<RingPoint> {
+
+        private final int hash;
+
+        private final String queueName;
+
+        private final BindingSet owner;
+
+        private RingPoint(int hash, String queueName, BindingSet owner) {
+            this.hash = hash;
+            this.queueName = queueName;
+            this.owner = owner;
+        }
+
+        @Override
+        public int compareTo(RingPoint other) {
+            int result = Integer.compare(hash, other.hash);
+            return result != 0 ? result : queueName.compareTo(other.queueName);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof RingPoint && compareTo((RingPoint) obj) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hash, queueName);
+        }
+    }
+}
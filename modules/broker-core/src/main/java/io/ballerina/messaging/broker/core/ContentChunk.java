@@ -55,8 +55,4 @@ public class ContentChunk {
     public void release() {
         content.release();
     }
-
-    ContentChunk shallowCopy() {
-        return new ContentChunk(offset, content.retainedSlice());
-    }
 }
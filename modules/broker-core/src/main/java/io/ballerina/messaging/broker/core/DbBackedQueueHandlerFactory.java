@@ -24,6 +24,7 @@ import io.ballerina.messaging.broker.core.metrics.BrokerMetricManager;
 import io.ballerina.messaging.broker.core.queue.DbBackedQueueImpl;
 import io.ballerina.messaging.broker.core.queue.MemQueueImpl;
 import io.ballerina.messaging.broker.core.queue.QueueBufferFactory;
+import io.ballerina.messaging.broker.core.queue.QueueMemoryGovernor;
 import io.ballerina.messaging.broker.core.store.DbMessageStore;
 
 /**
@@ -33,6 +34,7 @@ public class DbBackedQueueHandlerFactory implements QueueHandlerFactory {
     private final DbMessageStore dbMessageStore;
     private final BrokerMetricManager metricManager;
     private final int nonDurableQueueMaxDepth;
+    private final QueueMemoryGovernor memoryGovernor;
     private QueueBufferFactory queueBufferFactory;
 
     public DbBackedQueueHandlerFactory(DbMessageStore dbMessageStore, BrokerMetricManager metricManager,
@@ -40,7 +42,8 @@ public class DbBackedQueueHandlerFactory implements QueueHandlerFactory {
         this.dbMessageStore = dbMessageStore;
         this.metricManager = metricManager;
         nonDurableQueueMaxDepth = Integer.parseInt(configuration.getNonDurableQueueMaxDepth());
-        queueBufferFactory = new QueueBufferFactory(configuration);
+        memoryGovernor = new QueueMemoryGovernor(configuration);
+        queueBufferFactory = new QueueBufferFactory(configuration, memoryGovernor);
     }
 
     /**
@@ -64,7 +67,8 @@ public class DbBackedQueueHandlerFactory implements QueueHandlerFactory {
      * @return QueueHandler object
      */
     public QueueHandler createNonDurableQueueHandler(String queueName, boolean autoDelete) {
-        Queue queue = new MemQueueImpl(queueName, nonDurableQueueMaxDepth, autoDelete);
+        MemQueueImpl queue = new MemQueueImpl(queueName, false, nonDurableQueueMaxDepth, autoDelete, memoryGovernor);
+        memoryGovernor.register(queue);
         return new QueueHandler(queue, metricManager);
     }
 
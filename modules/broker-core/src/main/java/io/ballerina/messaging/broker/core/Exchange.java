@@ -36,7 +36,10 @@ public abstract class Exchange {
      */
     public enum Type {
         DIRECT("direct"),
-        TOPIC("topic");
+        TOPIC("topic"),
+        FANOUT("fanout"),
+        HEADERS("headers"),
+        CONSISTENT_HASH("x-consistent-hash");
 
         String typeName;
 
@@ -55,6 +58,12 @@ public abstract class Exchange {
                 return DIRECT;
             } else if (typeString.equals(TOPIC.typeName)) {
                 return TOPIC;
+            } else if (typeString.equals(FANOUT.typeName)) {
+                return FANOUT;
+            } else if (typeString.equals(HEADERS.typeName)) {
+                return HEADERS;
+            } else if (typeString.equals(CONSISTENT_HASH.typeName)) {
+                return CONSISTENT_HASH;
             } else {
                 throw new IllegalArgumentException("unknown exchange type: " + typeString);
             }
@@ -97,10 +106,47 @@ public abstract class Exchange {
         bindingsRegistry.unbind(queue, routingKey);
     }
 
+    /**
+     * Remove the binding created with the given routing key and arguments. Binding arguments are ignored by default
+     * since bindings are identified by the routing key. Exchanges keying bindings on their arguments should
+     * override this.
+     */
+    void unbind(Queue queue, String routingKey, FieldTable arguments) throws BrokerException {
+        unbind(queue, routingKey);
+    }
+
     BindingSet getBindingsForRoute(String routingKey) {
         return bindingsRegistry.getBindingsForRoute(routingKey);
     }
 
+    /**
+     * Retrieve the bindings matching the given message metadata. By default routing is done using only the routing
+     * key. Exchanges routing on other message attributes should override this.
+     *
+     * @param metadata {@link Metadata} of the message being routed
+     * @return matching {@link BindingSet}
+     */
+    BindingSet getBindingsForRoute(Metadata metadata) {
+        return getBindingsForRoute(metadata.getRoutingKey());
+    }
+
+    /**
+     * Whether the bindings matched for a message depend only on its routing key. Routing results of such exchanges
+     * can be reused for messages with the same routing key. Exchanges routing on other message attributes should
+     * override this.
+     */
+    boolean routesOnRoutingKeyOnly() {
+        return true;
+    }
+
+    /**
+     * Whether a binding with an empty binding key is meaningful for the exchange. Exchanges that do not route on
+     * the routing key should override this.
+     */
+    boolean acceptsEmptyBindingKey() {
+        return false;
+    }
+
     BindingsRegistry getBindingsRegistry() {
         return bindingsRegistry;
     }
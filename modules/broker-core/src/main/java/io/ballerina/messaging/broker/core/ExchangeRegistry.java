@@ -197,6 +197,15 @@ public final class ExchangeRegistry {
                 case TOPIC:
                     exchange = new TopicExchange(exchangeName, bindingDao);
                     break;
+                case FANOUT:
+                    exchange = new FanoutExchange(exchangeName, bindingDao);
+                    break;
+                case HEADERS:
+                    exchange = new HeadersExchange(exchangeName, bindingDao);
+                    break;
+                case CONSISTENT_HASH:
+                    exchange = new ConsistentHashExchange(exchangeName, bindingDao);
+                    break;
                 default:
                     throw new BrokerException("Unknown exchange type [ " + type + " ].");
             }
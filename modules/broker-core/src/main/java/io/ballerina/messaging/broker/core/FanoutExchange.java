@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.core.store.dao.BindingDao;
+
+/**
+ * AMQP fanout exchange implementation. Routes every message to all the bound queues ignoring the routing key.
+ */
+final class FanoutExchange extends Exchange implements BindingsRegistryListener {
+
+    /**
+     * Precomputed routing result. Recalculated only when the bindings of the exchange change.
+     */
+    private volatile BindingSet allBindings;
+
+    FanoutExchange(String exchangeName, BindingDao bindingDao) {
+        super(exchangeName, Type.FANOUT, bindingDao);
+        allBindings = BindingSet.emptySet();
+        getBindingsRegistry().addBindingsRegistryListeners(this);
+    }
+
+    @Override
+    public BindingSet getBindingsForRoute(String routingKey) {
+        return allBindings;
+    }
+
+    @Override
+    boolean acceptsEmptyBindingKey() {
+        return true;
+    }
+
+    @Override
+    public void onBind(String routingKey) {
+        refreshBindings();
+    }
+
+    @Override
+    public void onUnbind(String routingKey, boolean isLastSubscriber) {
+        refreshBindings();
+    }
+
+    @Override
+    public void onRetrieveAllBindingsForExchange(String routingKey) {
+        refreshBindings();
+    }
+
+    private void refreshBindings() {
+        allBindings = BindingSet.unmodifiableUnionOf(getBindingsRegistry().getAllBindings().values());
+    }
+}
@@ -0,0 +1,408 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.common.ValidationException;
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.common.data.types.FieldValue;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.ballerina.messaging.broker.core.store.dao.BindingDao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * AMQP headers exchange implementation. Routes messages by matching message headers against the arguments given
+ * when binding. The {@code x-match} binding argument decides whether all ({@code all}, the default) or at least one
+ * ({@code any}) of the remaining arguments should match. Arguments starting with {@code x-} are not matched.
+ * <p>
+ * A queue may be bound more than once with the same routing key and different header sets. The bindings registry
+ * keeps one binding per routing key and queue, hence the exchange keeps every argument set of a queue itself and
+ * tells them apart by comparing the arguments.
+ */
+final class HeadersExchange extends Exchange implements BindingsRegistryListener {
+
+    static final ShortString X_MATCH_ARGUMENT = ShortString.parseString("x-match");
+
+    private static final String MATCH_ANY = "any";
+
+    private static final String RESERVED_ARGUMENT_PREFIX = "x-";
+
+    private final BindingDao bindingDao;
+
+    /**
+     * Header bindings of each queue by routing key. The first binding of a list is the one held by the bindings
+     * registry. Only modified while the broker holds its write lock.
+     */
+    private Map<String, Map<Queue, List<Binding>>> headerBindings;
+
+    /**
+     * Header index used for routing. Replaced as a whole whenever the bindings of the exchange change so that
+     * publishers never need to lock.
+     */
+    private volatile HeadersIndex headersIndex;
+
+    HeadersExchange(String exchangeName, BindingDao bindingDao) {
+        super(exchangeName, Type.HEADERS, bindingDao);
+        this.bindingDao = bindingDao;
+        headerBindings = new HashMap<>();
+        headersIndex = HeadersIndex.EMPTY_INDEX;
+        getBindingsRegistry().addBindingsRegistryListeners(this);
+    }
+
+    @Override
+    void bind(QueueHandler queueHandler, String routingKey, FieldTable arguments) throws BrokerException,
+                                                                                         ValidationException {
+        Queue queue = queueHandler.getUnmodifiableQueue();
+        List<Binding> bindings = getHeaderBindings(routingKey, queue);
+        if (bindings.isEmpty()) {
+            super.bind(queueHandler, routingKey, arguments);
+        } else if (Objects.isNull(findBinding(bindings, arguments))) {
+            Binding binding = new Binding(queue, routingKey, arguments);
+            if (queue.isDurable()) {
+                bindingDao.persist(getName(), binding);
+            }
+            bindings.add(binding);
+            refreshIndex();
+        }
+    }
+
+    /**
+     * Remove only the binding of the queue created with the given arguments. Other header sets the queue is bound
+     * with are kept.
+     */
+    @Override
+    void unbind(Queue queue, String routingKey, FieldTable arguments) throws BrokerException {
+        List<Binding> bindings = getHeaderBindings(routingKey, queue);
+        if (bindings.size() <= 1) {
+            super.unbind(queue, routingKey);
+            return;
+        }
+        Binding binding = findBinding(bindings, arguments);
+        if (Objects.isNull(binding)) {
+            return;
+        }
+
+        List<Binding> remainingBindings = new ArrayList<>(bindings);
+        remainingBindings.remove(binding);
+        if (binding == bindings.get(0)) {
+            // Binding held by the registry is removed. Hand the registry over to the next header set.
+            super.unbind(queue, routingKey);
+            try {
+                super.bind(queue.getQueueHandler(), routingKey, remainingBindings.get(0).getArguments());
+            } catch (ValidationException e) {
+                throw new BrokerException("Error while rebinding queue " + queue.getName()
+                                                  + " to exchange " + getName(), e);
+            }
+            List<Binding> restoredBindings = getHeaderBindings(routingKey, queue);
+            restoredBindings.addAll(remainingBindings.subList(1, remainingBindings.size()));
+        } else {
+            bindings.remove(binding);
+        }
+
+        if (queue.isDurable()) {
+            // Stored bindings of a queue can only be deleted by routing key
+            bindingDao.delete(queue.getName(), routingKey, getName());
+            for (Binding remainingBinding : remainingBindings) {
+                bindingDao.persist(getName(), remainingBinding);
+            }
+        }
+        refreshIndex();
+    }
+
+    @Override
+    public void retrieveBindingsFromDb(QueueRegistry queueRegistry) throws BrokerException {
+        super.retrieveBindingsFromDb(queueRegistry);
+        // Registry keeps a single binding per routing key and queue. Collect the other header sets.
+        bindingDao.retrieveBindingsForExchange(getName(), (queueName, routingKey, arguments) -> {
+            Queue queue = queueRegistry.getQueueHandler(queueName).getUnmodifiableQueue();
+            List<Binding> bindings = getHeaderBindings(routingKey, queue);
+            if (!bindings.isEmpty() && Objects.isNull(findBinding(bindings, arguments))) {
+                bindings.add(new Binding(queue, routingKey, arguments));
+            }
+        });
+        refreshIndex();
+    }
+
+    /**
+     * Headers exchange does not route on the routing key. Routing without headers yields only the bindings
+     * without any header arguments.
+     */
+    @Override
+    public BindingSet getBindingsForRoute(String routingKey) {
+        return headersIndex.getBindingsForRoute(null);
+    }
+
+    @Override
+    BindingSet getBindingsForRoute(Metadata metadata) {
+        return headersIndex.getBindingsForRoute(metadata);
+    }
+
+    @Override
+    boolean routesOnRoutingKeyOnly() {
+        return false;
+    }
+
+    @Override
+    boolean acceptsEmptyBindingKey() {
+        return true;
+    }
+
+    @Override
+    public void onBind(String routingKey) {
+        refreshIndex();
+    }
+
+    @Override
+    public void onUnbind(String routingKey, boolean isLastSubscriber) {
+        refreshIndex();
+    }
+
+    @Override
+    public void onRetrieveAllBindingsForExchange(String routingKey) {
+        refreshIndex();
+    }
+
+    private List<Binding> getHeaderBindings(String routingKey, Queue queue) {
+        return headerBindings.getOrDefault(routingKey, Collections.emptyMap())
+                             .getOrDefault(queue, Collections.emptyList());
+    }
+
+    private static Binding findBinding(List<Binding> bindings, FieldTable arguments) {
+        for (Binding binding : bindings) {
+            if (binding.getArguments().equals(arguments)) {
+                return binding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Align the header bindings with the bindings registry and rebuild the index. Bindings removed through the
+     * registry, e.g. when the queue is deleted, drop every header set of the queue.
+     */
+    private void refreshIndex() {
+        Map<String, Map<Queue, List<Binding>>> currentBindings = new HashMap<>();
+        List<Binding> allBindings = new ArrayList<>();
+        for (Map.Entry<String, BindingSet> entry : getBindingsRegistry().getAllBindings().entrySet()) {
+            Map<Queue, List<Binding>> queueBindings = new HashMap<>();
+            addHeaderBindings(entry.getKey(), entry.getValue().getUnfilteredBindings(), queueBindings);
+            addHeaderBindings(entry.getKey(), entry.getValue().getFilteredBindings(), queueBindings);
+            queueBindings.values().forEach(allBindings::addAll);
+            currentBindings.put(entry.getKey(), queueBindings);
+        }
+        headerBindings = currentBindings;
+        headersIndex = HeadersIndex.build(allBindings);
+    }
+
+    private void addHeaderBindings(String routingKey, Collection<Binding> registeredBindings,
+                                   Map<Queue, List<Binding>> queueBindings) {
+        for (Binding registeredBinding : registeredBindings) {
+            List<Binding> bindings = new ArrayList<>();
+            bindings.add(registeredBinding);
+            Iterator<Binding> knownBindings = getHeaderBindings(routingKey, registeredBinding.getQueue()).iterator();
+            if (knownBindings.hasNext() && knownBindings.next() == registeredBinding) {
+                knownBindings.forEachRemaining(bindings::add);
+            }
+            queueBindings.put(registeredBinding.getQueue(), bindings);
+        }
+    }
+
+    /**
+     * Immutable index of header bindings. Bindings with {@code x-match=any} are indexed under each of their header
+     * names while bindings with {@code x-match=all} are indexed only under their first header name since every
+     * header needs to be present for a match. Index is kept in arrays so that routing does not allocate iterators.
+     */
+    private static final class HeadersIndex {
+
+        private static final HeadersIndex EMPTY_INDEX = new HeadersIndex(new ShortString[0],
+                                                                         new HeadersBinding[0][],
+                                                                         BindingSet.emptySet());
+
+        private final ShortString[] indexedHeaders;
+
+        private final HeadersBinding[][] candidateBindings;
+
+        /**
+         * Bindings with {@code x-match=all} and no header arguments. These match every message.
+         */
+        private final BindingSet unconditionalBindings;
+
+        private HeadersIndex(ShortString[] indexedHeaders,
+                             HeadersBinding[][] candidateBindings,
+                             BindingSet unconditionalBindings) {
+            this.indexedHeaders = indexedHeaders;
+            this.candidateBindings = candidateBindings;
+            this.unconditionalBindings = unconditionalBindings;
+        }
+
+        static HeadersIndex build(Collection<Binding> bindings) {
+            Map<ShortString, List<HeadersBinding>> index = new HashMap<>();
+            BindingSet unconditionalBindings = new BindingSet();
+            addToIndex(index, unconditionalBindings, bindings);
+
+            if (index.isEmpty() && unconditionalBindings.isEmpty()) {
+                return EMPTY_INDEX;
+            }
+
+            ShortString[] indexedHeaders = new ShortString[index.size()];
+            HeadersBinding[][] candidateBindings = new HeadersBinding[index.size()][];
+            int i = 0;
+            for (Map.Entry<ShortString, List<HeadersBinding>> entry : index.entrySet()) {
+                indexedHeaders[i] = entry.getKey();
+                candidateBindings[i] = entry.getValue().toArray(new HeadersBinding[0]);
+                i++;
+            }
+
+            if (unconditionalBindings.isEmpty()) {
+                unconditionalBindings = BindingSet.emptySet();
+            }
+            return new HeadersIndex(indexedHeaders, candidateBindings, unconditionalBindings);
+        }
+
+        private static void addToIndex(Map<ShortString, List<HeadersBinding>> index,
+                                       BindingSet unconditionalBindings,
+                                       Iterable<Binding> bindings) {
+            for (Binding binding : bindings) {
+                HeadersBinding headersBinding = HeadersBinding.from(binding);
+                if (headersBinding.headerNames.length == 0) {
+                    if (!headersBinding.matchAny) {
+                        unconditionalBindings.put(binding);
+                    }
+                } else if (headersBinding.matchAny) {
+                    for (ShortString headerName : headersBinding.headerNames) {
+                        index.computeIfAbsent(headerName, k -> new ArrayList<>()).add(headersBinding);
+                    }
+                } else {
+                    index.computeIfAbsent(headersBinding.headerNames[0], k -> new ArrayList<>())
+                         .add(headersBinding);
+                }
+            }
+        }
+
+        BindingSet getBindingsForRoute(Metadata metadata) {
+            if (Objects.isNull(metadata)) {
+                return unconditionalBindings;
+            }
+
+            BindingSet matchedBindings = null;
+            for (int i = 0; i < indexedHeaders.length; i++) {
+                FieldValue headerValue = metadata.getHeader(indexedHeaders[i]);
+                if (Objects.isNull(headerValue)) {
+                    continue;
+                }
+
+                for (HeadersBinding candidate : candidateBindings[i]) {
+                    if (candidate.matches(metadata, indexedHeaders[i], headerValue)) {
+                        if (Objects.isNull(matchedBindings)) {
+                            matchedBindings = new BindingSet();
+                            matchedBindings.add(unconditionalBindings);
+                        }
+                        matchedBindings.put(candidate.binding);
+                    }
+                }
+            }
+
+            return Objects.isNull(matchedBindings) ? unconditionalBindings : matchedBindings;
+        }
+    }
+
+    /**
+     * Header arguments of a single binding extracted at bind time.
+     */
+    private static final class HeadersBinding {
+
+        private final Binding binding;
+
+        private final boolean matchAny;
+
+        private final ShortString[] headerNames;
+
+        private final FieldValue[] headerValues;
+
+        private HeadersBinding(Binding binding, boolean matchAny,
+                               ShortString[] headerNames, FieldValue[] headerValues) {
+            this.binding = binding;
+            this.matchAny = matchAny;
+            this.headerNames = headerNames;
+            this.headerValues = headerValues;
+        }
+
+        static HeadersBinding from(Binding binding) {
+            FieldValue matchValue = binding.getArgument(X_MATCH_ARGUMENT);
+            boolean matchAny = Objects.nonNull(matchValue) && MATCH_ANY.equals(matchValue.getValue().toString());
+
+            FieldTable arguments = binding.getArguments();
+            List<ShortString> names = new ArrayList<>();
+            List<FieldValue> values = new ArrayList<>();
+            arguments.forEach((name, value) -> {
+                if (!name.toString().startsWith(RESERVED_ARGUMENT_PREFIX)) {
+                    names.add(name);
+                    values.add(value);
+                }
+            });
+            return new HeadersBinding(binding, matchAny,
+                                      names.toArray(new ShortString[0]),
+                                      values.toArray(new FieldValue[0]));
+        }
+
+        /**
+         * Check whether the binding matches the message. The header used to look up the binding from the index is
+         * passed in to avoid looking it up again.
+         */
+        boolean matches(Metadata metadata, ShortString indexedHeader, FieldValue indexedHeaderValue) {
+            if (matchAny) {
+                for (int i = 0; i < headerNames.length; i++) {
+                    if (headerNames[i].equals(indexedHeader)) {
+                        return valueMatches(headerValues[i], indexedHeaderValue);
+                    }
+                }
+                return false;
+            }
+
+            for (int i = 0; i < headerNames.length; i++) {
+                FieldValue headerValue = headerNames[i].equals(indexedHeader)
+                        ? indexedHeaderValue : metadata.getHeader(headerNames[i]);
+                if (Objects.isNull(headerValue) || !valueMatches(headerValues[i], headerValue)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean valueMatches(FieldValue bindingValue, FieldValue headerValue) {
+            if (bindingValue.equals(headerValue)) {
+                return true;
+            }
+            // Short and long strings are interchangeable from the client's perspective
+            return isString(bindingValue) && isString(headerValue)
+                    && bindingValue.getValue().toString().equals(headerValue.getValue().toString());
+        }
+
+        private static boolean isString(FieldValue value) {
+            return value.getType() == FieldValue.Type.LONG_STRING || value.getType() == FieldValue.Type.SHORT_STRING;
+        }
+    }
+}
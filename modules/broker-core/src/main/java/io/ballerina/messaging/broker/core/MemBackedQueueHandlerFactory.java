@@ -22,6 +22,7 @@ package io.ballerina.messaging.broker.core;
 import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
 import io.ballerina.messaging.broker.core.metrics.BrokerMetricManager;
 import io.ballerina.messaging.broker.core.queue.MemQueueImpl;
+import io.ballerina.messaging.broker.core.queue.QueueMemoryGovernor;
 
 
 /**
@@ -30,11 +31,13 @@ import io.ballerina.messaging.broker.core.queue.MemQueueImpl;
 public class MemBackedQueueHandlerFactory implements QueueHandlerFactory {
     private final BrokerMetricManager metricManager;
     private final int nonDurableQueueMaxDepth;
+    private final QueueMemoryGovernor memoryGovernor;
 
     public MemBackedQueueHandlerFactory(BrokerMetricManager metricManager,
                                         BrokerCoreConfiguration configuration) {
         this.metricManager = metricManager;
         this.nonDurableQueueMaxDepth = Integer.parseInt(configuration.getNonDurableQueueMaxDepth());
+        this.memoryGovernor = new QueueMemoryGovernor(configuration);
     }
 
     @Override
@@ -48,7 +51,9 @@ public class MemBackedQueueHandlerFactory implements QueueHandlerFactory {
     }
 
     private QueueHandler getQueueHandler(String queueName, boolean durable, boolean autoDelete) {
-        Queue queue = new MemQueueImpl(queueName, durable, nonDurableQueueMaxDepth, autoDelete);
+        MemQueueImpl queue = new MemQueueImpl(queueName, durable, nonDurableQueueMaxDepth, autoDelete,
+                                              memoryGovernor);
+        memoryGovernor.register(queue);
         return new QueueHandler(queue, metricManager);
     }
 }
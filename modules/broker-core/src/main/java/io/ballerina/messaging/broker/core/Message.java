@@ -28,49 +28,71 @@ import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Represents message received from publishers and delivered to subscribers by the broker.
  * This contains the metadata and the content chunks of the message.
+ * <p>
+ * Metadata and content are kept in a reference counted envelope which is shared between all the shallow copies of
+ * the message. A shallow copy only carries the queue specific delivery state, hence routing a message to many
+ * queues does not copy content chunks. Each copy owns a single reference to the envelope which is given up with
+ * {@link #release()}.
  */
 public class Message {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Message.class);
 
-    private Metadata metadata;
-
-    private final List<ContentChunk> contentChunks;
+    private MessageEnvelope envelope;
 
     private final MessageDataHolder messageDataHolder;
 
+    /**
+     * Whether this copy has given up its reference to the envelope.
+     */
+    private boolean released;
+
     public Message(long internalId, Metadata metadata) {
-        this(internalId, metadata, ConcurrentHashMap.newKeySet(), 0);
+        this(internalId,
+             Objects.isNull(metadata) ? null : new MessageEnvelope(metadata),
+             ConcurrentHashMap.newKeySet(),
+             0);
     }
 
-    private Message(long internalId, Metadata metadata, Set<String> queueSet, int redeliveryCount) {
-        this.metadata = metadata;
-        this.contentChunks = new ArrayList<>();
+    private Message(long internalId, MessageEnvelope envelope, Set<String> queueSet, int redeliveryCount) {
+        this.envelope = envelope;
         messageDataHolder = new MessageDataHolder(internalId, queueSet, redeliveryCount);
     }
 
     public Metadata getMetadata() {
-        return metadata;
+        return Objects.isNull(envelope) ? null : envelope.metadata;
     }
 
     public List<ContentChunk> getContentChunks() {
-        return Collections.unmodifiableList(contentChunks);
+        return Objects.isNull(envelope) ? Collections.emptyList() : envelope.unmodifiableChunks;
     }
 
+    /**
+     * Add a content chunk to the message. Content should only be added while the message is being built, i.e. before
+     * any shallow copies are made.
+     *
+     * @param contentChunk {@link ContentChunk} to add
+     */
     public void addChunk(ContentChunk contentChunk) {
-        contentChunks.add(contentChunk);
+        if (Objects.isNull(envelope)) {
+            envelope = new MessageEnvelope(null);
+        }
+        envelope.contentChunks.add(contentChunk);
     }
 
     public void release() {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Release message with id: {}", getInternalId(), new Throwable());
         }
-        for (ContentChunk contentChunk : contentChunks) {
-            contentChunk.release();
+        if (!released && Objects.nonNull(envelope)) {
+            released = true;
+            envelope.release();
         }
     }
 
@@ -78,9 +100,8 @@ public class Message {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Shallow copy message id: {}", getInternalId(), new Throwable());
         }
-        Message message = new Message(getInternalId(), metadata, getAttachedDurableQueues(), getRedeliveryCount());
-        shallowCopyContent(message);
-        return message;
+        MessageEnvelope sharedEnvelope = Objects.isNull(envelope) ? null : envelope.retain();
+        return new Message(getInternalId(), sharedEnvelope, getAttachedDurableQueues(), getRedeliveryCount());
     }
 
     /**
@@ -97,15 +118,14 @@ public class Message {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug("Shallow copy message with id: {} newId: {}", getInternalId(), newMessageId, new Throwable());
         }
-        Message message = new Message(newMessageId, metadata.shallowCopyWith(routingKey, exchangeName));
-        shallowCopyContent(message);
+        Message message = new Message(newMessageId, getMetadata().shallowCopyWith(routingKey, exchangeName));
+        for (ContentChunk contentChunk : getContentChunks()) {
+            contentChunk.getByteBuf().retain();
+            message.addChunk(contentChunk);
+        }
         return message;
     }
 
-    private void shallowCopyContent(Message message) {
-        contentChunks.stream().map(ContentChunk::shallowCopy).forEach(message::addChunk);
-    }
-
     public void addAttachedDurableQueue(String queueName) {
         messageDataHolder.attachQueue(queueName);
     }
@@ -150,21 +170,53 @@ public class Message {
     @Override
     public String toString() {
 
-        if (Objects.isNull(metadata)) {
+        if (Objects.isNull(getMetadata())) {
             return "Bare message";
         } else {
-            return metadata.toString();
+            return getMetadata().toString();
         }
     }
 
+    /**
+     * Set metadata of the message. Used when filling the data of a bare message.
+     *
+     * @param metadata {@link Metadata} of the message
+     */
     public void setMetadata(Metadata metadata) {
-        this.metadata = metadata;
+        if (Objects.isNull(envelope)) {
+            envelope = new MessageEnvelope(metadata);
+        } else {
+            envelope.metadata = metadata;
+        }
+    }
+
+    /**
+     * Set the listener to be notified once the broker has accepted the message. The listener is shared by all the
+     * shallow copies of the message and is notified only once.
+     *
+     * @param listener {@link PublishConfirmListener} for the message
+     */
+    public void setPublishConfirmListener(PublishConfirmListener listener) {
+        if (Objects.nonNull(envelope)) {
+            envelope.confirmListener = listener;
+        }
+    }
+
+    /**
+     * Notify the publish confirm listener of the message if it was not notified already.
+     *
+     * @param success true if the broker accepted the message, false otherwise
+     */
+    public void notifyPublishComplete(boolean success) {
+        if (Objects.nonNull(envelope)) {
+            envelope.notifyPublishComplete(success);
+        }
     }
 
     public void clearData() {
-        metadata = null;
         release();
-        contentChunks.clear();
+        envelope = null;
+        released = false;
     }
 
     /**
@@ -173,7 +225,59 @@ public class Message {
      * @return true if message content is available, false otherwise
      */
     public boolean hasContent() {
-        return Objects.nonNull(metadata);
+        return Objects.nonNull(getMetadata());
+    }
+
+    /**
+     * Metadata and content of a message shared by all the shallow copies of the message. Content chunks are released
+     * when the last copy referring to the envelope is released.
+     */
+    private static final class MessageEnvelope {
+
+        private static final AtomicReferenceFieldUpdater<MessageEnvelope, PublishConfirmListener> CONFIRM_LISTENER =
+                AtomicReferenceFieldUpdater.newUpdater(MessageEnvelope.class,
+                                                       PublishConfirmListener.class,
+                                                       "confirmListener");
+
+        private volatile Metadata metadata;
+
+        private volatile PublishConfirmListener confirmListener;
+
+        private final List<ContentChunk> contentChunks;
+
+        private final List<ContentChunk> unmodifiableChunks;
+
+        private final AtomicInteger referenceCount;
+
+        private MessageEnvelope(Metadata metadata) {
+            this.metadata = metadata;
+            this.contentChunks = new ArrayList<>();
+            this.unmodifiableChunks = Collections.unmodifiableList(contentChunks);
+            this.referenceCount = new AtomicInteger(1);
+        }
+
+        MessageEnvelope retain() {
+            referenceCount.incrementAndGet();
+            return this;
+        }
+
+        void notifyPublishComplete(boolean success) {
+            if (Objects.isNull(confirmListener)) {
+                return;
+            }
+            PublishConfirmListener listener = CONFIRM_LISTENER.getAndSet(this, null);
+            if (Objects.nonNull(listener)) {
+                listener.onPublishComplete(success);
+            }
+        }
+
+        void release() {
+            if (referenceCount.decrementAndGet() == 0) {
+                for (ContentChunk contentChunk : contentChunks) {
+                    contentChunk.release();
+                }
+            }
+        }
     }
 
     /**
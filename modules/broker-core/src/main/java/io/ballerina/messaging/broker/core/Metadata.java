@@ -19,6 +19,7 @@
 
 package io.ballerina.messaging.broker.core;
 
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.ballerina.messaging.broker.common.data.types.FieldTable;
 import io.ballerina.messaging.broker.common.data.types.FieldValue;
 import io.ballerina.messaging.broker.common.data.types.ShortShortInt;
@@ -68,6 +69,12 @@ public class Metadata {
 
     private FieldTable headers;
 
+    /**
+     * Transport specific wire encoding of the properties and headers. Cached so that the properties are not
+     * encoded again for each delivery. Cleared whenever the properties or headers are modified.
+     */
+    private volatile byte[] encodedProperties;
+
     public Metadata(String routingKey, String exchangeName, long contentLength) {
         this.routingKey = routingKey;
         this.exchangeName = exchangeName;
@@ -101,6 +108,7 @@ public class Metadata {
         Metadata metadata = new Metadata(routingKey, exchangeName, contentLength);
         metadata.properties = properties;
         metadata.headers = headers;
+        metadata.encodedProperties = encodedProperties;
         return metadata;
     }
 
@@ -118,10 +126,33 @@ public class Metadata {
 
     public void setProperties(FieldTable properties) {
         this.properties = properties;
+        this.encodedProperties = null;
     }
 
     public void setHeaders(FieldTable headers) {
         this.headers = headers;
+        this.encodedProperties = null;
+    }
+
+    /**
+     * Getter for the cached wire encoding of the properties and headers.
+     *
+     * @return encoded properties or null if not cached
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP")
+    public byte[] getEncodedProperties() {
+        return encodedProperties;
+    }
+
+    /**
+     * Cache the transport specific wire encoding of the current properties and headers. Callers must not modify
+     * the array afterwards.
+     *
+     * @param encodedProperties encoded properties and headers
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2")
+    public void setEncodedProperties(byte[] encodedProperties) {
+        this.encodedProperties = encodedProperties;
     }
 
     public FieldValue getProperty(ShortString propertyName) {
@@ -151,6 +182,7 @@ public class Metadata {
 
     public void addHeader(String name, String value) {
         headers.add(ShortString.parseString(name), FieldValue.parseLongString(value));
+        encodedProperties = null;
     }
 
     public byte[] getPropertiesAsBytes() {
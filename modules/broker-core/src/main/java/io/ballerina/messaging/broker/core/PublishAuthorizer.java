@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.auth.AuthException;
+import io.ballerina.messaging.broker.auth.AuthNotFoundException;
+import io.ballerina.messaging.broker.auth.authorization.AuthorizationHandler;
+import io.ballerina.messaging.broker.auth.authorization.enums.ResourceAction;
+import io.ballerina.messaging.broker.auth.authorization.enums.ResourceAuthScope;
+import io.ballerina.messaging.broker.auth.authorization.enums.ResourceType;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.security.auth.Subject;
+
+/**
+ * Checks the publish permission of a batch of messages before handing them over to the broker. Shared by the
+ * secure broker and the secure transaction.
+ */
+public final class PublishAuthorizer {
+
+    private PublishAuthorizer() {
+    }
+
+    /**
+     * Publish the messages the subject is authorized to publish. Permission is checked once per exchange in the
+     * batch. Messages to unauthorized exchanges are rejected to the publisher and released without being published.
+     *
+     * @param messages    messages in the order they were received
+     * @param authHandler authorization handler
+     * @param subject     subject publishing the messages
+     * @param publisher   publishes the authorized messages
+     * @throws BrokerException the first authorization failure after publishing the authorized messages, or the
+     *                         failure of the publisher
+     */
+    public static void publishAuthorized(Collection<Message> messages,
+                                         AuthorizationHandler authHandler,
+                                         Subject subject,
+                                         BatchPublisher publisher) throws BrokerException {
+        BrokerException authError = null;
+        Map<String, Boolean> authorizedExchanges = new HashMap<>();
+        List<Message> authorizedMessages = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            String exchangeName = message.getMetadata().getExchangeName();
+            Boolean authorized = authorizedExchanges.get(exchangeName);
+            if (authorized == null) {
+                try {
+                    authHandler.handle(ResourceAuthScope.EXCHANGES_PUBLISH, ResourceType.EXCHANGE,
+                                       exchangeName, ResourceAction.PUBLISH, subject);
+                    authorized = Boolean.TRUE;
+                } catch (AuthException e) {
+                    authorized = Boolean.FALSE;
+                    authError = authError == null ? new BrokerAuthException(e.getMessage(), e) : authError;
+                } catch (AuthNotFoundException e) {
+                    authorized = Boolean.FALSE;
+                    authError = authError == null ? new BrokerAuthNotFoundException(e.getMessage(), e) : authError;
+                }
+                authorizedExchanges.put(exchangeName, authorized);
+            }
+
+            if (authorized) {
+                authorizedMessages.add(message);
+            } else {
+                message.notifyPublishComplete(false);
+                message.release();
+            }
+        }
+
+        if (!authorizedMessages.isEmpty()) {
+            publisher.publish(authorizedMessages);
+        }
+        if (authError != null) {
+            throw authError;
+        }
+    }
+
+    /**
+     * Publishes a batch of authorized messages.
+     */
+    @FunctionalInterface
+    public interface BatchPublisher {
+        void publish(Collection<Message> messages) throws BrokerException;
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core;
+
+/**
+ * Listener notified once the broker has taken responsibility for a published message.
+ */
+@FunctionalInterface
+public interface PublishConfirmListener {
+
+    /**
+     * Trigger when the message is routed, or once it is written to the store if it was routed to durable queues.
+     *
+     * @param success false if the broker failed to accept the message
+     */
+    void onPublishComplete(boolean success);
+}
@@ -19,6 +19,9 @@
 
 package io.ballerina.messaging.broker.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import javax.transaction.xa.Xid;
 
 /**
@@ -98,6 +101,24 @@ public abstract class Queue {
 
     public abstract boolean enqueue(Message message) throws BrokerException;
 
+    /**
+     * Enqueue a batch of messages routed to this queue by a single publish. Queues should override this to add the
+     * whole batch while holding their locks once.
+     *
+     * @param messages messages in publish order
+     * @return messages that were not accepted by the queue
+     * @throws BrokerException if an error occurred while enqueuing
+     */
+    public List<Message> enqueue(List<Message> messages) throws BrokerException {
+        List<Message> rejectedMessages = new ArrayList<>(0);
+        for (Message message : messages) {
+            if (!enqueue(message)) {
+                rejectedMessages.add(message);
+            }
+        }
+        return rejectedMessages;
+    }
+
     public abstract void prepareEnqueue(Xid xid, Message message) throws BrokerException;
 
     public abstract void commit(Xid xid);
@@ -108,7 +129,28 @@ public abstract class Queue {
 
     public abstract void detach(DetachableMessage detachableMessage) throws BrokerException;
 
+    /**
+     * Detach a batch of acknowledged messages. Store backed queues should override this to detach the whole batch in
+     * one store operation.
+     *
+     * @param detachableMessages acknowledged messages
+     * @throws BrokerException if an error occurred while detaching
+     */
+    public void detach(Collection<DetachableMessage> detachableMessages) throws BrokerException {
+        for (DetachableMessage detachableMessage : detachableMessages) {
+            detach(detachableMessage);
+        }
+    }
+
     public abstract void prepareDetach(Xid xid, DetachableMessage detachableMessage) throws BrokerException;
 
     public abstract int clear();
+
+    /**
+     * Release the resources held by the queue once it is deleted. Messages are removed with {@link #clear()} before
+     * this is called.
+     */
+    public void close() {
+        // Nothing to release by default.
+    }
 }
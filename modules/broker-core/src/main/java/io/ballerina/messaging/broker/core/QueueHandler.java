@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -132,6 +133,33 @@ public final class QueueHandler {
         }
     }
 
+    /**
+     * Put a batch of messages to the tail of the queue. Messages the queue cannot accept are dropped.
+     *
+     * @param messages messages in publish order
+     */
+    void enqueue(List<Message> messages) throws BrokerException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Enqueuing {} messages to queue {}", messages.size(), queue.getName());
+        }
+        List<Message> rejectedMessages = queue.enqueue(messages);
+        for (int i = rejectedMessages.size(); i < messages.size(); i++) {
+            metricManager.addInMemoryMessage();
+        }
+        if (MessageTracer.isTraceEnabled()) {
+            for (Message message : messages) {
+                if (!rejectedMessages.contains(message)) {
+                    MessageTracer.trace(message, this, MessageTracer.PUBLISH_SUCCESSFUL);
+                }
+            }
+        }
+        for (Message message : rejectedMessages) {
+            message.release();
+            MessageTracer.trace(message, this, MessageTracer.PUBLISH_FAILURE);
+            LOGGER.info("Failed to publish message {} to the queue {}", message, queue.getName());
+        }
+    }
+
     void prepareForEnqueue(Xid xid, Message message) throws BrokerException {
         MessageTracer.trace(message, xid, this, MessageTracer.PREPARE_ENQUEUE);
         queue.prepareEnqueue(xid, message);
@@ -182,6 +210,14 @@ public final class QueueHandler {
         MessageTracer.trace(detachableMessage, this, MessageTracer.ACKNOWLEDGE);
     }
 
+    void dequeue(Collection<DetachableMessage> detachableMessages) throws BrokerException {
+        queue.detach(detachableMessages);
+        for (DetachableMessage detachableMessage : detachableMessages) {
+            metricManager.removeInMemoryMessage();
+            MessageTracer.trace(detachableMessage, this, MessageTracer.ACKNOWLEDGE);
+        }
+    }
+
     public void requeue(Message message) throws BrokerException {
         boolean success = redeliveryQueue.enqueue(message);
         if (!success) {
@@ -261,7 +297,9 @@ public final class QueueHandler {
                 : bindingChangeListenersMap.entrySet()) {
             entry.getValue().accept(entry.getKey());
         }
-        return redeliveryQueue.clear() + queue.clear();
+        int removedMessageCount = redeliveryQueue.clear() + queue.clear();
+        queue.close();
+        return removedMessageCount;
     }
 
     public void removeBinding(Binding binding) {
@@ -67,19 +67,32 @@ public class SecureBrokerImpl implements Broker {
                                message.getMetadata().getExchangeName(), ResourceAction.PUBLISH, subject);
             broker.publish(message);
         } catch (AuthException e) {
+            message.notifyPublishComplete(false);
             message.release();
             throw new BrokerAuthException(e.getMessage(), e);
         } catch (AuthNotFoundException e) {
+            message.notifyPublishComplete(false);
             message.release();
             throw new BrokerAuthNotFoundException(e.getMessage(), e);
         }
     }
 
+    @Override
+    public void publish(Collection<Message> messages) throws BrokerException {
+        PublishAuthorizer.publishAuthorized(messages, authHandler, subject, broker::publish);
+    }
+
     @Override
     public void acknowledge(String queueName, DetachableMessage detachableMessage) throws BrokerException {
         broker.acknowledge(queueName, detachableMessage);
     }
 
+    @Override
+    public void acknowledge(String queueName, Collection<DetachableMessage> detachableMessages)
+            throws BrokerException {
+        broker.acknowledge(queueName, detachableMessages);
+    }
+
     @Override
     public Set<QueueHandler> enqueue(Xid xid, Message message) throws BrokerException {
         return broker.enqueue(xid, message);
@@ -103,6 +116,19 @@ public class SecureBrokerImpl implements Broker {
         }
     }
 
+    @Override
+    public Message pull(String queueName) throws BrokerException, ResourceNotFoundException {
+        try {
+            authHandler.handle(ResourceAuthScope.QUEUES_CONSUME, ResourceType.QUEUE, queueName,
+                               ResourceAction.CONSUME, subject);
+            return broker.pull(queueName);
+        } catch (AuthException e) {
+            throw new BrokerAuthException(e.getMessage(), e);
+        } catch (AuthNotFoundException e) {
+            throw new BrokerAuthNotFoundException(e.getMessage(), e);
+        }
+    }
+
     @Override
     public boolean removeConsumer(Consumer consumer) {
         return broker.removeConsumer(consumer);
@@ -204,9 +230,9 @@ public class SecureBrokerImpl implements Broker {
     }
 
     @Override
-    public void unbind(String queueName, String exchangeName, String routingKey) throws BrokerException,
-            ValidationException {
-        broker.unbind(queueName, exchangeName, routingKey);
+    public void unbind(String queueName, String exchangeName, String routingKey, FieldTable arguments)
+            throws BrokerException, ValidationException {
+        broker.unbind(queueName, exchangeName, routingKey, arguments);
     }
 
     @Override
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.util.internal.PlatformDependent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Local file used to hold the content of a large message while it is being received. Content is written to the file
+ * as it arrives and the completed content is memory mapped as {@link ContentChunk}s, so that the message body is
+ * backed by the page cache instead of heap or direct memory. The file is deleted when closed.
+ */
+@NotThreadSafe
+public class SpooledContent implements Closeable {
+
+    /**
+     * Maximum size of a single mapped region.
+     */
+    static final int MAX_REGION_SIZE = 1024 * 1024 * 1024;
+
+    private final FileChannel channel;
+
+    private final int maxRegionSize;
+
+    private long size;
+
+    public SpooledContent(Path directory) throws IOException {
+        this(directory, MAX_REGION_SIZE);
+    }
+
+    SpooledContent(Path directory, int maxRegionSize) throws IOException {
+        Files.createDirectories(directory);
+        Path path = Files.createTempFile(directory, "content-", ".spool");
+        this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                        StandardOpenOption.DELETE_ON_CLOSE);
+        this.maxRegionSize = maxRegionSize;
+    }
+
+    /**
+     * Append the readable bytes of the buffer to the end of the content. Caller should release the buffer once
+     * written.
+     *
+     * @param buf content to append
+     * @throws IOException if the content cannot be written
+     */
+    public void append(ByteBuf buf) throws IOException {
+        write(size, buf);
+    }
+
+    /**
+     * Write the readable bytes of the buffer at the given content offset. Caller should release the buffer once
+     * written.
+     *
+     * @param offset offset of the content in bytes
+     * @param buf    content to write
+     * @throws IOException if the content cannot be written
+     */
+    public void write(long offset, ByteBuf buf) throws IOException {
+        int length = buf.readableBytes();
+        int written = 0;
+        while (written < length) {
+            written += buf.getBytes(buf.readerIndex() + written, channel, offset + written, length - written);
+        }
+        size = Math.max(size, offset + length);
+    }
+
+    /**
+     * Getter for size.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Map the written content and close the file. The returned chunks stay valid after the file is deleted. Each
+     * region is unmapped once its chunk buffer is released, so the disk space of the deleted file is reclaimed
+     * without waiting for the mapping to be garbage collected.
+     *
+     * @return content chunks in offset order
+     * @throws IOException if the content cannot be mapped
+     */
+    public List<ContentChunk> toChunks() throws IOException {
+        try {
+            List<ContentChunk> chunks = new ArrayList<>();
+            for (long offset = 0; offset < size; offset += maxRegionSize) {
+                long length = Math.min(maxRegionSize, size - offset);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+                chunks.add(new ContentChunk(offset, new MappedRegionBuf(region)));
+            }
+            return chunks;
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Buffer over a mapped region of the spool file which unmaps the region when deallocated. Derived buffers share
+     * the reference count, hence the region is unmapped only after every slice of it is released.
+     */
+    private static final class MappedRegionBuf extends CompositeByteBuf {
+
+        private final MappedByteBuffer region;
+
+        private MappedRegionBuf(MappedByteBuffer region) {
+            super(UnpooledByteBufAllocator.DEFAULT, true, 2, Unpooled.wrappedBuffer(region));
+            this.region = region;
+        }
+
+        @Override
+        protected void deallocate() {
+            super.deallocate();
+            PlatformDependent.freeDirectBuffer(region);
+        }
+    }
+}
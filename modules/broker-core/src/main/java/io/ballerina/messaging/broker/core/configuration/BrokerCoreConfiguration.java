@@ -48,8 +48,12 @@ public class BrokerCoreConfiguration {
 
     private int maxDbWriteBatchSize = 1024;
 
+    private int shardCount = 1;
+
     private DeliveryTask deliveryTask = new DeliveryTask();
 
+    private QueueMemory queueMemory = new QueueMemory();
+
     /**
      * Getter for nonDurableQueueMaxDepth.
      */
@@ -105,6 +109,17 @@ public class BrokerCoreConfiguration {
         this.maxDbWriteBatchSize = maxDbWriteBatchSize;
     }
 
+    /**
+     * Getter for shardCount.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
     /**
      * Getter for deliveryTask.
      */
@@ -116,6 +131,17 @@ public class BrokerCoreConfiguration {
         this.deliveryTask = deliveryTask;
     }
 
+    /**
+     * Getter for queueMemory.
+     */
+    public QueueMemory getQueueMemory() {
+        return queueMemory;
+    }
+
+    public void setQueueMemory(QueueMemory queueMemory) {
+        this.queueMemory = queueMemory;
+    }
+
     /**
      * Represent delivery task related configurations.
      */
@@ -156,4 +182,74 @@ public class BrokerCoreConfiguration {
             this.deliveryBatchSize = deliveryBatchSize;
         }
     }
+
+    /**
+     * Represent configurations related to the memory used by queue content.
+     */
+    public static class QueueMemory {
+        private long highWatermark = 512 * 1024 * 1024;
+
+        private long lowWatermark = 384 * 1024 * 1024;
+
+        private long restoreWatermark = 256 * 1024 * 1024;
+
+        private int pagedQueueInMemoryLimit = 100;
+
+        private String spillDirectory = "";
+
+        /**
+         * Getter for highWatermark.
+         */
+        public long getHighWatermark() {
+            return highWatermark;
+        }
+
+        public void setHighWatermark(long highWatermark) {
+            this.highWatermark = highWatermark;
+        }
+
+        /**
+         * Getter for lowWatermark.
+         */
+        public long getLowWatermark() {
+            return lowWatermark;
+        }
+
+        public void setLowWatermark(long lowWatermark) {
+            this.lowWatermark = lowWatermark;
+        }
+
+        /**
+         * Getter for restoreWatermark.
+         */
+        public long getRestoreWatermark() {
+            return restoreWatermark;
+        }
+
+        public void setRestoreWatermark(long restoreWatermark) {
+            this.restoreWatermark = restoreWatermark;
+        }
+
+        /**
+         * Getter for pagedQueueInMemoryLimit.
+         */
+        public int getPagedQueueInMemoryLimit() {
+            return pagedQueueInMemoryLimit;
+        }
+
+        public void setPagedQueueInMemoryLimit(int pagedQueueInMemoryLimit) {
+            this.pagedQueueInMemoryLimit = pagedQueueInMemoryLimit;
+        }
+
+        /**
+         * Getter for spillDirectory.
+         */
+        public String getSpillDirectory() {
+            return spillDirectory;
+        }
+
+        public void setSpillDirectory(String spillDirectory) {
+            this.spillDirectory = spillDirectory;
+        }
+    }
 }
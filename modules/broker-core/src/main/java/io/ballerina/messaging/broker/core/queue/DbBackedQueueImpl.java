@@ -96,6 +96,16 @@ public class DbBackedQueueImpl extends Queue {
         }
     }
 
+    @Override
+    public List<Message> enqueue(List<Message> messages) throws BrokerException {
+        for (Message message : messages) {
+            if (message.getMetadata().isPersistent()) {
+                dbMessageStore.attach(getName(), message.getInternalId());
+            }
+        }
+        return buffer.addAllPublished(messages);
+    }
+
     @Override
     public void prepareEnqueue(Xid xid, Message message) throws BrokerException {
         if (message.getMetadata().isPersistent()) {
@@ -139,6 +149,14 @@ public class DbBackedQueueImpl extends Queue {
         buffer.remove(message.getInternalId());
     }
 
+    @Override
+    public void detach(Collection<DetachableMessage> detachableMessages) {
+        dbMessageStore.detach(getName(), detachableMessages);
+        for (DetachableMessage message : detachableMessages) {
+            buffer.remove(message.getInternalId());
+        }
+    }
+
     @Override
     public void prepareDetach(Xid xid, DetachableMessage detachableMessage) throws BrokerException {
         dbMessageStore.detach(xid, getName(), detachableMessage);
@@ -154,4 +172,9 @@ public class DbBackedQueueImpl extends Queue {
             message.release();
         });
     }
+
+    @Override
+    public void close() {
+        buffer.close();
+    }
 }
@@ -19,11 +19,17 @@
 
 package io.ballerina.messaging.broker.core.queue;
 
+import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
 import io.ballerina.messaging.broker.core.Queue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -32,9 +38,12 @@ import java.util.concurrent.LinkedBlockingDeque;
 import javax.transaction.xa.Xid;
 
 /**
- * In memory queue implementation for non durable queues.
+ * In memory queue implementation for non durable queues. When paged out by the {@link QueueMemoryGovernor}, messages
+ * beyond the paged in-memory limit are moved to a local spill file and read back as the queue drains.
  */
-public class MemQueueImpl extends Queue {
+public class MemQueueImpl extends Queue implements PageableQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemQueueImpl.class);
 
     private final int capacity;
 
@@ -42,15 +51,35 @@ public class MemQueueImpl extends Queue {
 
     private final Map<Xid, List<Message>> pendingEnqueueMessages;
 
+    private final QueueMemoryGovernor memoryGovernor;
+
+    /**
+     * Holds the messages that are newer than the messages in memory. Created when the queue is first paged out.
+     */
+    private QueueSpillFile spillFile;
+
+    private volatile int spilledMessageCount;
+
+    private int inMemoryLimit = Queue.UNBOUNDED;
+
+    private volatile long lastAccessTime;
+
     public MemQueueImpl(String queueName, int capacity, boolean autoDelete) {
         this(queueName, false, capacity, autoDelete);
     }
 
     public MemQueueImpl(String queueName, boolean durable, int capacity, boolean autoDelete) {
+        this(queueName, durable, capacity, autoDelete, QueueMemoryGovernor.UNLIMITED);
+    }
+
+    public MemQueueImpl(String queueName, boolean durable, int capacity, boolean autoDelete,
+                        QueueMemoryGovernor memoryGovernor) {
         super(queueName, durable, autoDelete);
         this.capacity = capacity;
+        this.memoryGovernor = memoryGovernor;
         queue = new LinkedBlockingDeque<>(capacity);
         pendingEnqueueMessages = new ConcurrentHashMap<>();
+        lastAccessTime = System.currentTimeMillis();
     }
 
     /**
@@ -70,12 +99,22 @@ public class MemQueueImpl extends Queue {
 
     @Override
     public int size() {
-        return queue.size();
+        return queue.size() + spilledMessageCount;
+    }
+
+    @Override
+    public synchronized boolean enqueue(Message message) {
+        if (size() >= capacity) {
+            return false;
+        }
+        addLast(message);
+        return true;
     }
 
     @Override
-    public boolean enqueue(Message message) {
-        return queue.offer(message);
+    public synchronized List<Message> enqueue(List<Message> messages) throws BrokerException {
+        // Holds the queue lock for the whole batch
+        return super.enqueue(messages);
     }
 
     @Override
@@ -85,10 +124,10 @@ public class MemQueueImpl extends Queue {
     }
 
     @Override
-    public void commit(Xid xid) {
+    public synchronized void commit(Xid xid) {
         List<Message> messages = pendingEnqueueMessages.get(xid);
         if (Objects.nonNull(messages)) {
-            queue.addAll(messages);
+            messages.forEach(this::addLast);
         }
     }
 
@@ -101,8 +140,17 @@ public class MemQueueImpl extends Queue {
     }
 
     @Override
-    public Message dequeue() {
-        return queue.poll();
+    public synchronized Message dequeue() {
+        lastAccessTime = System.currentTimeMillis();
+        if (queue.isEmpty() && spilledMessageCount > 0) {
+            readSpilledMessages();
+        }
+
+        Message message = queue.poll();
+        if (Objects.nonNull(message)) {
+            memoryGovernor.release(getContentSize(message));
+        }
+        return message;
     }
 
     @Override
@@ -116,10 +164,126 @@ public class MemQueueImpl extends Queue {
     }
 
     @Override
-    public int clear() {
-        int queueSize = queue.size();
-        queue.forEach(Message::release);
+    public synchronized int clear() {
+        int queueSize = size();
+        for (Message message : queue) {
+            memoryGovernor.release(getContentSize(message));
+            message.release();
+        }
         queue.clear();
+        closeSpillFile();
         return queueSize;
     }
+
+    @Override
+    public synchronized void close() {
+        memoryGovernor.unregister(this);
+        closeSpillFile();
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    /**
+     * Move the newest messages beyond the given limit to the spill file. Messages published while the queue is paged
+     * out are written to the spill file as well.
+     *
+     * @param pagedInMemoryLimit maximum number of messages kept in memory
+     */
+    @Override
+    public synchronized void pageOut(int pagedInMemoryLimit) {
+        inMemoryLimit = pagedInMemoryLimit;
+
+        // Spilled messages are newer than the in-memory messages. Hence in-memory messages can only be moved when
+        // the spill file is empty
+        if (spilledMessageCount > 0 || queue.size() <= pagedInMemoryLimit) {
+            return;
+        }
+
+        Iterator<Message> iterator = queue.iterator();
+        for (int i = 0; i < pagedInMemoryLimit; i++) {
+            iterator.next();
+        }
+
+        while (iterator.hasNext()) {
+            Message message = iterator.next();
+            long contentSize = getContentSize(message);
+            if (!spill(message)) {
+                break;
+            }
+            iterator.remove();
+            memoryGovernor.release(contentSize);
+        }
+    }
+
+    @Override
+    public synchronized void pageIn() {
+        // Already spilled messages are read back as the queue drains
+        inMemoryLimit = Queue.UNBOUNDED;
+    }
+
+    /**
+     * Add the message to the end of the queue. Message goes to the spill file if the queue is paged out or if there
+     * are spilled messages that have to be delivered first.
+     */
+    private void addLast(Message message) {
+        lastAccessTime = System.currentTimeMillis();
+        if ((spilledMessageCount > 0 || queue.size() >= inMemoryLimit) && spill(message)) {
+            return;
+        }
+
+        queue.offer(message);
+        memoryGovernor.allocate(getContentSize(message));
+    }
+
+    private boolean spill(Message message) {
+        try {
+            if (Objects.isNull(spillFile)) {
+                spillFile = new QueueSpillFile(memoryGovernor.getSpillDirectory());
+            }
+            spillFile.write(message);
+            message.release();
+            spilledMessageCount = spillFile.size();
+            return true;
+        } catch (IOException e) {
+            LOGGER.error("Error while spilling message {} of queue {}. Message is kept in memory.",
+                         message.getInternalId(), getName(), e);
+            return false;
+        }
+    }
+
+    private void readSpilledMessages() {
+        int readCount = Math.min(spilledMessageCount, memoryGovernor.getPagedQueueInMemoryLimit());
+        try {
+            for (int i = 0; i < readCount; i++) {
+                Message message = spillFile.read();
+                queue.offer(message);
+                memoryGovernor.allocate(getContentSize(message));
+            }
+            spilledMessageCount = spillFile.size();
+        } catch (IOException e) {
+            LOGGER.error("Error while reading spilled messages of queue {}. {} messages are dropped.",
+                         getName(), spillFile.size(), e);
+            closeSpillFile();
+        }
+    }
+
+    private void closeSpillFile() {
+        if (Objects.nonNull(spillFile)) {
+            try {
+                spillFile.close();
+            } catch (IOException e) {
+                LOGGER.warn("Error while closing the spill file of queue {}", getName(), e);
+            }
+            spillFile = null;
+        }
+        spilledMessageCount = 0;
+    }
+
+    private static long getContentSize(Message message) {
+        Metadata metadata = message.getMetadata();
+        return Objects.isNull(metadata) ? 0 : metadata.getContentLength();
+    }
 }
@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.queue;
+
+/**
+ * Queue storage whose message content can be moved out of memory by the {@link QueueMemoryGovernor}.
+ */
+public interface PageableQueue {
+
+    /**
+     * Time the queue was last enqueued to or dequeued from.
+     *
+     * @return last access time in milliseconds
+     */
+    long getLastAccessTime();
+
+    /**
+     * Move the content of undelivered messages out of memory. Content is read back on demand as messages are
+     * dequeued.
+     *
+     * @param inMemoryLimit maximum number of messages kept in memory while the queue is paged out
+     */
+    void pageOut(int inMemoryLimit);
+
+    /**
+     * Allow the queue to keep its configured number of messages in memory again.
+     */
+    void pageIn();
+}
@@ -36,7 +36,7 @@ import java.util.function.Consumer;
 /**
  * Used to track messages for the queue.
  */
-public class QueueBuffer {
+public class QueueBuffer implements PageableQueue {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QueueBuffer.class);
 
@@ -54,6 +54,21 @@ public class QueueBuffer {
      */
     private final MessageReader messageReader;
 
+    /**
+     * Used to account the content held in memory by the buffer.
+     */
+    private final QueueMemoryGovernor memoryGovernor;
+
+    /**
+     * Maximum number of messages held in memory at the moment. Lowered while the buffer is paged out.
+     */
+    private volatile int activeInMemoryLimit;
+
+    /**
+     * Time the buffer was last added to or delivered from.
+     */
+    private volatile long lastAccessTime;
+
     /**
      * Size of the queue. i.e. in memory messages + DB messages.
      */
@@ -100,9 +115,17 @@ public class QueueBuffer {
     private Map<Long, Node> keyMap = new ConcurrentHashMap<>();
 
     QueueBuffer(int inMemoryLimit, int indelibleMessageLimit, MessageReader messageReader) {
+        this(inMemoryLimit, indelibleMessageLimit, messageReader, QueueMemoryGovernor.UNLIMITED);
+    }
+
+    QueueBuffer(int inMemoryLimit, int indelibleMessageLimit, MessageReader messageReader,
+                QueueMemoryGovernor memoryGovernor) {
         this.inMemoryLimit = inMemoryLimit;
+        this.activeInMemoryLimit = inMemoryLimit;
         this.indelibleMessageLimit = indelibleMessageLimit;
         this.messageReader = messageReader;
+        this.memoryGovernor = memoryGovernor;
+        this.lastAccessTime = System.currentTimeMillis();
     }
 
     /**
@@ -115,6 +138,25 @@ public class QueueBuffer {
         postProcessDeliverableNode();
     }
 
+    /**
+     * Append a batch of published messages while holding the buffer lock once. Non persistent messages are added as
+     * indelible messages.
+     *
+     * @param messages messages in publish order
+     * @return non persistent messages rejected since the indelible message limit was reached
+     */
+    public synchronized List<Message> addAllPublished(List<Message> messages) {
+        List<Message> rejectedMessages = new ArrayList<>(0);
+        for (Message message : messages) {
+            if (message.getMetadata().isPersistent()) {
+                add(message);
+            } else if (!addIndelibleMessage(message)) {
+                rejectedMessages.add(message);
+            }
+        }
+        return rejectedMessages;
+    }
+
     /**
      * Add messages as bare messages to the queue buffer. This means that broker has to fetch message data for each
      * and every message in this list.
@@ -158,6 +200,7 @@ public class QueueBuffer {
      * Links newMessage as last element.
      */
     private void linkLast(Message newMessage) {
+        lastAccessTime = System.currentTimeMillis();
         size.incrementAndGet();
         undeliveredMessageCount.incrementAndGet();
 
@@ -178,7 +221,7 @@ public class QueueBuffer {
      */
     private void postProcessDeliverableNode() {
         Node newNode = last;
-        if ((size.get() - indelibleMessageCount.get()) > inMemoryLimit) {
+        if ((size.get() - indelibleMessageCount.get()) > activeInMemoryLimit) {
 
             if (Objects.isNull(firstUndeliverable)) {
                 firstUndeliverable = newNode;
@@ -188,6 +231,7 @@ public class QueueBuffer {
         } else {
             newNode.state.set(Node.FULL_MESSAGE);
             deliverableMessageCount.incrementAndGet();
+            recordContentLoaded(newNode);
 
             if (Objects.isNull(firstDeliverableCandidate)) {
                 firstDeliverableCandidate = newNode;
@@ -212,6 +256,7 @@ public class QueueBuffer {
         Node newNode = last;
         newNode.state.set(Node.INDELIBLE_MESSAGE);
         indelibleMessageCount.incrementAndGet();
+        recordContentLoaded(newNode);
 
         if (Objects.isNull(firstUndeliverable)) {
             firstUndeliverable = newNode;
@@ -269,6 +314,7 @@ public class QueueBuffer {
             firstUndeliverable = next;
         }  
 
+        recordContentCleared(node);
         node.item = null;
         size.decrementAndGet();
         if (node.state.get() != Node.INDELIBLE_MESSAGE) {
@@ -315,6 +361,7 @@ public class QueueBuffer {
      */
     public synchronized Message getFirstDeliverable() {
 
+        lastAccessTime = System.currentTimeMillis();
         submitMessageReads();
         Node deliverableCandidate = firstDeliverableCandidate;
 
@@ -357,7 +404,7 @@ public class QueueBuffer {
     }
 
     private void submitMessageReads() {
-        int fillableMessageCount = inMemoryLimit - deliverableMessageCount.get();
+        int fillableMessageCount = activeInMemoryLimit - deliverableMessageCount.get();
 
         Node undeliverableNode = this.firstUndeliverable;
         while (fillableMessageCount > 0 && undeliverableNode != null) {
@@ -373,12 +420,13 @@ public class QueueBuffer {
         }
     }
 
-    public void markMessageFilled(Message message) {
+    public synchronized void markMessageFilled(Message message) {
         long messageId = message.getInternalId();
         Node node = keyMap.get(messageId);
         if (Objects.nonNull(node)) {
             node.state.set(Node.FULL_MESSAGE);
             deliverableMessageCount.incrementAndGet();
+            recordContentLoaded(node);
         } else {
             LOGGER.warn("Could not find message {} for marking content filling", messageId);
         }
@@ -417,6 +465,77 @@ public class QueueBuffer {
         return bufferSize;
     }
 
+    @Override
+    public long getLastAccessTime() {
+        return lastAccessTime;
+    }
+
+    /**
+     * Clear the content of undelivered messages beyond the given limit. Cleared messages are read back from the store
+     * when they get closer to delivery. Indelible messages are not paged out since they are not persisted.
+     *
+     * @param pagedInMemoryLimit maximum number of deliverable messages kept in memory
+     */
+    @Override
+    public synchronized void pageOut(int pagedInMemoryLimit) {
+        activeInMemoryLimit = Math.min(inMemoryLimit, pagedInMemoryLimit);
+
+        int retainedMessageCount = 0;
+        boolean beforeFirstUndeliverable = true;
+        Node firstClearedNode = null;
+        for (Node node = firstDeliverableCandidate; Objects.nonNull(node); node = node.next) {
+            if (node == firstUndeliverable) {
+                beforeFirstUndeliverable = false;
+            }
+
+            if (node.state.get() != Node.FULL_MESSAGE) {
+                continue;
+            }
+
+            if (retainedMessageCount < activeInMemoryLimit) {
+                retainedMessageCount++;
+            } else {
+                node.item.clearData();
+                node.state.set(Node.BARE_MESSAGE);
+                deliverableMessageCount.decrementAndGet();
+                recordContentCleared(node);
+                if (Objects.isNull(firstClearedNode) && beforeFirstUndeliverable) {
+                    firstClearedNode = node;
+                }
+            }
+        }
+
+        // Cleared messages need to be filled again before delivery
+        if (Objects.nonNull(firstClearedNode)) {
+            firstUndeliverable = firstClearedNode;
+        }
+    }
+
+    @Override
+    public void pageIn() {
+        activeInMemoryLimit = inMemoryLimit;
+    }
+
+    /**
+     * Stop the memory governor from paging out this buffer. Called when the queue is deleted.
+     */
+    public void close() {
+        memoryGovernor.unregister(this);
+    }
+
+    private void recordContentLoaded(Node node) {
+        long contentSize = node.item.getMetadata().getContentLength();
+        node.contentSize = contentSize;
+        memoryGovernor.allocate(contentSize);
+    }
+
+    private void recordContentCleared(Node node) {
+        if (node.contentSize > 0) {
+            memoryGovernor.release(node.contentSize);
+            node.contentSize = 0;
+        }
+    }
+
     private static class Node {
         private static final int BARE_MESSAGE = 0;
         private static final int SUBMITTED_FOR_FILLING = 1;
@@ -427,6 +546,11 @@ public class QueueBuffer {
         private Node prev;
         private AtomicInteger state = new AtomicInteger(BARE_MESSAGE);
 
+        /**
+         * Content bytes of the message accounted in the memory governor.
+         */
+        private long contentSize;
+
         Node(Node prev, Message element, Node next) {
             this.item = element;
             this.next = next;
@@ -20,19 +20,24 @@
 package io.ballerina.messaging.broker.core.queue;
 
 import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+
 /**
  * Factory class for {@link QueueBuffer}.
  */
 public class QueueBufferFactory {
     private final int indelibleMessageLimit;
+    private final QueueMemoryGovernor memoryGovernor;
     private int inMemoryCacheLimit;
 
-    public QueueBufferFactory(BrokerCoreConfiguration configuration) {
+    public QueueBufferFactory(BrokerCoreConfiguration configuration, QueueMemoryGovernor memoryGovernor) {
         inMemoryCacheLimit = Integer.parseInt(configuration.getDurableQueueInMemoryCacheLimit());
         indelibleMessageLimit = Integer.parseInt(configuration.getNonDurableQueueMaxDepth());
+        this.memoryGovernor = memoryGovernor;
     }
 
     public QueueBuffer createBuffer(QueueBuffer.MessageReader messageReader) {
-        return new QueueBuffer(inMemoryCacheLimit, indelibleMessageLimit, messageReader);
+        QueueBuffer buffer = new QueueBuffer(inMemoryCacheLimit, indelibleMessageLimit, messageReader, memoryGovernor);
+        memoryGovernor.register(buffer);
+        return buffer;
     }
 }
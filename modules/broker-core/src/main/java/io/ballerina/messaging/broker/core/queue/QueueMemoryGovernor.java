@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.queue;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Tracks the message content held in memory by all the queues of the node. Once the memory usage goes above the high
+ * watermark, content of the least recently accessed queues is paged out until the usage falls below the low
+ * watermark. Paged out queues keep only a small number of messages in memory and read the rest on demand. They are
+ * restored once the usage falls below the restore watermark.
+ */
+@ThreadSafe
+public class QueueMemoryGovernor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueueMemoryGovernor.class);
+
+    /**
+     * Governor used for queues that are never paged out. Memory usage is tracked but never acted upon.
+     */
+    static final QueueMemoryGovernor UNLIMITED = new QueueMemoryGovernor(Long.MAX_VALUE, Long.MAX_VALUE, 0,
+                                                                         Integer.MAX_VALUE, null);
+
+    private final long highWatermark;
+
+    private final long lowWatermark;
+
+    private final long restoreWatermark;
+
+    private final int pagedQueueInMemoryLimit;
+
+    private final Path spillDirectory;
+
+    /**
+     * Total content bytes held in memory by the queues using this governor.
+     */
+    private final AtomicLong bytesInMemory = new AtomicLong(0);
+
+    private final Set<PageableQueue> queues = ConcurrentHashMap.newKeySet();
+
+    private final Set<PageableQueue> pagedQueues = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean rebalanceScheduled = new AtomicBoolean(false);
+
+    /**
+     * Paging is done asynchronously since the accounting methods are called while holding queue locks.
+     */
+    private final ExecutorService executor;
+
+    public QueueMemoryGovernor(BrokerCoreConfiguration configuration) {
+        this(configuration.getQueueMemory().getHighWatermark(),
+             configuration.getQueueMemory().getLowWatermark(),
+             configuration.getQueueMemory().getRestoreWatermark(),
+             configuration.getQueueMemory().getPagedQueueInMemoryLimit(),
+             configuration.getQueueMemory().getSpillDirectory());
+    }
+
+    QueueMemoryGovernor(long highWatermark, long lowWatermark, long restoreWatermark, int pagedQueueInMemoryLimit,
+                        String spillDirectory) {
+        this.highWatermark = highWatermark;
+        this.lowWatermark = Math.min(lowWatermark, highWatermark);
+        this.restoreWatermark = Math.min(restoreWatermark, this.lowWatermark);
+        this.pagedQueueInMemoryLimit = Math.max(1, pagedQueueInMemoryLimit);
+        if (Objects.isNull(spillDirectory) || spillDirectory.isEmpty()) {
+            this.spillDirectory = Paths.get(System.getProperty("java.io.tmpdir"), "ballerina-broker-spill");
+        } else {
+            this.spillDirectory = Paths.get(spillDirectory);
+        }
+        ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("QueueMemoryGovernor-%d")
+                                                                .setDaemon(true)
+                                                                .build();
+        executor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Start governing the memory used by the given queue.
+     *
+     * @param queue {@link PageableQueue} to be paged out under memory pressure
+     */
+    public void register(PageableQueue queue) {
+        queues.add(queue);
+    }
+
+    /**
+     * Stop governing the given queue. Called when the queue is deleted.
+     *
+     * @param queue registered {@link PageableQueue}
+     */
+    public void unregister(PageableQueue queue) {
+        queues.remove(queue);
+        pagedQueues.remove(queue);
+    }
+
+    /**
+     * Record message content loaded into memory.
+     *
+     * @param bytes content size in bytes
+     */
+    public void allocate(long bytes) {
+        if (bytesInMemory.addAndGet(bytes) > highWatermark) {
+            scheduleRebalance();
+        }
+    }
+
+    /**
+     * Record message content released from memory.
+     *
+     * @param bytes content size in bytes
+     */
+    public void release(long bytes) {
+        if (bytesInMemory.addAndGet(-bytes) < restoreWatermark && !pagedQueues.isEmpty()) {
+            scheduleRebalance();
+        }
+    }
+
+    public long getBytesInMemory() {
+        return bytesInMemory.get();
+    }
+
+    public boolean isPagedOut(PageableQueue queue) {
+        return pagedQueues.contains(queue);
+    }
+
+    int getPagedQueueInMemoryLimit() {
+        return pagedQueueInMemoryLimit;
+    }
+
+    Path getSpillDirectory() {
+        return spillDirectory;
+    }
+
+    private void scheduleRebalance() {
+        if (rebalanceScheduled.compareAndSet(false, true)) {
+            executor.execute(this::rebalance);
+        }
+    }
+
+    void rebalance() {
+        rebalanceScheduled.set(false);
+        long usage = bytesInMemory.get();
+        if (usage > highWatermark) {
+            pageOutColdQueues();
+        } else if (usage < restoreWatermark) {
+            pageInQueues();
+        }
+    }
+
+    private void pageOutColdQueues() {
+        // Access times are captured once so that the ordering is stable while queues are being used.
+        Map<PageableQueue, Long> accessTimes = new HashMap<>();
+        for (PageableQueue queue : queues) {
+            if (!pagedQueues.contains(queue)) {
+                accessTimes.put(queue, queue.getLastAccessTime());
+            }
+        }
+        List<PageableQueue> candidates = new ArrayList<>(accessTimes.keySet());
+        candidates.sort(Comparator.comparingLong(accessTimes::get));
+
+        for (PageableQueue queue : candidates) {
+            if (bytesInMemory.get() <= lowWatermark) {
+                break;
+            }
+            pagedQueues.add(queue);
+            try {
+                queue.pageOut(pagedQueueInMemoryLimit);
+            } catch (RuntimeException e) {
+                LOGGER.error("Error while paging out queue {}", queue, e);
+            }
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Paged out queues. {} queues are paged out and {} bytes are held in memory",
+                         pagedQueues.size(), bytesInMemory.get());
+        }
+    }
+
+    private void pageInQueues() {
+        for (PageableQueue queue : pagedQueues) {
+            pagedQueues.remove(queue);
+            queue.pageIn();
+        }
+
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Paged in queues. {} bytes are held in memory", bytesInMemory.get());
+        }
+    }
+}
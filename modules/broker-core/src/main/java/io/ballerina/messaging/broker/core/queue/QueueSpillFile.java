@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.queue;
+
+import io.ballerina.messaging.broker.core.ContentChunk;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Local file used to hold the messages of a paged out in-memory queue. Messages are read back in the order they were
+ * written. The file is deleted when closed.
+ */
+@NotThreadSafe
+class QueueSpillFile implements Closeable {
+
+    private final FileChannel channel;
+
+    private long readPosition;
+
+    private long writePosition;
+
+    private int messageCount;
+
+    QueueSpillFile(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path path = Files.createTempFile(directory, "queue-", ".spill");
+        channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                                   StandardOpenOption.DELETE_ON_CLOSE);
+    }
+
+    /**
+     * Append the message to the end of the file. Caller should release the message once written.
+     *
+     * @param message message with content
+     * @throws IOException if the message cannot be written
+     */
+    void write(Message message) throws IOException {
+        Metadata metadata = message.getMetadata();
+        byte[] routingKey = metadata.getRoutingKey().getBytes(StandardCharsets.UTF_8);
+        byte[] exchangeName = metadata.getExchangeName().getBytes(StandardCharsets.UTF_8);
+        byte[] properties = metadata.getPropertiesAsBytes();
+        int contentSize = 0;
+        for (ContentChunk chunk : message.getContentChunks()) {
+            contentSize += chunk.getByteBuf().readableBytes();
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(Long.BYTES + Integer.BYTES * 5 + Long.BYTES
+                                                        + routingKey.length + exchangeName.length + properties.length);
+        header.putInt(header.capacity() - Integer.BYTES)
+              .putLong(message.getInternalId())
+              .putInt(message.getRedeliveryCount())
+              .putInt(routingKey.length).put(routingKey)
+              .putInt(exchangeName.length).put(exchangeName)
+              .putLong(metadata.getContentLength())
+              .putInt(properties.length).put(properties);
+        header.flip();
+        long position = writeFully(header, writePosition);
+
+        ByteBuffer contentSizeBuffer = ByteBuffer.allocate(Integer.BYTES).putInt(contentSize);
+        contentSizeBuffer.flip();
+        position = writeFully(contentSizeBuffer, position);
+        for (ContentChunk chunk : message.getContentChunks()) {
+            ByteBuf content = chunk.getByteBuf();
+            position = writeFully(content.nioBuffer(content.readerIndex(), content.readableBytes()), position);
+        }
+
+        writePosition = position;
+        messageCount++;
+    }
+
+    /**
+     * Read the oldest message in the file.
+     *
+     * @return message with content
+     * @throws IOException if the message cannot be read
+     */
+    Message read() throws IOException {
+        ByteBuffer headerSize = readFully(Integer.BYTES);
+        ByteBuffer header = readFully(headerSize.getInt());
+        long internalId = header.getLong();
+        int redeliveryCount = header.getInt();
+        String routingKey = readString(header);
+        String exchangeName = readString(header);
+        long contentLength = header.getLong();
+        byte[] properties = new byte[header.getInt()];
+        header.get(properties);
+
+        ByteBuffer contentSize = readFully(Integer.BYTES);
+        ByteBuffer content = readFully(contentSize.getInt());
+
+        Metadata metadata;
+        try {
+            metadata = new Metadata(routingKey, exchangeName, contentLength, properties);
+        } catch (Exception e) {
+            throw new IOException("Error while decoding properties of message " + internalId, e);
+        }
+        Message message = new Message(internalId, metadata);
+        message.addChunk(new ContentChunk(0, Unpooled.wrappedBuffer(content)));
+        for (int i = 0; i < redeliveryCount; i++) {
+            message.setRedeliver();
+        }
+
+        messageCount--;
+        if (messageCount == 0) {
+            truncate();
+        }
+        return message;
+    }
+
+    /**
+     * Number of messages that are yet to be read.
+     */
+    int size() {
+        return messageCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void truncate() throws IOException {
+        channel.truncate(0);
+        readPosition = 0;
+        writePosition = 0;
+    }
+
+    private long writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+
+    private ByteBuffer readFully(int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            int bytesRead = channel.read(buffer, readPosition);
+            if (bytesRead < 0) {
+                throw new IOException("Unexpected end of spill file at position " + readPosition);
+            }
+            readPosition += bytesRead;
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
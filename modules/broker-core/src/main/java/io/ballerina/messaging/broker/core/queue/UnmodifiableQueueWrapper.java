@@ -24,6 +24,7 @@ import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.Queue;
 import io.ballerina.messaging.broker.core.QueueHandler;
 
+import java.util.Collection;
 import javax.transaction.xa.Xid;
 
 /**
@@ -83,6 +84,11 @@ public class UnmodifiableQueueWrapper extends Queue {
         throw new UnsupportedOperationException("Queue " + queue.getName() + " is unmodifiable");
     }
 
+    @Override
+    public void detach(Collection<DetachableMessage> detachableMessages) {
+        throw new UnsupportedOperationException("Queue " + queue.getName() + " is unmodifiable");
+    }
+
     @Override
     public void prepareDetach(Xid xid, DetachableMessage message) {
         throw new UnsupportedOperationException("Queue " + queue.getName() + " is unmodifiable");
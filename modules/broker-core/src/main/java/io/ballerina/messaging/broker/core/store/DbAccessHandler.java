@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -73,6 +74,7 @@ public class DbAccessHandler implements EventHandler<DbOperation> {
             case INSERT_MESSAGE:
             case DELETE_MESSAGE:
             case DETACH_MSG_FROM_QUEUE:
+            case COMMIT_TRANSACTION:
                 transactionEvents.add(event);
                 break;
             case READ_MSG_DATA:
@@ -93,19 +95,77 @@ public class DbAccessHandler implements EventHandler<DbOperation> {
     private void processTransactions(boolean endOfBatch) {
         if (isBatchReady(endOfBatch, transactionEvents)) {
             try {
-                clusterTransactionEvents();
-                messageDao.persist(transactionData);
+                persist(transactionEvents);
+                notifyPublishComplete(transactionEvents, true);
             } catch (DaoException e) {
-                transactionEvents.forEach(eventObject -> eventObject.setExceptionObject(e));
+                if (transactionEvents.size() == 1) {
+                    notifyFailure(transactionEvents, e);
+                } else {
+                    // Operations of different publishers and client transactions are merged into a single store
+                    // transaction. Persist them one by one so that only the offending operation fails.
+                    LOGGER.warn("Persisting a batch of {} operations failed. Retrying operations individually",
+                                transactionEvents.size(), e);
+                    transactionEvents.forEach(this::persistIndividually);
+                }
             } finally {
-                transactionData.clear();
                 transactionEvents.clear();
             }
         }
     }
 
-    private void clusterTransactionEvents() {
-        transactionEvents.forEach(txEvent -> {
+    private void persistIndividually(DbOperation txEvent) {
+        List<DbOperation> events = Collections.singletonList(txEvent);
+        try {
+            persist(events);
+            notifyPublishComplete(events, true);
+        } catch (DaoException e) {
+            notifyFailure(events, e);
+        }
+    }
+
+    private void persist(List<DbOperation> events) throws DaoException {
+        try {
+            clusterTransactionEvents(events);
+            messageDao.persist(transactionData);
+        } finally {
+            transactionData.clear();
+        }
+    }
+
+    private void notifyFailure(List<DbOperation> events, DaoException exception) {
+        events.forEach(eventObject -> eventObject.setExceptionObject(exception));
+        notifyPublishComplete(events, false);
+        notifyCommitFailure(events, exception);
+    }
+
+    /**
+     * Notify publishers of the messages inserted with the given operations. All the inserts of a batch are committed
+     * together, hence the notifications are raised back to back allowing the transport to coalesce them. Client
+     * transactions committed with the batch are completed as well.
+     *
+     * @param events  persisted operations
+     * @param success true if the operations were committed
+     */
+    private void notifyPublishComplete(List<DbOperation> events, boolean success) {
+        for (DbOperation txEvent : events) {
+            if (txEvent.getType() == DbOperation.DbOpType.INSERT_MESSAGE) {
+                txEvent.getMessage().notifyPublishComplete(success);
+            } else if (success && txEvent.getType() == DbOperation.DbOpType.COMMIT_TRANSACTION) {
+                txEvent.getCommitFuture().complete(null);
+            }
+        }
+    }
+
+    private void notifyCommitFailure(List<DbOperation> events, DaoException exception) {
+        for (DbOperation txEvent : events) {
+            if (txEvent.getType() == DbOperation.DbOpType.COMMIT_TRANSACTION) {
+                txEvent.getCommitFuture().completeExceptionally(exception);
+            }
+        }
+    }
+
+    private void clusterTransactionEvents(List<DbOperation> events) {
+        events.forEach(txEvent -> {
             switch (txEvent.getType()) {
                 case INSERT_MESSAGE:
                     transactionData.addEnqueueMessage(txEvent.getMessage());
@@ -116,6 +176,9 @@ public class DbAccessHandler implements EventHandler<DbOperation> {
                 case DETACH_MSG_FROM_QUEUE:
                     transactionData.detach(txEvent.getQueueName(), txEvent.getMessageId());
                     break;
+                case COMMIT_TRANSACTION:
+                    transactionData.addAll(txEvent.getTransactionData());
+                    break;
                 default:
                     LOGGER.error("Invalid transaction event collected {}", txEvent.getType());
             }
@@ -73,6 +73,7 @@ public class DbEventMatcher implements EventHandler<DbOperation> {
                          .add(event);
                 break;
             case READ_MSG_DATA:
+            case COMMIT_TRANSACTION:
             case NO_OP:
                 break;
             default:
@@ -115,6 +116,8 @@ public class DbEventMatcher implements EventHandler<DbOperation> {
         DbOperation insertRequest;
         if ((insertRequest = insertMap.remove(internalId)) != null) {
             if (insertRequest.acquireToProcess()) {
+                // Message is already consumed, hence there is nothing left to persist before accepting it
+                insertRequest.getMessage().notifyPublishComplete(true);
                 insertRequest.clear();
 
                 event.clear();
@@ -32,6 +32,8 @@ import io.ballerina.messaging.broker.core.store.dao.MessageDao;
 import io.ballerina.messaging.broker.core.store.disruptor.SleepingBlockingWaitStrategy;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 import javax.annotation.concurrent.ThreadSafe;
@@ -59,8 +61,17 @@ public class DbMessageStore extends MessageStore {
     private static final EventTranslatorTwoArg<DbOperation, QueueBuffer, Message> READ_MESSAGE_DATA =
             (event, sequence, queueBuffer, message) -> event.readMessageData(queueBuffer, message);
 
+    private static final EventTranslatorTwoArg<DbOperation, TransactionData, CompletableFuture<Void>>
+            COMMIT_TRANSACTION = (event, sequence, transactionData, commitFuture) ->
+            event.commitTransaction(transactionData, commitFuture);
+
     private final MessageDao messageDao;
 
+    /**
+     * Size of the ring buffer, which is the largest batch that can be claimed at once.
+     */
+    private final int bufferSize;
+
     @SuppressWarnings("unchecked")
     DbMessageStore(MessageDao messageDao, int bufferSize, int maxDbBatchSize) {
         ThreadFactory namedThreadFactory = new ThreadFactoryBuilder()
@@ -77,6 +88,7 @@ public class DbMessageStore extends MessageStore {
                  .then(new FinalEventHandler());
         disruptor.start();
         this.messageDao = messageDao;
+        this.bufferSize = bufferSize;
     }
 
     @Override
@@ -84,6 +96,15 @@ public class DbMessageStore extends MessageStore {
         disruptor.publishEvent(INSERT_MESSAGE, message);
     }
 
+    @Override
+    void publishMessagesToStore(List<Message> messages) {
+        Message[] batch = messages.toArray(new Message[0]);
+        for (int start = 0; start < batch.length; start += bufferSize) {
+            disruptor.getRingBuffer().publishEvents(INSERT_MESSAGE, start,
+                                                    Math.min(bufferSize, batch.length - start), batch);
+        }
+    }
+
     @Override
     void detachFromQueue(String queueName, long messageId) {
         disruptor.publishEvent(DETACH_FROM_QUEUE, queueName, messageId);
@@ -94,13 +115,18 @@ public class DbMessageStore extends MessageStore {
         disruptor.publishEvent(DELETE_MESSAGE, messageId);
     }
 
+    /**
+     * Commit the transaction through the disruptor so that transactions committed concurrently are persisted
+     * within a single database transaction along with the other write operations of the batch.
+     *
+     * @param transactionData operations of the transaction
+     * @return future completed by the disruptor thread once the batch containing the transaction is persisted
+     */
     @Override
-    void commit(TransactionData transactionData) throws BrokerException {
-        try {
-            messageDao.persist(transactionData);
-        } catch (DaoException e) {
-            throw new BrokerException(e.getMessage(), e);
-        }
+    CompletableFuture<Void> commit(TransactionData transactionData) {
+        CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+        disruptor.publishEvent(COMMIT_TRANSACTION, transactionData, commitFuture);
+        return commitFuture;
     }
 
     @Override
@@ -24,6 +24,7 @@ import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.queue.QueueBuffer;
 
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -46,6 +47,7 @@ public class DbOperation {
         DETACH_MSG_FROM_QUEUE,
         DELETE_MESSAGE,
         READ_MSG_DATA,
+        COMMIT_TRANSACTION,
         NO_OP;
     }
     /**
@@ -83,6 +85,10 @@ public class DbOperation {
 
     private Message bareMessage;
 
+    private TransactionData transactionData;
+
+    private CompletableFuture<Void> commitFuture;
+
     private DbOperation() {
         type = DbOpType.NO_OP;
         this.state = new AtomicInteger(AVAILABLE);
@@ -117,6 +123,18 @@ public class DbOperation {
         this.queueName = queueName;
     }
 
+    /**
+     * Commit the operations of a client transaction as part of the next database batch.
+     *
+     * @param transactionData operations of the transaction
+     * @param commitFuture    future completed once the batch containing the transaction is committed
+     */
+    public void commitTransaction(TransactionData transactionData, CompletableFuture<Void> commitFuture) {
+        type = DbOpType.COMMIT_TRANSACTION;
+        this.transactionData = transactionData;
+        this.commitFuture = commitFuture;
+    }
+
     public void readMessageData(QueueBuffer queueBuffer, Message message) {
         type = DbOpType.READ_MSG_DATA;
         this.bareMessage = message;
@@ -145,6 +163,20 @@ public class DbOperation {
         return queueBuffer;
     }
 
+    /**
+     * Getter for transactionData.
+     */
+    public TransactionData getTransactionData() {
+        return transactionData;
+    }
+
+    /**
+     * Getter for commitFuture.
+     */
+    public CompletableFuture<Void> getCommitFuture() {
+        return commitFuture;
+    }
+
     public DbOpType getType() {
         return type;
     }
@@ -168,6 +200,8 @@ public class DbOperation {
         }
         bareMessage = null;
         queueBuffer = null;
+        transactionData = null;
+        commitFuture = null;
         messageId = -1;
         queueName = null;
         exceptionObject = null;
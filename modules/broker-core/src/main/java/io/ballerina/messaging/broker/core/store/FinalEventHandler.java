@@ -59,6 +59,7 @@ public class FinalEventHandler implements EventHandler<DbOperation> {
                 case INSERT_MESSAGE:
                 case DELETE_MESSAGE:
                 case DETACH_MSG_FROM_QUEUE:
+                case COMMIT_TRANSACTION:
                 case NO_OP:
                     break;
                 default:
@@ -85,6 +86,8 @@ public class FinalEventHandler implements EventHandler<DbOperation> {
                              event,
                              exceptionObject);
                 break;
+            case COMMIT_TRANSACTION:
+                // Failure is reported back to the committing client through the commit future
             case NO_OP:
                 break;
             default:
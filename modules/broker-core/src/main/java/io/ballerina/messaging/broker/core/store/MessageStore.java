@@ -24,11 +24,14 @@ import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.queue.QueueBuffer;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 import javax.transaction.xa.Xid;
 
@@ -78,13 +81,28 @@ public abstract class MessageStore {
     }
 
     public synchronized void detach(String queueName, DetachableMessage message) {
+        detachMessage(queueName, message);
+    }
+
+    /**
+     * Detach a batch of messages from a queue while holding the store lock once.
+     *
+     * @param queueName name of the queue
+     * @param messages  messages to be detached
+     */
+    public synchronized void detach(String queueName, Collection<DetachableMessage> messages) {
+        for (DetachableMessage message : messages) {
+            detachMessage(queueName, message);
+        }
+    }
+
+    private void detachMessage(String queueName, DetachableMessage message) {
         message.removeAttachedDurableQueue(queueName);
         if (!message.hasAttachedDurableQueues()) {
             deleteMessage(message.getInternalId());
         } else {
             detachFromQueue(queueName, message.getInternalId());
         }
-
     }
 
     public synchronized void detach(Xid xid, String queueName, DetachableMessage message) throws BrokerException {
@@ -101,26 +119,77 @@ public abstract class MessageStore {
             if (message.hasAttachedDurableQueues()) {
                 publishMessageToStore(message);
             } else {
+                // Nothing to persist, hence the message is accepted once routed
+                message.notifyPublishComplete(true);
                 message.release();
             }
         }
     }
 
+    /**
+     * Persist a batch of routed messages with a single hand over to the store. Messages that are not attached to a
+     * durable queue are accepted right away.
+     *
+     * @param internalMessageIds ids of the messages added to the store, in publish order
+     */
+    public void flush(Collection<Long> internalMessageIds) {
+        List<Message> durableMessages = new ArrayList<>(internalMessageIds.size());
+        for (Long internalMessageId : internalMessageIds) {
+            Message message = pendingMessages.remove(internalMessageId);
+            if (message != null) {
+                if (message.hasAttachedDurableQueues()) {
+                    durableMessages.add(message);
+                } else {
+                    message.notifyPublishComplete(true);
+                    message.release();
+                }
+            }
+        }
+        if (!durableMessages.isEmpty()) {
+            publishMessagesToStore(durableMessages);
+        }
+    }
+
     public void prepare(Xid xid) throws BrokerException {
         prepare(xid, getTransactionData(xid));
     }
 
     public void flush(Xid xid, boolean onePhase) throws BrokerException {
-        TransactionData transactionData = getTransactionData(xid);
-        updateDeletableMessages(transactionData);
         if (onePhase) {
-            commit(transactionData);
-        } else {
-            commit(xid, transactionData);
+            awaitCommit(flushAsync(xid));
+            return;
         }
+        TransactionData transactionData = getTransactionData(xid);
+        updateDeletableMessages(transactionData);
+        commit(xid, transactionData);
         clear(xid);
     }
 
+    /**
+     * Commit the transaction using the one-phase optimization without waiting for the store. Transaction data is
+     * cleared once the commit succeeds. On failure the data is kept so that the transaction can be rolled back.
+     *
+     * @param xid Xid of the transaction
+     * @return future completed once the operations of the transaction are persisted
+     * @throws BrokerException if the Xid is unknown
+     */
+    public CompletableFuture<Void> flushAsync(Xid xid) throws BrokerException {
+        TransactionData transactionData = getTransactionData(xid);
+        updateDeletableMessages(transactionData);
+        return commit(transactionData).thenRun(() -> clear(xid));
+    }
+
+    private static void awaitCommit(CompletableFuture<Void> commitFuture) throws BrokerException {
+        try {
+            commitFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BrokerException("Interrupted while committing the transaction", e);
+        } catch (ExecutionException e) {
+            throw new BrokerException(e.getCause().getMessage(), e.getCause());
+        }
+    }
+
     private void updateDeletableMessages(TransactionData transactionData) {
         Map<String, List<DetachableMessage>> preparedDetachEventMap = transactionData.getPreparedDetachEventMap();
         for (Map.Entry<String, List<DetachableMessage>> entry: preparedDetachEventMap.entrySet()) {
@@ -153,11 +222,17 @@ public abstract class MessageStore {
 
     abstract void publishMessageToStore(Message message);
 
+    void publishMessagesToStore(List<Message> messages) {
+        for (Message message : messages) {
+            publishMessageToStore(message);
+        }
+    }
+
     abstract void detachFromQueue(String queueName, long messageId);
 
     abstract void deleteMessage(long messageId);
 
-    abstract void commit(TransactionData transactionData) throws BrokerException;
+    abstract CompletableFuture<Void> commit(TransactionData transactionData);
 
     abstract void commit(Xid xid, TransactionData transactionData) throws BrokerException;
 
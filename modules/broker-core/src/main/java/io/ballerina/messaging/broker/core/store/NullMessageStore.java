@@ -25,6 +25,7 @@ import io.ballerina.messaging.broker.core.queue.QueueBuffer;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import javax.transaction.xa.Xid;
 
@@ -35,6 +36,7 @@ public class NullMessageStore extends MessageStore {
 
     @Override
     void publishMessageToStore(Message message) {
+        message.notifyPublishComplete(true);
         message.release();
     }
 
@@ -49,8 +51,8 @@ public class NullMessageStore extends MessageStore {
     }
 
     @Override
-    void commit(TransactionData transactionData) {
-        // Do nothing
+    CompletableFuture<Void> commit(TransactionData transactionData) {
+        return CompletableFuture.completedFuture(null);
     }
 
     @Override
@@ -38,6 +38,10 @@ public class QueueDetachEventList {
         queueDetachRequests.add(messageId);
     }
 
+    void addAll(QueueDetachEventList detachEventList) {
+        queueDetachRequests.addAll(detachEventList.queueDetachRequests);
+    }
+
     public List<Long> getMessageIds() {
         return queueDetachRequests;
     }
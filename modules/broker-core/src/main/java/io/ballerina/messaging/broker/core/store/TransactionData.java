@@ -83,6 +83,22 @@ public class TransactionData {
         deleteMessageIdList.add(internalMessageId);
     }
 
+    /**
+     * Add the enqueue, detach and delete operations of another transaction to this transaction. Messages are not
+     * copied, hence the other transaction should not be cleared until this transaction is persisted.
+     *
+     * @param transactionData transaction whose operations are added
+     */
+    void addAll(TransactionData transactionData) {
+        enqueueMessages.putAll(transactionData.enqueueMessages);
+        for (Map.Entry<String, QueueDetachEventList> entry : transactionData.detachMessageMap.entrySet()) {
+            detachMessageMap.computeIfAbsent(entry.getKey(), k -> new QueueDetachEventList())
+                            .addAll(entry.getValue());
+        }
+        detachOperationsCount += transactionData.detachOperationsCount;
+        deleteMessageIdList.addAll(transactionData.deleteMessageIdList);
+    }
+
     public Collection<Message> getEnqueueMessages() {
         return enqueueMessages.values();
     }
@@ -19,7 +19,6 @@
 
 package io.ballerina.messaging.broker.core.store.dao.impl;
 
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import io.ballerina.messaging.broker.common.BaseDao;
 import io.ballerina.messaging.broker.common.DaoException;
 import io.ballerina.messaging.broker.core.Broker;
@@ -36,6 +35,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -73,19 +73,31 @@ public class DtxCrudOperationsDao extends BaseDao {
         return internalXid;
     }
 
+    /**
+     * Write the enqueued messages of a transaction branch to the message tables. Queue attachments of the messages
+     * are marked with the internal Xid, which keeps the messages invisible to queues until the branch is committed.
+     *
+     * @param connection      database connection
+     * @param internalXid     internal Xid of the branch
+     * @param enqueueMessages messages enqueued within the branch
+     * @throws SQLException if the messages cannot be written
+     */
     void prepareEnqueueMessages(Connection connection, long internalXid,
                                 Collection<Message> enqueueMessages) throws SQLException {
         PreparedStatement insertMetadataStatement = null;
         PreparedStatement insertContentStatement = null;
         PreparedStatement insertToQueueStatement = null;
         try {
-            insertMetadataStatement = connection.prepareStatement(RDBMSConstants.PS_DTX_INSERT_ENQUEUE_METADATA);
-            insertContentStatement = connection.prepareStatement(RDBMSConstants.PS_DTX_INSERT_ENQUEUE_CONTENT);
+            insertMetadataStatement = connection.prepareStatement(RDBMSConstants.PS_INSERT_METADATA);
+            insertContentStatement = connection.prepareStatement(RDBMSConstants.PS_INSERT_CONTENT);
             insertToQueueStatement = connection.prepareStatement(RDBMSConstants.PS_DTX_INSERT_QUEUE_ATTACHMENTS);
 
             for (Message message : enqueueMessages) {
-                prepareMetadataBatch(internalXid, insertMetadataStatement, message);
-                prepareContentBatches(internalXid, insertContentStatement, message);
+                if (!message.hasAttachedDurableQueues()) {
+                    continue;
+                }
+                prepareMetadataBatch(insertMetadataStatement, message);
+                prepareContentBatches(insertContentStatement, message);
                 prepareQueueAttachments(internalXid, insertToQueueStatement, message);
             }
 
@@ -99,29 +111,27 @@ public class DtxCrudOperationsDao extends BaseDao {
         }
     }
 
-    private void prepareContentBatches(long internalXid, PreparedStatement insertContentStatement, Message message)
+    private void prepareContentBatches(PreparedStatement insertContentStatement, Message message)
             throws SQLException {
         List<ContentChunk> contentChunks = message.getContentChunks();
         long contentLength = message.getMetadata().getContentLength();
 
         List<ContentChunk> convertedChunks = chunkConverter.convert(contentChunks, (int) contentLength);
         for (ContentChunk contentChunk : convertedChunks) {
-            insertContentStatement.setLong(1, internalXid);
-            insertContentStatement.setLong(2, message.getInternalId());
-            insertContentStatement.setLong(3, contentChunk.getOffset());
-            insertContentStatement.setBytes(4, contentChunk.getBytes());
+            insertContentStatement.setLong(1, message.getInternalId());
+            insertContentStatement.setLong(2, contentChunk.getOffset());
+            insertContentStatement.setBytes(3, contentChunk.getBytes());
             insertContentStatement.addBatch();
         }
     }
 
-    private void prepareMetadataBatch(long internalXid, PreparedStatement insertMetadataStatement, Message message)
+    private void prepareMetadataBatch(PreparedStatement insertMetadataStatement, Message message)
             throws SQLException {
-        insertMetadataStatement.setLong(1, internalXid);
-        insertMetadataStatement.setLong(2, message.getInternalId());
-        insertMetadataStatement.setString(3, message.getMetadata().getExchangeName());
-        insertMetadataStatement.setString(4, message.getMetadata().getRoutingKey());
-        insertMetadataStatement.setLong(5, message.getMetadata().getContentLength());
-        insertMetadataStatement.setBytes(6, message.getMetadata().getPropertiesAsBytes());
+        insertMetadataStatement.setLong(1, message.getInternalId());
+        insertMetadataStatement.setString(2, message.getMetadata().getExchangeName());
+        insertMetadataStatement.setString(3, message.getMetadata().getRoutingKey());
+        insertMetadataStatement.setLong(4, message.getMetadata().getContentLength());
+        insertMetadataStatement.setBytes(5, message.getMetadata().getPropertiesAsBytes());
         insertMetadataStatement.addBatch();
     }
 
@@ -129,9 +139,9 @@ public class DtxCrudOperationsDao extends BaseDao {
                                          Message message) throws SQLException {
         long id = message.getInternalId();
         for (String queueName : message.getAttachedDurableQueues()) {
-            insertToQueueStmt.setLong(1, internalXid);
-            insertToQueueStmt.setLong(2, id);
-            insertToQueueStmt.setString(3, queueName);
+            insertToQueueStmt.setLong(1, id);
+            insertToQueueStmt.setString(2, queueName);
+            insertToQueueStmt.setLong(3, internalXid);
             insertToQueueStmt.addBatch();
         }
     }
@@ -158,23 +168,49 @@ public class DtxCrudOperationsDao extends BaseDao {
         }
     }
 
-    public void copyEnqueueMessages(Connection connection, long internalXid) throws SQLException {
-        copyFromPreparedTables(connection, internalXid, RDBMSConstants.PS_DTX_COPY_ENQUEUE_METADATA);
-        copyFromPreparedTables(connection, internalXid, RDBMSConstants.PS_DTX_COPY_ENQUEUE_CONTENT);
-        copyFromPreparedTables(connection, internalXid, RDBMSConstants.PS_DTX_COPY_ENQUEUE_QUEUE_ATTACHEMENTS);
+    /**
+     * Make the messages enqueued within a prepared branch visible to the queues.
+     *
+     * @param connection  database connection
+     * @param internalXid internal Xid of the branch
+     * @throws SQLException if the queue attachments cannot be updated
+     */
+    public void commitEnqueueMessages(Connection connection, long internalXid) throws SQLException {
+        PreparedStatement commitStatement = null;
+        try {
+            commitStatement = connection.prepareStatement(RDBMSConstants.PS_DTX_COMMIT_QUEUE_ATTACHMENTS);
+            commitStatement.setLong(1, internalXid);
+            commitStatement.executeUpdate();
+        } finally {
+            close(commitStatement);
+        }
     }
 
-    @SuppressFBWarnings("SQL_PREPARED_STATEMENT_GENERATED_FROM_NONCONSTANT_STRING")
-    private void copyFromPreparedTables(Connection connection, long internalXid,
-                                        String sqlString) throws SQLException {
-        PreparedStatement copyStatement = null;
+    /**
+     * Retrieve the ids of the messages enqueued within a prepared branch.
+     *
+     * @param connection  database connection
+     * @param internalXid internal Xid of the branch
+     * @return internal message ids of the enqueued messages
+     * @throws SQLException if the message ids cannot be read
+     */
+    public Collection<Long> retrieveEnqueuedMessageIds(Connection connection, long internalXid)
+            throws SQLException {
+        PreparedStatement statement = null;
+        ResultSet resultSet = null;
+        List<Long> messageIds = new ArrayList<>();
         try {
-            copyStatement = connection.prepareStatement(sqlString);
-            copyStatement.setLong(1, internalXid);
-            copyStatement.execute();
+            statement = connection.prepareStatement(RDBMSConstants.PS_DTX_SELECT_ENQUEUED_MESSAGE_IDS);
+            statement.setLong(1, internalXid);
+            resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                messageIds.add(resultSet.getLong(1));
+            }
         } finally {
-            close(copyStatement);
+            close(resultSet);
+            close(statement);
         }
+        return messageIds;
     }
 
     public void removePreparedData(Connection connection, long internalXid) throws SQLException {
@@ -28,6 +28,7 @@ import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.Metadata;
 import io.ballerina.messaging.broker.core.metrics.BrokerMetricManager;
 import io.ballerina.messaging.broker.core.store.QueueDetachEventList;
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import org.wso2.carbon.metrics.core.Timer.Context;
 
@@ -48,6 +49,12 @@ import javax.sql.DataSource;
  */
 class MessageCrudOperationsDao extends BaseDao {
 
+    /**
+     * Pending content batch is executed once it holds this many bytes. Keeps the heap copies of content made for
+     * the batch bounded when persisting large messages.
+     */
+    private static final int CONTENT_BATCH_BYTES_LIMIT = 4 * 1024 * 1024;
+
     private final BrokerMetricManager metricManager;
     private final ChunkConverter chunkConverter;
 
@@ -80,10 +87,14 @@ class MessageCrudOperationsDao extends BaseDao {
 
             for (Message message : messageList) {
                 prepareMetadata(metadataStmt, message);
-                prepareContent(contentStmt, message);
                 prepareQueueAttachments(insertToQueueStmt, message);
             }
+            // Metadata is inserted first since content batches may be executed while content is being prepared
             metadataStmt.executeBatch();
+            long batchedBytes = 0;
+            for (Message message : messageList) {
+                batchedBytes = prepareContent(contentStmt, message, batchedBytes);
+            }
             contentStmt.executeBatch();
             insertToQueueStmt.executeBatch();
 
@@ -106,17 +117,48 @@ class MessageCrudOperationsDao extends BaseDao {
         }
     }
 
-    private void prepareContent(PreparedStatement contentStmt, Message message) throws SQLException {
+    /**
+     * Add the content of the message to the content batch, executing the batch whenever it reaches
+     * {@link #CONTENT_BATCH_BYTES_LIMIT}. Each chunk is written as rows of at most the persisted chunk size so that
+     * large chunks, such as the mapped content of spooled messages, are never copied to the heap as a whole.
+     *
+     * @param contentStmt  content insert statement
+     * @param message      message with content
+     * @param batchedBytes content bytes already added to the pending batch
+     * @return content bytes in the pending batch after adding the message content
+     * @throws SQLException if a batch execution fails
+     */
+    private long prepareContent(PreparedStatement contentStmt, Message message, long batchedBytes)
+            throws SQLException {
         List<ContentChunk> contentChunks = message.getContentChunks();
         long contentLength = message.getMetadata().getContentLength();
 
         List<ContentChunk> convertedChunks = chunkConverter.convert(contentChunks, contentLength);
+        int maxRowSize = chunkConverter.getMaxChunkSizeLimit();
         for (ContentChunk chunk : convertedChunks) {
-            contentStmt.setLong(1, message.getInternalId());
-            contentStmt.setLong(2, chunk.getOffset());
-            contentStmt.setBytes(3, chunk.getBytes());
-            contentStmt.addBatch();
+            ByteBuf content = chunk.getByteBuf();
+            int index = content.readerIndex();
+            int remaining = content.readableBytes();
+            long offset = chunk.getOffset();
+            while (remaining > 0) {
+                byte[] row = new byte[Math.min(remaining, maxRowSize)];
+                content.getBytes(index, row);
+                contentStmt.setLong(1, message.getInternalId());
+                contentStmt.setLong(2, offset);
+                contentStmt.setBytes(3, row);
+                contentStmt.addBatch();
+
+                index += row.length;
+                offset += row.length;
+                remaining -= row.length;
+                batchedBytes += row.length;
+                if (batchedBytes >= CONTENT_BATCH_BYTES_LIMIT) {
+                    contentStmt.executeBatch();
+                    batchedBytes = 0;
+                }
+            }
         }
+        return batchedBytes;
     }
 
     private void prepareMetadata(PreparedStatement metadataStmt, Message message) throws SQLException {
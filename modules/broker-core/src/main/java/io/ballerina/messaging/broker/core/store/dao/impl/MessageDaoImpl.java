@@ -89,7 +89,7 @@ class MessageDaoImpl implements MessageDao {
 
         dtxCrudOperationsDao.transaction(connection -> {
             long internalXid = getInternalXid(xid);
-            dtxCrudOperationsDao.copyEnqueueMessages(connection, internalXid);
+            dtxCrudOperationsDao.commitEnqueueMessages(connection, internalXid);
             crudOperationsDao.delete(connection, transactionData.getDeletableMessage());
             dtxCrudOperationsDao.removePreparedData(connection, internalXid);
         });
@@ -101,6 +101,8 @@ class MessageDaoImpl implements MessageDao {
         dtxCrudOperationsDao.transaction(connection -> {
             long internalXid = getInternalXid(xid);
             if (internalXid != INVALID_XID) {
+                crudOperationsDao.delete(connection,
+                                         dtxCrudOperationsDao.retrieveEnqueuedMessageIds(connection, internalXid));
                 dtxCrudOperationsDao.restoreDequeueMessages(connection, internalXid);
                 dtxCrudOperationsDao.removePreparedData(connection, internalXid);
             }
@@ -71,42 +71,27 @@ final class RDBMSConstants {
 
     public static final String PS_SELECT_MESSAGES_FOR_QUEUE =
             "SELECT MB_QUEUE_MAPPING.MESSAGE_ID, QUEUE_NAME "
-                    + "FROM (SELECT MESSAGE_ID FROM MB_QUEUE_MAPPING WHERE QUEUE_NAME=?) AS QUEUE_MESSAGES "
+                    + "FROM (SELECT MESSAGE_ID FROM MB_QUEUE_MAPPING WHERE QUEUE_NAME=? AND DTX_XID IS NULL) "
+                    + "AS QUEUE_MESSAGES "
                     + "INNER JOIN MB_QUEUE_MAPPING "
                     + "ON QUEUE_MESSAGES.MESSAGE_ID=MB_QUEUE_MAPPING.MESSAGE_ID "
+                    + "WHERE MB_QUEUE_MAPPING.DTX_XID IS NULL "
                     + "ORDER BY QUEUE_MESSAGES.MESSAGE_ID";
 
     public static final String PS_DTX_INSERT_XID =
             "INSERT INTO MB_DTX_XID (INTERNAL_XID, FORMAT_CODE, GLOBAL_ID, BRANCH_ID) VALUES (?,?,?,?)";
 
-    public static final String PS_DTX_INSERT_ENQUEUE_METADATA =
-            "INSERT INTO MB_DTX_ENQUEUE_METADATA "
-                    + "(INTERNAL_XID, MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA) "
-                    + "VALUES (?,?,?,?,?,?)";
-
-    public static final String PS_DTX_INSERT_ENQUEUE_CONTENT =
-            "INSERT INTO MB_DTX_ENQUEUE_CONTENT "
-                    + "(INTERNAL_XID, MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT) VALUES (?,?,?,?)";
-
     public static final String PS_DTX_INSERT_QUEUE_ATTACHMENTS =
-            "INSERT INTO MB_DTX_ENQUEUE_MAPPING (INTERNAL_XID, MESSAGE_ID, QUEUE_NAME) VALUES(?,?,?)";
+            "INSERT INTO MB_QUEUE_MAPPING (MESSAGE_ID, QUEUE_NAME, DTX_XID) VALUES(?,?,?)";
 
     public static final String PS_DTX_INSERT_DEQUEUE_MAPPING =
             "INSERT INTO MB_DTX_DEQUEUE_MAPPING (INTERNAL_XID, MESSAGE_ID, QUEUE_NAME) VALUES(?,?,?)";
 
-    public static final String PS_DTX_COPY_ENQUEUE_METADATA =
-            "INSERT INTO MB_METADATA (MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA) "
-                    + "SELECT MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA "
-                    + "FROM MB_DTX_ENQUEUE_METADATA WHERE INTERNAL_XID=?";
+    public static final String PS_DTX_COMMIT_QUEUE_ATTACHMENTS =
+            "UPDATE MB_QUEUE_MAPPING SET DTX_XID=NULL WHERE DTX_XID=?";
 
-    public static final String PS_DTX_COPY_ENQUEUE_CONTENT =
-            "INSERT INTO MB_CONTENT (MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT) "
-                    + "SELECT MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT "
-                    + "FROM MB_DTX_ENQUEUE_CONTENT WHERE INTERNAL_XID=?";
-
-    public static final String PS_DTX_COPY_ENQUEUE_QUEUE_ATTACHEMENTS =
-            "INSERT INTO MB_QUEUE_MAPPING (MESSAGE_ID, QUEUE_NAME) "
-                    + "SELECT MESSAGE_ID, QUEUE_NAME FROM MB_DTX_ENQUEUE_MAPPING WHERE INTERNAL_XID=?";
+    public static final String PS_DTX_SELECT_ENQUEUED_MESSAGE_IDS =
+            "SELECT DISTINCT MESSAGE_ID FROM MB_QUEUE_MAPPING WHERE DTX_XID=?";
 
     public static final String PS_DTX_SELECT_INTERNAL_XID =
             "SELECT INTERNAL_XID FROM MB_DTX_XID WHERE FORMAT_CODE=? AND GLOBAL_ID=? AND BRANCH_ID=?";
@@ -122,12 +107,13 @@ final class RDBMSConstants {
             "SELECT INTERNAL_XID, FORMAT_CODE, BRANCH_ID, GLOBAL_ID FROM MB_DTX_XID";
 
     public static final String PS_DTX_SELECT_ENQUEUED_METADATA =
-            "SELECT MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA FROM "
-                    + "MB_DTX_ENQUEUE_METADATA WHERE INTERNAL_XID=?";
+            "SELECT MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA FROM MB_METADATA "
+                    + "WHERE MESSAGE_ID IN (SELECT MESSAGE_ID FROM MB_QUEUE_MAPPING WHERE DTX_XID=?)";
 
     public static final String PS_DTX_SELECT_ENQUEUED_CONTENT =
-            "SELECT MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT FROM MB_DTX_ENQUEUE_CONTENT WHERE INTERNAL_XID=?";
+            "SELECT MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT FROM MB_CONTENT "
+                    + "WHERE MESSAGE_ID IN (SELECT MESSAGE_ID FROM MB_QUEUE_MAPPING WHERE DTX_XID=?)";
 
     public static final String PS_DTX_SELECT_QUEUE_MAPPING =
-            "SELECT MESSAGE_ID, QUEUE_NAME FROM MB_DTX_ENQUEUE_MAPPING WHERE INTERNAL_XID=?";
+            "SELECT MESSAGE_ID, QUEUE_NAME FROM MB_QUEUE_MAPPING WHERE DTX_XID=?";
 }
@@ -24,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
@@ -36,6 +38,11 @@ import java.util.concurrent.TimeUnit;
 /**
  * Manage processing of {@link Task}. Holds the {@link TaskHolder} ring and the {@link TaskProcessor} list that
  * process the {@link Task}.
+ * <p>
+ * Tasks can be partitioned into a number of shards. Each shard has its own {@link TaskHolder} queue and a dedicated
+ * set of {@link TaskProcessor}s. A task is assigned to a shard using the hash of its id. This avoids all the
+ * processors contending on a single queue when there is a large number of workers. Processors take ready tasks
+ * from other shards when their own shard has none, hence a busy shard does not starve the tasks mapped to it.
  *
  * @param <T> Implementation of the {@link Task} interface.
  */
@@ -47,9 +54,10 @@ public final class TaskExecutorService<T extends Task> {
     private static Logger log = LoggerFactory.getLogger(TaskExecutorService.class);
 
     /**
-     * {@link DelayQueue} used by processors to schedule tasks. Idle task will be processed after a delay.
+     * {@link DelayQueue}s used by processors to schedule tasks, one per shard. Idle task will be processed after a
+     * delay.
      */
-    private final DelayQueue<TaskHolder> taskHolderDelayQueue;
+    private final List<DelayQueue<TaskHolder>> taskHolderDelayQueues;
 
     /**
      * Mapping of registered tasks with its task id.
@@ -95,13 +103,33 @@ public final class TaskExecutorService<T extends Task> {
      * @param threadFactory       thread factory to be used for processing the tasks.
      */
     public TaskExecutorService(int workerCount, long idleTaskDelayMillis, ThreadFactory threadFactory) {
+        this(workerCount, 1, idleTaskDelayMillis, threadFactory);
+    }
+
+    /**
+     * Create a Task manager with a given number of threads and shards to process the tasks. Workers are distributed
+     * among the shards in a round robin manner. Shard count is capped at the worker count so that every shard has
+     * at least one worker.
+     *
+     * @param workerCount         maximum number of threads spawned to process the tasks.
+     * @param shardCount          number of partitions the tasks are distributed into.
+     * @param idleTaskDelayMillis delay set for processing a task with IDLE
+     *                            {@link io.ballerina.messaging.broker.core.task.Task.TaskHint}.
+     * @param threadFactory       thread factory to be used for processing the tasks.
+     */
+    public TaskExecutorService(int workerCount, int shardCount, long idleTaskDelayMillis,
+                               ThreadFactory threadFactory) {
 
+        int effectiveShardCount = Math.max(1, Math.min(shardCount, workerCount));
         taskExecutorPool = Executors.newFixedThreadPool(workerCount, threadFactory);
         this.workerCount = workerCount;
         taskProcessorQueue = new ArrayDeque<>(workerCount);
         taskUpdateExecutorService = Executors.newSingleThreadExecutor(threadFactory);
         taskExceptionHandler = new DefaultExceptionHandler();
-        taskHolderDelayQueue = new DelayQueue<>();
+        taskHolderDelayQueues = new ArrayList<>(effectiveShardCount);
+        for (int i = 0; i < effectiveShardCount; i++) {
+            taskHolderDelayQueues.add(new DelayQueue<>());
+        }
         taskHolderRegistry = new ConcurrentHashMap<>();
         this.idleTaskDelayMillis = idleTaskDelayMillis;
     }
@@ -156,7 +184,7 @@ public final class TaskExecutorService<T extends Task> {
      * Stop processing the tasks.
      */
     public synchronized void stop() {
-        log.info("Stopping task manager. Task count {}", taskHolderDelayQueue.size());
+        log.info("Stopping task manager. Task count {}", getQueuedTaskCount());
         for (TaskProcessor taskProcessor : taskProcessorQueue) {
             taskProcessor.deactivate();
         }
@@ -195,16 +223,38 @@ public final class TaskExecutorService<T extends Task> {
             value = "RV_RETURN_VALUE_IGNORED_BAD_PRACTICE",
             justification = "Return future ignored since the execution needs be done asynchronously.")
     public synchronized void start() {
-        log.info("Starting task manager. Task count {}", taskHolderDelayQueue.size());
+        log.info("Starting task manager. Task count {}, shard count {}", getQueuedTaskCount(),
+                 taskHolderDelayQueues.size());
 
         for (int i = 0; i < workerCount; i++) {
-            TaskProcessor taskProcessor =
-                    new TaskProcessor(taskHolderDelayQueue, taskExceptionHandler, idleTaskDelayMillis);
+            TaskProcessor taskProcessor = new TaskProcessor(taskHolderDelayQueues, i % taskHolderDelayQueues.size(),
+                                                            taskExceptionHandler, idleTaskDelayMillis);
             taskProcessorQueue.add(taskProcessor);
             taskExecutorPool.submit(taskProcessor);
         }
     }
 
+    /**
+     * Number of shards the tasks are partitioned into.
+     *
+     * @return shard count
+     */
+    public int getShardCount() {
+        return taskHolderDelayQueues.size();
+    }
+
+    private DelayQueue<TaskHolder> getShardQueue(String taskId) {
+        return taskHolderDelayQueues.get(Math.floorMod(taskId.hashCode(), taskHolderDelayQueues.size()));
+    }
+
+    private int getQueuedTaskCount() {
+        int count = 0;
+        for (DelayQueue<TaskHolder> queue : taskHolderDelayQueues) {
+            count += queue.size();
+        }
+        return count;
+    }
+
     /**
      * Set the exception handler for the task processors.
      *
@@ -235,9 +285,9 @@ public final class TaskExecutorService<T extends Task> {
                 task.onAdd(); // Invoke task callback before adding the task to the taskHolderDelayQueue
                 // to be processed
                 taskHolderRegistry.put(task.getId(), taskHolder);
-                taskHolderDelayQueue.add(taskHolder);
+                getShardQueue(task.getId()).add(taskHolder);
                 if (log.isDebugEnabled()) {
-                    log.debug("Task added. ID {} Total Tasks {}", task.getId(), taskHolderDelayQueue.size());
+                    log.debug("Task added. ID {} Total Tasks {}", task.getId(), taskHolderRegistry.size());
                 }
             } catch (Throwable e) {
                 log.error("Error occurred while adding Task {}", task, e);
@@ -262,7 +312,7 @@ public final class TaskExecutorService<T extends Task> {
                 TaskHolder taskHolder = taskHolderRegistry.remove(id);
                 taskHolder.disableProcessing(); // disable processors from processing the task
                 if (log.isDebugEnabled()) {
-                    log.debug("Task removed. ID {} Total tasks {}", taskHolder.getId(), taskHolderDelayQueue.size());
+                    log.debug("Task removed. ID {} Total tasks {}", taskHolder.getId(), taskHolderRegistry.size());
                 }
             } catch (Throwable e) {
                 log.error("Error occurred while removing task. Task id {}", id, e);
@@ -22,6 +22,7 @@ package io.ballerina.messaging.broker.core.task;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.DelayQueue;
 import java.util.concurrent.TimeUnit;
@@ -29,6 +30,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Process {@link Task} by going through each {@link TaskHolder} in the {@link TaskHolder} ring.
+ * <p>
+ * A processor is bound to the queue of its own shard. When there is no task ready in its own shard it takes ready
+ * tasks from the other shards, so that tasks of a busy shard are not starved while the processors of other shards
+ * are idle.
  */
 final class TaskProcessor implements Callable<Boolean> {
 
@@ -38,10 +43,25 @@ final class TaskProcessor implements Callable<Boolean> {
     private static Logger log = LoggerFactory.getLogger(TaskProcessor.class);
 
     /**
-     * Reference to {@link TaskHolder} queue.
+     * Reference to {@link TaskHolder} queue of the shard this processor is bound to.
      */
     private DelayQueue<TaskHolder> taskHolderQueue;
 
+    /**
+     * {@link TaskHolder} queues of all the shards, including the queue of this processor.
+     */
+    private final List<DelayQueue<TaskHolder>> shardQueues;
+
+    /**
+     * Index of the shard this processor is bound to.
+     */
+    private final int shardIndex;
+
+    /**
+     * Queue the task being processed was taken from. The task is put back to the same queue.
+     */
+    private DelayQueue<TaskHolder> sourceQueue;
+
     /**
      * Whether the processor is active or not.
      */
@@ -57,10 +77,13 @@ final class TaskProcessor implements Callable<Boolean> {
      */
     private final long idleWaitTimeMillis;
 
-    TaskProcessor(DelayQueue<TaskHolder> taskQueue, TaskExceptionHandler exceptionHandler, long idleWaitTimeMillis) {
+    TaskProcessor(List<DelayQueue<TaskHolder>> shardQueues, int shardIndex, TaskExceptionHandler exceptionHandler,
+                  long idleWaitTimeMillis) {
         isActive = new AtomicBoolean(false);
         this.taskExceptionHandler = exceptionHandler;
-        this.taskHolderQueue = taskQueue;
+        this.shardQueues = shardQueues;
+        this.shardIndex = shardIndex;
+        this.taskHolderQueue = shardQueues.get(shardIndex);
         this.idleWaitTimeMillis = idleWaitTimeMillis;
     }
 
@@ -82,7 +105,10 @@ final class TaskProcessor implements Callable<Boolean> {
                 TaskHolder taskHolder = null;
                 long delay = 0; // No delay
                 try {
-                    taskHolder = taskHolderQueue.take(); // Wait if queue is empty
+                    taskHolder = takeTask();
+                    if (null == taskHolder) {
+                        continue;
+                    }
                     Task.TaskHint hint = taskHolder.executeTask();
                     if (hint == Task.TaskHint.IDLE) {
                         delay = idleWaitTimeMillis;
@@ -110,7 +136,7 @@ final class TaskProcessor implements Callable<Boolean> {
                             // Add a delay when adding back to the queue. This ensures the TaskHolder is added to the
                             // end of the queue. If not TaskHolder will be added to front of the queue
                             taskHolder.setDelay(delay, TimeUnit.MILLISECONDS);
-                            taskHolderQueue.put(taskHolder);
+                            sourceQueue.put(taskHolder);
                         }
                     }
                 }
@@ -122,4 +148,36 @@ final class TaskProcessor implements Callable<Boolean> {
         }
         return true;
     }
+
+    /**
+     * Take a ready task, looking at the shard of this processor first and then at the other shards. If none of the
+     * shards have a ready task, wait on the queue of this processor for at most the idle wait time before looking
+     * at the other shards again.
+     *
+     * @return ready task or null if the processor was deactivated while waiting
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private TaskHolder takeTask() throws InterruptedException {
+        int shardCount = shardQueues.size();
+        if (shardCount == 1) {
+            sourceQueue = taskHolderQueue;
+            return taskHolderQueue.take(); // Wait if queue is empty
+        }
+        while (isActive.get()) {
+            for (int i = 0; i < shardCount; i++) {
+                DelayQueue<TaskHolder> queue = shardQueues.get((shardIndex + i) % shardCount);
+                TaskHolder taskHolder = queue.poll();
+                if (null != taskHolder) {
+                    sourceQueue = queue;
+                    return taskHolder;
+                }
+            }
+            TaskHolder taskHolder = taskHolderQueue.poll(Math.max(1, idleWaitTimeMillis), TimeUnit.MILLISECONDS);
+            if (null != taskHolder) {
+                sourceQueue = taskHolderQueue;
+                return taskHolder;
+            }
+        }
+        return null;
+    }
 }
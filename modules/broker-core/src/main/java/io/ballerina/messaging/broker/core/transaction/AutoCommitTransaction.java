@@ -25,6 +25,9 @@ import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.transaction.xa.Xid;
 
@@ -45,16 +48,33 @@ public class AutoCommitTransaction implements BrokerTransaction {
         broker.acknowledge(queue, detachableMessage);
     }
 
+    @Override
+    public void dequeue(String queue, Collection<DetachableMessage> detachableMessages) throws BrokerException {
+        broker.acknowledge(queue, detachableMessages);
+    }
+
     @Override
     public void enqueue(Message message) throws BrokerException {
         broker.publish(message);
     }
 
+    @Override
+    public void enqueue(Collection<Message> messages) throws BrokerException {
+        broker.publish(messages);
+    }
+
     @Override
     public void commit() throws ValidationException {
         throw new ValidationException("tx.commit called on non-transactional channel");
     }
 
+    @Override
+    public CompletableFuture<Void> commitAsync(Executor executor) {
+        CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+        commitFuture.completeExceptionally(new ValidationException("tx.commit called on non-transactional channel"));
+        return commitFuture;
+    }
+
     @Override
     public void rollback() throws ValidationException {
         throw new ValidationException("tx.rollback called on non-transactional channel");
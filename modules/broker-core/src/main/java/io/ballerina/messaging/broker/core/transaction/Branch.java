@@ -27,6 +27,7 @@ import io.ballerina.messaging.broker.core.Message;
 import io.ballerina.messaging.broker.core.QueueHandler;
 import io.ballerina.messaging.broker.core.store.MessageStore;
 import io.ballerina.messaging.broker.core.util.MessageTracer;
+import io.netty.util.Timeout;
 
 import java.util.Collection;
 import java.util.HashMap;
@@ -34,8 +35,9 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.transaction.xa.Xid;
 
 /**
@@ -109,7 +111,11 @@ public class Branch implements EnqueueDequeueStrategy {
          */
         SUSPENDED
     }
-    private State state;
+
+    /**
+     * Current state of the branch. State transitions that can race with each other are done with compare and set.
+     */
+    private final AtomicReference<State> state;
 
     private Xid xid;
 
@@ -121,7 +127,7 @@ public class Branch implements EnqueueDequeueStrategy {
 
     private final Map<Integer, SessionState> associatedSessions;
 
-    private Future timeoutTaskFuture;
+    private Timeout timeoutTask;
 
     Branch(Xid xid, MessageStore messageStore, Broker broker) {
         this.xid = xid;
@@ -130,8 +136,8 @@ public class Branch implements EnqueueDequeueStrategy {
         messageStore.branch(xid);
         this.affectedQueueHandlers = new HashSet<>();
         this.associatedSessions = new HashMap<>();
-        state = State.ACTIVE;
-        this.timeoutTaskFuture = null;
+        this.state = new AtomicReference<>(State.ACTIVE);
+        this.timeoutTask = null;
     }
 
     @Override
@@ -146,18 +152,41 @@ public class Branch implements EnqueueDequeueStrategy {
         affectedQueueHandlers.add(queueHandler);
     }
 
-    public void prepare() throws BrokerException {
-        state = State.PRE_PREPARE;
+    public void prepare() throws BrokerException, ValidationException {
+        transitionState(State.ACTIVE, State.PRE_PREPARE);
         messageStore.prepare(xid);
-        state = State.PREPARED;
+        transitionState(State.PRE_PREPARE, State.PREPARED);
         MessageTracer.trace(xid, MessageTracer.PREPARED);
     }
 
     public void commit(boolean onePhase) throws BrokerException {
-        if (state == State.PARTIAL_RESTORE) {
+        if (isRecoveryBranch()) {
             affectedQueueHandlers.addAll(recoverEnqueuedMessages());
         }
         messageStore.flush(xid, onePhase);
+        commitQueueHandlers();
+    }
+
+    /**
+     * Commit the branch using the one-phase optimization without waiting for the message store. Queue handlers are
+     * committed on the given executor since the store completes the commit from its own thread.
+     *
+     * @param executor executor used to complete the commit once the branch is persisted
+     * @return future completed after the queue handlers are committed
+     * @throws BrokerException if the branch cannot be submitted to the message store
+     */
+    public CompletableFuture<Void> commitAsync(Executor executor) throws BrokerException {
+        if (isRecoveryBranch()) {
+            affectedQueueHandlers.addAll(recoverEnqueuedMessages());
+        }
+        return messageStore.flushAsync(xid).whenCompleteAsync((result, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                commitQueueHandlers();
+            }
+        }, executor);
+    }
+
+    private void commitQueueHandlers() {
         for (QueueHandler queueHandler: affectedQueueHandlers) {
             queueHandler.commit(xid);
         }
@@ -187,11 +216,24 @@ public class Branch implements EnqueueDequeueStrategy {
     }
 
     public void setState(State state) {
-        this.state = state;
+        this.state.set(state);
     }
 
     public State getState() {
-        return state;
+        return state.get();
+    }
+
+    /**
+     * Atomically move the branch to a new state if the branch is still in the expected state.
+     *
+     * @param expected expected current state of the branch
+     * @param update   new state of the branch
+     * @throws DtxStateTransitionException if the branch is not in the expected state
+     */
+    void transitionState(State expected, State update) throws DtxStateTransitionException {
+        if (!state.compareAndSet(expected, update)) {
+            throw new DtxStateTransitionException(xid, state.get(), update);
+        }
     }
 
     /**
@@ -262,8 +304,8 @@ public class Branch implements EnqueueDequeueStrategy {
         associatedSessions.clear();
     }
 
-    public void setTimeoutTaskFuture(ScheduledFuture<?> future) {
-        this.timeoutTaskFuture = future;
+    public void setTimeoutTask(Timeout timeoutTask) {
+        this.timeoutTask = timeoutTask;
     }
 
     private Set<QueueHandler> recoverEnqueuedMessages() throws BrokerException {
@@ -276,22 +318,27 @@ public class Branch implements EnqueueDequeueStrategy {
      * @return True if expired false otherwise.
      */
     public boolean isExpired() {
-        return Objects.nonNull(timeoutTaskFuture) && state == State.TIMED_OUT;
+        return Objects.nonNull(timeoutTask) && state.get() == State.TIMED_OUT;
     }
 
-    public Future getTimeoutTaskFuture() {
-        return timeoutTaskFuture;
+    public Timeout getTimeoutTask() {
+        return timeoutTask;
     }
 
     void markAsRecoveryBranch() {
-        state = State.PARTIAL_RESTORE;
+        state.set(State.PARTIAL_RESTORE);
+    }
+
+    boolean isRecoveryBranch() {
+        return state.get() == State.PARTIAL_RESTORE;
     }
 
     boolean isPrepared() {
-        return state == State.PREPARED || state == State.PARTIAL_RESTORE;
+        State currentState = state.get();
+        return currentState == State.PREPARED || currentState == State.PARTIAL_RESTORE;
     }
 
     boolean isRollbackOnly () {
-        return state == State.ROLLBACK_ONLY;
+        return state.get() == State.ROLLBACK_ONLY;
     }
 }
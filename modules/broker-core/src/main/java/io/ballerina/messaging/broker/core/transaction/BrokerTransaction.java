@@ -24,6 +24,9 @@ import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.transaction.xa.Xid;
 
@@ -56,6 +59,13 @@ public interface BrokerTransaction {
      * @param detachableMessage An acknowledgement message
      */
     void dequeue(String queue, DetachableMessage detachableMessage) throws BrokerException;
+
+    /**
+     * Dequeue a batch of messages from a queue.
+     * @param queue Acknowledgment received queue name
+     * @param detachableMessages Acknowledged messages
+     */
+    void dequeue(String queue, Collection<DetachableMessage> detachableMessages) throws BrokerException;
     /**
      * Enqueue a message to a queue.
      *
@@ -63,11 +73,27 @@ public interface BrokerTransaction {
      */
     void enqueue(Message message) throws BrokerException;
 
+    /**
+     * Enqueue a batch of messages. Messages are enqueued in the order of the collection.
+     *
+     * @param messages messages published within a single read from the transport
+     */
+    void enqueue(Collection<Message> messages) throws BrokerException;
+
     /**
      * Commit the transaction represent by this object.
      */
     void commit() throws ValidationException, BrokerException;
 
+    /**
+     * Commit the transaction represent by this object without blocking the calling thread. The returned future is
+     * completed exceptionally with a {@link ValidationException} or a {@link BrokerException} on failure.
+     *
+     * @param executor executor used to run the post commit work once the transaction is persisted
+     * @return future completed once the transaction is committed
+     */
+    CompletableFuture<Void> commitAsync(Executor executor);
+
     /**
      * Rollback the transaction represent by this object.
      */
@@ -24,7 +24,10 @@ import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
 
+import java.util.Collection;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.transaction.xa.Xid;
 
@@ -63,6 +66,13 @@ public class DistributedTransaction implements BrokerTransaction {
         }
     }
 
+    @Override
+    public void dequeue(String queue, Collection<DetachableMessage> detachableMessages) {
+        for (DetachableMessage detachableMessage : detachableMessages) {
+            dequeue(queue, detachableMessage);
+        }
+    }
+
     @Override
     public void enqueue(Message message) {
         try {
@@ -73,11 +83,26 @@ public class DistributedTransaction implements BrokerTransaction {
         }
     }
 
+    @Override
+    public void enqueue(Collection<Message> messages) {
+        for (Message message : messages) {
+            enqueue(message);
+        }
+    }
+
     @Override
     public void commit() throws ValidationException {
         throw new ValidationException("tx.commit called on distributed-transactional channel");
     }
 
+    @Override
+    public CompletableFuture<Void> commitAsync(Executor executor) {
+        CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+        commitFuture.completeExceptionally(
+                new ValidationException("tx.commit called on distributed-transactional channel"));
+        return commitFuture;
+    }
+
     @Override
     public void rollback() throws ValidationException {
         throw new ValidationException("tx.rollback called on distributed-transactional channel");
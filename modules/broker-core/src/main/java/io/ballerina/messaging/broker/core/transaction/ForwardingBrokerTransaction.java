@@ -24,6 +24,9 @@ import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.DetachableMessage;
 import io.ballerina.messaging.broker.core.Message;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.transaction.xa.Xid;
 
@@ -44,16 +47,31 @@ public class ForwardingBrokerTransaction implements BrokerTransaction {
         brokerTransaction.dequeue(queue, detachableMessage);
     }
 
+    @Override
+    public void dequeue(String queue, Collection<DetachableMessage> detachableMessages) throws BrokerException {
+        brokerTransaction.dequeue(queue, detachableMessages);
+    }
+
     @Override
     public void enqueue(Message message) throws BrokerException {
         brokerTransaction.enqueue(message);
     }
 
+    @Override
+    public void enqueue(Collection<Message> messages) throws BrokerException {
+        brokerTransaction.enqueue(messages);
+    }
+
     @Override
     public void commit() throws ValidationException, BrokerException {
         brokerTransaction.commit();
     }
 
+    @Override
+    public CompletableFuture<Void> commitAsync(Executor executor) {
+        return brokerTransaction.commitAsync(executor);
+    }
+
     @Override
     public void rollback() throws ValidationException {
         brokerTransaction.rollback();
@@ -27,8 +27,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import javax.transaction.xa.Xid;
 
@@ -71,6 +74,13 @@ public class LocalTransaction implements BrokerTransaction {
         }
     }
 
+    @Override
+    public void dequeue(String queueName, Collection<DetachableMessage> detachableMessages) {
+        for (DetachableMessage detachableMessage : detachableMessages) {
+            dequeue(queueName, detachableMessage);
+        }
+    }
+
     @Override
     public void enqueue(Message message) {
         try {
@@ -82,6 +92,13 @@ public class LocalTransaction implements BrokerTransaction {
         }
     }
 
+    @Override
+    public void enqueue(Collection<Message> messages) {
+        for (Message message : messages) {
+            enqueue(message);
+        }
+    }
+
     @Override
     public void commit() throws BrokerException, ValidationException {
         if (preConditionFailed) {
@@ -97,6 +114,45 @@ public class LocalTransaction implements BrokerTransaction {
         clear();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The branch is detached from the transaction before it is submitted to the store so that operations received
+     * while the commit is in progress belong to the next transaction. A branch that failed to persist is rolled back.
+     */
+    @Override
+    public CompletableFuture<Void> commitAsync(Executor executor) {
+        CompletableFuture<Void> commitFuture;
+        if (preConditionFailed) {
+            commitFuture = new CompletableFuture<>();
+            commitFuture.completeExceptionally(new ValidationException(
+                    "Pre conditions failed for commit. Errors " + errorMessageBuilder.toString()));
+            return commitFuture;
+        }
+        if (Objects.isNull(branch)) {
+            LOGGER.debug("Nothing to commit. Transaction branch is null");
+            return CompletableFuture.completedFuture(null);
+        }
+
+        Branch committingBranch = branch;
+        branch = null;
+        try {
+            commitFuture = committingBranch.commitAsync(executor);
+        } catch (BrokerException e) {
+            commitFuture = new CompletableFuture<>();
+            commitFuture.completeExceptionally(e);
+        }
+        return commitFuture.whenComplete((result, throwable) -> {
+            if (Objects.isNull(throwable)) {
+                doPostCommit();
+            } else {
+                committingBranch.rollback();
+                doOnRollback();
+            }
+            transactionRegistry.unregister(committingBranch.getXid());
+        });
+    }
+
     @Override
     public void rollback() {
         if (Objects.isNull(branch)) {
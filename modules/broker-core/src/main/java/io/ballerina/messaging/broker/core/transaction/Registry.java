@@ -23,6 +23,9 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.ballerina.messaging.broker.common.ValidationException;
 import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.store.MessageStore;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,10 +33,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import javax.annotation.concurrent.ThreadSafe;
@@ -53,12 +52,26 @@ public class Registry {
 
     private static final String TIMED_OUT_ERROR_MSG = "Transaction timed out for xid ";
 
+    /**
+     * Resolution of the branch timeout wheel. Branch timeouts are expired in batches once per tick.
+     */
+    private static final long TIMEOUT_TICK_DURATION_MILLIS = 10;
+
+    /**
+     * Number of buckets in the branch timeout wheel. Timeouts longer than a full rotation are kept in their bucket
+     * for the required number of rounds.
+     */
+    private static final int TIMEOUT_TICKS_PER_WHEEL = 512;
+
     /**
      * {@link Xid} to branch mapping of branches in memory.
      */
     private final Map<Xid, Branch> branchMap;
 
-    private final ScheduledExecutorService branchTimeoutExecutorService;
+    /**
+     * Hashed timing wheel used to time out branches. Adding and cancelling a timeout are constant time operations.
+     */
+    private final Timer branchTimeoutTimer;
 
     private final BranchFactory branchFactory;
 
@@ -73,7 +86,8 @@ public class Registry {
         branchMap = new ConcurrentHashMap<>();
         storedXidSet = ConcurrentHashMap.newKeySet();
         ThreadFactory threadFactory = new ThreadFactoryBuilder().setNameFormat("DtxBranchTimeoutExecutor-%d").build();
-        this.branchTimeoutExecutorService = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        this.branchTimeoutTimer = new HashedWheelTimer(threadFactory, TIMEOUT_TICK_DURATION_MILLIS,
+                                                       TimeUnit.MILLISECONDS, TIMEOUT_TICKS_PER_WHEEL);
     }
 
     public void register(Branch branch) throws ValidationException {
@@ -83,9 +97,9 @@ public class Registry {
     }
 
     public void unregister(Xid xid) {
-        if (Objects.isNull(branchMap.remove(xid))) {
-            storedXidSet.remove(xid);
-        }
+        // Stored xid should be removed first. Recovery branches are registered only while the xid is stored.
+        storedXidSet.remove(xid);
+        branchMap.remove(xid);
     }
 
     public Branch getBranch(Xid xid) throws ValidationException {
@@ -96,7 +110,7 @@ public class Registry {
         return branchMap.get(xid);
     }
 
-    public synchronized void prepare(Xid xid) throws ValidationException, BrokerException {
+    public void prepare(Xid xid) throws ValidationException, BrokerException {
         if (storedXidSet.contains(xid)) {
             throw new DtxStateTransitionException(xid, Branch.State.PREPARED, Branch.State.PREPARED);
         }
@@ -106,20 +120,27 @@ public class Registry {
             throw new ValidationException(UNKNOWN_XID_ERROR_MSG + xid);
         }
 
-        if (branch.hasAssociatedActiveSessions()) {
-            throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
-        }
+        synchronized (branch) {
+            if (branchMap.get(xid) != branch) {
+                throw new ValidationException(UNKNOWN_XID_ERROR_MSG + xid);
+            }
 
-        checkForBranchExpiration(branch);
+            if (branch.hasAssociatedActiveSessions()) {
+                throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
+            }
 
-        branch.clearAssociations();
+            checkForBranchExpiration(branch);
+
+            branch.clearAssociations();
 
-        if (branch.getState() == Branch.State.ROLLBACK_ONLY) {
-            throw new ValidationException("Transaction can only be rollbacked");
-        } else if (branch.getState() != Branch.State.ACTIVE) {
-            throw new ValidationException("Cannot prepare a branch in state " + branch.getState());
+            Branch.State state = branch.getState();
+            if (state == Branch.State.ROLLBACK_ONLY) {
+                throw new ValidationException("Transaction can only be rollbacked");
+            } else if (state != Branch.State.ACTIVE) {
+                throw new ValidationException("Cannot prepare a branch in state " + state);
+            }
+            branch.prepare();
         }
-        branch.prepare();
     }
 
     private void checkForBranchExpiration(Branch branch) throws ValidationException {
@@ -129,65 +150,141 @@ public class Registry {
         }
     }
 
-    public synchronized void commit(Xid xid, boolean onePhase) throws ValidationException, BrokerException {
-        Branch branch = branchMap.get(xid);
-        if (Objects.isNull(branch)) {
-            branch = checkForBranchRecovery(xid);
-        } else {
-            if (branch.hasAssociatedActiveSessions()) {
-                throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
-            }
-            checkForBranchExpiration(branch);
-            if (branch.isRollbackOnly()) {
-                throw new ValidationException("Branch is set to rollback only. Can't commit with xid " + xid);
-            }
-            if (!onePhase && !branch.isPrepared()) {
-                throw new ValidationException("Cannot call two-phase commit on a non-prepared branch for xid " + xid);
+    public void commit(Xid xid, boolean onePhase) throws ValidationException, BrokerException {
+        Branch branch = getBranchToComplete(xid);
+
+        synchronized (branch) {
+            checkBranchNotCompleted(xid, branch);
+            try {
+                if (!branch.isRecoveryBranch()) {
+                    if (branch.hasAssociatedActiveSessions()) {
+                        throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
+                    }
+                    checkForBranchExpiration(branch);
+                    if (branch.isRollbackOnly()) {
+                        throw new ValidationException("Branch is set to rollback only. Can't commit with xid " + xid);
+                    }
+                    if (!onePhase && !branch.isPrepared()) {
+                        throw new ValidationException("Cannot call two-phase commit on a non-prepared branch for xid "
+                                                              + xid);
+                    }
+                }
+
+                if (onePhase && branch.isPrepared()) {
+                    throw new ValidationException("Cannot call one-phase commit on a prepared branch for xid " + xid);
+                }
+
+                Branch.State state = branch.getState();
+                branch.clearAssociations();
+                branch.commit(onePhase);
+                unregister(xid);
+                branch.transitionState(state, Branch.State.FORGOTTEN);
+            } finally {
+                releaseRecoveryBranch(xid, branch);
             }
         }
+    }
 
-        if (onePhase && branch.isPrepared()) {
-            throw new ValidationException("Cannot call one-phase commit on a prepared branch for xid " + xid);
+    /**
+     * Lookup the branch for a commit or a rollback. A branch that is only known through the message store is
+     * restored and registered so that concurrent requests for the same {@link Xid} lock on the same branch. The
+     * restored branch is removed once the request is done with it.
+     *
+     * @param xid {@link Xid} of the branch
+     * @return {@link Branch} to complete
+     * @throws UnknownDtxBranchException if the branch is neither in memory nor in the message store
+     */
+    private Branch getBranchToComplete(Xid xid) throws UnknownDtxBranchException {
+        Branch branch = branchMap.get(xid);
+        if (Objects.nonNull(branch)) {
+            return branch;
         }
 
-        branch.clearAssociations();
-        branch.commit(onePhase);
-        branch.setState(Branch.State.FORGOTTEN);
-        unregister(xid);
+        if (storedXidSet.contains(xid)) {
+            Branch recoveryBranch = branchFactory.createBranch(xid);
+            recoveryBranch.markAsRecoveryBranch();
+            branch = branchMap.putIfAbsent(xid, recoveryBranch);
+            return Objects.isNull(branch) ? recoveryBranch : branch;
+        }
+        throw new UnknownDtxBranchException(xid);
     }
 
-    private Branch checkForBranchRecovery(Xid xid) throws UnknownDtxBranchException {
-        Branch branch;
-        if (storedXidSet.contains(xid)) {
-            branch = branchFactory.createBranch(xid);
-            branch.markAsRecoveryBranch();
-        } else {
+    /**
+     * Check whether the branch was completed by another request while waiting for the branch lock. Should be called
+     * while holding the branch lock.
+     */
+    private void checkBranchNotCompleted(Xid xid, Branch branch) throws UnknownDtxBranchException {
+        if (branchMap.get(xid) != branch) {
+            throw new UnknownDtxBranchException(xid);
+        }
+        if (branch.isRecoveryBranch() && !storedXidSet.contains(xid)) {
+            branchMap.remove(xid, branch);
             throw new UnknownDtxBranchException(xid);
         }
-        return branch;
     }
 
     private boolean cancelTimeoutTask(Branch branch) {
-        Future timeoutTaskFuture = branch.getTimeoutTaskFuture();
-        return Objects.isNull(timeoutTaskFuture)
-                || timeoutTaskFuture.isCancelled()
-                || timeoutTaskFuture.cancel(false);
+        Timeout timeoutTask = branch.getTimeoutTask();
+        return Objects.isNull(timeoutTask)
+                || timeoutTask.isCancelled()
+                || timeoutTask.cancel();
     }
 
-    public synchronized void rollback(Xid xid) throws ValidationException, BrokerException {
-        Branch branch = branchMap.get(xid);
-        if (Objects.isNull(branch)) {
-            branch = checkForBranchRecovery(xid);
-        } else {
-            checkForBranchExpiration(branch);
-            if (branch.hasAssociatedActiveSessions()) {
-                throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
+    public void rollback(Xid xid) throws ValidationException, BrokerException {
+        Branch branch = getBranchToComplete(xid);
+
+        synchronized (branch) {
+            checkBranchNotCompleted(xid, branch);
+            try {
+                if (!branch.isRecoveryBranch()) {
+                    checkForBranchExpiration(branch);
+                    if (branch.hasAssociatedActiveSessions()) {
+                        throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
+                    }
+                    branch.clearAssociations();
+                }
+                Branch.State state = branch.getState();
+                branch.dtxRollback();
+                unregister(xid);
+                branch.transitionState(state, Branch.State.FORGOTTEN);
+            } finally {
+                releaseRecoveryBranch(xid, branch);
             }
-            branch.clearAssociations();
         }
+    }
+
+    /**
+     * Remove a recovery branch registered by {@link #getBranchToComplete(Xid)} once the request is done with it. A
+     * request that failed validation or failed to complete leaves the branch only in the message store, from where
+     * it is restored again by the next request. Should be called while holding the branch lock.
+     */
+    private void releaseRecoveryBranch(Xid xid, Branch branch) {
+        if (branch.isRecoveryBranch()) {
+            branchMap.remove(xid, branch);
+        }
+    }
+
+    /**
+     * Rollback a branch from its expired timeout task. The timeout task can no longer be cancelled at this point,
+     * hence the expiration check done for client initiated rollbacks is skipped. Should be called while holding the
+     * branch lock.
+     *
+     * @param branch timed out {@link Branch}
+     */
+    private void rollbackTimedOutBranch(Branch branch) throws ValidationException, BrokerException {
+        Xid xid = branch.getXid();
+        if (branchMap.get(xid) != branch) {
+            LOGGER.debug("Branch already completed. Won't be timed out. Xid {}", xid);
+            return;
+        }
+        if (branch.hasAssociatedActiveSessions()) {
+            throw new ValidationException(ASSOCIATED_XID_ERROR_MSG + xid);
+        }
+        Branch.State state = branch.getState();
+        branch.clearAssociations();
         branch.dtxRollback();
-        branch.setState(Branch.State.FORGOTTEN);
         unregister(xid);
+        branch.transitionState(state, Branch.State.TIMED_OUT);
     }
 
     public void forget(Xid xid) throws ValidationException {
@@ -221,7 +318,7 @@ public class Registry {
             return;
         }
 
-        ScheduledFuture<?> future = branchTimeoutExecutorService.schedule(() -> {
+        Timeout timeoutTask = branchTimeoutTimer.newTimeout(expiredTimeout -> {
 
             LOGGER.debug("timing out dtx task with xid {}", xid);
             synchronized (branch) {
@@ -230,15 +327,14 @@ public class Registry {
                     return;
                 }
                 try {
-                    rollback(xid);
-                    branch.setState(Branch.State.TIMED_OUT);
+                    rollbackTimedOutBranch(branch);
                 } catch (ValidationException | BrokerException e) {
                     LOGGER.error("Error occurred while rolling back timed out branch with Xid " + xid, e);
                 }
             }
 
         }, timeout, timeUnit);
-        branch.setTimeoutTaskFuture(future);
+        branch.setTimeoutTask(timeoutTask);
     }
 
     void syncWithMessageStore(MessageStore messageStore) throws BrokerException {
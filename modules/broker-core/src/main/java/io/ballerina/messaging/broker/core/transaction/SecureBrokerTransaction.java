@@ -29,7 +29,9 @@ import io.ballerina.messaging.broker.core.BrokerAuthException;
 import io.ballerina.messaging.broker.core.BrokerAuthNotFoundException;
 import io.ballerina.messaging.broker.core.BrokerException;
 import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.PublishAuthorizer;
 
+import java.util.Collection;
 import javax.security.auth.Subject;
 
 /**
@@ -60,9 +62,16 @@ public class SecureBrokerTransaction extends ForwardingBrokerTransaction {
                     message.getMetadata().getExchangeName(), ResourceAction.PUBLISH, subject);
             super.enqueue(message);
         } catch (AuthException e) {
+            message.notifyPublishComplete(false);
             throw new BrokerAuthException(e.getMessage(), e);
         } catch (AuthNotFoundException e) {
+            message.notifyPublishComplete(false);
             throw new BrokerAuthNotFoundException(e.getMessage(), e);
         }
     }
+
+    @Override
+    public void enqueue(Collection<Message> messages) throws BrokerException {
+        PublishAuthorizer.publishAuthorized(messages, authHandler, subject, super::enqueue);
+    }
 }
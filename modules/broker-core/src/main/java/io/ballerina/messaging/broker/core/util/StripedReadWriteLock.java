@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link ReadWriteLock} split into a number of {@link ReentrantReadWriteLock} stripes. A reader only locks the stripe
+ * selected by its thread id, so publishers running on different threads do not contend on the same lock state. A
+ * writer locks every stripe in order and therefore excludes all readers.
+ * <p>
+ * Intended for read mostly state such as the broker topology where writes (declare, bind, delete) are rare compared
+ * to reads (publish, consume).
+ */
+public final class StripedReadWriteLock implements ReadWriteLock {
+
+    private final ReentrantReadWriteLock[] stripes;
+
+    private final Lock readLock;
+
+    private final Lock writeLock;
+
+    public StripedReadWriteLock(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count should be a positive integer. Found " + stripeCount);
+        }
+        stripes = new ReentrantReadWriteLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+        readLock = new StripedReadLock();
+        writeLock = new StripedWriteLock();
+    }
+
+    @Override
+    public Lock readLock() {
+        return readLock;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return writeLock;
+    }
+
+    /**
+     * Number of stripes in this lock.
+     *
+     * @return stripe count
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private Lock currentReadStripe() {
+        int index = (int) (Thread.currentThread().getId() % stripes.length);
+        return stripes[index].readLock();
+    }
+
+    /**
+     * Read lock view that only acquires the stripe of the calling thread.
+     */
+    private final class StripedReadLock implements Lock {
+
+        @Override
+        public void lock() {
+            currentReadStripe().lock();
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            currentReadStripe().lockInterruptibly();
+        }
+
+        @Override
+        public boolean tryLock() {
+            return currentReadStripe().tryLock();
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            return currentReadStripe().tryLock(time, unit);
+        }
+
+        @Override
+        public void unlock() {
+            currentReadStripe().unlock();
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by the read lock");
+        }
+    }
+
+    /**
+     * Write lock view that acquires all the stripes in order and releases them in reverse order.
+     */
+    private final class StripedWriteLock implements Lock {
+
+        @Override
+        public void lock() {
+            for (ReentrantReadWriteLock stripe : stripes) {
+                stripe.writeLock().lock();
+            }
+        }
+
+        @Override
+        public void lockInterruptibly() throws InterruptedException {
+            int acquired = 0;
+            try {
+                for (ReentrantReadWriteLock stripe : stripes) {
+                    stripe.writeLock().lockInterruptibly();
+                    acquired++;
+                }
+            } catch (InterruptedException e) {
+                unlockFirst(acquired);
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean tryLock() {
+            for (int i = 0; i < stripes.length; i++) {
+                if (!stripes[i].writeLock().tryLock()) {
+                    unlockFirst(i);
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) throws InterruptedException {
+            long deadline = System.nanoTime() + unit.toNanos(time);
+            int acquired = 0;
+            try {
+                for (ReentrantReadWriteLock stripe : stripes) {
+                    long remaining = deadline - System.nanoTime();
+                    if (!stripe.writeLock().tryLock(remaining, TimeUnit.NANOSECONDS)) {
+                        unlockFirst(acquired);
+                        return false;
+                    }
+                    acquired++;
+                }
+            } catch (InterruptedException e) {
+                unlockFirst(acquired);
+                throw e;
+            }
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            unlockFirst(stripes.length);
+        }
+
+        @Override
+        public Condition newCondition() {
+            throw new UnsupportedOperationException("Conditions are not supported by the striped write lock");
+        }
+
+        private void unlockFirst(int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                stripes[i].writeLock().unlock();
+            }
+        }
+    }
+}
@@ -27,13 +27,17 @@ import io.ballerina.messaging.broker.common.config.BrokerCommonConfiguration;
 import io.ballerina.messaging.broker.common.config.BrokerConfigProvider;
 import io.ballerina.messaging.broker.common.data.types.FieldTable;
 import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import javax.sql.DataSource;
 
@@ -73,7 +77,7 @@ public class BrokerAPITest {
 
     @AfterMethod
     public void tearDown() throws BrokerException, ValidationException {
-        broker.unbind(DEFAULT_QUEUE_NAME, DEFAULT_EXCHANGE_NAME, DEFAULT_ROUTING_KEY);
+        broker.unbind(DEFAULT_QUEUE_NAME, DEFAULT_EXCHANGE_NAME, DEFAULT_ROUTING_KEY, FieldTable.EMPTY_TABLE);
 
     }
 
@@ -100,14 +104,14 @@ public class BrokerAPITest {
             , expectedExceptions = ValidationException.class)
     public void testNegativeUnbindWithNonExistingExchangeTest(String exchangeName)
             throws BrokerException, ValidationException {
-        broker.unbind(DEFAULT_QUEUE_NAME, exchangeName, DEFAULT_ROUTING_KEY);
+        broker.unbind(DEFAULT_QUEUE_NAME, exchangeName, DEFAULT_ROUTING_KEY, FieldTable.EMPTY_TABLE);
     }
 
     @Test (dataProvider = "nonExistingQueues", description = "Test unbind operation with non existing queues"
             , expectedExceptions = ValidationException.class)
     public void testNegativeUnbindWithNonExistingQueueTest(String queueName) throws BrokerException,
                                                                                     ValidationException {
-        broker.unbind(queueName, DEFAULT_EXCHANGE_NAME, DEFAULT_ROUTING_KEY);
+        broker.unbind(queueName, DEFAULT_EXCHANGE_NAME, DEFAULT_ROUTING_KEY, FieldTable.EMPTY_TABLE);
     }
 
     @Test (dataProvider = "nonExistingQueues",
@@ -125,6 +129,83 @@ public class BrokerAPITest {
         broker.deleteExchange(exchangeName, false);
     }
 
+    @Test (description = "Test a failing message in a batch publish does not prevent publishing the rest")
+    public void testBatchPublishWithUnknownExchange() throws Exception {
+        int initialSize = broker.getQueue(DEFAULT_QUEUE_NAME).size();
+        List<Message> messages = Arrays.asList(
+                new Message(Broker.getNextMessageId(), new Metadata(DEFAULT_ROUTING_KEY, DEFAULT_EXCHANGE_NAME, 0)),
+                new Message(Broker.getNextMessageId(), new Metadata(DEFAULT_ROUTING_KEY, "myExchange", 0)),
+                new Message(Broker.getNextMessageId(), new Metadata(DEFAULT_ROUTING_KEY, DEFAULT_EXCHANGE_NAME, 0)));
+        try {
+            broker.publish(messages);
+            Assert.fail("Expected BrokerException not thrown");
+        } catch (BrokerException e) {
+            Assert.assertEquals(e.getMessage(), "Message publish failed. Unknown exchange: myExchange");
+        }
+        Assert.assertEquals(broker.getQueue(DEFAULT_QUEUE_NAME).size(), initialSize + 2);
+    }
+
+    @Test (description = "Test a batch publish enqueues to every bound queue in publish order")
+    public void testBatchPublishPreservesOrderPerQueue() throws Exception {
+        String secondQueueName = "BatchTestQueue";
+        broker.createQueue(secondQueueName, false, false, false);
+        broker.bind(secondQueueName, DEFAULT_EXCHANGE_NAME, DEFAULT_ROUTING_KEY, FieldTable.EMPTY_TABLE);
+        drain(DEFAULT_QUEUE_NAME);
+
+        List<Long> messageIds = Arrays.asList(Broker.getNextMessageId(), Broker.getNextMessageId(),
+                                              Broker.getNextMessageId());
+        List<Message> messages = new ArrayList<>();
+        for (long messageId : messageIds) {
+            messages.add(new Message(messageId, new Metadata(DEFAULT_ROUTING_KEY, DEFAULT_EXCHANGE_NAME, 0)));
+        }
+        broker.publish(messages);
+
+        for (String queueName : Arrays.asList(DEFAULT_QUEUE_NAME, secondQueueName)) {
+            for (long messageId : messageIds) {
+                Message pulled = broker.pull(queueName);
+                Assert.assertNotNull(pulled, "Published message should be enqueued to " + queueName);
+                Assert.assertEquals(pulled.getInternalId(), messageId, "Publish order should be preserved");
+                broker.acknowledge(queueName, pulled.getDetachableMessage());
+                pulled.release();
+            }
+            Assert.assertNull(broker.pull(queueName));
+        }
+        broker.unbind(secondQueueName, DEFAULT_EXCHANGE_NAME, DEFAULT_ROUTING_KEY, FieldTable.EMPTY_TABLE);
+        broker.deleteQueue(secondQueueName, false, false);
+    }
+
+    private void drain(String queueName) throws Exception {
+        Message message;
+        while ((message = broker.pull(queueName)) != null) {
+            broker.acknowledge(queueName, message.getDetachableMessage());
+            message.release();
+        }
+    }
+
+    @Test (description = "Test pulling messages from a queue without a consumer")
+    public void testPull() throws Exception {
+        Message message;
+        while ((message = broker.pull(DEFAULT_QUEUE_NAME)) != null) {
+            message.release();
+        }
+
+        long messageId = Broker.getNextMessageId();
+        broker.publish(new Message(messageId, new Metadata(DEFAULT_ROUTING_KEY, DEFAULT_EXCHANGE_NAME, 0)));
+
+        Message pulled = broker.pull(DEFAULT_QUEUE_NAME);
+        Assert.assertNotNull(pulled, "Published message should be available to pull");
+        Assert.assertEquals(pulled.getInternalId(), messageId);
+        Assert.assertNull(broker.pull(DEFAULT_QUEUE_NAME), "Queue should be empty after the pull");
+        broker.acknowledge(DEFAULT_QUEUE_NAME, pulled.getDetachableMessage());
+        pulled.release();
+    }
+
+    @Test (dataProvider = "nonExistingQueues", description = "Test pull from non existing queues",
+           expectedExceptions = ResourceNotFoundException.class)
+    public void testNegativePullWithNonExistingQueue(String queueName) throws Exception {
+        broker.pull(queueName);
+    }
+
     @DataProvider(name = "nonExistingExchanges")
     public Object[] nonExistingExchanges() {
         return new Object[]{ "myExchange", "testExchange" };
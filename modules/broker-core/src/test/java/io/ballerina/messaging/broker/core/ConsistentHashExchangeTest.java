@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.common.ValidationException;
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.common.data.types.FieldValue;
+import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
+import io.ballerina.messaging.broker.core.store.dao.impl.NoOpBindingDao;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit tests verifying consistent hash exchange related functionality.
+ */
+public class ConsistentHashExchangeTest {
+
+    private static final int KEY_COUNT = 10000;
+
+    private ConsistentHashExchange hashExchange;
+
+    private DbBackedQueueHandlerFactory factory;
+
+    @BeforeMethod
+    public void beforeTestSetup() {
+        hashExchange = new ConsistentHashExchange("hashExchange", new NoOpBindingDao());
+        factory = new DbBackedQueueHandlerFactory(null, new NullBrokerMetricManager(), new BrokerCoreConfiguration());
+    }
+
+    @Test
+    public void testGetType() {
+        Assert.assertEquals(hashExchange.getType(), Exchange.Type.CONSISTENT_HASH, "Invalid exchange type");
+    }
+
+    @Test(description = "Test a key is always routed to a single queue")
+    public void testSameKeyRoutedToSameQueue() throws BrokerException, ValidationException {
+        bindQueues(4);
+
+        for (int i = 0; i < 100; i++) {
+            String key = "customer-" + i;
+            BindingSet bindingSet = hashExchange.getBindingsForRoute(key);
+            Assert.assertEquals(bindingSet.getUnfilteredBindings().size(), 1, "Key should map to a single queue");
+            Assert.assertEquals(routedQueue(key), routedQueue(key), "Key should map to the same queue");
+        }
+    }
+
+    @Test(description = "Test keys are spread over all the bound queues")
+    public void testKeysAreDistributed() throws BrokerException, ValidationException {
+        bindQueues(4);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            counts.merge(routedQueue("customer-" + i), 1, Integer::sum);
+        }
+
+        Assert.assertEquals(counts.size(), 4, "All queues should receive keys");
+        for (int count : counts.values()) {
+            Assert.assertTrue(count > KEY_COUNT / 8, "Keys are not evenly distributed " + counts);
+        }
+    }
+
+    @Test(description = "Test only keys owned by a new queue are moved when the queue is added")
+    public void testMinimalRebalancing() throws BrokerException, ValidationException {
+        bindQueues(4);
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key = "customer-" + i;
+            before.put(key, routedQueue(key));
+        }
+
+        hashExchange.bind(factory.createNonDurableQueueHandler("queue-4", false), "1", FieldTable.EMPTY_TABLE);
+
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            String queue = routedQueue(entry.getKey());
+            if (!queue.equals(entry.getValue())) {
+                Assert.assertEquals(queue, "queue-4", "Key should only move to the newly added queue");
+            }
+        }
+    }
+
+    @Test(description = "Test only keys owned by the added points are moved when a queue is reweighted")
+    public void testReweightingMovesOnlyAddedPoints() throws BrokerException, ValidationException {
+        bindQueues(4);
+        Map<String, String> before = new HashMap<>();
+        for (int i = 0; i < KEY_COUNT; i++) {
+            String key = "customer-" + i;
+            before.put(key, routedQueue(key));
+        }
+
+        QueueHandler handler = factory.createNonDurableQueueHandler("queue-0", false);
+        hashExchange.unbind(handler.getUnmodifiableQueue(), "1");
+        hashExchange.bind(handler, "2", FieldTable.EMPTY_TABLE);
+
+        int movedKeys = 0;
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            String queue = routedQueue(entry.getKey());
+            if (!queue.equals(entry.getValue())) {
+                Assert.assertEquals(queue, "queue-0", "Key should only move to the reweighted queue");
+                movedKeys++;
+            }
+        }
+        Assert.assertTrue(movedKeys > 0, "Reweighted queue should take over some keys");
+
+        hashExchange.unbind(handler.getUnmodifiableQueue(), "2");
+        hashExchange.bind(handler, "1", FieldTable.EMPTY_TABLE);
+
+        for (Map.Entry<String, String> entry : before.entrySet()) {
+            Assert.assertEquals(routedQueue(entry.getKey()), entry.getValue(),
+                                "Restoring the weight should restore the original routing");
+        }
+    }
+
+    @Test(description = "Test routing on a header value")
+    public void testHashHeader() throws BrokerException, ValidationException {
+        FieldTable arguments = new FieldTable();
+        arguments.add(ConsistentHashExchange.HASH_HEADER_ARGUMENT, FieldValue.parseLongString("customerId"));
+        hashExchange.bind(factory.createNonDurableQueueHandler("queue-0", false), "1", arguments);
+
+        Metadata metadata = new Metadata("ignored", "hashExchange", 0);
+        Assert.assertTrue(hashExchange.getBindingsForRoute(metadata).isEmpty(),
+                          "Message without the hash header should not be routed");
+
+        metadata.addHeader("customerId", "42");
+        Assert.assertEquals(hashExchange.getBindingsForRoute(metadata).getUnfilteredBindings().size(), 1);
+    }
+
+    @Test(expectedExceptions = ValidationException.class, description = "Test invalid binding weight")
+    public void testInvalidWeight() throws BrokerException, ValidationException {
+        hashExchange.bind(factory.createNonDurableQueueHandler("queue-0", false), "heavy", FieldTable.EMPTY_TABLE);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        hashExchange = null;
+    }
+
+    private void bindQueues(int queueCount) throws BrokerException, ValidationException {
+        for (int i = 0; i < queueCount; i++) {
+            QueueHandler handler = factory.createNonDurableQueueHandler("queue-" + i, false);
+            hashExchange.bind(handler, "1", FieldTable.EMPTY_TABLE);
+        }
+    }
+
+    private String routedQueue(String key) {
+        return hashExchange.getBindingsForRoute(key).getUnfilteredBindings().iterator().next().getQueue().getName();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.common.ValidationException;
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
+import io.ballerina.messaging.broker.core.store.dao.impl.NoOpBindingDao;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests verifying fanout exchange related functionality.
+ */
+public class FanoutExchangeTest {
+
+    private FanoutExchange fanoutExchange;
+
+    private DbBackedQueueHandlerFactory factory;
+
+    private static final String EXCHANGE_NAME = "amq.fanout";
+
+    @BeforeMethod
+    public void beforeTestSetup() {
+        fanoutExchange = new FanoutExchange(EXCHANGE_NAME, new NoOpBindingDao());
+        factory = new DbBackedQueueHandlerFactory(null, new NullBrokerMetricManager(), new BrokerCoreConfiguration());
+    }
+
+    @Test
+    public void testGetType() {
+        Assert.assertEquals(fanoutExchange.getType(), Exchange.Type.FANOUT, "Invalid exchange type");
+    }
+
+    @Test(description = "Test every bound queue is returned regardless of the routing key")
+    public void testRouteToAllQueues() throws BrokerException, ValidationException {
+        QueueHandler firstHandler = factory.createNonDurableQueueHandler("queue1", false);
+        QueueHandler secondHandler = factory.createNonDurableQueueHandler("queue2", false);
+        fanoutExchange.bind(firstHandler, "", FieldTable.EMPTY_TABLE);
+        fanoutExchange.bind(secondHandler, "someKey", FieldTable.EMPTY_TABLE);
+
+        BindingSet bindingSet = fanoutExchange.getBindingsForRoute("unrelated.key");
+
+        Assert.assertEquals(bindingSet.getUnfilteredBindings().size(), 2, "Both queues should be matched");
+        Assert.assertSame(fanoutExchange.getBindingsForRoute("another.key"), bindingSet,
+                          "Routing result should be reused between messages");
+    }
+
+    @Test(description = "Test queue is not returned after unbinding")
+    public void testUnbind() throws BrokerException, ValidationException {
+        QueueHandler handler = factory.createNonDurableQueueHandler("queue1", false);
+        fanoutExchange.bind(handler, "", FieldTable.EMPTY_TABLE);
+        fanoutExchange.unbind(handler.getUnmodifiableQueue(), "");
+
+        Assert.assertTrue(fanoutExchange.getBindingsForRoute("key").isEmpty(), "No queue should match");
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class,
+          description = "Test shared routing result cannot be modified")
+    public void testRoutingResultIsUnmodifiable() throws BrokerException, ValidationException {
+        QueueHandler handler = factory.createNonDurableQueueHandler("queue1", false);
+        fanoutExchange.bind(handler, "", FieldTable.EMPTY_TABLE);
+
+        fanoutExchange.getBindingsForRoute("").remove(handler.getUnmodifiableQueue());
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        fanoutExchange = null;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.ballerina.messaging.broker.common.ValidationException;
+import io.ballerina.messaging.broker.common.data.types.FieldTable;
+import io.ballerina.messaging.broker.common.data.types.FieldValue;
+import io.ballerina.messaging.broker.common.data.types.ShortString;
+import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
+import io.ballerina.messaging.broker.core.store.dao.impl.NoOpBindingDao;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests verifying headers exchange related functionality.
+ */
+public class HeadersExchangeTest {
+
+    private static final String EXCHANGE_NAME = "amq.match";
+
+    private static final String QUEUE_NAME = "headersQueue";
+
+    private HeadersExchange headersExchange;
+
+    private QueueHandler queueHandler;
+
+    @BeforeMethod
+    public void beforeTestSetup() {
+        headersExchange = new HeadersExchange(EXCHANGE_NAME, new NoOpBindingDao());
+        DbBackedQueueHandlerFactory factory = new DbBackedQueueHandlerFactory(null,
+                                                                              new NullBrokerMetricManager(),
+                                                                              new BrokerCoreConfiguration());
+        queueHandler = factory.createNonDurableQueueHandler(QUEUE_NAME, false);
+    }
+
+    @Test
+    public void testGetType() {
+        Assert.assertEquals(headersExchange.getType(), Exchange.Type.HEADERS, "Invalid exchange type");
+    }
+
+    @Test(dataProvider = "matchingHeaders", description = "Test positive header matching")
+    public void testPositiveMatching(String matchType, String[] messageHeaders)
+            throws BrokerException, ValidationException {
+        headersExchange.bind(queueHandler, "", bindingArguments(matchType));
+
+        BindingSet bindingSet = headersExchange.getBindingsForRoute(metadataWithHeaders(messageHeaders));
+
+        Assert.assertEquals(bindingSet.getUnfilteredBindings().size(), 1, "Queue should be matched");
+        Assert.assertEquals(bindingSet.getUnfilteredBindings().iterator().next().getQueue().getName(), QUEUE_NAME);
+    }
+
+    @Test(dataProvider = "nonMatchingHeaders", description = "Test negative header matching")
+    public void testNegativeMatching(String matchType, String[] messageHeaders)
+            throws BrokerException, ValidationException {
+        headersExchange.bind(queueHandler, "", bindingArguments(matchType));
+
+        BindingSet bindingSet = headersExchange.getBindingsForRoute(metadataWithHeaders(messageHeaders));
+
+        Assert.assertTrue(bindingSet.isEmpty(), "Queue should not be matched");
+    }
+
+    @Test(description = "Test queue is not matched after unbinding")
+    public void testUnbind() throws BrokerException, ValidationException {
+        headersExchange.bind(queueHandler, "", bindingArguments("all"));
+        headersExchange.unbind(queueHandler.getUnmodifiableQueue(), "", bindingArguments("all"));
+
+        BindingSet bindingSet = headersExchange.getBindingsForRoute(metadataWithHeaders("format", "pdf",
+                                                                                        "type", "report"));
+        Assert.assertTrue(bindingSet.isEmpty(), "Queue should not be matched");
+    }
+
+    @Test(description = "Test a queue bound with two header sets keeps both bindings")
+    public void testBindingsKeyedByArguments() throws BrokerException, ValidationException {
+        FieldTable pdfArguments = new FieldTable();
+        pdfArguments.add(ShortString.parseString("format"), FieldValue.parseLongString("pdf"));
+        FieldTable zipArguments = new FieldTable();
+        zipArguments.add(ShortString.parseString("format"), FieldValue.parseLongString("zip"));
+
+        headersExchange.bind(queueHandler, "", pdfArguments);
+        headersExchange.bind(queueHandler, "", zipArguments);
+
+        Assert.assertFalse(headersExchange.getBindingsForRoute(metadataWithHeaders("format", "pdf")).isEmpty(),
+                           "Queue should be matched by the first header set");
+        Assert.assertFalse(headersExchange.getBindingsForRoute(metadataWithHeaders("format", "zip")).isEmpty(),
+                           "Queue should be matched by the second header set");
+
+        headersExchange.unbind(queueHandler.getUnmodifiableQueue(), "", pdfArguments);
+
+        Assert.assertTrue(headersExchange.getBindingsForRoute(metadataWithHeaders("format", "pdf")).isEmpty(),
+                          "Queue should not be matched by the removed header set");
+        Assert.assertFalse(headersExchange.getBindingsForRoute(metadataWithHeaders("format", "zip")).isEmpty(),
+                           "Queue should still be matched by the remaining header set");
+    }
+
+    @Test(description = "Test header sets differing only in value type are kept as separate bindings")
+    public void testBindingsComparedByArgumentTypes() throws BrokerException, ValidationException {
+        FieldTable intArguments = new FieldTable();
+        intArguments.add(ShortString.parseString("id"), FieldValue.parseLongInt(1));
+        FieldTable stringArguments = new FieldTable();
+        stringArguments.add(ShortString.parseString("id"), FieldValue.parseLongString("1"));
+
+        headersExchange.bind(queueHandler, "", intArguments);
+        headersExchange.bind(queueHandler, "", stringArguments);
+
+        Assert.assertEquals(headersExchange.getBindingsRegistry().getAllBindings().keySet().iterator().next(), "",
+                            "Binding pattern should be the routing key given by the client");
+        Assert.assertFalse(headersExchange.getBindingsForRoute(metadataWithHeaders("id", "1")).isEmpty(),
+                           "Queue should be matched by the string header set");
+
+        headersExchange.unbind(queueHandler.getUnmodifiableQueue(), "", stringArguments);
+
+        Assert.assertTrue(headersExchange.getBindingsForRoute(metadataWithHeaders("id", "1")).isEmpty(),
+                          "Queue should not be matched after removing the string header set");
+        Assert.assertEquals(headersExchange.getBindingsRegistry().getAllBindings().size(), 1,
+                            "Binding with the integer header set should remain");
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        headersExchange = null;
+        queueHandler = null;
+    }
+
+    @DataProvider(name = "matchingHeaders")
+    public Object[][] matchingHeaders() {
+        return new Object[][]{
+                {"all", new String[]{"format", "pdf", "type", "report"}},
+                {"all", new String[]{"format", "pdf", "type", "report", "other", "value"}},
+                {"any", new String[]{"format", "pdf"}},
+                {"any", new String[]{"type", "report", "format", "zip"}}
+        };
+    }
+
+    @DataProvider(name = "nonMatchingHeaders")
+    public Object[][] nonMatchingHeaders() {
+        return new Object[][]{
+                {"all", new String[]{"format", "pdf"}},
+                {"all", new String[]{"format", "pdf", "type", "log"}},
+                {"any", new String[]{"format", "zip", "type", "log"}},
+                {"any", new String[]{}}
+        };
+    }
+
+    private static FieldTable bindingArguments(String matchType) {
+        FieldTable arguments = new FieldTable();
+        arguments.add(HeadersExchange.X_MATCH_ARGUMENT, FieldValue.parseLongString(matchType));
+        arguments.add(ShortString.parseString("format"), FieldValue.parseLongString("pdf"));
+        arguments.add(ShortString.parseString("type"), FieldValue.parseLongString("report"));
+        return arguments;
+    }
+
+    private static Metadata metadataWithHeaders(String... headers) {
+        Metadata metadata = new Metadata("", EXCHANGE_NAME, 0);
+        for (int i = 0; i < headers.length; i += 2) {
+            metadata.addHeader(headers[i], headers[i + 1]);
+        }
+        return metadata;
+    }
+}
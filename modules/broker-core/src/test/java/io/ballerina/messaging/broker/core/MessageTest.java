@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Unit tests verifying content sharing between message copies.
+ */
+public class MessageTest {
+
+    private ByteBuf content;
+
+    private Message message;
+
+    @BeforeMethod
+    public void setUp() {
+        content = Unpooled.copiedBuffer(new byte[]{1, 2, 3, 4});
+        message = new Message(1, new Metadata("queue", "amq.direct", content.readableBytes()));
+        message.addChunk(new ContentChunk(0, content));
+    }
+
+    @Test(description = "Test shallow copies share the same content chunks")
+    public void testShallowCopySharesContent() {
+        Message copy = message.shallowCopy();
+
+        Assert.assertSame(copy.getMetadata(), message.getMetadata());
+        Assert.assertSame(copy.getContentChunks().get(0), message.getContentChunks().get(0),
+                          "Content chunks should not be copied");
+        Assert.assertEquals(content.refCnt(), 1, "Shallow copy should not retain the content buffer");
+    }
+
+    @Test(description = "Test content is released only after all the copies are released")
+    public void testContentReleasedWithLastCopy() {
+        Message firstCopy = message.shallowCopy();
+        Message secondCopy = message.shallowCopy();
+
+        message.release();
+        firstCopy.release();
+        Assert.assertEquals(content.refCnt(), 1, "Content should be retained while a copy is alive");
+
+        secondCopy.release();
+        Assert.assertEquals(content.refCnt(), 0, "Content should be released with the last copy");
+    }
+
+    @Test(description = "Test releasing the same copy twice does not release content held by other copies")
+    public void testDuplicateReleaseOfCopy() {
+        Message copy = message.shallowCopy();
+
+        copy.release();
+        copy.release();
+
+        Assert.assertEquals(content.refCnt(), 1, "Content should still be held by the original message");
+        message.release();
+        Assert.assertEquals(content.refCnt(), 0);
+    }
+
+    @Test(description = "Test queue specific state is not shared between copies")
+    public void testRedeliveryStateIsPerCopy() {
+        Message copy = message.shallowCopy();
+
+        copy.setRedeliver();
+
+        Assert.assertTrue(copy.isRedelivered());
+        Assert.assertFalse(message.isRedelivered(), "Redelivery state should be per copy");
+        Assert.assertEquals(message.getRedeliveryCount(), 0);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+public class SpooledContentTest {
+
+    private static final Path SPOOL_DIRECTORY = Paths.get(System.getProperty("java.io.tmpdir"));
+
+    @Test
+    public void testAppendAndMap() throws Exception {
+        SpooledContent spooledContent = new SpooledContent(SPOOL_DIRECTORY, 4);
+        for (String part : new String[] {"abc", "defg", "hij"}) {
+            ByteBuf buf = Unpooled.copiedBuffer(part, StandardCharsets.UTF_8);
+            spooledContent.append(buf);
+            buf.release();
+        }
+        Assert.assertEquals(spooledContent.size(), 10);
+
+        List<ContentChunk> chunks = spooledContent.toChunks();
+        Assert.assertEquals(chunks.size(), 3, "Content should be mapped in regions of the max region size");
+        StringBuilder content = new StringBuilder();
+        long expectedOffset = 0;
+        for (ContentChunk chunk : chunks) {
+            Assert.assertEquals(chunk.getOffset(), expectedOffset);
+            expectedOffset += chunk.getByteBuf().readableBytes();
+            content.append(chunk.getByteBuf().toString(StandardCharsets.UTF_8));
+            chunk.release();
+        }
+        Assert.assertEquals(content.toString(), "abcdefghij");
+    }
+
+    @Test
+    public void testWriteAtOffset() throws Exception {
+        SpooledContent spooledContent = new SpooledContent(SPOOL_DIRECTORY);
+        ByteBuf second = Unpooled.copiedBuffer("world", StandardCharsets.UTF_8);
+        ByteBuf first = Unpooled.copiedBuffer("hello ", StandardCharsets.UTF_8);
+        spooledContent.write(6, second);
+        spooledContent.write(0, first);
+        second.release();
+        first.release();
+
+        List<ContentChunk> chunks = spooledContent.toChunks();
+        Assert.assertEquals(chunks.size(), 1);
+        Assert.assertEquals(chunks.get(0).getByteBuf().toString(StandardCharsets.UTF_8), "hello world",
+                            "Content written out of order should be placed by offset");
+        chunks.get(0).release();
+    }
+
+    @Test
+    public void testRegionReleasedAfterSlices() throws Exception {
+        SpooledContent spooledContent = new SpooledContent(SPOOL_DIRECTORY);
+        ByteBuf buf = Unpooled.copiedBuffer("mapped", StandardCharsets.UTF_8);
+        spooledContent.append(buf);
+        buf.release();
+
+        ContentChunk chunk = spooledContent.toChunks().get(0);
+        ByteBuf slice = chunk.getByteBuf().retainedSlice();
+        chunk.release();
+        Assert.assertEquals(slice.toString(StandardCharsets.UTF_8), "mapped",
+                            "Region should stay mapped while a slice of it is retained");
+
+        slice.release();
+        Assert.assertEquals(chunk.getByteBuf().refCnt(), 0, "Region should be released with its last slice");
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.queue;
+
+import io.ballerina.messaging.broker.core.ContentChunk;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class QueueMemoryGovernorTest {
+
+    private static final int CONTENT_SIZE = 10;
+
+    private static final String SPILL_DIRECTORY = System.getProperty("java.io.tmpdir");
+
+    @Test
+    public void testQueueBufferPageOut() {
+        QueueMemoryGovernor governor = new QueueMemoryGovernor(1000, 1000, 0, 2, SPILL_DIRECTORY);
+        Metadata metadata = new Metadata("queue1", "amq.direct", CONTENT_SIZE);
+        QueueBuffer queueBuffer = new QueueBuffer(10, 0, (buffer, message) -> {
+            message.setMetadata(metadata);
+            buffer.markMessageFilled(message);
+        }, governor);
+
+        for (int i = 0; i < 10; i++) {
+            queueBuffer.add(new Message(i + 1, metadata));
+        }
+        Assert.assertEquals(governor.getBytesInMemory(), 10 * CONTENT_SIZE);
+
+        queueBuffer.pageOut(2);
+        Assert.assertEquals(governor.getBytesInMemory(), 2 * CONTENT_SIZE,
+                            "Only the paged in-memory limit of messages should be kept in memory");
+
+        for (int i = 0; i < 10; i++) {
+            Message message = queueBuffer.getFirstDeliverable();
+            Assert.assertNotNull(message, "Paged out messages should be read back on demand");
+            Assert.assertEquals(message.getInternalId(), i + 1, "Messages should be delivered in order");
+            queueBuffer.remove(message.getInternalId());
+        }
+        Assert.assertEquals(governor.getBytesInMemory(), 0);
+    }
+
+    @Test
+    public void testMemQueuePageOut() {
+        QueueMemoryGovernor governor = new QueueMemoryGovernor(1000, 1000, 0, 2, SPILL_DIRECTORY);
+        MemQueueImpl queue = new MemQueueImpl("queue1", false, 20, false, governor);
+        for (int i = 0; i < 5; i++) {
+            queue.enqueue(createMessage(i + 1));
+        }
+
+        queue.pageOut(2);
+        Assert.assertEquals(governor.getBytesInMemory(), 2 * CONTENT_SIZE,
+                            "Messages beyond the paged in-memory limit should be spilled");
+
+        for (int i = 5; i < 10; i++) {
+            queue.enqueue(createMessage(i + 1));
+        }
+        Assert.assertEquals(queue.size(), 10, "Spilled messages should be counted in the queue size");
+        Assert.assertEquals(governor.getBytesInMemory(), 2 * CONTENT_SIZE,
+                            "Messages published while paged out should be spilled");
+
+        for (int i = 0; i < 10; i++) {
+            Message message = queue.dequeue();
+            Assert.assertNotNull(message, "Spilled messages should be read back on demand");
+            Assert.assertEquals(message.getInternalId(), i + 1, "Messages should be delivered in order");
+            ByteBuf content = message.getContentChunks().get(0).getByteBuf();
+            Assert.assertEquals(content.toString(StandardCharsets.UTF_8), getContent(i + 1));
+            message.release();
+        }
+        Assert.assertNull(queue.dequeue());
+        Assert.assertEquals(governor.getBytesInMemory(), 0);
+    }
+
+    @Test
+    public void testColdestQueuePagedOut() throws Exception {
+        QueueMemoryGovernor governor = new QueueMemoryGovernor(5 * CONTENT_SIZE, 4 * CONTENT_SIZE, 0, 1,
+                                                               SPILL_DIRECTORY);
+        MemQueueImpl coldQueue = new MemQueueImpl("coldQueue", false, 20, false, governor);
+        MemQueueImpl hotQueue = new MemQueueImpl("hotQueue", false, 20, false, governor);
+        governor.register(coldQueue);
+        governor.register(hotQueue);
+
+        for (int i = 0; i < 3; i++) {
+            coldQueue.enqueue(createMessage(i + 1));
+        }
+        Thread.sleep(10);
+        for (int i = 3; i < 6; i++) {
+            hotQueue.enqueue(createMessage(i + 1));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!governor.isPagedOut(coldQueue) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assert.assertTrue(governor.isPagedOut(coldQueue), "Least recently accessed queue should be paged out");
+        Assert.assertFalse(governor.isPagedOut(hotQueue), "Paging should stop once below the low watermark");
+        Assert.assertEquals(coldQueue.size(), 3, "Paging should not change the queue size");
+
+        coldQueue.clear();
+        hotQueue.clear();
+    }
+
+    private static Message createMessage(long messageId) {
+        byte[] content = getContent(messageId).getBytes(StandardCharsets.UTF_8);
+        Message message = new Message(messageId, new Metadata("queue1", "amq.direct", content.length));
+        message.addChunk(new ContentChunk(0, Unpooled.wrappedBuffer(content)));
+        return message;
+    }
+
+    private static String getContent(long messageId) {
+        return String.format("message%03d", messageId);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.store;
+
+import io.ballerina.messaging.broker.common.DaoException;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.ballerina.messaging.broker.core.store.dao.MessageDao;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class DbAccessHandlerTest {
+
+    private static final int MAX_BATCH_SIZE = 10;
+
+    private MessageDao messageDao;
+
+    private DbAccessHandler dbAccessHandler;
+
+    @BeforeMethod
+    public void setUp() {
+        messageDao = Mockito.mock(MessageDao.class);
+        dbAccessHandler = new DbAccessHandler(messageDao, MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void testTransactionsCommittedInSingleBatch() throws Exception {
+        List<Long> persistedMessageIds = new ArrayList<>();
+        List<Long> deletedMessageIds = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            TransactionData transactionData = invocation.getArgument(0);
+            transactionData.getEnqueueMessages().forEach(message -> persistedMessageIds.add(message.getInternalId()));
+            deletedMessageIds.addAll(transactionData.getDeletableMessage());
+            return null;
+        }).when(messageDao).persist(Mockito.any(TransactionData.class));
+
+        TransactionData firstTransaction = new TransactionData();
+        firstTransaction.addEnqueueMessage(newMessage(1));
+        firstTransaction.addDeletableMessage(10);
+        TransactionData secondTransaction = new TransactionData();
+        secondTransaction.addEnqueueMessage(newMessage(2));
+
+        CompletableFuture<Void> firstCommit = new CompletableFuture<>();
+        CompletableFuture<Void> secondCommit = new CompletableFuture<>();
+        DbOperation insertOperation = newOperation();
+        insertOperation.insertMessage(newMessage(3));
+        DbOperation firstOperation = newOperation();
+        firstOperation.commitTransaction(firstTransaction, firstCommit);
+        DbOperation secondOperation = newOperation();
+        secondOperation.commitTransaction(secondTransaction, secondCommit);
+
+        dbAccessHandler.onEvent(firstOperation, 0, false);
+        dbAccessHandler.onEvent(insertOperation, 1, false);
+        Assert.assertFalse(firstCommit.isDone(), "Transaction should not complete before the batch is persisted");
+        dbAccessHandler.onEvent(secondOperation, 2, true);
+
+        Mockito.verify(messageDao, Mockito.times(1)).persist(Mockito.any(TransactionData.class));
+        Assert.assertEquals(persistedMessageIds.size(), 3);
+        Assert.assertTrue(persistedMessageIds.containsAll(Arrays.asList(1L, 2L, 3L)));
+        Assert.assertEquals(deletedMessageIds, Collections.singletonList(10L));
+        Assert.assertTrue(firstCommit.isDone() && !firstCommit.isCompletedExceptionally());
+        Assert.assertTrue(secondCommit.isDone() && !secondCommit.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testTransactionsFailedWithBatch() throws Exception {
+        Mockito.doThrow(new DaoException("Persist failed"))
+               .when(messageDao).persist(Mockito.any(TransactionData.class));
+
+        TransactionData transactionData = new TransactionData();
+        transactionData.addEnqueueMessage(newMessage(1));
+        CompletableFuture<Void> commitFuture = new CompletableFuture<>();
+        DbOperation operation = newOperation();
+        operation.commitTransaction(transactionData, commitFuture);
+
+        dbAccessHandler.onEvent(operation, 0, true);
+
+        Assert.assertTrue(commitFuture.isCompletedExceptionally(), "Commit should fail with the batch");
+        Assert.assertNotNull(operation.getExceptionObject());
+    }
+
+    @Test
+    public void testOnlyOffendingTransactionFailsWithBatch() throws Exception {
+        long offendingMessageId = 2;
+        List<Long> persistedMessageIds = new ArrayList<>();
+        Mockito.doAnswer(invocation -> {
+            TransactionData transactionData = invocation.getArgument(0);
+            for (Message message : transactionData.getEnqueueMessages()) {
+                if (message.getInternalId() == offendingMessageId) {
+                    throw new DaoException("Persist failed");
+                }
+            }
+            transactionData.getEnqueueMessages().forEach(message -> persistedMessageIds.add(message.getInternalId()));
+            return null;
+        }).when(messageDao).persist(Mockito.any(TransactionData.class));
+
+        TransactionData firstTransaction = new TransactionData();
+        firstTransaction.addEnqueueMessage(newMessage(1));
+        TransactionData offendingTransaction = new TransactionData();
+        offendingTransaction.addEnqueueMessage(newMessage(offendingMessageId));
+
+        CompletableFuture<Void> firstCommit = new CompletableFuture<>();
+        CompletableFuture<Void> offendingCommit = new CompletableFuture<>();
+        DbOperation firstOperation = newOperation();
+        firstOperation.commitTransaction(firstTransaction, firstCommit);
+        DbOperation insertOperation = newOperation();
+        insertOperation.insertMessage(newMessage(3));
+        DbOperation offendingOperation = newOperation();
+        offendingOperation.commitTransaction(offendingTransaction, offendingCommit);
+
+        dbAccessHandler.onEvent(firstOperation, 0, false);
+        dbAccessHandler.onEvent(insertOperation, 1, false);
+        dbAccessHandler.onEvent(offendingOperation, 2, true);
+
+        Assert.assertTrue(firstCommit.isDone() && !firstCommit.isCompletedExceptionally(),
+                          "Transaction merged with a failed one should be committed on retry");
+        Assert.assertTrue(offendingCommit.isCompletedExceptionally(), "Offending transaction should fail");
+        Assert.assertNull(insertOperation.getExceptionObject());
+        Assert.assertNotNull(offendingOperation.getExceptionObject());
+        Assert.assertEquals(persistedMessageIds, Arrays.asList(1L, 3L));
+    }
+
+    private DbOperation newOperation() {
+        DbOperation operation = DbOperation.getFactory().newInstance();
+        operation.completeProcessing();
+        return operation;
+    }
+
+    private Message newMessage(long messageId) {
+        return new Message(messageId, new Metadata("queue1", "amq.direct", 0));
+    }
+}
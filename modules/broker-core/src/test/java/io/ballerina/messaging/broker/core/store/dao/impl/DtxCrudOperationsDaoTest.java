@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.store.dao.impl;
+
+import io.ballerina.messaging.broker.core.ChunkConverter;
+import io.ballerina.messaging.broker.core.DbUtil;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
+import io.ballerina.messaging.broker.core.transaction.XidImpl;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import javax.sql.DataSource;
+import javax.transaction.xa.Xid;
+
+public class DtxCrudOperationsDaoTest {
+
+    private static final String QUEUE_NAME = "dtxTestQueue";
+
+    private static final long MESSAGE_ID = 7001L;
+
+    private DataSource dataSource;
+
+    private DtxCrudOperationsDao dtxCrudOperationsDao;
+
+    private MessageCrudOperationsDao messageCrudOperationsDao;
+
+    private Xid xid;
+
+    @BeforeTest
+    public void beforeTest() {
+        dataSource = DbUtil.getDataSource();
+        xid = new XidImpl(0, "branchId".getBytes(), "globalId".getBytes());
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        ChunkConverter chunkConverter = new ChunkConverter(65500);
+        dtxCrudOperationsDao = new DtxCrudOperationsDao(dataSource, chunkConverter);
+        messageCrudOperationsDao = new MessageCrudOperationsDao(dataSource, new NullBrokerMetricManager(),
+                                                                chunkConverter);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO MB_QUEUE_METADATA (QUEUE_NAME, QUEUE_ARGUMENTS) VALUES(?, ?)")) {
+            statement.setString(1, QUEUE_NAME);
+            statement.setBytes(2, new byte[0]);
+            statement.executeUpdate();
+            connection.commit();
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            execute(connection, "DELETE FROM MB_METADATA WHERE MESSAGE_ID=" + MESSAGE_ID);
+            execute(connection, "DELETE FROM MB_QUEUE_METADATA WHERE QUEUE_NAME='" + QUEUE_NAME + "'");
+            execute(connection, "DELETE FROM MB_DTX_XID");
+            connection.commit();
+        }
+    }
+
+    @Test
+    public void testPreparedMessageVisibleOnlyAfterCommit() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            long internalXid = prepareMessage(connection);
+
+            Assert.assertTrue(messageCrudOperationsDao.readAll(connection, QUEUE_NAME).isEmpty(),
+                              "Prepared message should not be visible to the queue");
+            Assert.assertEquals(dtxCrudOperationsDao.retrieveEnqueuedMessageIds(connection, internalXid),
+                                Collections.singletonList(MESSAGE_ID));
+
+            dtxCrudOperationsDao.commitEnqueueMessages(connection, internalXid);
+            dtxCrudOperationsDao.removePreparedData(connection, internalXid);
+            connection.commit();
+
+            Assert.assertEquals(messageCrudOperationsDao.readAll(connection, QUEUE_NAME).size(), 1,
+                                "Committed message should be visible to the queue");
+            Assert.assertTrue(dtxCrudOperationsDao.retrieveEnqueuedMessageIds(connection, internalXid).isEmpty());
+        }
+    }
+
+    @Test
+    public void testRecoverPreparedMessage() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            long internalXid = prepareMessage(connection);
+
+            Message message = dtxCrudOperationsDao.retrieveEnqueuedMessages(connection, internalXid)
+                                                  .iterator().next();
+            Assert.assertEquals(message.getInternalId(), MESSAGE_ID);
+            Assert.assertTrue(message.getAttachedDurableQueues().contains(QUEUE_NAME));
+        }
+    }
+
+    @Test
+    public void testRolledBackMessageRemoved() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            long internalXid = prepareMessage(connection);
+
+            messageCrudOperationsDao.delete(connection,
+                                            dtxCrudOperationsDao.retrieveEnqueuedMessageIds(connection, internalXid));
+            dtxCrudOperationsDao.removePreparedData(connection, internalXid);
+            connection.commit();
+
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT MESSAGE_ID FROM MB_METADATA WHERE MESSAGE_ID=?")) {
+                statement.setLong(1, MESSAGE_ID);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    Assert.assertFalse(resultSet.next(), "Rolled back message should be removed");
+                }
+            }
+        }
+    }
+
+    private long prepareMessage(Connection connection) throws Exception {
+        Message message = new Message(MESSAGE_ID, new Metadata("queue", "amq.direct", 0));
+        message.addAttachedDurableQueue(QUEUE_NAME);
+        long internalXid = dtxCrudOperationsDao.storeXid(connection, xid);
+        dtxCrudOperationsDao.prepareEnqueueMessages(connection, internalXid, Collections.singletonList(message));
+        connection.commit();
+        message.release();
+        return internalXid;
+    }
+
+    private void execute(Connection connection, String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+}
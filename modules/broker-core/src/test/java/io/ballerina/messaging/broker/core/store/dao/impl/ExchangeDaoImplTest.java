@@ -110,6 +110,9 @@ public class ExchangeDaoImplTest {
         return new Object[][] {
                 { "myExchange", "topic" },
                 { "testExchange", "direct" },
+                { "fanoutExchange", "fanout" },
+                { "headersExchange", "headers" },
+                { "hashExchange", "x-consistent-hash" },
         };
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core.store.dao.impl;
+
+import io.ballerina.messaging.broker.core.ChunkConverter;
+import io.ballerina.messaging.broker.core.ContentChunk;
+import io.ballerina.messaging.broker.core.DbUtil;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.ballerina.messaging.broker.core.SpooledContent;
+import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Collections;
+import javax.sql.DataSource;
+
+public class MessageCrudOperationsDaoTest {
+
+    private static final String QUEUE_NAME = "largeMessageTestQueue";
+
+    private static final long MESSAGE_ID = 7101L;
+
+    private static final int MAX_ROW_SIZE = 65500;
+
+    /**
+     * Larger than the default large message threshold of the AMQP transport.
+     */
+    private static final int LARGE_CONTENT_LENGTH = 10 * 1024 * 1024 + 1000;
+
+    private DataSource dataSource;
+
+    private MessageCrudOperationsDao messageCrudOperationsDao;
+
+    @BeforeTest
+    public void beforeTest() {
+        dataSource = DbUtil.getDataSource();
+    }
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        messageCrudOperationsDao = new MessageCrudOperationsDao(dataSource, new NullBrokerMetricManager(),
+                                                                new ChunkConverter(MAX_ROW_SIZE));
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO MB_QUEUE_METADATA (QUEUE_NAME, QUEUE_ARGUMENTS) VALUES(?, ?)")) {
+            statement.setString(1, QUEUE_NAME);
+            statement.setBytes(2, new byte[0]);
+            statement.executeUpdate();
+            connection.commit();
+        }
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            execute(connection, "DELETE FROM MB_METADATA WHERE MESSAGE_ID=" + MESSAGE_ID);
+            execute(connection, "DELETE FROM MB_QUEUE_METADATA WHERE QUEUE_NAME='" + QUEUE_NAME + "'");
+            connection.commit();
+        }
+    }
+
+    @Test
+    public void testStoreSpooledLargeMessage() throws Exception {
+        SpooledContent spooledContent = new SpooledContent(Paths.get(System.getProperty("java.io.tmpdir")));
+        byte[] frame = new byte[MAX_ROW_SIZE - 7];
+        for (int written = 0; written < LARGE_CONTENT_LENGTH; written += frame.length) {
+            int length = Math.min(frame.length, LARGE_CONTENT_LENGTH - written);
+            for (int i = 0; i < length; i++) {
+                frame[i] = expectedByte(written + i);
+            }
+            ByteBuf buf = Unpooled.wrappedBuffer(frame, 0, length);
+            spooledContent.append(buf);
+            buf.release();
+        }
+
+        Message message = new Message(MESSAGE_ID, new Metadata("queue", "amq.direct", LARGE_CONTENT_LENGTH));
+        for (ContentChunk chunk : spooledContent.toChunks()) {
+            message.addChunk(chunk);
+        }
+        message.addAttachedDurableQueue(QUEUE_NAME);
+
+        try (Connection connection = dataSource.getConnection()) {
+            messageCrudOperationsDao.storeMessages(connection, Collections.singletonList(message));
+            connection.commit();
+            message.release();
+
+            long expectedOffset = 0;
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT CONTENT_OFFSET, MESSAGE_CONTENT FROM MB_CONTENT WHERE MESSAGE_ID=? "
+                            + "ORDER BY CONTENT_OFFSET")) {
+                statement.setLong(1, MESSAGE_ID);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        Assert.assertEquals(resultSet.getLong(1), expectedOffset, "Rows should be contiguous");
+                        byte[] row = resultSet.getBytes(2);
+                        Assert.assertTrue(row.length <= MAX_ROW_SIZE, "Row exceeds the persisted chunk size");
+                        byte[] expectedRow = new byte[row.length];
+                        for (int i = 0; i < row.length; i++) {
+                            expectedRow[i] = expectedByte(expectedOffset + i);
+                        }
+                        Assert.assertEquals(row, expectedRow, "Row content mismatch at offset " + expectedOffset);
+                        expectedOffset += row.length;
+                    }
+                }
+            }
+            Assert.assertEquals(expectedOffset, LARGE_CONTENT_LENGTH, "Whole content should be persisted");
+        }
+    }
+
+    private static byte expectedByte(long offset) {
+        return (byte) (offset % 251);
+    }
+
+    private void execute(Connection connection, String sql) throws Exception {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+}
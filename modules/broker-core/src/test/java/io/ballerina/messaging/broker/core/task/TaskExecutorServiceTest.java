@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+package io.ballerina.messaging.broker.core.task;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link TaskExecutorService}.
+ */
+public class TaskExecutorServiceTest {
+
+    private static final int SHARD_COUNT = 2;
+
+    private TaskExecutorService<Task> taskExecutorService;
+
+    private CountDownLatch releaseHotTask;
+
+    @BeforeMethod
+    public void setUp() {
+        taskExecutorService = new TaskExecutorService<>(SHARD_COUNT, SHARD_COUNT, 10,
+                                                        Executors.defaultThreadFactory());
+        releaseHotTask = new CountDownLatch(1);
+        taskExecutorService.start();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        releaseHotTask.countDown();
+        taskExecutorService.shutdown();
+    }
+
+    @Test(description = "Test a task is processed while the worker of its shard is held by another task")
+    public void testBusyShardDoesNotStarveTasks() throws Exception {
+        String hotTaskId = "hot-task";
+        String coldTaskId = findIdInSameShard(hotTaskId);
+
+        CountDownLatch hotTaskRunning = new CountDownLatch(1);
+        taskExecutorService.add(new TestTask(hotTaskId, () -> {
+            hotTaskRunning.countDown();
+            releaseHotTask.await();
+        }));
+        Assert.assertTrue(hotTaskRunning.await(5, TimeUnit.SECONDS), "Hot task was not processed");
+
+        CountDownLatch coldTaskRunning = new CountDownLatch(1);
+        taskExecutorService.add(new TestTask(coldTaskId, coldTaskRunning::countDown));
+        Assert.assertTrue(coldTaskRunning.await(5, TimeUnit.SECONDS),
+                          "Task of the busy shard should be processed by the worker of the other shard");
+    }
+
+    private static String findIdInSameShard(String taskId) {
+        int shard = Math.floorMod(taskId.hashCode(), SHARD_COUNT);
+        for (int i = 0; ; i++) {
+            String candidate = "cold-task-" + i;
+            if (Math.floorMod(candidate.hashCode(), SHARD_COUNT) == shard) {
+                return candidate;
+            }
+        }
+    }
+
+    /**
+     * Work done by a {@link TestTask}.
+     */
+    @FunctionalInterface
+    private interface TaskBody {
+        void run() throws Exception;
+    }
+
+    /**
+     * {@link Task} that runs the given body and reports itself idle.
+     */
+    private static class TestTask extends Task {
+
+        private final String id;
+
+        private final TaskBody body;
+
+        TestTask(String id, TaskBody body) {
+            this.id = id;
+            this.body = body;
+        }
+
+        @Override
+        public void onAdd() {
+            // Nothing to do
+        }
+
+        @Override
+        public void onRemove() {
+            // Nothing to do
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public TaskHint call() throws Exception {
+            body.run();
+            return TaskHint.IDLE;
+        }
+    }
+}
@@ -26,12 +26,19 @@ import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
 import io.ballerina.messaging.broker.core.store.MemBackedStoreFactory;
 import io.ballerina.messaging.broker.core.store.NullMessageStore;
 import io.ballerina.messaging.broker.core.store.StoreFactory;
+import org.mockito.Mockito;
+import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import javax.transaction.xa.Xid;
 
 /**
@@ -104,6 +111,22 @@ public class DistributedTransactionValidationTest {
         transaction.prepare(xid);
     }
 
+    @Test (expectedExceptions = ValidationException.class,
+           expectedExceptionsMessageRegExp = "Cannot prepare a branch in state PREPARED")
+    public void testPrepareAlreadyPreparedBranch() throws Exception {
+        transaction.start(xid, 1, false, false);
+        transaction.end(xid, 1, false, false);
+        transaction.prepare(xid);
+        transaction.prepare(xid);
+    }
+
+    @Test (expectedExceptions = DtxStateTransitionException.class)
+    public void testInvalidBranchStateTransition() throws Exception {
+        Branch branch = new Branch(xid, new NullMessageStore(), null);
+        branch.setState(Branch.State.ROLLBACK_ONLY);
+        branch.prepare();
+    }
+
     @Test (expectedExceptions = UnknownDtxBranchException.class)
     public void testCommitWithUnknownXid() throws Exception {
         transaction.commit(xid, true);
@@ -132,6 +155,15 @@ public class DistributedTransactionValidationTest {
         transaction.rollback(xid);
     }
 
+    @Test (expectedExceptions = UnknownDtxBranchException.class)
+    public void testCommitAfterRollback() throws Exception {
+        transaction.start(xid, 1, false, false);
+        transaction.end(xid, 1, false, false);
+        transaction.prepare(xid);
+        transaction.rollback(xid);
+        transaction.commit(xid, false);
+    }
+
     @Test (expectedExceptions = ValidationException.class,
            expectedExceptionsMessageRegExp = "Branch still has associated active sessions for xid .*")
     public void testRollbackWithAssociatedActiveSession() throws Exception {
@@ -165,4 +197,77 @@ public class DistributedTransactionValidationTest {
     public void testSetTimeoutWithUnkownXid() throws Exception {
         transaction.setTimeout(xid, 5, TimeUnit.SECONDS);
     }
+
+    @Test
+    public void testConcurrentPrepareCommitAndRollback() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 50; i++) {
+                Xid branchXid = new XidImpl(0, ("branchId" + i).getBytes(), "globalId".getBytes());
+                transaction.start(branchXid, 1, false, false);
+                transaction.end(branchXid, 1, false, false);
+
+                CyclicBarrier barrier = new CyclicBarrier(3);
+                Future<Boolean> prepare = executor.submit(() -> runConcurrently(
+                        barrier, () -> transaction.prepare(branchXid)));
+                Future<Boolean> commit = executor.submit(() -> runConcurrently(
+                        barrier, () -> transaction.commit(branchXid, false)));
+                Future<Boolean> rollback = executor.submit(() -> runConcurrently(
+                        barrier, () -> transaction.rollback(branchXid)));
+
+                prepare.get(5, TimeUnit.SECONDS);
+                Assert.assertTrue(commit.get(5, TimeUnit.SECONDS) ^ rollback.get(5, TimeUnit.SECONDS),
+                                  "Branch should be either committed or rolled back");
+                Assert.assertNull(transactionRegistry.getBranch(branchXid), "Completed branch should be removed");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRecoveryBranchReleasedWhenCommitValidationFails() throws Exception {
+        BranchFactory branchFactory = Mockito.spy(new BranchFactory(null, new NullMessageStore()));
+        Registry registry = new Registry(branchFactory);
+        registry.syncWithMessageStore(new NullMessageStore() {
+            @Override
+            public void retrieveStoredXids(Consumer<Xid> consumer) {
+                consumer.accept(xid);
+            }
+        });
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                registry.commit(xid, true);
+                Assert.fail("Expected ValidationException not thrown");
+            } catch (ValidationException e) {
+                Assert.assertEquals(e.getMessage(), "Cannot call one-phase commit on a prepared branch for xid " + xid);
+            }
+        }
+        // The recovery branch is restored from the store again since the failed commit did not keep it registered
+        Mockito.verify(branchFactory, Mockito.times(2)).createBranch(xid);
+    }
+
+    /**
+     * Run a branch operation once all the concurrent operations are ready.
+     *
+     * @return true if the operation succeeded and false if it was rejected
+     */
+    private static boolean runConcurrently(CyclicBarrier barrier, DtxOperation operation) throws Exception {
+        barrier.await();
+        try {
+            operation.run();
+            return true;
+        } catch (ValidationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Operation on a distributed transaction branch.
+     */
+    @FunctionalInterface
+    private interface DtxOperation {
+        void run() throws Exception;
+    }
 }
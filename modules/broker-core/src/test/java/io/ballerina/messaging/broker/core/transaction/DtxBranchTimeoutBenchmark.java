@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.transaction;
+
+import io.ballerina.messaging.broker.core.store.NullMessageStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of registering a distributed transaction branch, setting its timeout and committing it with
+ * the one-phase optimization, with and without a branch timeout. A timeout value of zero disables the timeout.
+ * <p>
+ * Run the main method from the test classpath.
+ */
+@State(Scope.Benchmark)
+public class DtxBranchTimeoutBenchmark {
+
+    @Param({"0", "60"})
+    public long timeoutSeconds;
+
+    private BranchFactory branchFactory;
+
+    private Registry registry;
+
+    @Setup
+    public void setup() {
+        branchFactory = new BranchFactory(null, new NullMessageStore());
+        registry = new Registry(branchFactory);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void setTimeoutAndCommit() throws Exception {
+        Branch branch = branchFactory.createBranch();
+        registry.register(branch);
+        registry.setTimeout(branch.getXid(), timeoutSeconds, TimeUnit.SECONDS);
+        registry.commit(branch.getXid(), true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DtxBranchTimeoutBenchmark.class.getSimpleName())
+                .forks(1)
+                .build();
+        new Runner(options).run();
+    }
+}
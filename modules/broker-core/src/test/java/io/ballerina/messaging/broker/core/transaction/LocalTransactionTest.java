@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.transaction;
+
+import io.ballerina.messaging.broker.common.ValidationException;
+import io.ballerina.messaging.broker.core.Broker;
+import io.ballerina.messaging.broker.core.BrokerException;
+import io.ballerina.messaging.broker.core.DbBackedQueueHandlerFactory;
+import io.ballerina.messaging.broker.core.Message;
+import io.ballerina.messaging.broker.core.Metadata;
+import io.ballerina.messaging.broker.core.QueueHandler;
+import io.ballerina.messaging.broker.core.configuration.BrokerCoreConfiguration;
+import io.ballerina.messaging.broker.core.metrics.NullBrokerMetricManager;
+import io.ballerina.messaging.broker.core.store.NullMessageStore;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import javax.transaction.xa.Xid;
+
+/**
+ * Test class for asynchronous commits of {@link LocalTransaction}.
+ */
+public class LocalTransactionTest {
+
+    private Broker broker;
+
+    private QueueHandler queueHandler;
+
+    private LocalTransaction transaction;
+
+    private Queue<Runnable> executorTasks;
+
+    @BeforeMethod
+    public void setUp() throws BrokerException {
+        broker = Mockito.mock(Broker.class);
+        queueHandler = new DbBackedQueueHandlerFactory(null, new NullBrokerMetricManager(),
+                                                       new BrokerCoreConfiguration())
+                .createNonDurableQueueHandler("queue1", false);
+        Mockito.when(broker.enqueue(Mockito.any(Xid.class), Mockito.any(Message.class)))
+               .thenReturn(Collections.singleton(queueHandler));
+        BranchFactory branchFactory = new BranchFactory(broker, new NullMessageStore());
+        transaction = new LocalTransaction(new Registry(branchFactory), branchFactory);
+        executorTasks = new ArrayDeque<>();
+    }
+
+    @Test
+    public void testCommitCompletedOnExecutor() throws Exception {
+        transaction.enqueue(newMessage(1));
+
+        CompletableFuture<Void> commitFuture = transaction.commitAsync(executorTasks::add);
+
+        Assert.assertFalse(commitFuture.isDone(), "Commit should complete on the given executor");
+        runExecutorTasks();
+        Assert.assertTrue(commitFuture.isDone() && !commitFuture.isCompletedExceptionally());
+    }
+
+    @Test
+    public void testEnqueueDuringCommitStartsNewBranch() throws Exception {
+        transaction.enqueue(newMessage(1));
+        CompletableFuture<Void> commitFuture = transaction.commitAsync(executorTasks::add);
+        transaction.enqueue(newMessage(2));
+        runExecutorTasks();
+        commitFuture.get();
+
+        ArgumentCaptor<Xid> xidCaptor = ArgumentCaptor.forClass(Xid.class);
+        Mockito.verify(broker, Mockito.times(2)).enqueue(xidCaptor.capture(), Mockito.any(Message.class));
+        List<Xid> xids = xidCaptor.getAllValues();
+        Assert.assertNotEquals(xids.get(0), xids.get(1), "Messages after commit should use a new branch");
+    }
+
+    @Test
+    public void testCommitWithFailedPreCondition() throws Exception {
+        Mockito.when(broker.enqueue(Mockito.any(Xid.class), Mockito.any(Message.class)))
+               .thenThrow(new BrokerException("Queue not found"));
+        transaction.enqueue(newMessage(1));
+
+        CompletableFuture<Void> commitFuture = transaction.commitAsync(executorTasks::add);
+
+        Assert.assertTrue(commitFuture.isCompletedExceptionally());
+        try {
+            commitFuture.get();
+            Assert.fail("Commit should fail when pre conditions fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof ValidationException);
+        }
+    }
+
+    private void runExecutorTasks() {
+        Runnable task;
+        while ((task = executorTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private Message newMessage(long messageId) {
+        return new Message(messageId, new Metadata("queue1", "amq.direct", 0));
+    }
+}
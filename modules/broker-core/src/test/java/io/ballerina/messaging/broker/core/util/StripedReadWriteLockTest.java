@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ *
+ */
+
+package io.ballerina.messaging.broker.core.util;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Unit tests for {@link StripedReadWriteLock}.
+ */
+public class StripedReadWriteLockTest {
+
+    @Test(description = "Test write lock excludes readers on other threads")
+    public void testWriteLockExcludesReaders() throws Exception {
+        ReadWriteLock lock = new StripedReadWriteLock(4);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < 4; i++) {
+                Future<Boolean> acquired = executor.submit(() -> {
+                    boolean locked = lock.readLock().tryLock();
+                    if (locked) {
+                        lock.readLock().unlock();
+                    }
+                    return locked;
+                });
+                Assert.assertFalse(acquired.get(), "Read lock should not be acquired while write lock is held");
+            }
+        } finally {
+            lock.writeLock().unlock();
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(description = "Test write lock cannot be acquired while a reader holds its stripe")
+    public void testReaderBlocksWriter() throws Exception {
+        ReadWriteLock lock = new StripedReadWriteLock(4);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        lock.readLock().lock();
+        try {
+            Future<Boolean> acquired = executor.submit(() -> {
+                boolean locked = lock.writeLock().tryLock();
+                if (locked) {
+                    lock.writeLock().unlock();
+                }
+                return locked;
+            });
+            Assert.assertFalse(acquired.get(), "Write lock should not be acquired while a read lock is held");
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        try {
+            Future<Boolean> acquired = executor.submit(() -> {
+                boolean locked = lock.writeLock().tryLock();
+                if (locked) {
+                    lock.writeLock().unlock();
+                }
+                return locked;
+            });
+            Assert.assertTrue(acquired.get(), "Write lock should be acquired once readers are released");
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test(description = "Test stripe count is validated",
+          expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidStripeCount() {
+        new StripedReadWriteLock(0);
+    }
+}
@@ -64,6 +64,7 @@ CREATE TABLE MB_CONTENT (
 CREATE TABLE MB_QUEUE_MAPPING (
                 QUEUE_NAME VARCHAR(256) NOT NULL,
                 MESSAGE_ID BIGINT,
+                DTX_XID BIGINT,
                 PRIMARY KEY (MESSAGE_ID, QUEUE_NAME),
                 FOREIGN KEY (MESSAGE_ID) REFERENCES MB_METADATA (MESSAGE_ID)
                 ON DELETE CASCADE,
@@ -71,6 +72,8 @@ CREATE TABLE MB_QUEUE_MAPPING (
                 ON DELETE CASCADE
 );
 
+CREATE INDEX IDX_MB_QUEUE_MAPPING_DTX_XID ON MB_QUEUE_MAPPING (DTX_XID);
+
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE)  VALUES('<<default>>', 'direct');
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE)  VALUES('amq.dlx', 'direct');
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE)  VALUES('amq.direct', 'direct');
@@ -63,6 +63,7 @@ CREATE TABLE IF NOT EXISTS MB_CONTENT (
 CREATE TABLE IF NOT EXISTS MB_QUEUE_MAPPING (
                 QUEUE_NAME VARCHAR(256) NOT NULL,
                 MESSAGE_ID BIGINT,
+                DTX_XID BIGINT,
                 PRIMARY KEY (MESSAGE_ID, QUEUE_NAME),
                 FOREIGN KEY (MESSAGE_ID) REFERENCES MB_METADATA (MESSAGE_ID)
                 ON DELETE CASCADE,
@@ -79,43 +80,6 @@ CREATE TABLE IF NOT EXISTS MB_DTX_XID (
                 PRIMARY KEY (INTERNAL_XID)
 );
 
-CREATE TABLE IF NOT EXISTS MB_DTX_ENQUEUE_METADATA (
-                INTERNAL_XID BIGINT NOT NULL,
-                MESSAGE_ID BIGINT NOT NULL,
-                EXCHANGE_NAME VARCHAR(256) NOT NULL,
-                ROUTING_KEY VARCHAR(256) NOT NULL,
-                CONTENT_LENGTH BIGINT NOT NULL,
-                MESSAGE_METADATA VARBINARY(60000) NOT NULL,
-                PRIMARY KEY (MESSAGE_ID),
-                FOREIGN KEY (INTERNAL_XID) REFERENCES MB_DTX_XID (INTERNAL_XID)
-                ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS MB_DTX_ENQUEUE_CONTENT (
-                INTERNAL_XID BIGINT NOT NULL,
-                MESSAGE_ID BIGINT NOT NULL,
-                CONTENT_OFFSET BIGINT NOT NULL,
-                MESSAGE_CONTENT VARBINARY(65500) NOT NULL,
-                PRIMARY KEY (INTERNAL_XID, MESSAGE_ID, CONTENT_OFFSET),
-                FOREIGN KEY (MESSAGE_ID) REFERENCES MB_DTX_ENQUEUE_METADATA (MESSAGE_ID)
-                ON DELETE CASCADE,
-                FOREIGN KEY (INTERNAL_XID) REFERENCES MB_DTX_XID (INTERNAL_XID)
-                ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS MB_DTX_ENQUEUE_MAPPING (
-                INTERNAL_XID BIGINT NOT NULL,
-                MESSAGE_ID BIGINT NOT NULL,
-                QUEUE_NAME VARCHAR(256) NOT NULL,
-                PRIMARY KEY (INTERNAL_XID, MESSAGE_ID, QUEUE_NAME),
-                FOREIGN KEY (MESSAGE_ID) REFERENCES MB_DTX_ENQUEUE_METADATA (MESSAGE_ID)
-                ON DELETE CASCADE,
-                FOREIGN KEY (QUEUE_NAME) REFERENCES MB_QUEUE_METADATA (QUEUE_NAME)
-                ON DELETE CASCADE,
-                FOREIGN KEY (INTERNAL_XID) REFERENCES MB_DTX_XID (INTERNAL_XID)
-                ON DELETE CASCADE
-);
-
 CREATE TABLE IF NOT EXISTS MB_DTX_DEQUEUE_MAPPING (
                 INTERNAL_XID BIGINT NOT NULL,
                 MESSAGE_ID BIGINT NOT NULL,
@@ -129,6 +93,8 @@ CREATE TABLE IF NOT EXISTS MB_DTX_DEQUEUE_MAPPING (
                 ON DELETE CASCADE
 );
 
+CREATE INDEX IDX_MB_QUEUE_MAPPING_DTX_XID ON MB_QUEUE_MAPPING (DTX_XID);
+
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE)  VALUES('<<default>>', 'direct');
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE)  VALUES('amq.dlx', 'direct');
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE)  VALUES('amq.direct', 'direct');
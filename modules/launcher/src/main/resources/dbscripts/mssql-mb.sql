@@ -68,11 +68,14 @@ IF NOT EXISTS (SELECT * FROM sys.objects WHERE OBJECT_ID = OBJECT_ID(N'[DB0].[MB
 CREATE TABLE MB_QUEUE_MAPPING (
     QUEUE_NAME VARCHAR(256) NOT NULL,
     MESSAGE_ID BIGINT,
+    DTX_XID BIGINT,
     PRIMARY KEY (MESSAGE_ID, QUEUE_NAME),
     FOREIGN KEY (MESSAGE_ID) REFERENCES MB_METADATA (MESSAGE_ID) ON DELETE CASCADE,
     FOREIGN KEY (QUEUE_NAME) REFERENCES MB_QUEUE_METADATA (QUEUE_NAME) ON DELETE CASCADE
 );
 
+CREATE INDEX IDX_MB_QUEUE_MAPPING_DTX_XID ON MB_QUEUE_MAPPING (DTX_XID);
+
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE) VALUES ('<<default>>', 'direct');
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE) VALUES ('amq.dlx', 'direct');
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE) VALUES ('amq.direct', 'direct');
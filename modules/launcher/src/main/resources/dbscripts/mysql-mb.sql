@@ -63,7 +63,9 @@ CREATE TABLE IF NOT EXISTS MB_CONTENT (
 CREATE TABLE IF NOT EXISTS MB_QUEUE_MAPPING (
                 MESSAGE_ID BIGINT NOT NULL,
                 QUEUE_NAME VARCHAR(256) NOT NULL,
+                DTX_XID BIGINT,
                 PRIMARY KEY (MESSAGE_ID, QUEUE_NAME),
+                INDEX IDX_MB_QUEUE_MAPPING_DTX_XID (DTX_XID),
                 FOREIGN KEY (MESSAGE_ID) REFERENCES MB_METADATA (MESSAGE_ID)
                 ON DELETE CASCADE,
                 FOREIGN KEY (QUEUE_NAME) REFERENCES MB_QUEUE_METADATA (QUEUE_NAME)
@@ -79,43 +81,6 @@ CREATE TABLE IF NOT EXISTS MB_DTX_XID (
                 PRIMARY KEY (INTERNAL_XID)
 ) ENGINE=InnoDB DEFAULT CHARSET=latin1;
 
-CREATE TABLE IF NOT EXISTS MB_DTX_ENQUEUE_METADATA (
-                INTERNAL_XID BIGINT NOT NULL,
-                MESSAGE_ID BIGINT NOT NULL,
-                EXCHANGE_NAME VARCHAR(256) NOT NULL,
-                ROUTING_KEY VARCHAR(256) NOT NULL,
-                CONTENT_LENGTH BIGINT NOT NULL,
-                MESSAGE_METADATA VARBINARY(60000) NOT NULL,
-                PRIMARY KEY (MESSAGE_ID),
-                FOREIGN KEY (INTERNAL_XID) REFERENCES MB_DTX_XID (INTERNAL_XID)
-                ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=latin1;
-
-CREATE TABLE IF NOT EXISTS MB_DTX_ENQUEUE_CONTENT (
-                INTERNAL_XID BIGINT NOT NULL,
-                MESSAGE_ID BIGINT NOT NULL,
-                CONTENT_OFFSET BIGINT NOT NULL,
-                MESSAGE_CONTENT VARBINARY(65500) NOT NULL,
-                PRIMARY KEY (INTERNAL_XID, MESSAGE_ID, CONTENT_OFFSET),
-                FOREIGN KEY (MESSAGE_ID) REFERENCES MB_DTX_ENQUEUE_METADATA (MESSAGE_ID)
-                ON DELETE CASCADE,
-                FOREIGN KEY (INTERNAL_XID) REFERENCES MB_DTX_XID (INTERNAL_XID)
-                ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=latin1;
-
-CREATE TABLE IF NOT EXISTS MB_DTX_ENQUEUE_MAPPING (
-                INTERNAL_XID BIGINT NOT NULL,
-                MESSAGE_ID BIGINT NOT NULL,
-                QUEUE_NAME VARCHAR(256) NOT NULL,
-                PRIMARY KEY (INTERNAL_XID, MESSAGE_ID, QUEUE_NAME),
-                FOREIGN KEY (MESSAGE_ID) REFERENCES MB_DTX_ENQUEUE_METADATA (MESSAGE_ID)
-                ON DELETE CASCADE,
-                FOREIGN KEY (QUEUE_NAME) REFERENCES MB_QUEUE_METADATA (QUEUE_NAME)
-                ON DELETE CASCADE,
-                FOREIGN KEY (INTERNAL_XID) REFERENCES MB_DTX_XID (INTERNAL_XID)
-                ON DELETE CASCADE
-) ENGINE=InnoDB DEFAULT CHARSET=latin1;
-
 CREATE TABLE IF NOT EXISTS MB_DTX_DEQUEUE_MAPPING (
                 INTERNAL_XID BIGINT NOT NULL,
                 MESSAGE_ID BIGINT NOT NULL,
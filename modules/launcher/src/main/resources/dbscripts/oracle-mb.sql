@@ -62,11 +62,14 @@ CREATE TABLE MB_CONTENT (
 CREATE TABLE MB_QUEUE_MAPPING (
     QUEUE_NAME VARCHAR2(256) NOT NULL,
     MESSAGE_ID INT,
+    DTX_XID INT,
     CONSTRAINT PK_MB_QUEUE_MAPPING PRIMARY KEY (MESSAGE_ID, QUEUE_NAME),
     CONSTRAINT FK_MB_QUEUE_MAPPING_MESSAGE FOREIGN KEY (MESSAGE_ID) REFERENCES MB_METADATA (MESSAGE_ID) ON DELETE CASCADE,
     CONSTRAINT FK_MB_QUEUE_MAPPING_QUEUE FOREIGN KEY (QUEUE_NAME) REFERENCES MB_QUEUE_METADATA (QUEUE_NAME) ON DELETE CASCADE
 )
 /
+CREATE INDEX IDX_MB_QUEUE_MAPPING_DTX_XID ON MB_QUEUE_MAPPING (DTX_XID)
+/
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE) VALUES ('<<default>>', 'direct')
 /
 INSERT INTO MB_EXCHANGE (EXCHANGE_NAME, EXCHANGE_TYPE) VALUES ('amq.dlx', 'direct')
@@ -0,0 +1,28 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+-- WSO2 Message Broker Derby upgrade script for the DTX_XID column --
+
+-- Prepared DTX enqueues are now stored in the message tables, hidden from consumers until
+-- commit by the DTX_XID column of MB_QUEUE_MAPPING. Run this script against an existing
+-- database before starting the upgraded broker.
+
+ALTER TABLE MB_QUEUE_MAPPING ADD COLUMN DTX_XID BIGINT;
+
+CREATE INDEX IDX_MB_QUEUE_MAPPING_DTX_XID ON MB_QUEUE_MAPPING (DTX_XID);
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+-- WSO2 Message Broker H2 upgrade script for the DTX_XID column --
+
+-- Prepared DTX enqueues are now stored in the message tables, hidden from consumers until
+-- commit by the DTX_XID column of MB_QUEUE_MAPPING. Run this script against an existing
+-- database before starting the upgraded broker.
+
+ALTER TABLE MB_QUEUE_MAPPING ADD COLUMN IF NOT EXISTS DTX_XID BIGINT;
+
+CREATE INDEX IF NOT EXISTS IDX_MB_QUEUE_MAPPING_DTX_XID ON MB_QUEUE_MAPPING (DTX_XID);
+
+-- Move prepared enqueues out of the removed staging tables --
+
+INSERT INTO MB_METADATA (MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA)
+SELECT MESSAGE_ID, EXCHANGE_NAME, ROUTING_KEY, CONTENT_LENGTH, MESSAGE_METADATA FROM MB_DTX_ENQUEUE_METADATA;
+
+INSERT INTO MB_CONTENT (MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT)
+SELECT MESSAGE_ID, CONTENT_OFFSET, MESSAGE_CONTENT FROM MB_DTX_ENQUEUE_CONTENT;
+
+INSERT INTO MB_QUEUE_MAPPING (QUEUE_NAME, MESSAGE_ID, DTX_XID)
+SELECT QUEUE_NAME, MESSAGE_ID, INTERNAL_XID FROM MB_DTX_ENQUEUE_MAPPING;
+
+DROP TABLE IF EXISTS MB_DTX_ENQUEUE_MAPPING;
+DROP TABLE IF EXISTS MB_DTX_ENQUEUE_CONTENT;
+DROP TABLE IF EXISTS MB_DTX_ENQUEUE_METADATA;